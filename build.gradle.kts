@@ -70,6 +70,12 @@ dependencies {
     implementation("io.github.resilience4j:resilience4j-retry")
     implementation("io.github.resilience4j:resilience4j-timelimiter")
 
+    // Caching
+    implementation("com.github.ben-manes.caffeine:caffeine")
+
+    // Audit archive compression (same version the Kafka client ships with)
+    implementation("com.github.luben:zstd-jni:1.5.6-4")
+
     // MapStruct
     implementation("org.mapstruct:mapstruct:1.5.5.Final")
     annotationProcessor("org.mapstruct:mapstruct-processor:1.5.5.Final")
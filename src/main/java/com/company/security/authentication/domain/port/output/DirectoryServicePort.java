@@ -22,7 +22,7 @@ public interface DirectoryServicePort {
      * Looks up a user by username without authentication.
      *
      * @param username the username to look up
-     * @return a Mono containing the user if found
+     * @return a Mono containing the user if found, or an empty Mono if the user does not exist
      */
     Mono<AuthenticatedUser> findByUsername(String username);
 
@@ -0,0 +1,53 @@
+package com.company.security.authentication.infrastructure.adapter.input.event;
+
+import com.company.security.authentication.domain.port.output.RefreshTokenPort;
+import com.company.security.shared.infrastructure.event.UserChangeEvent;
+import com.company.security.shared.infrastructure.event.UserChangeHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Ends every session of a user whose password was changed, or whose account was disabled or deleted,
+ * outside this service by deleting all of the user's refresh tokens. Access tokens already issued stay
+ * valid until they expire.
+ */
+public class UserSessionRevocationHandler implements UserChangeHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSessionRevocationHandler.class);
+    private static final Set<UserChangeEvent.Type> REVOKING = EnumSet.of(
+            UserChangeEvent.Type.PASSWORD_CHANGED,
+            UserChangeEvent.Type.ACCOUNT_DISABLED,
+            UserChangeEvent.Type.ACCOUNT_DELETED);
+
+    private final RefreshTokenPort refreshTokenPort;
+    private final MeterRegistry meterRegistry;
+
+    public UserSessionRevocationHandler(RefreshTokenPort refreshTokenPort, MeterRegistry meterRegistry) {
+        this.refreshTokenPort = refreshTokenPort;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> handle(UserChangeEvent event) {
+        if (!REVOKING.contains(event.type())) {
+            return Mono.empty();
+        }
+        // LDAP user ids are the naming attribute, so the username can stand in for a missing id
+        String userId = event.userId() != null ? event.userId() : event.username();
+        return refreshTokenPort.deleteAllForUser(userId)
+                .doOnSuccess(ignored -> {
+                    Counter.builder("auth.sessions.revocations")
+                            .tag("reason", event.type().name().toLowerCase(Locale.ROOT))
+                            .register(meterRegistry)
+                            .increment();
+                    log.info("Revoked sessions of user {} after external {}", userId, event.type());
+                });
+    }
+}
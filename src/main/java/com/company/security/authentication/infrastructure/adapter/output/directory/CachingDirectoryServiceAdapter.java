@@ -0,0 +1,207 @@
+package com.company.security.authentication.infrastructure.adapter.output.directory;
+
+import com.company.security.authentication.domain.exception.AccountDisabledException;
+import com.company.security.authentication.domain.model.AuthenticatedUser;
+import com.company.security.authentication.domain.model.Credentials;
+import com.company.security.authentication.domain.port.output.DirectoryServicePort;
+import com.company.security.shared.infrastructure.event.UserChangeEvent;
+import com.company.security.shared.infrastructure.properties.DirectoryCacheProperties;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caching decorator for any {@link DirectoryServicePort}.
+ * Caches {@code findByUsername} results (including unknown users, for a shorter TTL) and coalesces
+ * concurrent lookups; {@code authenticate} always reaches the directory.
+ */
+public class CachingDirectoryServiceAdapter implements DirectoryServicePort {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingDirectoryServiceAdapter.class);
+    private static final String CACHE_NAME = "directory.users";
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final DirectoryServicePort delegate;
+    private final Ticker ticker;
+    private final AsyncCache<String, CachedLookup> cache;
+    private final Map<String, String> keysByUserId = new ConcurrentHashMap<>();
+    private final DistributionSummary hitAge;
+    private final Counter passwordChangeInvalidations;
+    private final Counter accountDisabledInvalidations;
+    private final Counter otherInvalidations;
+
+    public CachingDirectoryServiceAdapter(
+            DirectoryServicePort delegate,
+            DirectoryCacheProperties.Settings settings,
+            String provider,
+            MeterRegistry meterRegistry) {
+        this(delegate, settings, provider, meterRegistry, Ticker.systemTicker());
+    }
+
+    CachingDirectoryServiceAdapter(
+            DirectoryServicePort delegate,
+            DirectoryCacheProperties.Settings settings,
+            String provider,
+            MeterRegistry meterRegistry,
+            Ticker ticker) {
+        this.delegate = delegate;
+        this.ticker = ticker;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxSize())
+                .expireAfter(new LookupExpiry(
+                        TimeUnit.SECONDS.toNanos(settings.getTtlSeconds()),
+                        TimeUnit.SECONDS.toNanos(settings.getNegativeTtlSeconds())))
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .removalListener((String key, CachedLookup lookup, RemovalCause cause) -> unindex(key, lookup))
+                .recordStats()
+                .buildAsync();
+
+        Tags tags = Tags.of("provider", provider);
+        new CaffeineCacheMetrics<>(cache.synchronous(), CACHE_NAME, tags).bindTo(meterRegistry);
+        this.hitAge = DistributionSummary.builder("directory.cache.hit.age")
+                .description("Age of directory cache entries when served")
+                .baseUnit("seconds")
+                .tags(tags)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.passwordChangeInvalidations = invalidationCounter(meterRegistry, tags, "password_changed");
+        this.accountDisabledInvalidations = invalidationCounter(meterRegistry, tags, "account_disabled");
+        this.otherInvalidations = invalidationCounter(meterRegistry, tags, "other");
+    }
+
+    @Override
+    public Mono<AuthenticatedUser> authenticate(Credentials credentials) {
+        return delegate.authenticate(credentials)
+                .doOnNext(user -> {
+                    if (!user.enabled()) {
+                        invalidate(cacheKey(credentials.username()), accountDisabledInvalidations);
+                    }
+                })
+                .doOnError(AccountDisabledException.class,
+                        e -> invalidate(cacheKey(credentials.username()), accountDisabledInvalidations));
+    }
+
+    @Override
+    public Mono<AuthenticatedUser> findByUsername(String username) {
+        String key = cacheKey(username);
+        AtomicBoolean loaded = new AtomicBoolean();
+
+        return Mono.fromFuture(() -> cache.get(key, (k, executor) -> {
+                    loaded.set(true);
+                    return delegate.findByUsername(username)
+                            .map(user -> CachedLookup.found(user, ticker.read()))
+                            .defaultIfEmpty(CachedLookup.notFound(ticker.read()))
+                            .doOnNext(lookup -> index(k, lookup))
+                            .toFuture();
+                }), true)
+                .doOnNext(lookup -> {
+                    if (!loaded.get()) {
+                        hitAge.record((ticker.read() - lookup.loadedAtNanos()) / NANOS_PER_SECOND);
+                    }
+                })
+                .flatMap(lookup -> Mono.justOrEmpty(lookup.user()));
+    }
+
+    @Override
+    public Mono<Boolean> isAvailable() {
+        return delegate.isAvailable();
+    }
+
+    /**
+     * Drops cached entries for the user referenced by the event, by username and by user id.
+     */
+    public void onUserChange(UserChangeEvent event) {
+        Counter counter = switch (event.type()) {
+            case PASSWORD_CHANGED -> passwordChangeInvalidations;
+            case ACCOUNT_DISABLED -> accountDisabledInvalidations;
+            default -> otherInvalidations;
+        };
+        if (event.username() != null) {
+            invalidate(cacheKey(event.username()), counter);
+        }
+        if (event.userId() != null) {
+            String indexedKey = keysByUserId.get(event.userId());
+            if (indexedKey != null) {
+                invalidate(indexedKey, counter);
+            }
+            // LDAP user ids are the naming attribute, so the id can double as the username
+            invalidate(cacheKey(event.userId()), counter);
+        }
+    }
+
+    private void invalidate(String key, Counter counter) {
+        if (cache.asMap().remove(key) != null) {
+            counter.increment();
+            log.debug("Invalidated directory cache entry: {}", key);
+        }
+    }
+
+    private void index(String key, CachedLookup lookup) {
+        if (lookup.user() != null && lookup.user().userId() != null) {
+            keysByUserId.put(lookup.user().userId(), key);
+        }
+    }
+
+    private void unindex(String key, CachedLookup lookup) {
+        if (lookup != null && lookup.user() != null && lookup.user().userId() != null) {
+            keysByUserId.remove(lookup.user().userId(), key);
+        }
+    }
+
+    private static String cacheKey(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter invalidationCounter(MeterRegistry meterRegistry, Tags tags, String reason) {
+        return Counter.builder("directory.cache.invalidations")
+                .description("Directory cache entries dropped because the user changed")
+                .tags(tags.and("reason", reason))
+                .register(meterRegistry);
+    }
+
+    record CachedLookup(AuthenticatedUser user, long loadedAtNanos) {
+
+        static CachedLookup found(AuthenticatedUser user, long loadedAtNanos) {
+            return new CachedLookup(user, loadedAtNanos);
+        }
+
+        static CachedLookup notFound(long loadedAtNanos) {
+            return new CachedLookup(null, loadedAtNanos);
+        }
+    }
+
+    private record LookupExpiry(long ttlNanos, long negativeTtlNanos) implements Expiry<String, CachedLookup> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedLookup lookup, long currentTime) {
+            return lookup.user() != null ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedLookup lookup, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, lookup, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedLookup lookup, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,25 +1,61 @@
 package com.company.security.authentication.infrastructure.adapter.output.directory;
 
 import com.company.security.authentication.domain.model.AuthenticatedUser;
+import com.company.security.shared.infrastructure.adapter.output.ldap.LdapGroupGraph;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.ldap.InvalidNameException;
 import org.springframework.ldap.core.DirContextOperations;
+import org.springframework.ldap.support.LdapUtils;
 
+import javax.naming.ldap.LdapName;
+import javax.naming.ldap.Rdn;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Mapper for converting LDAP directory context to AuthenticatedUser.
+ * With a {@link LdapGroupGraph} the direct {@code memberOf} groups are expanded to nested groups before
+ * the {@link RoleMappingEngine} derives roles. Parsed group names are cached by DN.
  */
 public class DirectoryUserMapper {
 
+    private static final long GROUP_NAME_CACHE_SIZE = 10_000;
+
     // LDAP attribute names
     private static final String ATTR_UID = "uid";
     private static final String ATTR_MAIL = "mail";
     private static final String ATTR_GIVEN_NAME = "givenName";
     private static final String ATTR_SN = "sn";
     private static final String ATTR_MEMBER_OF = "memberOf";
+    private static final String[] USER_ATTRIBUTES = {ATTR_UID, ATTR_MAIL, ATTR_GIVEN_NAME, ATTR_SN, ATTR_MEMBER_OF};
+
+    private final LdapGroupGraph groupGraph;
+    private final RoleMappingEngine roleMappingEngine;
+    private final Cache<String, String> groupNames = Caffeine.newBuilder()
+            .maximumSize(GROUP_NAME_CACHE_SIZE)
+            .build();
+
+    public DirectoryUserMapper() {
+        this(null, RoleMappingEngine.defaults());
+    }
+
+    public DirectoryUserMapper(LdapGroupGraph groupGraph, RoleMappingEngine roleMappingEngine) {
+        this.groupGraph = groupGraph;
+        this.roleMappingEngine = roleMappingEngine;
+    }
+
+    /**
+     * Attributes read by {@link #mapFromLdapContext}; user searches should request only these.
+     */
+    public String[] userAttributes() {
+        return USER_ATTRIBUTES.clone();
+    }
 
     public AuthenticatedUser mapFromLdapContext(DirContextOperations ctx, String username) {
         String userId = getStringAttribute(ctx, ATTR_UID, username);
@@ -27,7 +63,7 @@ public class DirectoryUserMapper {
         String firstName = getStringAttribute(ctx, ATTR_GIVEN_NAME, null);
         String lastName = getStringAttribute(ctx, ATTR_SN, null);
         Set<String> groups = getGroups(ctx);
-        Set<String> roles = extractRolesFromGroups(groups);
+        Set<String> roles = roleMappingEngine.rolesFor(groups);
 
         return AuthenticatedUser.builder()
                 .userId(userId)
@@ -50,29 +86,27 @@ public class DirectoryUserMapper {
         if (memberOf == null) {
             return Collections.emptySet();
         }
-        return Arrays.stream(memberOf)
-                .map(this::extractGroupName)
+        Collection<String> groupDns = groupGraph != null
+                ? groupGraph.expand(Arrays.asList(memberOf))
+                : List.of(memberOf);
+        return groupDns.stream()
+                .map(dn -> groupNames.get(dn, DirectoryUserMapper::extractGroupName))
                 .collect(Collectors.toSet());
     }
 
-    private String extractGroupName(String dn) {
+    private static String extractGroupName(String dn) {
         // Extract CN from DN like "CN=GroupName,OU=Groups,DC=example,DC=com"
-        if (dn.startsWith("CN=") || dn.startsWith("cn=")) {
-            int commaIndex = dn.indexOf(',');
-            if (commaIndex > 3) {
-                return dn.substring(3, commaIndex);
+        try {
+            LdapName name = LdapUtils.newLdapName(dn);
+            if (!name.isEmpty()) {
+                Rdn leaf = name.getRdn(name.size() - 1);
+                if ("cn".equalsIgnoreCase(leaf.getType())) {
+                    return leaf.getValue().toString();
+                }
             }
-            return dn.substring(3);
+        } catch (InvalidNameException e) {
+            // not a DN, use the value as is
         }
         return dn;
     }
-
-    private Set<String> extractRolesFromGroups(Set<String> groups) {
-        // Map groups to roles based on naming convention
-        // e.g., "APP_ADMIN" -> "ROLE_ADMIN", "APP_USER" -> "ROLE_USER"
-        return groups.stream()
-                .filter(group -> group.startsWith("APP_") || group.startsWith("ROLE_"))
-                .map(group -> group.startsWith("APP_") ? "ROLE_" + group.substring(4) : group)
-                .collect(Collectors.toSet());
-    }
 }
@@ -0,0 +1,181 @@
+package com.company.security.authentication.infrastructure.adapter.output.directory;
+
+import com.company.security.shared.infrastructure.properties.KeycloakProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Verifies Keycloak access tokens locally against the realm JWKS.
+ * Keys are cached by {@code kid}; an unknown {@code kid} triggers a rate-limited JWKS reload.
+ */
+public class KeycloakAccessTokenVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(KeycloakAccessTokenVerifier.class);
+    private static final TypeReference<Map<String, Object>> MAP_TYPE_REF = new TypeReference<>() {};
+
+    private final WebClient webClient;
+    private final KeycloakProperties keycloakProperties;
+    private final ObjectMapper objectMapper;
+    private final InstantSource clock;
+    private final String issuer;
+    private final AtomicReference<Map<String, PublicKey>> keysById = new AtomicReference<>(Collections.emptyMap());
+    private final AtomicReference<Mono<Map<String, PublicKey>>> inFlight = new AtomicReference<>();
+    private volatile Instant lastReload = Instant.MIN;
+
+    public KeycloakAccessTokenVerifier(
+            WebClient.Builder webClientBuilder,
+            KeycloakProperties keycloakProperties,
+            ObjectMapper objectMapper) {
+        this(webClientBuilder, keycloakProperties, objectMapper, InstantSource.system());
+    }
+
+    KeycloakAccessTokenVerifier(
+            WebClient.Builder webClientBuilder,
+            KeycloakProperties keycloakProperties,
+            ObjectMapper objectMapper,
+            InstantSource clock) {
+        this.webClient = webClientBuilder
+                .baseUrl(keycloakProperties.getServerUrl())
+                .build();
+        this.keycloakProperties = keycloakProperties;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        String configuredIssuer = keycloakProperties.getTokenVerification().getIssuer();
+        this.issuer = configuredIssuer != null && !configuredIssuer.isBlank()
+                ? configuredIssuer
+                : stripTrailingSlash(keycloakProperties.getServerUrl()) + "/realms/" + keycloakProperties.getRealm();
+    }
+
+    /**
+     * Returns the verified claims of the access token, or an empty Mono when the token cannot be
+     * verified locally (verification disabled, no matching key, bad signature or JWKS unavailable).
+     */
+    public Mono<Map<String, Object>> verify(String accessToken) {
+        if (!keycloakProperties.getTokenVerification().isEnabled()) {
+            return Mono.empty();
+        }
+        String kid = readKeyId(accessToken);
+        if (kid == null) {
+            log.debug("Keycloak access token has no kid header, skipping local verification");
+            return Mono.empty();
+        }
+        return keyFor(kid)
+                .map(key -> parseClaims(accessToken, key))
+                .onErrorResume(e -> {
+                    log.warn("Local verification of Keycloak access token failed: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<PublicKey> keyFor(String kid) {
+        PublicKey cached = keysById.get().get(kid);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        Duration minRefresh = Duration.ofSeconds(keycloakProperties.getTokenVerification().getJwksMinRefreshSeconds());
+        if (clock.instant().isBefore(lastReload.plus(minRefresh)) && inFlight.get() == null) {
+            log.debug("Unknown Keycloak signing key {} and JWKS was reloaded recently", kid);
+            return Mono.empty();
+        }
+        return reloadKeys().mapNotNull(keys -> keys.get(kid));
+    }
+
+    private Mono<Map<String, PublicKey>> reloadKeys() {
+        while (true) {
+            Mono<Map<String, PublicKey>> pending = inFlight.get();
+            if (pending != null) {
+                return pending;
+            }
+            Mono<Map<String, PublicKey>> created = fetchKeys()
+                    .doOnNext(keys -> {
+                        keysById.set(keys);
+                        log.debug("Loaded {} Keycloak signing keys", keys.size());
+                    })
+                    .doFinally(signal -> {
+                        lastReload = clock.instant();
+                        inFlight.set(null);
+                    })
+                    .cache();
+            if (inFlight.compareAndSet(null, created)) {
+                return created;
+            }
+        }
+    }
+
+    private Mono<Map<String, PublicKey>> fetchKeys() {
+        String certsUri = String.format("/realms/%s/protocol/openid-connect/certs", keycloakProperties.getRealm());
+
+        return webClient.get()
+                .uri(certsUri)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, response ->
+                        response.bodyToMono(String.class)
+                                .defaultIfEmpty("")
+                                .flatMap(body -> Mono.error(new IllegalStateException(
+                                        "Failed to fetch Keycloak JWKS: " + body))))
+                .bodyToMono(String.class)
+                .map(this::parseKeys);
+    }
+
+    private Map<String, PublicKey> parseKeys(String jwksJson) {
+        Map<String, PublicKey> keys = new HashMap<>();
+        for (Jwk<?> jwk : Jwks.setParser().build().parse(jwksJson)) {
+            Key key = jwk.toKey();
+            if (jwk.getId() != null && key instanceof PublicKey publicKey
+                    && (jwk.get("use") == null || "sig".equals(jwk.get("use")))) {
+                keys.put(jwk.getId(), publicKey);
+            }
+        }
+        return Collections.unmodifiableMap(keys);
+    }
+
+    private Map<String, Object> parseClaims(String accessToken, PublicKey key) {
+        Claims claims = Jwts.parser()
+                .verifyWith(key)
+                .requireIssuer(issuer)
+                .clockSkewSeconds(keycloakProperties.getTokenVerification().getClockSkewSeconds())
+                .clock(() -> Date.from(clock.instant()))
+                .build()
+                .parseSignedClaims(accessToken)
+                .getPayload();
+        return new HashMap<>(claims);
+    }
+
+    private String readKeyId(String token) {
+        try {
+            String[] parts = token.split("\\.");
+            if (parts.length < 3) {
+                return null;
+            }
+            Map<String, Object> header = objectMapper.readValue(Base64.getUrlDecoder().decode(parts[0]), MAP_TYPE_REF);
+            return header.get("kid") instanceof String kid ? kid : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url != null && url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
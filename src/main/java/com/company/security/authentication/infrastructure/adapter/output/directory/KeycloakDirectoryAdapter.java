@@ -6,19 +6,25 @@ import com.company.security.authentication.domain.exception.InvalidCredentialsEx
 import com.company.security.authentication.domain.model.AuthenticatedUser;
 import com.company.security.authentication.domain.model.Credentials;
 import com.company.security.authentication.domain.port.output.DirectoryServicePort;
+import com.company.security.shared.infrastructure.adapter.output.concurrency.AdaptiveConcurrencyLimited;
+import com.company.security.shared.infrastructure.adapter.output.keycloak.KeycloakIdentityCache;
+import com.company.security.shared.infrastructure.adapter.output.keycloak.KeycloakServiceAccountTokenAdapter;
+import com.company.security.shared.infrastructure.adapter.output.timeout.AdaptiveTimeLimited;
 import com.company.security.shared.infrastructure.properties.KeycloakProperties;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
-import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
 import java.util.Base64;
@@ -28,11 +34,14 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Keycloak Directory Service adapter implementation.
  * Provides authentication against Keycloak via ROPC grant (Resource Owner Password Credentials).
+ * The user is built from the locally verified access token; userinfo is only called as a fallback, when
+ * the signature cannot be verified or the token lacks the user's identity or the {@code groups} claim.
+ * Realms that publish groups only in userinfo therefore keep them; add the "Group Membership" mapper to the
+ * access token to sign in without the userinfo call.
  */
 public class KeycloakDirectoryAdapter implements DirectoryServicePort {
 
@@ -40,54 +49,98 @@ public class KeycloakDirectoryAdapter implements DirectoryServicePort {
     private static final TypeReference<Map<String, Object>> MAP_TYPE_REF = new TypeReference<>() {};
     private static final String USERNAME_FIELD = "username";
     private static final String BEARER_PREFIX = "Bearer ";
+    private static final List<String> REQUIRED_CLAIMS = List.of("sub", "preferred_username");
+    private static final String GROUPS_CLAIM = "groups";
 
     private final WebClient webClient;
     private final KeycloakProperties keycloakProperties;
     private final KeycloakUserMapper userMapper;
     private final ObjectMapper objectMapper;
+    private final KeycloakServiceAccountTokenAdapter serviceAccountTokens;
+    private final KeycloakAccessTokenVerifier tokenVerifier;
+    private final KeycloakIdentityCache identityCache;
 
     public KeycloakDirectoryAdapter(
             WebClient.Builder webClientBuilder,
             KeycloakProperties keycloakProperties,
             KeycloakUserMapper userMapper,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            KeycloakServiceAccountTokenAdapter serviceAccountTokens,
+            KeycloakAccessTokenVerifier tokenVerifier,
+            KeycloakIdentityCache identityCache) {
         this.webClient = webClientBuilder
                 .baseUrl(keycloakProperties.getServerUrl())
                 .build();
         this.keycloakProperties = keycloakProperties;
         this.userMapper = userMapper;
         this.objectMapper = objectMapper;
+        this.serviceAccountTokens = serviceAccountTokens;
+        this.tokenVerifier = tokenVerifier;
+        this.identityCache = identityCache;
     }
 
     @Override
+    @AdaptiveConcurrencyLimited(name = "keycloakService")
     @CircuitBreaker(name = "keycloakService", fallbackMethod = "authenticateFallback")
     @Retry(name = "keycloakService")
-    @TimeLimiter(name = "keycloakService")
+    @AdaptiveTimeLimited(name = "keycloakService")
     public Mono<AuthenticatedUser> authenticate(Credentials credentials) {
         log.debug("Authenticating user via Keycloak: {}", credentials.username());
 
         return requestToken(credentials.username(), credentials.password())
                 .flatMap(tokenResponse -> Mono.justOrEmpty((String) tokenResponse.get("access_token"))
                         .switchIfEmpty(Mono.error(new DirectoryServiceException("No access_token in Keycloak response")))
-                        .flatMap(accessToken -> {
-                            Map<String, Object> tokenClaims = decodeTokenPayload(accessToken);
-                            return fetchUserInfo(accessToken)
-                                    .map(userInfoClaims -> userMapper.map(tokenClaims, userInfoClaims));
-                        }));
+                        .flatMap(accessToken -> tokenVerifier.verify(accessToken)
+                                .filter(this::hasRequiredClaims)
+                                .map(verifiedClaims -> userMapper.map(verifiedClaims, verifiedClaims))
+                                .switchIfEmpty(Mono.defer(() -> mapWithUserInfo(accessToken)))))
+                .doOnNext(user -> identityCache.remember(user.userId(), user.username()));
+    }
+
+    private Mono<AuthenticatedUser> mapWithUserInfo(String accessToken) {
+        log.debug("Falling back to Keycloak userinfo for sign-in claims");
+        Map<String, Object> tokenClaims = decodeTokenPayload(accessToken);
+        return fetchUserInfo(accessToken)
+                .map(userInfoClaims -> userMapper.map(tokenClaims, userInfoClaims));
+    }
+
+    private boolean hasRequiredClaims(Map<String, Object> claims) {
+        return REQUIRED_CLAIMS.stream().allMatch(claim -> claims.get(claim) instanceof String value && !value.isBlank())
+                && claims.containsKey(GROUPS_CLAIM);
     }
 
     @Override
+    @AdaptiveConcurrencyLimited(name = "keycloakService")
     @CircuitBreaker(name = "keycloakService", fallbackMethod = "findByUsernameFallback")
     @Retry(name = "keycloakService")
+    @AdaptiveTimeLimited(name = "keycloakService")
     public Mono<AuthenticatedUser> findByUsername(String username) {
         log.debug("Looking up user via Keycloak Admin API: {}", username);
 
-        return requestClientCredentialsToken()
-                .flatMap(tokenResponse -> Mono.justOrEmpty((String) tokenResponse.get("access_token"))
-                        .switchIfEmpty(Mono.error(new DirectoryServiceException("No access_token in client credentials response")))
-                        .flatMap(accessToken -> fetchUserByUsername(accessToken, username)
-                                .flatMap(userData -> fetchUserRealmRoles(accessToken, (String) userData.get("id"))
-                                        .map(roles -> mapAdminUserToAuthenticatedUser(userData, roles)))));
+        return serviceAccountTokens.withAccessToken(accessToken -> identityCache.idFor(username)
+                        .map(userId -> fetchKnownUser(accessToken, userId, username)
+                                .switchIfEmpty(Mono.defer(() -> searchUser(accessToken, username))))
+                        .orElseGet(() -> searchUser(accessToken, username)))
+                .onErrorMap(IllegalStateException.class, e -> new DirectoryServiceException(e.getMessage(), e));
+    }
+
+    /**
+     * Fetches user and role mappings concurrently when the Keycloak id is already known.
+     * Completes empty (and forgets the id) if the id no longer resolves to this username.
+     */
+    private Mono<AuthenticatedUser> fetchKnownUser(String accessToken, String userId, String username) {
+        return Mono.zip(fetchUserById(accessToken, userId), fetchUserRealmRoles(accessToken, userId))
+                .filter(userAndRoles -> username.equalsIgnoreCase((String) userAndRoles.getT1().get(USERNAME_FIELD)))
+                .map(userAndRoles -> mapAdminUserToAuthenticatedUser(userAndRoles.getT1(), userAndRoles.getT2()))
+                .switchIfEmpty(Mono.<AuthenticatedUser>fromRunnable(() -> identityCache.forget(userId)));
+    }
+
+    private Mono<AuthenticatedUser> searchUser(String accessToken, String username) {
+        return fetchUserByUsername(accessToken, username)
+                .doOnNext(userData -> identityCache.remember((String) userData.get("id"),
+                        (String) userData.get(USERNAME_FIELD)))
+                .flatMap(userData -> fetchUserRealmRoles(accessToken, (String) userData.get("id"))
+                        .map(roles -> mapAdminUserToAuthenticatedUser(userData, roles)));
     }
 
     @Override
@@ -120,24 +173,6 @@ public class KeycloakDirectoryAdapter implements DirectoryServicePort {
                 .bodyToMono(new org.springframework.core.ParameterizedTypeReference<>() {});
     }
 
-    private Mono<Map<String, Object>> requestClientCredentialsToken() {
-        String tokenUri = String.format("/realms/%s/protocol/openid-connect/token",
-                keycloakProperties.getRealm());
-
-        return webClient.post()
-                .uri(tokenUri)
-                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
-                .body(BodyInserters.fromFormData("grant_type", "client_credentials")
-                        .with("client_id", keycloakProperties.getClientId())
-                        .with("client_secret", keycloakProperties.getClientSecret()))
-                .retrieve()
-                .onStatus(HttpStatusCode::isError, response ->
-                        response.bodyToMono(String.class)
-                                .flatMap(body -> Mono.error(new DirectoryServiceException(
-                                        "Failed to obtain client credentials token: " + body))))
-                .bodyToMono(new org.springframework.core.ParameterizedTypeReference<>() {});
-    }
-
     private Mono<Map<String, Object>> fetchUserInfo(String accessToken) {
         String userInfoUri = String.format("/realms/%s/protocol/openid-connect/userinfo",
                 keycloakProperties.getRealm());
@@ -164,16 +199,33 @@ public class KeycloakDirectoryAdapter implements DirectoryServicePort {
                         .build())
                 .header(HttpHeaders.AUTHORIZATION, BEARER_PREFIX + accessToken)
                 .retrieve()
+                .onStatus(HttpStatus.UNAUTHORIZED::isSameCodeAs, ClientResponse::createException)
                 .onStatus(HttpStatusCode::isError, response ->
                         response.bodyToMono(String.class)
                                 .flatMap(body -> Mono.error(new DirectoryServiceException(
                                         "Failed to fetch user from Keycloak Admin API"))))
                 .bodyToMono(new org.springframework.core.ParameterizedTypeReference<List<Map<String, Object>>>() {})
                 .filter(users -> users != null && !users.isEmpty())
-                .switchIfEmpty(Mono.error(new DirectoryServiceException("User not found in Keycloak: " + username)))
                 .map(List::getFirst);
     }
 
+    private Mono<Map<String, Object>> fetchUserById(String accessToken, String userId) {
+        String userUri = String.format("/admin/realms/%s/users/%s", keycloakProperties.getRealm(), userId);
+
+        return webClient.get()
+                .uri(userUri)
+                .header(HttpHeaders.AUTHORIZATION, BEARER_PREFIX + accessToken)
+                .retrieve()
+                .onStatus(HttpStatus.UNAUTHORIZED::isSameCodeAs, ClientResponse::createException)
+                .onStatus(HttpStatus.NOT_FOUND::isSameCodeAs, ClientResponse::createException)
+                .onStatus(HttpStatusCode::isError, response ->
+                        response.bodyToMono(String.class)
+                                .flatMap(body -> Mono.error(new DirectoryServiceException(
+                                        "Failed to fetch user from Keycloak Admin API"))))
+                .bodyToMono(new org.springframework.core.ParameterizedTypeReference<Map<String, Object>>() {})
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
+
     private Mono<List<Map<String, Object>>> fetchUserRealmRoles(String accessToken, String userId) {
         String rolesUri = String.format("/admin/realms/%s/users/%s/role-mappings/realm",
                 keycloakProperties.getRealm(), userId);
@@ -182,11 +234,14 @@ public class KeycloakDirectoryAdapter implements DirectoryServicePort {
                 .uri(rolesUri)
                 .header(HttpHeaders.AUTHORIZATION, BEARER_PREFIX + accessToken)
                 .retrieve()
+                .onStatus(HttpStatus.UNAUTHORIZED::isSameCodeAs, ClientResponse::createException)
+                .onStatus(HttpStatus.NOT_FOUND::isSameCodeAs, ClientResponse::createException)
                 .onStatus(HttpStatusCode::isError, response ->
                         response.bodyToMono(String.class)
-                                .then(Mono.empty()))
+                                .flatMap(body -> Mono.error(new DirectoryServiceException(
+                                        "Failed to fetch user role mappings from Keycloak Admin API"))))
                 .bodyToMono(new org.springframework.core.ParameterizedTypeReference<List<Map<String, Object>>>() {})
-                .onErrorReturn(Collections.emptyList());
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
     }
 
     private AuthenticatedUser mapAdminUserToAuthenticatedUser(
@@ -194,12 +249,9 @@ public class KeycloakDirectoryAdapter implements DirectoryServicePort {
 
         String username = (String) userData.get(USERNAME_FIELD);
 
-        Set<String> roles = realmRoles.stream()
+        Set<String> roles = userMapper.mapRoles(realmRoles.stream()
                 .map(role -> (String) role.get("name"))
-                .filter(Objects::nonNull)
-                .filter(name -> name.startsWith("APP_") || name.startsWith("ROLE_"))
-                .map(name -> name.startsWith("APP_") ? "ROLE_" + name.substring(4) : name)
-                .collect(Collectors.toSet());
+                .toList());
 
         return AuthenticatedUser.builder()
                 .userId((String) userData.get("id"))
@@ -3,6 +3,7 @@ package com.company.security.authentication.infrastructure.adapter.output.direct
 import com.company.security.authentication.domain.model.AuthenticatedUser;
 import com.company.security.shared.infrastructure.properties.KeycloakProperties;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -18,9 +19,15 @@ import java.util.stream.Collectors;
 public class KeycloakUserMapper {
 
     private final KeycloakProperties keycloakProperties;
+    private final RoleMappingEngine roleMappingEngine;
 
     public KeycloakUserMapper(KeycloakProperties keycloakProperties) {
+        this(keycloakProperties, RoleMappingEngine.defaults());
+    }
+
+    public KeycloakUserMapper(KeycloakProperties keycloakProperties, RoleMappingEngine roleMappingEngine) {
         this.keycloakProperties = keycloakProperties;
+        this.roleMappingEngine = roleMappingEngine;
     }
 
     public AuthenticatedUser map(Map<String, Object> tokenClaims, Map<String, Object> userInfoClaims) {
@@ -71,11 +78,16 @@ public class KeycloakUserMapper {
                     .ifPresent(roles::addAll);
         }
 
-        // Filter and normalize roles: keep APP_ and ROLE_ prefixed roles
-        return roles.stream()
-                .filter(role -> role.startsWith("APP_") || role.startsWith("ROLE_"))
-                .map(role -> role.startsWith("APP_") ? "ROLE_" + role.substring(4) : role)
-                .collect(Collectors.toSet());
+        return mapRoles(roles);
+    }
+
+    /**
+     * Maps Keycloak role names to application roles.
+     */
+    Set<String> mapRoles(Collection<String> keycloakRoles) {
+        return roleMappingEngine.rolesFor(keycloakRoles.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
     }
 
     @SuppressWarnings("unchecked")
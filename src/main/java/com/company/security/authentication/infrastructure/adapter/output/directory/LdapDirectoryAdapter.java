@@ -5,115 +5,117 @@ import com.company.security.authentication.domain.exception.InvalidCredentialsEx
 import com.company.security.authentication.domain.model.AuthenticatedUser;
 import com.company.security.authentication.domain.model.Credentials;
 import com.company.security.authentication.domain.port.output.DirectoryServicePort;
+import com.company.security.shared.infrastructure.adapter.output.concurrency.AdaptiveConcurrencyLimited;
+import com.company.security.shared.infrastructure.adapter.output.ldap.LdapDirectoryMirror;
+import com.company.security.shared.infrastructure.adapter.output.ldap.LdapReplica;
+import com.company.security.shared.infrastructure.adapter.output.ldap.LdapReplicaRouter;
+import com.company.security.shared.infrastructure.adapter.output.timeout.AdaptiveTimeLimited;
 import com.company.security.shared.infrastructure.properties.LdapProperties;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
-import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.ldap.AuthenticationException;
 import org.springframework.ldap.core.DirContextOperations;
-import org.springframework.ldap.core.LdapTemplate;
-import org.springframework.ldap.core.support.LdapContextSource;
 import org.springframework.ldap.filter.EqualsFilter;
 import org.springframework.ldap.query.LdapQuery;
 import org.springframework.ldap.query.LdapQueryBuilder;
+import org.springframework.ldap.support.LdapUtils;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
+import javax.naming.directory.DirContext;
+import java.util.Optional;
+
 /**
  * LDAP Directory Service adapter implementation.
  * Provides authentication against generic LDAP servers.
+ * Sign-in costs one search (DN plus mapped attributes) and one bind as the resolved DN.
+ * Searches are hedged across replicas; the bind goes to the replica that answered the search.
+ * Right after a password change both go to the writer (read-your-writes). With the optional
+ * {@link LdapDirectoryMirror} the search is answered from memory and only the bind reaches LDAP.
  */
 public class LdapDirectoryAdapter implements DirectoryServicePort {
 
     private static final Logger log = LoggerFactory.getLogger(LdapDirectoryAdapter.class);
 
-    private final LdapTemplate ldapTemplate;
-    private final LdapContextSource ldapContextSource;
+    private final LdapReplicaRouter replicaRouter;
     private final DirectoryUserMapper userMapper;
     private final LdapProperties ldapProperties;
+    private final LdapDirectoryMirror mirror;
 
     public LdapDirectoryAdapter(
-            LdapTemplate ldapTemplate,
-            LdapContextSource ldapContextSource,
+            LdapReplicaRouter replicaRouter,
             DirectoryUserMapper userMapper,
             LdapProperties ldapProperties) {
-        this.ldapTemplate = ldapTemplate;
-        this.ldapContextSource = ldapContextSource;
+        this(replicaRouter, userMapper, ldapProperties, null);
+    }
+
+    public LdapDirectoryAdapter(
+            LdapReplicaRouter replicaRouter,
+            DirectoryUserMapper userMapper,
+            LdapProperties ldapProperties,
+            LdapDirectoryMirror mirror) {
+        this.replicaRouter = replicaRouter;
         this.userMapper = userMapper;
         this.ldapProperties = ldapProperties;
+        this.mirror = mirror;
     }
 
     @Override
+    @AdaptiveConcurrencyLimited(name = "directoryService")
     @CircuitBreaker(name = "directoryService", fallbackMethod = "authenticateFallback")
     @Retry(name = "directoryService")
-    @TimeLimiter(name = "directoryService")
-    @SuppressWarnings("java:S2139") // Exceptions are logged and rethrown with context
+    @AdaptiveTimeLimited(name = "directoryService")
     public Mono<AuthenticatedUser> authenticate(Credentials credentials) {
-        return Mono.fromCallable(() -> {
-            log.debug("Authenticating user via LDAP: {}", credentials.username());
-
-            try {
-                // Attempt to authenticate
-                boolean authenticated = ldapTemplate.authenticate(
-                        ldapProperties.getUserSearchBase(),
-                        buildSearchFilter(credentials.username()),
-                        credentials.password()
-                );
-
-                if (!authenticated) {
-                    log.warn("LDAP authentication failed for user: {}", credentials.username());
-                    throw new InvalidCredentialsException(credentials.username());
-                }
-
-                // Lookup user details
-                DirContextOperations ctx = ldapTemplate.searchForContext(
-                        LdapQueryBuilder.query()
-                                .base(ldapProperties.getUserSearchBase())
-                                .filter(buildSearchFilter(credentials.username()))
-                );
-
-                return userMapper.mapFromLdapContext(ctx, credentials.username());
-
-            } catch (AuthenticationException e) {
-                log.warn("LDAP authentication failed for user: {}", credentials.username(), e);
-                throw new InvalidCredentialsException(credentials.username(), e);
-            } catch (Exception e) {
-                log.error("LDAP error during authentication for user: {}", credentials.username(), e);
-                throw new DirectoryServiceException("Failed to authenticate", e);
-            }
-        }).subscribeOn(Schedulers.boundedElastic());
+        String username = credentials.username();
+        log.debug("Authenticating user via LDAP: {}", username);
+
+        // Single search returning the entry DN together with the mapped attributes
+        return findEntry(username)
+                .flatMap(routed -> routed.value()
+                        // Single bind as the resolved DN to verify the password
+                        .map(ctx -> replicaRouter.execute(routed.replica(), replica -> {
+                            bindAsUser(replica, ctx.getNameInNamespace(), credentials.password());
+                            return userMapper.mapFromLdapContext(ctx, username);
+                        }))
+                        .orElseGet(() -> {
+                            log.warn("LDAP authentication failed for user: {} - user not found", username);
+                            return Mono.error(new InvalidCredentialsException(username));
+                        }))
+                .onErrorMap(e -> !(e instanceof InvalidCredentialsException), e -> {
+                    if (e instanceof AuthenticationException) {
+                        log.warn("LDAP authentication failed for user: {}", username, e);
+                        return new InvalidCredentialsException(username, e);
+                    }
+                    log.error("LDAP error during authentication for user: {}", username, e);
+                    return new DirectoryServiceException("Failed to authenticate", e);
+                });
     }
 
     @Override
+    @AdaptiveConcurrencyLimited(name = "directoryService")
     @CircuitBreaker(name = "directoryService", fallbackMethod = "findByUsernameFallback")
     @Retry(name = "directoryService")
-    @SuppressWarnings("java:S2139") // Exception is logged and rethrown with context
+    @AdaptiveTimeLimited(name = "directoryService")
     public Mono<AuthenticatedUser> findByUsername(String username) {
-        return Mono.fromCallable(() -> {
-            log.debug("Looking up user via LDAP: {}", username);
-
-            try {
-                LdapQuery query = LdapQueryBuilder.query()
-                        .base(ldapProperties.getUserSearchBase())
-                        .filter(buildSearchFilter(username));
-
-                DirContextOperations ctx = ldapTemplate.searchForContext(query);
-                return userMapper.mapFromLdapContext(ctx, username);
-
-            } catch (Exception e) {
-                log.error("LDAP error during user lookup: {}", username, e);
-                throw new DirectoryServiceException("Failed to lookup user", e);
-            }
-        }).subscribeOn(Schedulers.boundedElastic());
+        log.debug("Looking up user via LDAP: {}", username);
+
+        return findEntry(username)
+                .flatMap(routed -> Mono.justOrEmpty(routed.value()))
+                .map(ctx -> userMapper.mapFromLdapContext(ctx, username))
+                .onErrorMap(e -> {
+                    log.error("LDAP error during user lookup: {}", username, e);
+                    return new DirectoryServiceException("Failed to lookup user", e);
+                });
     }
 
     @Override
     public Mono<Boolean> isAvailable() {
         return Mono.fromCallable(() -> {
             try {
-                ldapContextSource.getReadOnlyContext();
+                replicaRouter.fastest().contextSource().getReadOnlyContext();
                 return true;
             } catch (Exception e) {
                 log.warn("LDAP service unavailable: {}", e.getMessage());
@@ -122,12 +124,54 @@ public class LdapDirectoryAdapter implements DirectoryServicePort {
         }).subscribeOn(Schedulers.boundedElastic());
     }
 
+    private Mono<LdapReplicaRouter.Routed<Optional<DirContextOperations>>> findEntry(String username) {
+        return Mono.defer(() -> {
+            if (mirror != null) {
+                LdapDirectoryMirror.Lookup lookup = mirror.lookup(username);
+                if (lookup.served()) {
+                    return Mono.just(new LdapReplicaRouter.Routed<>(replicaRouter.replicaFor(username),
+                            Optional.ofNullable(lookup.entry())));
+                }
+            }
+            return replicaRouter.read(username, replica -> searchUser(replica, username));
+        });
+    }
+
+    private Optional<DirContextOperations> searchUser(LdapReplica replica, String username) {
+        try {
+            return Optional.of(replica.ldapTemplate().searchForContext(buildUserQuery(username)));
+        } catch (EmptyResultDataAccessException e) {
+            log.debug("LDAP user not found: {}", username);
+            return Optional.empty();
+        }
+    }
+
+    private LdapQuery buildUserQuery(String username) {
+        var query = LdapQueryBuilder.query()
+                .base(ldapProperties.getUserSearchBase())
+                .attributes(userMapper.userAttributes());
+        String userSearchFilter = ldapProperties.getUserSearchFilter();
+        if (userSearchFilter == null || userSearchFilter.isBlank()) {
+            return query.filter(buildSearchFilter(username));
+        }
+        // {0} is replaced by the filter-encoded username
+        return query.filter(userSearchFilter, username);
+    }
+
+    private void bindAsUser(LdapReplica replica, String userDn, String password) {
+        DirContext userContext = replica.contextSource().getContext(userDn, password);
+        LdapUtils.closeContext(userContext);
+    }
+
     private String buildSearchFilter(String username) {
         return new EqualsFilter(ldapProperties.getUserDnAttribute(), username).encode();
     }
 
     // Fallback methods for circuit breaker
     private Mono<AuthenticatedUser> authenticateFallback(Credentials credentials, Throwable t) {
+        if (t instanceof InvalidCredentialsException) {
+            return Mono.error(t);
+        }
         log.error("Circuit breaker open for LDAP authentication, failing request for user: {}",
                 credentials.username(), t);
         return Mono.error(new DirectoryServiceException("Directory service temporarily unavailable", t));
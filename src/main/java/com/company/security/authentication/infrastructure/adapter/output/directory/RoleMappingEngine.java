@@ -0,0 +1,228 @@
+package com.company.security.authentication.infrastructure.adapter.output.directory;
+
+import com.company.security.shared.infrastructure.properties.RoleMappingProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maps directory groups and identity provider roles to application roles. Rules come from
+ * {@code auth.role-mapping.rules} or, when {@code auth.role-mapping.file} is set, from that JSON file,
+ * which is re-read whenever it changes. Each rule set is compiled once: exact names into a hash map
+ * (one group may grant several roles), prefixes into a trie matched on the longest prefix, and regular
+ * expressions whose role may reference capture groups. Results are memoized per distinct group set and
+ * dropped when the rules change. A file that fails to load or compile leaves the previous rules active.
+ */
+public class RoleMappingEngine implements MeterBinder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RoleMappingEngine.class);
+
+    private final RoleMappingProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Scheduler scheduler;
+    private final AtomicLong successfulReloads = new AtomicLong();
+    private final AtomicLong failedReloads = new AtomicLong();
+
+    private volatile State state;
+    private long fileModifiedMillis = Long.MIN_VALUE;
+    private Disposable reloadTask;
+
+    public RoleMappingEngine(RoleMappingProperties properties, ObjectMapper objectMapper) {
+        this(properties, objectMapper, Schedulers.boundedElastic());
+    }
+
+    RoleMappingEngine(RoleMappingProperties properties, ObjectMapper objectMapper, Scheduler scheduler) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.scheduler = scheduler;
+        this.state = new State(CompiledRules.compile(properties.getRules()), newCache());
+        reloadIfChanged();
+    }
+
+    /**
+     * Engine with the built-in {@code APP_} and {@code ROLE_} prefix rules.
+     */
+    public static RoleMappingEngine defaults() {
+        return new RoleMappingEngine(new RoleMappingProperties(), new ObjectMapper());
+    }
+
+    public void start() {
+        if (hasFile()) {
+            long interval = properties.getReloadIntervalSeconds();
+            reloadTask = scheduler.schedulePeriodically(this::reloadIfChanged, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (reloadTask != null) {
+            reloadTask.dispose();
+        }
+    }
+
+    /**
+     * Returns the roles granted by the given group or role names.
+     */
+    public Set<String> rolesFor(Collection<String> names) {
+        State current = state;
+        return current.results().get(Set.copyOf(names), current.rules()::map);
+    }
+
+    /**
+     * Re-reads the rules file when its modification time changed since the last load.
+     */
+    synchronized void reloadIfChanged() {
+        if (!hasFile()) {
+            return;
+        }
+        Path file = Path.of(properties.getFile());
+        try {
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            if (modified == fileModifiedMillis) {
+                return;
+            }
+            RoleMappingProperties.Rules rules = objectMapper.readValue(file.toFile(), RoleMappingProperties.Rules.class);
+            state = new State(CompiledRules.compile(rules), newCache());
+            fileModifiedMillis = modified;
+            successfulReloads.incrementAndGet();
+            log.info("Loaded role mapping rules from {}", file);
+        } catch (Exception e) {
+            failedReloads.incrementAndGet();
+            log.warn("Keeping previous role mapping rules, could not load {}: {}", file, e.getMessage());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.role.mapping.rules", this, engine -> engine.state.rules().size())
+                .description("Compiled role mapping rules")
+                .register(registry);
+        FunctionCounter.builder("auth.role.mapping.reloads", successfulReloads, AtomicLong::get)
+                .tag("outcome", "success")
+                .register(registry);
+        FunctionCounter.builder("auth.role.mapping.reloads", failedReloads, AtomicLong::get)
+                .tag("outcome", "failure")
+                .register(registry);
+    }
+
+    private boolean hasFile() {
+        return properties.getFile() != null && !properties.getFile().isBlank();
+    }
+
+    private Cache<Set<String>, Set<String>> newCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaxSize())
+                .build();
+    }
+
+    private record State(CompiledRules rules, Cache<Set<String>, Set<String>> results) {
+    }
+
+    private record CompiledRules(Map<String, List<String>> exact, PrefixTrie prefixes, List<CompiledPattern> patterns) {
+
+        static CompiledRules compile(RoleMappingProperties.Rules rules) {
+            Map<String, List<String>> exact = new HashMap<>();
+            rules.getExact().forEach((group, roles) -> exact.put(group, List.copyOf(roles)));
+            PrefixTrie prefixes = new PrefixTrie();
+            rules.getPrefixes().forEach(rule -> prefixes.put(
+                    Objects.requireNonNull(rule.getPrefix(), "prefix"),
+                    Objects.requireNonNull(rule.getReplacement(), "replacement")));
+            List<CompiledPattern> patterns = new ArrayList<>();
+            rules.getPatterns().forEach(rule -> patterns.add(new CompiledPattern(
+                    Pattern.compile(rule.getRegex()), Objects.requireNonNull(rule.getRole(), "role"))));
+            return new CompiledRules(Map.copyOf(exact), prefixes, List.copyOf(patterns));
+        }
+
+        Set<String> map(Set<String> names) {
+            Set<String> roles = new LinkedHashSet<>();
+            for (String name : names) {
+                roles.addAll(exact.getOrDefault(name, List.of()));
+                String prefixed = prefixes.replaceLongest(name);
+                if (prefixed != null) {
+                    roles.add(prefixed);
+                }
+                for (CompiledPattern pattern : patterns) {
+                    Matcher matcher = pattern.regex().matcher(name);
+                    if (matcher.matches()) {
+                        roles.add(matcher.replaceFirst(pattern.role()));
+                    }
+                }
+            }
+            return Set.copyOf(roles);
+        }
+
+        int size() {
+            return exact.size() + prefixes.size() + patterns.size();
+        }
+    }
+
+    private record CompiledPattern(Pattern regex, String role) {
+    }
+
+    /**
+     * Character trie of prefixes; a lookup walks the name once and keeps the deepest replacement seen.
+     */
+    private static final class PrefixTrie {
+
+        private final Node root = new Node();
+        private int size;
+
+        void put(String prefix, String replacement) {
+            Node node = root;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new Node());
+            }
+            if (node.replacement == null) {
+                size++;
+            }
+            node.replacement = replacement;
+        }
+
+        String replaceLongest(String name) {
+            Node node = root;
+            String replacement = null;
+            int matched = 0;
+            for (int i = 0; i < name.length() && node != null; i++) {
+                node = node.children.get(name.charAt(i));
+                if (node != null && node.replacement != null) {
+                    replacement = node.replacement;
+                    matched = i + 1;
+                }
+            }
+            return replacement != null ? replacement + name.substring(matched) : null;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private static final class Node {
+            private final Map<Character, Node> children = new HashMap<>();
+            private String replacement;
+        }
+    }
+}
@@ -1,25 +1,55 @@
 package com.company.security.authentication.infrastructure.adapter.output.persistence;
 
 import com.company.security.authentication.infrastructure.adapter.output.persistence.document.AuthAuditDocument;
-import com.company.security.authentication.infrastructure.adapter.output.persistence.repository.AuthAuditRepository;
 import com.company.security.authentication.domain.port.output.AuthAuditPort;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditBurstCollapser;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditCollection;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditCompactor;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 /**
  * MongoDB adapter for authentication audit logging.
+ * Events are handed to the shared {@link AuditWriter}, which inserts them in batches. Failed sign-ins go
+ * through the {@link AuditBurstCollapser} when one is configured, so repeated failures with the same username,
+ * IP address, reason and user agent within its window are stored as one document with a count.
+ * {@link #auditCollection()} describes the time-series collection and the indexes behind the audit queries:
+ * all events, a user's events (by id, or by username for failed sign-ins) and events from one IP address,
+ * each newest first.
  */
 public class AuthAuditMongoAdapter implements AuthAuditPort {
 
     private static final Logger log = LoggerFactory.getLogger(AuthAuditMongoAdapter.class);
     private static final String CORRELATION_ID_KEY = "correlationId";
 
-    private final AuthAuditRepository repository;
+    private final AuditWriter auditWriter;
+    private final AuditBurstCollapser burstCollapser;
+
+    public AuthAuditMongoAdapter(AuditWriter auditWriter) {
+        this(auditWriter, null);
+    }
+
+    /**
+     * @param burstCollapser collapses repeated sign-in failures, or {@code null} to write each one
+     */
+    public AuthAuditMongoAdapter(AuditWriter auditWriter, AuditBurstCollapser burstCollapser) {
+        this.auditWriter = auditWriter;
+        this.burstCollapser = burstCollapser;
+    }
 
-    public AuthAuditMongoAdapter(AuthAuditRepository repository) {
-        this.repository = repository;
+    public static AuditCollection auditCollection() {
+        return new AuditCollection("auth", AuthAuditDocument.COLLECTION,
+                List.of("eventType", "userId", "username", "ipAddress"),
+                List.of(
+                        AuditCollection.timelineIndex("timeline"),
+                        AuditCollection.timelineIndex("user_timeline", "userId"),
+                        AuditCollection.timelineIndex("username_timeline", "username"),
+                        AuditCollection.timelineIndex("ip_event_timeline", "ipAddress", "eventType")));
     }
 
     @Override
@@ -58,24 +88,35 @@ public class AuthAuditMongoAdapter implements AuthAuditPort {
 
         String correlationId = MDC.get(CORRELATION_ID_KEY);
 
-        AuthAuditDocument.RequestMetadata metadata = new AuthAuditDocument.RequestMetadata(
-                ipAddress,
-                userAgent,
-                correlationId
-        );
-
-        AuthAuditDocument document = new AuthAuditDocument(
+        AuthAuditDocument.Metadata metadata = new AuthAuditDocument.Metadata(
                 eventType.name(),
                 userId,
                 username,
+                ipAddress
+        );
+
+        AuthAuditDocument document = new AuthAuditDocument(
+                metadata,
                 success,
                 failureReason,
-                metadata
+                userAgent,
+                correlationId
         );
 
-        return repository.save(document)
-                .doOnSuccess(saved -> log.debug("Audit event recorded: {} for user: {}", eventType, username))
-                .doOnError(e -> log.error("Failed to record audit event: {} for user: {}", eventType, username, e))
-                .then();
+        Mono<Void> submitted = burstCollapser != null && eventType == EventType.SIGN_IN_FAILED
+                ? burstCollapser.submit(burstKey(username, ipAddress, failureReason, userAgent), document)
+                : auditWriter.enqueue(document);
+        return submitted
+                .doOnSuccess(queued -> log.debug("Audit event queued: {} for user: {}", eventType, username));
+    }
+
+    static BurstKey burstKey(String username, String ipAddress, String failureReason, String userAgent) {
+        return new BurstKey(username, ipAddress, failureReason, userAgent == null ? null : AuditCompactor.idOf(userAgent));
+    }
+
+    /**
+     * Identifies a burst of failed sign-ins; the user agent is kept as its SHA-256 based id.
+     */
+    record BurstKey(String username, String ipAddress, String failureReason, Long userAgentId) {
     }
 }
@@ -1,70 +1,85 @@
 package com.company.security.authentication.infrastructure.adapter.output.persistence.document;
 
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditBurstCollapser;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
 
 import java.time.Instant;
 
 /**
- * MongoDB document for authentication audit logs.
+ * MongoDB document for authentication audit logs, stored in a time-series collection bucketed by
+ * {@link Metadata}. Indexes and retention are managed by the audit collection initializer. A collapsed
+ * burst of identical failures is one document whose {@code timestamp} is the first attempt, with
+ * {@code count} and {@code lastTimestamp} set; both are absent on single events.
  */
-@Document(collection = "auth_audit_logs")
+@Document(collection = AuthAuditDocument.COLLECTION)
+@TimeSeries(collection = AuthAuditDocument.COLLECTION, timeField = "timestamp", metaField = "metadata",
+        granularity = Granularity.SECONDS)
 @Getter
 @Setter
-public class AuthAuditDocument {
+public class AuthAuditDocument implements AuditBurstCollapser.Collapsible {
+
+    public static final String COLLECTION = "auth_audit_logs";
 
     @Id
     private String id;
 
-    @Indexed
-    private String eventType;
-
-    @Indexed
-    private String userId;
-
-    @Indexed
-    private String username;
-
-    @Indexed
     private Instant timestamp;
 
+    private Metadata metadata;
+
     private boolean success;
 
     private String failureReason;
 
-    private RequestMetadata requestMetadata;
+    private String userAgent;
+
+    private String correlationId;
+
+    private Long count;
+
+    private Instant lastTimestamp;
 
     public AuthAuditDocument(
-            String eventType,
-            String userId,
-            String username,
+            Metadata metadata,
             boolean success,
             String failureReason,
-            RequestMetadata requestMetadata) {
-        this.eventType = eventType;
-        this.userId = userId;
-        this.username = username;
+            String userAgent,
+            String correlationId) {
         this.timestamp = Instant.now();
+        this.metadata = metadata;
         this.success = success;
         this.failureReason = failureReason;
-        this.requestMetadata = requestMetadata;
+        this.userAgent = userAgent;
+        this.correlationId = correlationId;
     }
 
+    @Override
+    public void collapse(long count, Instant lastTimestamp) {
+        this.count = count;
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    /**
+     * Fields audit queries filter on; events with the same metadata share time-series buckets.
+     */
     @Setter
     @Getter
-    public static class RequestMetadata {
+    public static class Metadata {
+        private String eventType;
+        private String userId;
+        private String username;
         private String ipAddress;
-        private String userAgent;
-        private String correlationId;
-
 
-        public RequestMetadata(String ipAddress, String userAgent, String correlationId) {
+        public Metadata(String eventType, String userId, String username, String ipAddress) {
+            this.eventType = eventType;
+            this.userId = userId;
+            this.username = username;
             this.ipAddress = ipAddress;
-            this.userAgent = userAgent;
-            this.correlationId = correlationId;
         }
     }
 }
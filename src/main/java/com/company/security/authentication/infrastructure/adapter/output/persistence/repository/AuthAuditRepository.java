@@ -13,12 +13,12 @@ import java.time.Instant;
 @Repository
 public interface AuthAuditRepository extends ReactiveMongoRepository<AuthAuditDocument, String> {
 
-    Flux<AuthAuditDocument> findByUsernameOrderByTimestampDesc(String username);
+    Flux<AuthAuditDocument> findByMetadataUsernameOrderByTimestampDesc(String username);
 
-    Flux<AuthAuditDocument> findByUserIdOrderByTimestampDesc(String userId);
+    Flux<AuthAuditDocument> findByMetadataUserIdOrderByTimestampDesc(String userId);
 
-    Flux<AuthAuditDocument> findByEventTypeAndTimestampAfter(String eventType, Instant after);
+    Flux<AuthAuditDocument> findByMetadataEventTypeAndTimestampAfter(String eventType, Instant after);
 
-    Flux<AuthAuditDocument> findByUsernameAndEventTypeAndTimestampAfter(
+    Flux<AuthAuditDocument> findByMetadataUsernameAndMetadataEventTypeAndTimestampAfter(
             String username, String eventType, Instant after);
 }
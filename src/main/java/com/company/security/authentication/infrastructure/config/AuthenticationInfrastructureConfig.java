@@ -3,27 +3,49 @@ package com.company.security.authentication.infrastructure.config;
 import com.company.security.authentication.domain.port.input.RefreshTokenUseCase;
 import com.company.security.authentication.domain.port.input.SignInUseCase;
 import com.company.security.authentication.domain.port.input.SignOutUseCase;
+import com.company.security.authentication.infrastructure.adapter.input.event.UserSessionRevocationHandler;
 import com.company.security.authentication.infrastructure.adapter.input.rest.handler.AuthenticationHandler;
+import com.company.security.authentication.domain.port.output.DirectoryServicePort;
+import com.company.security.authentication.domain.port.output.RefreshTokenPort;
 import com.company.security.authentication.infrastructure.adapter.input.rest.mapper.AuthenticationRestMapper;
+import com.company.security.authentication.infrastructure.adapter.output.directory.CachingDirectoryServiceAdapter;
 import com.company.security.authentication.infrastructure.adapter.output.directory.DirectoryUserMapper;
+import com.company.security.authentication.infrastructure.adapter.output.directory.KeycloakAccessTokenVerifier;
 import com.company.security.authentication.infrastructure.adapter.output.directory.KeycloakDirectoryAdapter;
 import com.company.security.authentication.infrastructure.adapter.output.directory.KeycloakUserMapper;
 import com.company.security.authentication.infrastructure.adapter.output.directory.LdapDirectoryAdapter;
+import com.company.security.authentication.infrastructure.adapter.output.directory.RoleMappingEngine;
 import com.company.security.authentication.infrastructure.adapter.output.persistence.AuthAuditMongoAdapter;
-import com.company.security.authentication.infrastructure.adapter.output.persistence.repository.AuthAuditRepository;
 import com.company.security.authentication.infrastructure.adapter.output.token.JwtTokenProviderAdapter;
 import com.company.security.authentication.infrastructure.adapter.output.token.RefreshTokenRedisAdapter;
 import com.company.security.authentication.infrastructure.adapter.output.token.TokenBlacklistRedisAdapter;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditBurstCollapser;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditCollection;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditWriter;
+import com.company.security.shared.infrastructure.adapter.output.keycloak.KeycloakIdentityCache;
+import com.company.security.shared.infrastructure.adapter.output.keycloak.KeycloakServiceAccountTokenAdapter;
+import com.company.security.shared.infrastructure.adapter.output.ldap.LdapDirectoryMirror;
+import com.company.security.shared.infrastructure.adapter.output.ldap.LdapGroupGraph;
+import com.company.security.shared.infrastructure.adapter.output.ldap.LdapMirrorSynchronizer;
+import com.company.security.shared.infrastructure.adapter.output.ldap.LdapReplicaRouter;
+import com.company.security.shared.infrastructure.config.web.WebClientConfig;
+import com.company.security.shared.infrastructure.event.UserChangeEventBus;
+import com.company.security.shared.infrastructure.properties.AuthProviderProperties;
+import com.company.security.shared.infrastructure.properties.DirectoryCacheProperties;
 import com.company.security.shared.infrastructure.properties.JwtProperties;
 import com.company.security.shared.infrastructure.properties.KeycloakProperties;
 import com.company.security.shared.infrastructure.properties.LdapProperties;
+import com.company.security.shared.infrastructure.properties.RoleMappingProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
-import org.springframework.ldap.core.LdapTemplate;
-import org.springframework.ldap.core.support.LdapContextSource;
 import org.springframework.web.reactive.function.client.WebClient;
 
 /**
@@ -33,35 +55,111 @@ import org.springframework.web.reactive.function.client.WebClient;
 @Configuration
 public class AuthenticationInfrastructureConfig {
 
+    private static final String DIRECTORY_DELEGATE = "directoryServiceDelegate";
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public RoleMappingEngine roleMappingEngine(RoleMappingProperties roleMappingProperties, ObjectMapper objectMapper) {
+        return new RoleMappingEngine(roleMappingProperties, objectMapper);
+    }
+
     @Bean
-    public DirectoryUserMapper directoryUserMapper() {
-        return new DirectoryUserMapper();
+    public DirectoryUserMapper directoryUserMapper(
+            ObjectProvider<LdapGroupGraph> ldapGroupGraph,
+            RoleMappingEngine roleMappingEngine) {
+        return new DirectoryUserMapper(ldapGroupGraph.getIfAvailable(), roleMappingEngine);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnExpression("'${auth.provider:ldap}' == 'ldap' && ${ldap.groups.nested-enabled:true}")
+    public LdapGroupGraph ldapGroupGraph(LdapProperties ldapProperties, MeterRegistry meterRegistry) {
+        return new LdapGroupGraph(ldapProperties, meterRegistry);
     }
 
     @Bean
+    @Qualifier(DIRECTORY_DELEGATE)
     @ConditionalOnProperty(name = "auth.provider", havingValue = "ldap", matchIfMissing = true)
     public LdapDirectoryAdapter ldapDirectoryAdapter(
-            LdapTemplate ldapTemplate,
-            LdapContextSource ldapContextSource,
+            LdapReplicaRouter ldapReplicaRouter,
             DirectoryUserMapper directoryUserMapper,
-            LdapProperties ldapProperties) {
-        return new LdapDirectoryAdapter(ldapTemplate, ldapContextSource, directoryUserMapper, ldapProperties);
+            LdapProperties ldapProperties,
+            ObjectProvider<LdapDirectoryMirror> ldapDirectoryMirror) {
+        return new LdapDirectoryAdapter(ldapReplicaRouter, directoryUserMapper, ldapProperties,
+                ldapDirectoryMirror.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnExpression("'${auth.provider:ldap}' == 'ldap' && ${ldap.mirror.enabled:false}")
+    public LdapDirectoryMirror ldapDirectoryMirror(LdapProperties ldapProperties, MeterRegistry meterRegistry) {
+        return new LdapDirectoryMirror(ldapProperties, meterRegistry);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnExpression("'${auth.provider:ldap}' == 'ldap' && ${ldap.mirror.enabled:false}")
+    public LdapMirrorSynchronizer ldapMirrorSynchronizer(
+            LdapDirectoryMirror ldapDirectoryMirror,
+            LdapProperties ldapProperties,
+            DirectoryUserMapper directoryUserMapper) {
+        return new LdapMirrorSynchronizer(ldapDirectoryMirror, ldapProperties, directoryUserMapper.userAttributes());
     }
 
     @Bean
     @ConditionalOnProperty(name = "auth.provider", havingValue = "keycloak")
-    public KeycloakUserMapper keycloakUserMapper(KeycloakProperties keycloakProperties) {
-        return new KeycloakUserMapper(keycloakProperties);
+    public KeycloakUserMapper keycloakUserMapper(
+            KeycloakProperties keycloakProperties,
+            RoleMappingEngine roleMappingEngine) {
+        return new KeycloakUserMapper(keycloakProperties, roleMappingEngine);
     }
 
     @Bean
     @ConditionalOnProperty(name = "auth.provider", havingValue = "keycloak")
+    public KeycloakAccessTokenVerifier keycloakAccessTokenVerifier(
+            @Qualifier(WebClientConfig.KEYCLOAK) WebClient.Builder webClientBuilder,
+            KeycloakProperties keycloakProperties,
+            ObjectMapper objectMapper) {
+        return new KeycloakAccessTokenVerifier(webClientBuilder, keycloakProperties, objectMapper);
+    }
+
+    @Bean
+    @Qualifier(DIRECTORY_DELEGATE)
+    @ConditionalOnProperty(name = "auth.provider", havingValue = "keycloak")
     public KeycloakDirectoryAdapter keycloakDirectoryAdapter(
-            WebClient.Builder webClientBuilder,
+            @Qualifier(WebClientConfig.KEYCLOAK) WebClient.Builder webClientBuilder,
             KeycloakProperties keycloakProperties,
             KeycloakUserMapper keycloakUserMapper,
-            ObjectMapper objectMapper) {
-        return new KeycloakDirectoryAdapter(webClientBuilder, keycloakProperties, keycloakUserMapper, objectMapper);
+            ObjectMapper objectMapper,
+            KeycloakServiceAccountTokenAdapter keycloakServiceAccountTokenAdapter,
+            KeycloakAccessTokenVerifier keycloakAccessTokenVerifier,
+            KeycloakIdentityCache keycloakIdentityCache) {
+        return new KeycloakDirectoryAdapter(webClientBuilder, keycloakProperties, keycloakUserMapper, objectMapper,
+                keycloakServiceAccountTokenAdapter, keycloakAccessTokenVerifier, keycloakIdentityCache);
+    }
+
+    @Bean
+    @Primary
+    public DirectoryServicePort directoryServicePort(
+            @Qualifier(DIRECTORY_DELEGATE) DirectoryServicePort delegate,
+            AuthProviderProperties authProviderProperties,
+            DirectoryCacheProperties directoryCacheProperties,
+            UserChangeEventBus userChangeEventBus,
+            MeterRegistry meterRegistry) {
+        String provider = authProviderProperties.getProvider();
+        DirectoryCacheProperties.Settings settings = "keycloak".equals(provider)
+                ? directoryCacheProperties.getKeycloak()
+                : directoryCacheProperties.getLdap();
+        if (!settings.isEnabled()) {
+            return delegate;
+        }
+        CachingDirectoryServiceAdapter cachingAdapter =
+                new CachingDirectoryServiceAdapter(delegate, settings, provider, meterRegistry);
+        userChangeEventBus.events().subscribe(cachingAdapter::onUserChange);
+        return cachingAdapter;
+    }
+
+    @Bean
+    public UserSessionRevocationHandler userSessionRevocationHandler(
+            RefreshTokenPort refreshTokenPort,
+            MeterRegistry meterRegistry) {
+        return new UserSessionRevocationHandler(refreshTokenPort, meterRegistry);
     }
 
     @Bean
@@ -82,8 +180,15 @@ public class AuthenticationInfrastructureConfig {
     }
 
     @Bean
-    public AuthAuditMongoAdapter authAuditMongoAdapter(AuthAuditRepository authAuditRepository) {
-        return new AuthAuditMongoAdapter(authAuditRepository);
+    public AuthAuditMongoAdapter authAuditMongoAdapter(
+            AuditWriter auditWriter,
+            ObjectProvider<AuditBurstCollapser> auditBurstCollapser) {
+        return new AuthAuditMongoAdapter(auditWriter, auditBurstCollapser.getIfAvailable());
+    }
+
+    @Bean
+    public AuditCollection authAuditCollection() {
+        return AuthAuditMongoAdapter.auditCollection();
     }
 
     @Bean
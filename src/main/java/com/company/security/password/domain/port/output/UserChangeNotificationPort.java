@@ -0,0 +1,12 @@
+package com.company.security.password.domain.port.output;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Output port for notifying other components that a user's directory state changed.
+ * Lets caches of directory data drop stale entries after a password change.
+ */
+public interface UserChangeNotificationPort {
+
+    Mono<Void> notifyPasswordChanged(String userId);
+}
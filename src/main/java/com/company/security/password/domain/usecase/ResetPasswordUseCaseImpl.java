@@ -8,6 +8,7 @@ import com.company.security.password.domain.port.input.ResetPasswordUseCase;
 import com.company.security.password.domain.port.output.DirectoryPasswordPort;
 import com.company.security.password.domain.port.output.PasswordAuditPort;
 import com.company.security.password.domain.port.output.PasswordResetTokenPort;
+import com.company.security.password.domain.port.output.UserChangeNotificationPort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Mono;
@@ -23,16 +24,19 @@ public class ResetPasswordUseCaseImpl implements ResetPasswordUseCase {
     private final DirectoryPasswordPort directoryPasswordPort;
     private final PasswordAuditPort passwordAuditPort;
     private final PasswordPolicyService passwordPolicyService;
+    private final UserChangeNotificationPort userChangeNotificationPort;
 
     public ResetPasswordUseCaseImpl(
             PasswordResetTokenPort passwordResetTokenPort,
             DirectoryPasswordPort directoryPasswordPort,
             PasswordAuditPort passwordAuditPort,
-            PasswordPolicyService passwordPolicyService) {
+            PasswordPolicyService passwordPolicyService,
+            UserChangeNotificationPort userChangeNotificationPort) {
         this.passwordResetTokenPort = passwordResetTokenPort;
         this.directoryPasswordPort = directoryPasswordPort;
         this.passwordAuditPort = passwordAuditPort;
         this.passwordPolicyService = passwordPolicyService;
+        this.userChangeNotificationPort = userChangeNotificationPort;
     }
 
     @Override
@@ -56,6 +60,7 @@ public class ResetPasswordUseCaseImpl implements ResetPasswordUseCase {
                     // Change password in directory service
                     return directoryPasswordPort.resetPassword(resetToken.userId(), newPassword)
                             .then(passwordResetTokenPort.markAsUsed(token))
+                            .then(Mono.defer(() -> userChangeNotificationPort.notifyPasswordChanged(resetToken.userId())))
                             .thenReturn(PasswordChangeResult.success(
                                     resetToken.userId(),
                                     PasswordChangeResult.ChangeType.RESET))
@@ -6,6 +6,7 @@ import com.company.security.password.domain.service.PasswordPolicyService;
 import com.company.security.password.domain.port.input.UpdatePasswordUseCase;
 import com.company.security.password.domain.port.output.DirectoryPasswordPort;
 import com.company.security.password.domain.port.output.PasswordAuditPort;
+import com.company.security.password.domain.port.output.UserChangeNotificationPort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Mono;
@@ -20,14 +21,17 @@ public class UpdatePasswordUseCaseImpl implements UpdatePasswordUseCase {
     private final DirectoryPasswordPort directoryPasswordPort;
     private final PasswordAuditPort passwordAuditPort;
     private final PasswordPolicyService passwordPolicyService;
+    private final UserChangeNotificationPort userChangeNotificationPort;
 
     public UpdatePasswordUseCaseImpl(
             DirectoryPasswordPort directoryPasswordPort,
             PasswordAuditPort passwordAuditPort,
-            PasswordPolicyService passwordPolicyService) {
+            PasswordPolicyService passwordPolicyService,
+            UserChangeNotificationPort userChangeNotificationPort) {
         this.directoryPasswordPort = directoryPasswordPort;
         this.passwordAuditPort = passwordAuditPort;
         this.passwordPolicyService = passwordPolicyService;
+        this.userChangeNotificationPort = userChangeNotificationPort;
     }
 
     @Override
@@ -45,6 +49,7 @@ public class UpdatePasswordUseCaseImpl implements UpdatePasswordUseCase {
                     passwordPolicyService.validatePassword(newPassword);
 
                     return directoryPasswordPort.changePassword(userId, newPassword)
+                            .then(Mono.defer(() -> userChangeNotificationPort.notifyPasswordChanged(userId)))
                             .thenReturn(PasswordChangeResult.success(
                                     userId,
                                     PasswordChangeResult.ChangeType.UPDATE))
@@ -2,6 +2,7 @@ package com.company.security.password.infrastructure.adapter.output.client;
 
 import com.company.security.password.infrastructure.adapter.output.client.dto.UserInfoClientResponse;
 import com.company.security.password.domain.port.output.UserLookupPort;
+import com.company.security.shared.infrastructure.adapter.output.timeout.AdaptiveTimeLimited;
 import com.company.security.shared.infrastructure.properties.ServicesProperties;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
@@ -25,6 +26,7 @@ public class ClientServiceAdapter implements UserLookupPort {
     @Override
     @CircuitBreaker(name = "clientService", fallbackMethod = "findByEmailFallback")
     @Retry(name = "clientService")
+    @AdaptiveTimeLimited(name = "clientService")
     public Mono<UserInfo> findByEmail(String email) {
         log.debug("Looking up user by email via Client Service: {}", email);
 
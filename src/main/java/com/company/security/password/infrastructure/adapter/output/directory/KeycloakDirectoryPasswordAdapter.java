@@ -1,15 +1,20 @@
 package com.company.security.password.infrastructure.adapter.output.directory;
 
 import com.company.security.password.domain.port.output.DirectoryPasswordPort;
+import com.company.security.shared.infrastructure.adapter.output.keycloak.KeycloakIdentityCache;
+import com.company.security.shared.infrastructure.adapter.output.keycloak.KeycloakServiceAccountTokenAdapter;
+import com.company.security.shared.infrastructure.adapter.output.timeout.AdaptiveTimeLimited;
 import com.company.security.shared.infrastructure.properties.KeycloakProperties;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
@@ -24,21 +29,30 @@ public class KeycloakDirectoryPasswordAdapter implements DirectoryPasswordPort {
 
     private final WebClient webClient;
     private final KeycloakProperties keycloakProperties;
+    private final KeycloakServiceAccountTokenAdapter serviceAccountTokens;
+    private final KeycloakIdentityCache identityCache;
 
     public KeycloakDirectoryPasswordAdapter(
             WebClient.Builder webClientBuilder,
-            KeycloakProperties keycloakProperties) {
+            KeycloakProperties keycloakProperties,
+            KeycloakServiceAccountTokenAdapter serviceAccountTokens,
+            KeycloakIdentityCache identityCache) {
         this.webClient = webClientBuilder
                 .baseUrl(keycloakProperties.getServerUrl())
                 .build();
         this.keycloakProperties = keycloakProperties;
+        this.serviceAccountTokens = serviceAccountTokens;
+        this.identityCache = identityCache;
     }
 
     @Override
     @CircuitBreaker(name = "keycloakService")
     @Retry(name = "keycloakService")
+    @AdaptiveTimeLimited(name = "keycloakService")
     public Mono<Boolean> verifyPassword(String userId, String currentPassword) {
-        return lookupUsernameById(userId)
+        return Mono.defer(() -> identityCache.usernameFor(userId)
+                        .map(Mono::just)
+                        .orElseGet(() -> lookupUsernameById(userId)))
                 .flatMap(username -> requestToken(username, currentPassword)
                         .map(response -> true)
                         .onErrorReturn(false));
@@ -47,6 +61,7 @@ public class KeycloakDirectoryPasswordAdapter implements DirectoryPasswordPort {
     @Override
     @CircuitBreaker(name = "keycloakService")
     @Retry(name = "keycloakService")
+    @AdaptiveTimeLimited(name = "keycloakPasswordWrites")
     public Mono<Void> changePassword(String userId, String newPassword) {
         return resetPassword(userId, newPassword);
     }
@@ -54,18 +69,11 @@ public class KeycloakDirectoryPasswordAdapter implements DirectoryPasswordPort {
     @Override
     @CircuitBreaker(name = "keycloakService")
     @Retry(name = "keycloakService")
+    @AdaptiveTimeLimited(name = "keycloakPasswordWrites")
     public Mono<Void> resetPassword(String userId, String newPassword) {
         log.debug("Resetting password via Keycloak Admin API for user: {}", userId);
 
-        return requestClientCredentialsToken()
-                .flatMap(tokenResponse -> {
-                    String accessToken = (String) tokenResponse.get("access_token");
-                    if (accessToken == null) {
-                        return Mono.error(new IllegalStateException(
-                                "No access_token in client credentials response"));
-                    }
-                    return setUserPassword(accessToken, userId, newPassword);
-                });
+        return serviceAccountTokens.withAccessToken(accessToken -> setUserPassword(accessToken, userId, newPassword));
     }
 
     private Mono<Void> setUserPassword(String accessToken, String userId, String newPassword) {
@@ -84,6 +92,7 @@ public class KeycloakDirectoryPasswordAdapter implements DirectoryPasswordPort {
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(credential)
                 .retrieve()
+                .onStatus(HttpStatus.UNAUTHORIZED::isSameCodeAs, ClientResponse::createException)
                 .onStatus(HttpStatusCode::isError, response ->
                         response.bodyToMono(String.class)
                                 .flatMap(body -> {
@@ -97,27 +106,21 @@ public class KeycloakDirectoryPasswordAdapter implements DirectoryPasswordPort {
     }
 
     private Mono<String> lookupUsernameById(String userId) {
-        return requestClientCredentialsToken()
-                .flatMap(tokenResponse -> {
-                    String accessToken = (String) tokenResponse.get("access_token");
-                    if (accessToken == null) {
-                        return Mono.error(new IllegalStateException(
-                                "No access_token in client credentials response"));
-                    }
-                    String uri = String.format("/admin/realms/%s/users/%s",
-                            keycloakProperties.getRealm(), userId);
-
-                    return webClient.get()
-                            .uri(uri)
-                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
-                            .retrieve()
-                            .onStatus(HttpStatusCode::isError, response ->
-                                    response.bodyToMono(String.class)
-                                            .flatMap(body -> Mono.error(new IllegalStateException(
-                                                    "Failed to lookup user in Keycloak: " + body))))
-                            .bodyToMono(new org.springframework.core.ParameterizedTypeReference<Map<String, Object>>() {})
-                            .map(userData -> (String) userData.get("username"));
-                });
+        String uri = String.format("/admin/realms/%s/users/%s",
+                keycloakProperties.getRealm(), userId);
+
+        return serviceAccountTokens.withAccessToken(accessToken -> webClient.get()
+                .uri(uri)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .retrieve()
+                .onStatus(HttpStatus.UNAUTHORIZED::isSameCodeAs, ClientResponse::createException)
+                .onStatus(HttpStatusCode::isError, response ->
+                        response.bodyToMono(String.class)
+                                .flatMap(body -> Mono.error(new IllegalStateException(
+                                        "Failed to lookup user in Keycloak: " + body))))
+                .bodyToMono(new org.springframework.core.ParameterizedTypeReference<Map<String, Object>>() {})
+                .map(userData -> (String) userData.get("username"))
+                .doOnNext(username -> identityCache.remember(userId, username)));
     }
 
     private Mono<Map<String, Object>> requestToken(String username, String password) {
@@ -139,23 +142,4 @@ public class KeycloakDirectoryPasswordAdapter implements DirectoryPasswordPort {
                                         "Password verification failed: " + body))))
                 .bodyToMono(new org.springframework.core.ParameterizedTypeReference<>() {});
     }
-
-    @SuppressWarnings("unchecked")
-    private Mono<Map<String, Object>> requestClientCredentialsToken() {
-        String tokenUri = String.format("/realms/%s/protocol/openid-connect/token",
-                keycloakProperties.getRealm());
-
-        return webClient.post()
-                .uri(tokenUri)
-                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
-                .body(BodyInserters.fromFormData("grant_type", "client_credentials")
-                        .with("client_id", keycloakProperties.getClientId())
-                        .with("client_secret", keycloakProperties.getClientSecret()))
-                .retrieve()
-                .onStatus(HttpStatusCode::isError, response ->
-                        response.bodyToMono(String.class)
-                                .flatMap(body -> Mono.error(new IllegalStateException(
-                                        "Failed to obtain client credentials token: " + body))))
-                .bodyToMono(new org.springframework.core.ParameterizedTypeReference<>() {});
-    }
 }
@@ -0,0 +1,24 @@
+package com.company.security.password.infrastructure.adapter.output.event;
+
+import com.company.security.password.domain.port.output.UserChangeNotificationPort;
+import com.company.security.shared.infrastructure.event.UserChangeEvent;
+import com.company.security.shared.infrastructure.event.UserChangeEventBus;
+import reactor.core.publisher.Mono;
+
+/**
+ * Publishes password changes on the in-process user change bus.
+ */
+public class UserChangeNotificationAdapter implements UserChangeNotificationPort {
+
+    private final UserChangeEventBus eventBus;
+
+    public UserChangeNotificationAdapter(UserChangeEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    @Override
+    public Mono<Void> notifyPasswordChanged(String userId) {
+        return Mono.fromRunnable(() -> eventBus.publish(
+                UserChangeEvent.of(UserChangeEvent.Type.PASSWORD_CHANGED, userId, null)));
+    }
+}
@@ -1,29 +1,41 @@
 package com.company.security.password.infrastructure.adapter.output.persistence;
 
 import com.company.security.password.infrastructure.adapter.output.persistence.document.PasswordAuditDocument;
-import com.company.security.password.infrastructure.adapter.output.persistence.repository.PasswordAuditRepository;
 import com.company.security.password.domain.port.output.PasswordAuditPort;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditCollection;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditWriter;
 import org.slf4j.MDC;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public class PasswordAuditMongoAdapter implements PasswordAuditPort {
 
-    private final PasswordAuditRepository repository;
+    private final AuditWriter auditWriter;
+
+    public PasswordAuditMongoAdapter(AuditWriter auditWriter) {
+        this.auditWriter = auditWriter;
+    }
 
-    public PasswordAuditMongoAdapter(PasswordAuditRepository repository) {
-        this.repository = repository;
+    public static AuditCollection auditCollection() {
+        return new AuditCollection("password", PasswordAuditDocument.COLLECTION,
+                List.of("eventType", "userId", "email", "ipAddress"),
+                List.of(
+                        AuditCollection.timelineIndex("timeline"),
+                        AuditCollection.timelineIndex("user_timeline", "userId"),
+                        AuditCollection.timelineIndex("ip_event_timeline", "ipAddress", "eventType")));
     }
 
     @Override
     public Mono<Void> recordEvent(EventType eventType, String userId, String email, boolean success,
                                    String failureReason, String ipAddress, String userAgent) {
         String correlationId = MDC.get("correlationId");
-        PasswordAuditDocument.RequestMetadata metadata =
-                new PasswordAuditDocument.RequestMetadata(ipAddress, userAgent, correlationId);
+        PasswordAuditDocument.Metadata metadata =
+                new PasswordAuditDocument.Metadata(eventType.name(), userId, email, ipAddress);
 
         PasswordAuditDocument document = new PasswordAuditDocument(
-                eventType.name(), userId, email, success, failureReason, metadata);
+                metadata, success, failureReason, userAgent, correlationId);
 
-        return repository.save(document).then();
+        return auditWriter.enqueue(document);
     }
 }
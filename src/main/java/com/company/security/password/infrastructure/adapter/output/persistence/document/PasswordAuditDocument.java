@@ -3,58 +3,59 @@ package com.company.security.password.infrastructure.adapter.output.persistence.
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
 
 import java.time.Instant;
 
-@Document(collection = "password_audit_logs")
+@Document(collection = PasswordAuditDocument.COLLECTION)
+@TimeSeries(collection = PasswordAuditDocument.COLLECTION, timeField = "timestamp", metaField = "metadata",
+        granularity = Granularity.SECONDS)
 @Getter
 @Setter
 public class PasswordAuditDocument {
 
+    public static final String COLLECTION = "password_audit_logs";
+
     @Id
     private String id;
 
-    @Indexed
-    private String eventType;
-
-    @Indexed
-    private String userId;
-
-    private String email;
-
-    @Indexed
     private Instant timestamp;
 
+    private Metadata metadata;
+
     private boolean success;
 
     private String failureReason;
 
-    private RequestMetadata requestMetadata;
+    private String userAgent;
+
+    private String correlationId;
 
-    public PasswordAuditDocument(String eventType, String userId, String email,
-                                  boolean success, String failureReason, RequestMetadata requestMetadata) {
-        this.eventType = eventType;
-        this.userId = userId;
-        this.email = email;
+    public PasswordAuditDocument(Metadata metadata, boolean success, String failureReason,
+                                  String userAgent, String correlationId) {
         this.timestamp = Instant.now();
+        this.metadata = metadata;
         this.success = success;
         this.failureReason = failureReason;
-        this.requestMetadata = requestMetadata;
+        this.userAgent = userAgent;
+        this.correlationId = correlationId;
     }
 
     @Setter
     @Getter
-    public static class RequestMetadata {
+    public static class Metadata {
+        private String eventType;
+        private String userId;
+        private String email;
         private String ipAddress;
-        private String userAgent;
-        private String correlationId;
 
-        public RequestMetadata(String ipAddress, String userAgent, String correlationId) {
+        public Metadata(String eventType, String userId, String email, String ipAddress) {
+            this.eventType = eventType;
+            this.userId = userId;
+            this.email = email;
             this.ipAddress = ipAddress;
-            this.userAgent = userAgent;
-            this.correlationId = correlationId;
         }
     }
 
@@ -9,6 +9,7 @@ import com.company.security.password.domain.port.output.DirectoryPasswordPort;
 import com.company.security.password.domain.port.output.EventPublisherPort;
 import com.company.security.password.domain.port.output.PasswordAuditPort;
 import com.company.security.password.domain.port.output.PasswordResetTokenPort;
+import com.company.security.password.domain.port.output.UserChangeNotificationPort;
 import com.company.security.password.domain.port.output.UserLookupPort;
 import com.company.security.password.domain.service.PasswordPolicyService;
 import com.company.security.password.domain.usecase.RecoverPasswordUseCaseImpl;
@@ -61,16 +62,19 @@ public class PasswordDomainConfig {
             PasswordResetTokenPort passwordResetTokenPort,
             DirectoryPasswordPort directoryPasswordPort,
             PasswordAuditPort passwordAuditPort,
-            PasswordPolicyService passwordPolicyService) {
+            PasswordPolicyService passwordPolicyService,
+            UserChangeNotificationPort userChangeNotificationPort) {
         return new ResetPasswordUseCaseImpl(passwordResetTokenPort, directoryPasswordPort,
-                passwordAuditPort, passwordPolicyService);
+                passwordAuditPort, passwordPolicyService, userChangeNotificationPort);
     }
 
     @Bean
     public UpdatePasswordUseCase updatePasswordUseCase(
             DirectoryPasswordPort directoryPasswordPort,
             PasswordAuditPort passwordAuditPort,
-            PasswordPolicyService passwordPolicyService) {
-        return new UpdatePasswordUseCaseImpl(directoryPasswordPort, passwordAuditPort, passwordPolicyService);
+            PasswordPolicyService passwordPolicyService,
+            UserChangeNotificationPort userChangeNotificationPort) {
+        return new UpdatePasswordUseCaseImpl(directoryPasswordPort, passwordAuditPort, passwordPolicyService,
+                userChangeNotificationPort);
     }
 }
@@ -8,21 +8,27 @@ import com.company.security.password.infrastructure.adapter.input.rest.mapper.Pa
 import com.company.security.password.infrastructure.adapter.output.client.ClientServiceAdapter;
 import com.company.security.password.infrastructure.adapter.output.directory.DirectoryPasswordAdapter;
 import com.company.security.password.infrastructure.adapter.output.directory.KeycloakDirectoryPasswordAdapter;
+import com.company.security.password.infrastructure.adapter.output.event.UserChangeNotificationAdapter;
 import com.company.security.password.infrastructure.adapter.output.messaging.PasswordEventPublisherAdapter;
 import com.company.security.password.infrastructure.adapter.output.persistence.PasswordAuditMongoAdapter;
 import com.company.security.password.infrastructure.adapter.output.persistence.PasswordResetTokenMongoAdapter;
-import com.company.security.password.infrastructure.adapter.output.persistence.repository.PasswordAuditRepository;
 import com.company.security.password.infrastructure.adapter.output.persistence.repository.PasswordResetTokenRepository;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditCollection;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditWriter;
+import com.company.security.shared.infrastructure.adapter.output.keycloak.KeycloakIdentityCache;
+import com.company.security.shared.infrastructure.adapter.output.keycloak.KeycloakServiceAccountTokenAdapter;
+import com.company.security.shared.infrastructure.adapter.output.ldap.LdapReplicaRouter;
+import com.company.security.shared.infrastructure.config.web.WebClientConfig;
+import com.company.security.shared.infrastructure.event.UserChangeEventBus;
 import com.company.security.shared.infrastructure.properties.KeycloakProperties;
 import com.company.security.shared.infrastructure.properties.LdapProperties;
 import com.company.security.shared.infrastructure.properties.ServicesProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate;
-import org.springframework.ldap.core.LdapTemplate;
-import org.springframework.ldap.core.support.LdapContextSource;
 import org.springframework.web.reactive.function.client.WebClient;
 
 /**
@@ -35,18 +41,20 @@ public class PasswordInfrastructureConfig {
     @Bean
     @ConditionalOnProperty(name = "auth.provider", havingValue = "ldap", matchIfMissing = true)
     public DirectoryPasswordAdapter directoryPasswordAdapter(
-            LdapTemplate ldapTemplate,
-            LdapContextSource ldapContextSource,
+            LdapReplicaRouter ldapReplicaRouter,
             LdapProperties ldapProperties) {
-        return new DirectoryPasswordAdapter(ldapTemplate, ldapContextSource, ldapProperties);
+        return new DirectoryPasswordAdapter(ldapReplicaRouter, ldapProperties);
     }
 
     @Bean
     @ConditionalOnProperty(name = "auth.provider", havingValue = "keycloak")
     public KeycloakDirectoryPasswordAdapter keycloakDirectoryPasswordAdapter(
-            WebClient.Builder webClientBuilder,
-            KeycloakProperties keycloakProperties) {
-        return new KeycloakDirectoryPasswordAdapter(webClientBuilder, keycloakProperties);
+            @Qualifier(WebClientConfig.KEYCLOAK) WebClient.Builder webClientBuilder,
+            KeycloakProperties keycloakProperties,
+            KeycloakServiceAccountTokenAdapter keycloakServiceAccountTokenAdapter,
+            KeycloakIdentityCache keycloakIdentityCache) {
+        return new KeycloakDirectoryPasswordAdapter(webClientBuilder, keycloakProperties,
+                keycloakServiceAccountTokenAdapter, keycloakIdentityCache);
     }
 
     @Bean
@@ -55,8 +63,13 @@ public class PasswordInfrastructureConfig {
     }
 
     @Bean
-    public PasswordAuditMongoAdapter passwordAuditMongoAdapter(PasswordAuditRepository repository) {
-        return new PasswordAuditMongoAdapter(repository);
+    public PasswordAuditMongoAdapter passwordAuditMongoAdapter(AuditWriter auditWriter) {
+        return new PasswordAuditMongoAdapter(auditWriter);
+    }
+
+    @Bean
+    public AuditCollection passwordAuditCollection() {
+        return PasswordAuditMongoAdapter.auditCollection();
     }
 
     @Bean
@@ -66,9 +79,14 @@ public class PasswordInfrastructureConfig {
         return new PasswordEventPublisherAdapter(kafkaTemplate, objectMapper);
     }
 
+    @Bean
+    public UserChangeNotificationAdapter userChangeNotificationAdapter(UserChangeEventBus userChangeEventBus) {
+        return new UserChangeNotificationAdapter(userChangeEventBus);
+    }
+
     @Bean
     public ClientServiceAdapter clientServiceAdapter(
-            WebClient.Builder webClientBuilder,
+            @Qualifier(WebClientConfig.CLIENT_SERVICE) WebClient.Builder webClientBuilder,
             ServicesProperties servicesProperties) {
         return new ClientServiceAdapter(webClientBuilder, servicesProperties);
     }
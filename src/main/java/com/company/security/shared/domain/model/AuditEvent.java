@@ -0,0 +1,26 @@
+package com.company.security.shared.domain.model;
+
+import java.time.Instant;
+
+/**
+ * An audit event as returned by the audit query, with the cursor that resumes the query right after it.
+ * {@code count} and {@code lastTimestamp} are only set on events that stand for a collapsed burst.
+ */
+public record AuditEvent(
+        String id,
+        String source,
+        Instant timestamp,
+        String eventType,
+        String userId,
+        String username,
+        String email,
+        String ipAddress,
+        boolean success,
+        String failureReason,
+        String userAgent,
+        String correlationId,
+        Long count,
+        Instant lastTimestamp,
+        String cursor
+) {
+}
@@ -0,0 +1,24 @@
+package com.company.security.shared.domain.model;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Filters of the audit query API. {@code metadata} holds equality filters on metadata fields such as
+ * {@code userId} or {@code ipAddress}; {@code after} is the cursor of the last event already received.
+ * Null means no filter.
+ */
+public record AuditEventQuery(
+        String source,
+        Map<String, String> metadata,
+        Boolean success,
+        Instant from,
+        Instant to,
+        String after,
+        Integer limit
+) {
+
+    public AuditEventQuery {
+        metadata = Map.copyOf(metadata);
+    }
+}
@@ -0,0 +1,10 @@
+package com.company.security.shared.domain.model;
+
+import java.time.Instant;
+
+/**
+ * Number of audit events in one minute for a combination of dimensions; {@code ipPrefix} is null when
+ * the query did not group by it.
+ */
+public record AuditRollup(Instant minute, String source, String eventType, boolean success, String ipPrefix, long count) {
+}
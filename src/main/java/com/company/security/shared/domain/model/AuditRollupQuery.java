@@ -0,0 +1,17 @@
+package com.company.security.shared.domain.model;
+
+import java.time.Instant;
+
+/**
+ * Filters of the rollup query; null means no filter. With {@code byIp} the counts are also split by IP prefix.
+ */
+public record AuditRollupQuery(
+        String source,
+        String eventType,
+        Boolean success,
+        String ipPrefix,
+        Instant from,
+        Instant to,
+        boolean byIp
+) {
+}
@@ -0,0 +1,13 @@
+package com.company.security.shared.domain.port.input;
+
+import com.company.security.shared.domain.model.AuditEvent;
+import com.company.security.shared.domain.model.AuditEventQuery;
+import reactor.core.publisher.Flux;
+
+public interface QueryAuditEventsUseCase {
+
+    /**
+     * @throws IllegalArgumentException if the source, a filter field, the limit or the cursor is invalid
+     */
+    Flux<AuditEvent> find(AuditEventQuery query);
+}
@@ -0,0 +1,13 @@
+package com.company.security.shared.domain.port.input;
+
+import com.company.security.shared.domain.model.AuditRollup;
+import com.company.security.shared.domain.model.AuditRollupQuery;
+import reactor.core.publisher.Flux;
+
+public interface QueryAuditRollupsUseCase {
+
+    /**
+     * @throws IllegalArgumentException if the time range is missing, inverted or too long
+     */
+    Flux<AuditRollup> find(AuditRollupQuery query);
+}
@@ -0,0 +1,10 @@
+package com.company.security.shared.domain.port.output;
+
+import com.company.security.shared.domain.model.AuditEvent;
+import com.company.security.shared.domain.model.AuditEventQuery;
+import reactor.core.publisher.Flux;
+
+public interface AuditEventQueryPort {
+
+    Flux<AuditEvent> find(AuditEventQuery query);
+}
@@ -0,0 +1,10 @@
+package com.company.security.shared.domain.port.output;
+
+import com.company.security.shared.domain.model.AuditRollup;
+import com.company.security.shared.domain.model.AuditRollupQuery;
+import reactor.core.publisher.Flux;
+
+public interface AuditRollupQueryPort {
+
+    Flux<AuditRollup> find(AuditRollupQuery query);
+}
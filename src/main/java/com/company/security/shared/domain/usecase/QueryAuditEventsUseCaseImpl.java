@@ -0,0 +1,21 @@
+package com.company.security.shared.domain.usecase;
+
+import com.company.security.shared.domain.model.AuditEvent;
+import com.company.security.shared.domain.model.AuditEventQuery;
+import com.company.security.shared.domain.port.input.QueryAuditEventsUseCase;
+import com.company.security.shared.domain.port.output.AuditEventQueryPort;
+import reactor.core.publisher.Flux;
+
+public class QueryAuditEventsUseCaseImpl implements QueryAuditEventsUseCase {
+
+    private final AuditEventQueryPort auditEventQueryPort;
+
+    public QueryAuditEventsUseCaseImpl(AuditEventQueryPort auditEventQueryPort) {
+        this.auditEventQueryPort = auditEventQueryPort;
+    }
+
+    @Override
+    public Flux<AuditEvent> find(AuditEventQuery query) {
+        return auditEventQueryPort.find(query);
+    }
+}
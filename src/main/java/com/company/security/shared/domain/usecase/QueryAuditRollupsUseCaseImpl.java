@@ -0,0 +1,21 @@
+package com.company.security.shared.domain.usecase;
+
+import com.company.security.shared.domain.model.AuditRollup;
+import com.company.security.shared.domain.model.AuditRollupQuery;
+import com.company.security.shared.domain.port.input.QueryAuditRollupsUseCase;
+import com.company.security.shared.domain.port.output.AuditRollupQueryPort;
+import reactor.core.publisher.Flux;
+
+public class QueryAuditRollupsUseCaseImpl implements QueryAuditRollupsUseCase {
+
+    private final AuditRollupQueryPort auditRollupQueryPort;
+
+    public QueryAuditRollupsUseCaseImpl(AuditRollupQueryPort auditRollupQueryPort) {
+        this.auditRollupQueryPort = auditRollupQueryPort;
+    }
+
+    @Override
+    public Flux<AuditRollup> find(AuditRollupQuery query) {
+        return auditRollupQueryPort.find(query);
+    }
+}
@@ -0,0 +1,138 @@
+package com.company.security.shared.infrastructure.adapter.input.messaging;
+
+import com.company.security.shared.infrastructure.event.UserChangeEvent;
+import com.company.security.shared.infrastructure.event.UserChangeEventBus;
+import com.company.security.shared.infrastructure.event.UserChangeHandler;
+import com.company.security.shared.infrastructure.properties.UserChangeEventsProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumes user change messages published outside this service and fans them out: first to the in-process
+ * {@link UserChangeEventBus} (cache invalidation), then to every {@link UserChangeHandler} (e.g. session
+ * revocation). Records are spread over {@code user-change-events.concurrency} lanes by key, so changes to
+ * one user stay ordered, and each record is acknowledged only after it was processed. Deferred commits keep
+ * the committed offset below any record still in flight. Handler failures are retried with backoff and
+ * then skipped so one bad record cannot stall a partition. Consumer lag is exported through the Kafka
+ * client metrics, end-to-end delay as {@code user.change.events.delay}.
+ */
+public class UserChangeEventConsumer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(UserChangeEventConsumer.class);
+    private static final Duration RECEIVER_MIN_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration RECEIVER_MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final ReceiverOptions<String, String> receiverOptions;
+    private final UserChangeEventNormalizer normalizer;
+    private final UserChangeEventBus eventBus;
+    private final List<UserChangeHandler> handlers;
+    private final UserChangeEventsProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Timer delay;
+    private final Map<String, Counter> outcomes = new ConcurrentHashMap<>();
+    private Disposable subscription;
+
+    public UserChangeEventConsumer(
+            ReceiverOptions<String, String> receiverOptions,
+            UserChangeEventNormalizer normalizer,
+            UserChangeEventBus eventBus,
+            List<UserChangeHandler> handlers,
+            UserChangeEventsProperties properties,
+            MeterRegistry meterRegistry) {
+        this.receiverOptions = receiverOptions;
+        this.normalizer = normalizer;
+        this.eventBus = eventBus;
+        this.handlers = List.copyOf(handlers);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.delay = Timer.builder("user.change.events.delay")
+                .description("Time from the change being published to it being processed here")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    public void start() {
+        int lanes = properties.getConcurrency();
+        subscription = Flux.defer(() -> KafkaReceiver.create(receiverOptions).receive())
+                .groupBy(record -> Math.floorMod(record.key() != null ? record.key().hashCode() : 0, lanes))
+                .flatMap(lane -> lane.concatMap(this::processAndAcknowledge), lanes)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, RECEIVER_MIN_BACKOFF)
+                        .maxBackoff(RECEIVER_MAX_BACKOFF)
+                        .doBeforeRetry(signal -> log.warn("User change consumer restarting after: {}",
+                                signal.failure().getMessage())))
+                .subscribe();
+        log.info("Consuming user change events from {}", properties.getTopics());
+    }
+
+    @Override
+    public void close() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private Mono<Void> processAndAcknowledge(ReceiverRecord<String, String> record) {
+        return process(record).doFinally(signal -> record.receiverOffset().acknowledge());
+    }
+
+    /**
+     * Normalizes and fans out one record; completes empty once it is safe to acknowledge.
+     */
+    Mono<Void> process(ConsumerRecord<String, String> record) {
+        Optional<UserChangeEvent> event;
+        try {
+            event = normalizer.normalize(record.value());
+        } catch (IllegalArgumentException e) {
+            count("invalid");
+            log.warn("Skipping malformed user change message at {}-{}@{}: {}",
+                    record.topic(), record.partition(), record.offset(), e.getMessage());
+            return Mono.empty();
+        }
+        if (event.isEmpty()) {
+            count("ignored");
+            return Mono.empty();
+        }
+        UserChangeEvent change = event.get();
+        if (record.timestamp() > 0) {
+            delay.record(Math.max(0, System.currentTimeMillis() - record.timestamp()), TimeUnit.MILLISECONDS);
+        }
+        eventBus.publish(change);
+        return Flux.fromIterable(handlers)
+                .concatMap(handler -> Mono.defer(() -> handler.handle(change)))
+                .then()
+                .retryWhen(Retry.backoff(properties.getMaxAttempts() - 1L,
+                        Duration.ofMillis(properties.getRetryBackoffMillis())))
+                .doOnSuccess(ignored -> count("processed"))
+                .onErrorResume(e -> {
+                    count("failed");
+                    log.error("Giving up on user change {} for user {}: {}",
+                            change.type(), change.userId() != null ? change.userId() : change.username(),
+                            e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private void count(String outcome) {
+        outcomes.computeIfAbsent(outcome, o -> Counter.builder("user.change.events")
+                .tag("outcome", o)
+                .register(meterRegistry)).increment();
+    }
+}
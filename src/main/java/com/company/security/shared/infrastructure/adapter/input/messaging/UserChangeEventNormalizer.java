@@ -0,0 +1,192 @@
+package com.company.security.shared.infrastructure.adapter.input.messaging;
+
+import com.company.security.shared.infrastructure.event.UserChangeEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Turns user change messages from the directory, Keycloak event listeners or other services into
+ * {@link UserChangeEvent}s. The type is read from {@code type}, {@code eventType} or {@code operationType}
+ * and matched against known aliases. Keycloak admin events are filtered by {@code resourceType}; on a user,
+ * a {@code reset-password} or {@code credentials} sub-resource means a password change and an update whose
+ * {@code representation} has {@code enabled=false} means the account was disabled.
+ * The user is read from {@code userId}/{@code username} at the top level, under {@code payload} or
+ * {@code details}, or from a Keycloak admin {@code resourcePath}.
+ */
+public class UserChangeEventNormalizer {
+
+    private static final String USERS_PATH = "users/";
+    private static final String USER_RESOURCE = "USER";
+    private static final String UPDATE_OPERATION = "UPDATE";
+    private static final Set<String> CREDENTIAL_SUB_RESOURCES = Set.of("reset-password", "credentials");
+    private static final Set<String> ROLE_RESOURCES = Set.of("REALM_ROLE_MAPPING", "CLIENT_ROLE_MAPPING", "GROUP_MEMBERSHIP");
+    private static final Map<String, UserChangeEvent.Type> DEFAULT_ALIASES = Map.ofEntries(
+            Map.entry("PASSWORD_CHANGED", UserChangeEvent.Type.PASSWORD_CHANGED),
+            Map.entry("UPDATE_PASSWORD", UserChangeEvent.Type.PASSWORD_CHANGED),
+            Map.entry("RESET_PASSWORD", UserChangeEvent.Type.PASSWORD_CHANGED),
+            Map.entry("UPDATE_CREDENTIAL", UserChangeEvent.Type.PASSWORD_CHANGED),
+            Map.entry("REMOVE_CREDENTIAL", UserChangeEvent.Type.PASSWORD_CHANGED),
+            Map.entry("ACCOUNT_DISABLED", UserChangeEvent.Type.ACCOUNT_DISABLED),
+            Map.entry("USER_DISABLED", UserChangeEvent.Type.ACCOUNT_DISABLED),
+            Map.entry("ACCOUNT_LOCKED", UserChangeEvent.Type.ACCOUNT_DISABLED),
+            Map.entry("ACCOUNT_DELETED", UserChangeEvent.Type.ACCOUNT_DELETED),
+            Map.entry("USER_DELETED", UserChangeEvent.Type.ACCOUNT_DELETED),
+            Map.entry("DELETE_ACCOUNT", UserChangeEvent.Type.ACCOUNT_DELETED),
+            Map.entry("DELETE", UserChangeEvent.Type.ACCOUNT_DELETED),
+            Map.entry("ROLES_CHANGED", UserChangeEvent.Type.ROLES_CHANGED),
+            Map.entry("ROLE_MAPPING_CHANGED", UserChangeEvent.Type.ROLES_CHANGED),
+            Map.entry("GROUP_MEMBERSHIP_CHANGED", UserChangeEvent.Type.ROLES_CHANGED),
+            Map.entry("PROFILE_UPDATED", UserChangeEvent.Type.PROFILE_UPDATED),
+            Map.entry("UPDATE_PROFILE", UserChangeEvent.Type.PROFILE_UPDATED),
+            Map.entry("USER_UPDATED", UserChangeEvent.Type.PROFILE_UPDATED),
+            Map.entry("UPDATE", UserChangeEvent.Type.PROFILE_UPDATED));
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, UserChangeEvent.Type> aliases;
+
+    public UserChangeEventNormalizer(ObjectMapper objectMapper, Map<String, String> extraAliases) {
+        this.objectMapper = objectMapper;
+        Map<String, UserChangeEvent.Type> merged = new HashMap<>(DEFAULT_ALIASES);
+        extraAliases.forEach((alias, type) -> merged.put(
+                alias.toUpperCase(Locale.ROOT), UserChangeEvent.Type.valueOf(type.toUpperCase(Locale.ROOT))));
+        this.aliases = Map.copyOf(merged);
+    }
+
+    /**
+     * Returns the event, or empty when the message is valid but not about a change we react to.
+     *
+     * @throws IllegalArgumentException if the message is not JSON or names no user
+     */
+    public Optional<UserChangeEvent> normalize(String message) {
+        JsonNode root = parse(message);
+        String rawType = firstText(root, "type", "eventType", "operationType");
+        UserChangeEvent.Type type = typeOf(root, rawType);
+        if (type == null) {
+            return Optional.empty();
+        }
+        String userId = firstText(root, "userId", "payload.userId", "details.userId");
+        if (userId == null) {
+            userId = userIdFromResourcePath(root.path("resourcePath").asText(null));
+        }
+        String username = firstText(root, "username", "payload.username", "details.username");
+        if (userId == null && username == null) {
+            throw new IllegalArgumentException("User change message of type " + rawType + " names no user");
+        }
+        return Optional.of(new UserChangeEvent(type, userId, username, occurredAt(root)));
+    }
+
+    private UserChangeEvent.Type typeOf(JsonNode root, String rawType) {
+        String resourceType = root.path("resourceType").asText(null);
+        if (resourceType != null) {
+            // Keycloak admin event: only user resources and their role or group assignments are relevant
+            String resource = resourceType.toUpperCase(Locale.ROOT);
+            if (ROLE_RESOURCES.contains(resource)) {
+                return UserChangeEvent.Type.ROLES_CHANGED;
+            }
+            if (!USER_RESOURCE.equals(resource)) {
+                return null;
+            }
+            return userAdminEventType(root, rawType);
+        }
+        return alias(rawType);
+    }
+
+    private UserChangeEvent.Type userAdminEventType(JsonNode root, String operationType) {
+        String subResource = subResourceOf(root.path("resourcePath").asText(""));
+        if (CREDENTIAL_SUB_RESOURCES.contains(subResource)) {
+            return UserChangeEvent.Type.PASSWORD_CHANGED;
+        }
+        if (!subResource.isEmpty()) {
+            // logout, consents, federated identities and the like leave the account itself alone
+            return null;
+        }
+        if (UPDATE_OPERATION.equalsIgnoreCase(operationType) && !representation(root).path("enabled").asBoolean(true)) {
+            return UserChangeEvent.Type.ACCOUNT_DISABLED;
+        }
+        return alias(operationType);
+    }
+
+    private UserChangeEvent.Type alias(String rawType) {
+        return rawType != null ? aliases.get(rawType.toUpperCase(Locale.ROOT)) : null;
+    }
+
+    /** Keycloak serializes the admin event representation as a JSON string; some listeners inline it. */
+    private JsonNode representation(JsonNode root) {
+        JsonNode representation = root.path("representation");
+        if (!representation.isTextual()) {
+            return representation;
+        }
+        try {
+            return objectMapper.readTree(representation.asText());
+        } catch (JsonProcessingException e) {
+            return MissingNode.getInstance();
+        }
+    }
+
+    private JsonNode parse(String message) {
+        if (message == null || message.isBlank()) {
+            throw new IllegalArgumentException("Empty user change message");
+        }
+        try {
+            return objectMapper.readTree(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("User change message is not JSON", e);
+        }
+    }
+
+    private static Instant occurredAt(JsonNode root) {
+        JsonNode value = root.has("timestamp") ? root.get("timestamp") : root.path("time");
+        try {
+            if (value.isNumber()) {
+                return Instant.ofEpochMilli(value.asLong());
+            }
+            if (value.isTextual()) {
+                return Instant.parse(value.asText());
+            }
+        } catch (DateTimeParseException e) {
+            // fall through to the receive time
+        }
+        return Instant.now();
+    }
+
+    private static String userIdFromResourcePath(String resourcePath) {
+        if (resourcePath == null || !resourcePath.startsWith(USERS_PATH)) {
+            return null;
+        }
+        String rest = resourcePath.substring(USERS_PATH.length());
+        int slash = rest.indexOf('/');
+        String id = slash >= 0 ? rest.substring(0, slash) : rest;
+        return id.isBlank() ? null : id;
+    }
+
+    private static String subResourceOf(String resourcePath) {
+        if (!resourcePath.startsWith(USERS_PATH)) {
+            return "";
+        }
+        String[] segments = resourcePath.substring(USERS_PATH.length()).split("/");
+        return segments.length > 1 ? segments[1] : "";
+    }
+
+    private static String firstText(JsonNode root, String... paths) {
+        for (String path : paths) {
+            JsonNode node = root;
+            for (String field : path.split("\\.")) {
+                node = node.path(field);
+            }
+            if (node.isTextual() && !node.asText().isBlank()) {
+                return node.asText();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,65 @@
+package com.company.security.shared.infrastructure.adapter.input.rest.controller;
+
+import com.company.security.shared.domain.model.AuditEventQuery;
+import com.company.security.shared.infrastructure.adapter.input.rest.dto.response.AuditEventResponse;
+import com.company.security.shared.infrastructure.adapter.input.rest.handler.AuditEventHandler;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Audit read API for the security team. Streams matching events newest first as NDJSON; every line
+ * carries a {@code cursor}, and passing the last one as {@code after} continues with the next page.
+ */
+@RestController
+@RequestMapping("/internal/v1/audit")
+public class AuditEventController {
+
+    private final AuditEventHandler handler;
+
+    public AuditEventController(AuditEventHandler handler) {
+        this.handler = handler;
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<AuditEventResponse> events(
+            @RequestParam(defaultValue = "auth") String source,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) String ipAddress,
+            @RequestParam(required = false) Boolean success,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        Map<String, String> metadata = new LinkedHashMap<>();
+        putIfPresent(metadata, "userId", userId);
+        putIfPresent(metadata, "username", username);
+        putIfPresent(metadata, "email", email);
+        putIfPresent(metadata, "eventType", eventType);
+        putIfPresent(metadata, "ipAddress", ipAddress);
+        AuditEventQuery query = new AuditEventQuery(source, metadata, success, from, to, after, limit);
+        try {
+            return handler.events(query);
+        } catch (IllegalArgumentException e) {
+            throw new ServerWebInputException(e.getMessage());
+        }
+    }
+
+    private static void putIfPresent(Map<String, String> metadata, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            metadata.put(field, value);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.company.security.shared.infrastructure.adapter.input.rest.controller;
+
+import com.company.security.shared.domain.model.AuditRollupQuery;
+import com.company.security.shared.infrastructure.adapter.input.rest.dto.response.AuditRollupResponse;
+import com.company.security.shared.infrastructure.adapter.input.rest.handler.AuditRollupHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+
+/**
+ * Per-minute audit counts for dashboards, read from the pre-aggregated rollups. Counts are grouped by
+ * source, event type and outcome, and also by IP prefix when {@code byIp} is set.
+ */
+@RestController
+@ConditionalOnProperty(prefix = "audit.rollups", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequestMapping("/internal/v1/audit")
+public class AuditRollupController {
+
+    private final AuditRollupHandler handler;
+
+    public AuditRollupController(AuditRollupHandler handler) {
+        this.handler = handler;
+    }
+
+    @GetMapping(value = "/rollups", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<AuditRollupResponse> rollups(
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) Boolean success,
+            @RequestParam(required = false) String ipPrefix,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "false") boolean byIp) {
+        AuditRollupQuery query = new AuditRollupQuery(source, eventType, success, ipPrefix, from, to, byIp);
+        try {
+            return handler.rollups(query);
+        } catch (IllegalArgumentException e) {
+            throw new ServerWebInputException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.company.security.shared.infrastructure.adapter.input.rest.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AuditEventResponse(
+        String id,
+        String source,
+        Instant timestamp,
+        String eventType,
+        String userId,
+        String username,
+        String email,
+        String ipAddress,
+        boolean success,
+        String failureReason,
+        String userAgent,
+        String correlationId,
+        Long count,
+        Instant lastTimestamp,
+        String cursor
+) {
+}
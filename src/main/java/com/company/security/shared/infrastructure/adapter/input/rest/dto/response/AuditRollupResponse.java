@@ -0,0 +1,16 @@
+package com.company.security.shared.infrastructure.adapter.input.rest.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AuditRollupResponse(
+        Instant minute,
+        String source,
+        String eventType,
+        boolean success,
+        String ipPrefix,
+        long count
+) {
+}
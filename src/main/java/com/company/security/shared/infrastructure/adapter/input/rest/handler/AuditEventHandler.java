@@ -0,0 +1,27 @@
+package com.company.security.shared.infrastructure.adapter.input.rest.handler;
+
+import com.company.security.shared.domain.model.AuditEventQuery;
+import com.company.security.shared.domain.port.input.QueryAuditEventsUseCase;
+import com.company.security.shared.infrastructure.adapter.input.rest.dto.response.AuditEventResponse;
+import com.company.security.shared.infrastructure.adapter.input.rest.mapper.AuditEventRestMapper;
+import reactor.core.publisher.Flux;
+
+/**
+ * Handler for the audit event query endpoint.
+ * Orchestrates use case calls and response mapping.
+ */
+public class AuditEventHandler {
+
+    private final QueryAuditEventsUseCase queryAuditEventsUseCase;
+    private final AuditEventRestMapper mapper;
+
+    public AuditEventHandler(QueryAuditEventsUseCase queryAuditEventsUseCase, AuditEventRestMapper mapper) {
+        this.queryAuditEventsUseCase = queryAuditEventsUseCase;
+        this.mapper = mapper;
+    }
+
+    public Flux<AuditEventResponse> events(AuditEventQuery query) {
+        return queryAuditEventsUseCase.find(query)
+                .map(mapper::toResponse);
+    }
+}
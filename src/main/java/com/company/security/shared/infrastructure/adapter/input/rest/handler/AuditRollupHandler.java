@@ -0,0 +1,27 @@
+package com.company.security.shared.infrastructure.adapter.input.rest.handler;
+
+import com.company.security.shared.domain.model.AuditRollupQuery;
+import com.company.security.shared.domain.port.input.QueryAuditRollupsUseCase;
+import com.company.security.shared.infrastructure.adapter.input.rest.dto.response.AuditRollupResponse;
+import com.company.security.shared.infrastructure.adapter.input.rest.mapper.AuditEventRestMapper;
+import reactor.core.publisher.Flux;
+
+/**
+ * Handler for the audit rollup endpoint.
+ * Orchestrates use case calls and response mapping.
+ */
+public class AuditRollupHandler {
+
+    private final QueryAuditRollupsUseCase queryAuditRollupsUseCase;
+    private final AuditEventRestMapper mapper;
+
+    public AuditRollupHandler(QueryAuditRollupsUseCase queryAuditRollupsUseCase, AuditEventRestMapper mapper) {
+        this.queryAuditRollupsUseCase = queryAuditRollupsUseCase;
+        this.mapper = mapper;
+    }
+
+    public Flux<AuditRollupResponse> rollups(AuditRollupQuery query) {
+        return queryAuditRollupsUseCase.find(query)
+                .map(mapper::toResponse);
+    }
+}
@@ -0,0 +1,40 @@
+package com.company.security.shared.infrastructure.adapter.input.rest.mapper;
+
+import com.company.security.shared.domain.model.AuditEvent;
+import com.company.security.shared.domain.model.AuditRollup;
+import com.company.security.shared.infrastructure.adapter.input.rest.dto.response.AuditEventResponse;
+import com.company.security.shared.infrastructure.adapter.input.rest.dto.response.AuditRollupResponse;
+
+public class AuditEventRestMapper {
+
+    public AuditEventResponse toResponse(AuditEvent event) {
+        return new AuditEventResponse(
+                event.id(),
+                event.source(),
+                event.timestamp(),
+                event.eventType(),
+                event.userId(),
+                event.username(),
+                event.email(),
+                event.ipAddress(),
+                event.success(),
+                event.failureReason(),
+                event.userAgent(),
+                event.correlationId(),
+                event.count(),
+                event.lastTimestamp(),
+                event.cursor()
+        );
+    }
+
+    public AuditRollupResponse toResponse(AuditRollup rollup) {
+        return new AuditRollupResponse(
+                rollup.minute(),
+                rollup.source(),
+                rollup.eventType(),
+                rollup.success(),
+                rollup.ipPrefix(),
+                rollup.count()
+        );
+    }
+}
@@ -0,0 +1,326 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import com.company.security.shared.infrastructure.properties.AuditProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import com.mongodb.MongoClientSettings;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Local store for audit events moved out of MongoDB. Each segment file holds the events of one collection
+ * for part of a day, sorted by time, laid out by column (all timestamps, then all ids, then each metadata
+ * field, ...) so similar values sit together, and compressed with zstd. {@code manifest.json} lists every
+ * segment with its time range and, per collection, the instant before which all events are archived.
+ * Segment and manifest files are written to a temporary name, forced to disk and renamed, so a crash
+ * leaves either the old or the new state.
+ */
+public class AuditArchive {
+
+    static final String MANIFEST = "manifest.json";
+
+    private static final int MAGIC = 0x41554431;
+    private static final String VALUES = "v";
+    private static final String META_PREFIX = AuditCollection.META_FIELD + ".";
+    private static final DocumentCodec CODEC = new DocumentCodec(MongoClientSettings.getDefaultCodecRegistry());
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ISO_LOCAL_DATE.withZone(ZoneOffset.UTC);
+    private static final Comparator<Document> NEWEST_FIRST = Comparator
+            .comparing((Document document) -> document.getDate(AuditCollection.TIME_FIELD))
+            .thenComparing(document -> document.get(AuditCollection.ID_FIELD).toString())
+            .reversed();
+
+    private final Path directory;
+    private final AuditProperties.Archive settings;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private volatile Manifest manifest;
+
+    public AuditArchive(AuditProperties.Archive settings, MeterRegistry meterRegistry) {
+        this.directory = Path.of(settings.getDirectory());
+        this.settings = settings;
+        try {
+            Files.createDirectories(directory);
+            Path manifestFile = directory.resolve(MANIFEST);
+            this.manifest = Files.exists(manifestFile)
+                    ? objectMapper.readValue(manifestFile.toFile(), Manifest.class)
+                    : new Manifest(List.of(), Map.of());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open audit archive in " + directory, e);
+        }
+        Gauge.builder("audit.archive.segments", this, archive -> archive.manifest.segments().size())
+                .register(meterRegistry);
+        Gauge.builder("audit.archive.size", this, archive -> archive.manifest.segments().stream()
+                        .mapToLong(Segment::bytes).sum())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the instant before which every event of the collection is archived, or {@code null}.
+     */
+    public Instant archivedUntil(String collection) {
+        return manifest.archivedUntil().get(collection);
+    }
+
+    /**
+     * Streams the archived events of the collection within {@code [from, to)} that match the filter,
+     * newest first. Only segments overlapping the range are read. Segments whose time ranges intersect, such
+     * as a day and the late events added to it later, are merged; the others are read one at a time.
+     */
+    @SuppressWarnings("unchecked")
+    public Flux<Document> find(String collection, Instant from, Instant to, Predicate<Document> filter) {
+        return Flux.fromIterable(overlapping(segments(collection, from, to)))
+                .concatMap(group -> Flux.mergeComparing(NEWEST_FIRST, group.stream()
+                        .map(segment -> find(segment, from, to, filter))
+                        .toArray(Flux[]::new)));
+    }
+
+    private Flux<Document> find(Segment segment, Instant from, Instant to, Predicate<Document> filter) {
+        return Flux.defer(() -> {
+                    List<Document> documents = new ArrayList<>(read(segment).stream()
+                            .filter(document -> within(document, from, to))
+                            .filter(filter)
+                            .toList());
+                    documents.sort(NEWEST_FIRST);
+                    return Flux.fromIterable(documents);
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Returns the ids of the archived events of the collection within {@code [from, to)}.
+     */
+    Set<Object> ids(String collection, Instant from, Instant to) {
+        Set<Object> ids = new HashSet<>();
+        for (Segment segment : segments(collection, from, to)) {
+            read(segment).stream()
+                    .filter(document -> within(document, from, to))
+                    .forEach(document -> ids.add(document.get(AuditCollection.ID_FIELD)));
+        }
+        return ids;
+    }
+
+    /**
+     * Writes one segment of time-ordered events without adding it to the manifest yet. The file is named
+     * after the day of the first event and {@code part}, which must be unique within that day.
+     */
+    Segment write(String collection, String part, List<Document> documents) {
+        Instant first = documents.get(0).getDate(AuditCollection.TIME_FIELD).toInstant();
+        Instant last = documents.get(documents.size() - 1).getDate(AuditCollection.TIME_FIELD).toInstant();
+        String file = collection + "/" + DAY.format(first) + "-" + part + ".seg.zst";
+        Path target = directory.resolve(file);
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(target.getParent());
+            try (DataOutputStream out = new DataOutputStream(new ZstdOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)), settings.getCompressionLevel()))) {
+                Map<String, List<Object>> columns = columns(documents);
+                out.writeInt(MAGIC);
+                out.writeInt(documents.size());
+                out.writeInt(columns.size());
+                for (Map.Entry<String, List<Object>> column : columns.entrySet()) {
+                    byte[] values = encode(new Document(VALUES, column.getValue()));
+                    out.writeUTF(column.getKey());
+                    out.writeInt(values.length);
+                    out.write(values);
+                }
+            }
+            replace(temporary, target);
+            return new Segment(collection, file, first, last, documents.size(), Files.size(target));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write audit segment " + file, e);
+        }
+    }
+
+    /**
+     * Adds written segments to the manifest and moves the collection's archive horizon to {@code until}.
+     */
+    synchronized void commit(String collection, List<Segment> segments, Instant until) {
+        List<Segment> allSegments = new ArrayList<>(manifest.segments());
+        allSegments.removeIf(existing -> segments.stream().anyMatch(segment -> segment.file().equals(existing.file())));
+        allSegments.addAll(segments);
+        Map<String, Instant> archivedUntil = new HashMap<>(manifest.archivedUntil());
+        archivedUntil.put(collection, until);
+        Manifest updated = new Manifest(List.copyOf(allSegments), Map.copyOf(archivedUntil));
+        Path target = directory.resolve(MANIFEST);
+        Path temporary = directory.resolve(MANIFEST + ".tmp");
+        try {
+            objectMapper.writeValue(temporary.toFile(), updated);
+            replace(temporary, target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write audit archive manifest", e);
+        }
+        manifest = updated;
+    }
+
+    List<Document> read(Segment segment) {
+        try (DataInputStream in = new DataInputStream(new ZstdInputStream(
+                new BufferedInputStream(Files.newInputStream(directory.resolve(segment.file())))))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("not an audit segment");
+            }
+            int rows = in.readInt();
+            int columnCount = in.readInt();
+            List<Document> documents = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                documents.add(new Document());
+            }
+            for (int c = 0; c < columnCount; c++) {
+                String name = in.readUTF();
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                List<?> values = decode(bytes).getList(VALUES, Object.class);
+                for (int i = 0; i < rows; i++) {
+                    Object value = values.get(i);
+                    if (value == null) {
+                        continue;
+                    }
+                    if (name.startsWith(META_PREFIX)) {
+                        documents.get(i).computeIfAbsent(AuditCollection.META_FIELD, k -> new Document());
+                        documents.get(i).get(AuditCollection.META_FIELD, Document.class)
+                                .put(name.substring(META_PREFIX.length()), value);
+                    } else {
+                        documents.get(i).put(name, value);
+                    }
+                }
+            }
+            return documents;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read audit segment " + segment.file(), e);
+        }
+    }
+
+    private List<Segment> segments(String collection, Instant from, Instant to) {
+        return manifest.segments().stream()
+                .filter(segment -> segment.collection().equals(collection))
+                .filter(segment -> (from == null || !segment.last().isBefore(from))
+                        && (to == null || segment.first().isBefore(to)))
+                .toList();
+    }
+
+    /**
+     * Groups segments, newest first, so that every segment of a group intersects the time range of the
+     * group and no two groups intersect.
+     */
+    static List<List<Segment>> overlapping(List<Segment> segments) {
+        List<Segment> newestFirst = segments.stream()
+                .sorted(Comparator.comparing(Segment::last).reversed())
+                .toList();
+        List<List<Segment>> groups = new ArrayList<>();
+        List<Segment> group = new ArrayList<>();
+        Instant groupFirst = null;
+        for (Segment segment : newestFirst) {
+            if (groupFirst != null && segment.last().isBefore(groupFirst)) {
+                groups.add(group);
+                group = new ArrayList<>();
+                groupFirst = null;
+            }
+            group.add(segment);
+            groupFirst = groupFirst == null || segment.first().isBefore(groupFirst) ? segment.first() : groupFirst;
+        }
+        if (!group.isEmpty()) {
+            groups.add(group);
+        }
+        return groups;
+    }
+
+    private static boolean within(Document document, Instant from, Instant to) {
+        Instant timestamp = document.getDate(AuditCollection.TIME_FIELD).toInstant();
+        return (from == null || !timestamp.isBefore(from)) && (to == null || timestamp.isBefore(to));
+    }
+
+    /**
+     * One column per top-level field and per metadata field, padded with nulls where a document lacks it.
+     */
+    private static Map<String, List<Object>> columns(List<Document> documents) {
+        Map<String, List<Object>> columns = new LinkedHashMap<>();
+        for (int i = 0; i < documents.size(); i++) {
+            int row = i;
+            documents.get(i).forEach((field, value) -> {
+                if (AuditCollection.META_FIELD.equals(field) && value instanceof Document metadata) {
+                    metadata.forEach((metaField, metaValue) -> column(columns, META_PREFIX + metaField, row).add(metaValue));
+                } else {
+                    column(columns, field, row).add(value);
+                }
+            });
+        }
+        columns.values().forEach(values -> pad(values, documents.size()));
+        return columns;
+    }
+
+    private static List<Object> column(Map<String, List<Object>> columns, String name, int row) {
+        List<Object> values = columns.computeIfAbsent(name, n -> new ArrayList<>());
+        pad(values, row);
+        return values;
+    }
+
+    private static void pad(List<Object> values, int size) {
+        while (values.size() < size) {
+            values.add(null);
+        }
+    }
+
+    private static byte[] encode(Document document) {
+        BasicOutputBuffer bson = new BasicOutputBuffer();
+        CODEC.encode(new BsonBinaryWriter(bson), document, EncoderContext.builder().build());
+        return bson.toByteArray();
+    }
+
+    private static Document decode(byte[] bytes) {
+        return CODEC.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), DecoderContext.builder().build());
+    }
+
+    private static void replace(Path temporary, Path target) throws IOException {
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * A segment file, relative to the archive directory, with the timestamps of its first and last event.
+     */
+    record Segment(String collection, String file, Instant first, Instant last, int rows, long bytes) {
+    }
+
+    record Manifest(List<Segment> segments, Map<String, Instant> archivedUntil) {
+    }
+}
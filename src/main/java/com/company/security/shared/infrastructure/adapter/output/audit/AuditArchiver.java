@@ -0,0 +1,215 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import com.company.security.shared.infrastructure.properties.AuditProperties;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves audit events older than {@code audit.archive.archive-after-days} from MongoDB into the
+ * {@link AuditArchive}, one UTC day per collection at a time, every {@code interval-minutes}. A day is read
+ * oldest first, written as segments of at most {@code max-rows-per-segment} events (never splitting equal
+ * timestamps), committed to the manifest and only then deleted from MongoDB by id, so an event inserted
+ * into the day meanwhile is not lost. The manifest's horizon is what queries use to split between MongoDB
+ * and the archive, so events whose delete failed are not read twice. Each run first looks below the horizon:
+ * events written there late (replayed from the spool after an outage, or stamped by a skewed clock) are
+ * written to an extra segment of their day, and those already archived by an earlier run whose delete failed
+ * are not; then both are deleted. Deleting from a time-series collection by anything but metadata needs
+ * MongoDB 7.0; on older servers those events stay until the TTL removes them. Run it on one instance per
+ * archive directory.
+ */
+public class AuditArchiver implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditArchiver.class);
+    private static final Duration QUERY_TIMEOUT = Duration.ofMinutes(5);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final List<AuditCollection> collections;
+    private final AuditArchive archive;
+    private final AuditProperties.Archive settings;
+    private final Clock clock;
+    private final Scheduler scheduler;
+    private final Counter archived;
+    private final Counter failures;
+    private Disposable archiveTask;
+
+    public AuditArchiver(ReactiveMongoTemplate mongoTemplate, List<AuditCollection> collections, AuditArchive archive,
+            AuditProperties.Archive settings, MeterRegistry meterRegistry) {
+        this(mongoTemplate, collections, archive, settings, meterRegistry, Clock.systemUTC(), Schedulers.boundedElastic());
+    }
+
+    AuditArchiver(ReactiveMongoTemplate mongoTemplate, List<AuditCollection> collections, AuditArchive archive,
+            AuditProperties.Archive settings, MeterRegistry meterRegistry, Clock clock, Scheduler scheduler) {
+        this.mongoTemplate = mongoTemplate;
+        this.collections = List.copyOf(collections);
+        this.archive = archive;
+        this.settings = settings;
+        this.clock = clock;
+        this.scheduler = scheduler;
+        this.archived = Counter.builder("audit.archive.events")
+                .description("Audit events moved from MongoDB to the archive")
+                .register(meterRegistry);
+        this.failures = Counter.builder("audit.archive.failures")
+                .register(meterRegistry);
+    }
+
+    public void start() {
+        long interval = settings.getIntervalMinutes();
+        archiveTask = scheduler.schedulePeriodically(this::run, interval, interval, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void close() {
+        if (archiveTask != null) {
+            archiveTask.dispose();
+        }
+    }
+
+    /**
+     * Archives every complete day older than the cutoff, for every collection.
+     */
+    synchronized void run() {
+        Instant cutoff = clock.instant().minus(settings.getArchiveAfterDays(), ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+        for (AuditCollection collection : collections) {
+            try {
+                archive(collection.name(), cutoff);
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Could not archive audit events of {}: {}", collection.name(), e.getMessage());
+            }
+        }
+    }
+
+    private void archive(String collection, Instant cutoff) {
+        Instant day = archive.archivedUntil(collection);
+        if (day != null) {
+            archiveBelowHorizon(collection, day);
+        } else {
+            Document oldest = documents(collection, new Document(), 1).blockFirst(QUERY_TIMEOUT);
+            if (oldest == null) {
+                return;
+            }
+            day = oldest.getDate(AuditCollection.TIME_FIELD).toInstant().truncatedTo(ChronoUnit.DAYS);
+        }
+        for (; day.isBefore(cutoff); day = day.plus(1, ChronoUnit.DAYS)) {
+            archiveDay(collection, day, day.plus(1, ChronoUnit.DAYS));
+        }
+    }
+
+    private void archiveDay(String collection, Instant from, Instant to) {
+        Written written = write(collection, from, to, Set.of(), "");
+        archive.commit(collection, written.segments(), to);
+        finish(collection, from, written);
+    }
+
+    /**
+     * Archives, one day at a time, the events below the horizon that are not in the archive yet and deletes
+     * every event found there.
+     */
+    private void archiveBelowHorizon(String collection, Instant horizon) {
+        Bson belowHorizon = Filters.lt(AuditCollection.TIME_FIELD, Date.from(horizon));
+        String run = "late-" + clock.millis() + "-";
+        Document oldest = documents(collection, belowHorizon, 1).blockFirst(QUERY_TIMEOUT);
+        while (oldest != null) {
+            Instant from = oldest.getDate(AuditCollection.TIME_FIELD).toInstant().truncatedTo(ChronoUnit.DAYS);
+            Instant to = from.plus(1, ChronoUnit.DAYS);
+            Written written = write(collection, from, to, archive.ids(collection, from, to), run);
+            if (!written.segments().isEmpty()) {
+                archive.commit(collection, written.segments(), horizon);
+            }
+            finish(collection, from, written);
+            oldest = documents(collection, Filters.and(belowHorizon,
+                    Filters.gte(AuditCollection.TIME_FIELD, Date.from(to))), 1).blockFirst(QUERY_TIMEOUT);
+        }
+    }
+
+    /**
+     * Reads the events of {@code [from, to)} oldest first and writes those not in {@code alreadyArchived}
+     * as segments named {@code prefix} plus their number.
+     */
+    private Written write(String collection, Instant from, Instant to, Set<Object> alreadyArchived, String prefix) {
+        Bson range = Filters.and(Filters.gte(AuditCollection.TIME_FIELD, Date.from(from)),
+                Filters.lt(AuditCollection.TIME_FIELD, Date.from(to)));
+        List<AuditArchive.Segment> segments = new ArrayList<>();
+        List<Object> ids = new ArrayList<>();
+        List<Document> part = new ArrayList<>();
+        for (Document document : documents(collection, range, 0).toIterable(settings.getReadBatchSize())) {
+            ids.add(document.get(AuditCollection.ID_FIELD));
+            if (alreadyArchived.contains(document.get(AuditCollection.ID_FIELD))) {
+                continue;
+            }
+            if (part.size() >= settings.getMaxRowsPerSegment() && !sameTime(part.get(part.size() - 1), document)) {
+                segments.add(archive.write(collection, prefix + String.format("%03d", segments.size()), part));
+                part = new ArrayList<>();
+            }
+            part.add(document);
+        }
+        if (!part.isEmpty()) {
+            segments.add(archive.write(collection, prefix + String.format("%03d", segments.size()), part));
+        }
+        return new Written(segments, ids);
+    }
+
+    private void finish(String collection, Instant day, Written written) {
+        int rows = written.segments().stream().mapToInt(AuditArchive.Segment::rows).sum();
+        if (rows > 0) {
+            archived.increment(rows);
+            log.info("Archived {} audit events of {} from {}", rows, collection, day);
+        }
+        List<Object> ids = written.ids();
+        for (int i = 0; i < ids.size(); i += settings.getReadBatchSize()) {
+            delete(collection, Filters.in(AuditCollection.ID_FIELD,
+                    ids.subList(i, Math.min(ids.size(), i + settings.getReadBatchSize()))));
+        }
+    }
+
+    private Flux<Document> documents(String collection, Bson filter, int limit) {
+        return mongoTemplate.getCollection(collection)
+                .flatMapMany(mongoCollection -> mongoCollection.find(filter)
+                        .sort(Sorts.ascending(AuditCollection.TIME_FIELD, AuditCollection.ID_FIELD))
+                        .limit(limit)
+                        .batchSize(settings.getReadBatchSize()));
+    }
+
+    private void delete(String collection, Bson filter) {
+        try {
+            mongoTemplate.getCollection(collection)
+                    .flatMap(mongoCollection -> Mono.from(mongoCollection.deleteMany(filter)))
+                    .block(QUERY_TIMEOUT);
+        } catch (RuntimeException e) {
+            log.warn("Archived audit events of {} stay in MongoDB until the next run: {}", collection, e.getMessage());
+        }
+    }
+
+    private static boolean sameTime(Document previous, Document next) {
+        return Objects.equals(previous.getDate(AuditCollection.TIME_FIELD), next.getDate(AuditCollection.TIME_FIELD));
+    }
+
+    /**
+     * Segments written for a range and the ids of every event read from it, archived before or not.
+     */
+    private record Written(List<AuditArchive.Segment> segments, List<Object> ids) {
+    }
+}
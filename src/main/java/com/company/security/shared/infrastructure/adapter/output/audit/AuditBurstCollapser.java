@@ -0,0 +1,152 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import com.company.security.shared.infrastructure.properties.AuditProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Collapses bursts of identical audit events before they reach the {@link AuditWriter}. The first event for
+ * a key opens a burst that is held for {@code audit.collapse.window-millis}; identical events arriving in
+ * that window only bump its count and last timestamp. When the window closes the first event is written
+ * once, marked with the count and the last timestamp if it was repeated. At most {@code max-bursts} bursts
+ * are held; beyond that new keys are written straight through, so memory stays bounded during an attack
+ * with many distinct keys. On shutdown all open bursts are written.
+ */
+public class AuditBurstCollapser implements AutoCloseable {
+
+    private final AuditWriter auditWriter;
+    private final AuditProperties.Collapse settings;
+    private final LongSupplier clock;
+    private final Scheduler scheduler;
+    private final Map<Object, Burst> open = new ConcurrentHashMap<>();
+    private final Counter collapsed;
+    private Disposable sweepTask;
+
+    public AuditBurstCollapser(AuditWriter auditWriter, AuditProperties.Collapse settings, MeterRegistry meterRegistry) {
+        this(auditWriter, settings, meterRegistry, System::currentTimeMillis, Schedulers.parallel());
+    }
+
+    AuditBurstCollapser(AuditWriter auditWriter, AuditProperties.Collapse settings, MeterRegistry meterRegistry,
+            LongSupplier clock, Scheduler scheduler) {
+        this.auditWriter = auditWriter;
+        this.settings = settings;
+        this.clock = clock;
+        this.scheduler = scheduler;
+        this.collapsed = Counter.builder("audit.events.collapsed")
+                .description("Audit events folded into an earlier identical event")
+                .register(meterRegistry);
+        Gauge.builder("audit.bursts.open", open, Map::size)
+                .register(meterRegistry);
+    }
+
+    public void start() {
+        long interval = Math.max(1, settings.getWindowMillis() / 4);
+        sweepTask = scheduler.schedulePeriodically(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic sweep and writes every open burst.
+     */
+    @Override
+    public void close() {
+        if (sweepTask != null) {
+            sweepTask.dispose();
+        }
+        open.forEach((key, burst) -> {
+            if (open.remove(key, burst)) {
+                emit(burst);
+            }
+        });
+    }
+
+    /**
+     * Folds the event into the open burst for {@code key}, opens one, or writes the event directly when
+     * too many bursts are open. Keys are compared with {@code equals}; a record of the identifying fields
+     * keeps distinct events apart however their values are chosen.
+     */
+    public Mono<Void> submit(Object key, Collapsible event) {
+        long now = clock.getAsLong();
+        boolean[] held = {false};
+        open.compute(key, (k, burst) -> {
+            if (burst != null) {
+                burst.repeat(now);
+                held[0] = true;
+                collapsed.increment();
+                return burst;
+            }
+            if (open.size() >= settings.getMaxBursts()) {
+                return null;
+            }
+            held[0] = true;
+            return new Burst(event, now);
+        });
+        return held[0] ? Mono.empty() : auditWriter.enqueue(event);
+    }
+
+    int openCount() {
+        return open.size();
+    }
+
+    /**
+     * Writes the bursts whose window has closed.
+     */
+    void sweep() {
+        long now = clock.getAsLong();
+        open.forEach((key, burst) -> {
+            if (now - burst.first >= settings.getWindowMillis() && open.remove(key, burst)) {
+                emit(burst);
+            }
+        });
+    }
+
+    private void emit(Burst burst) {
+        if (burst.count > 1) {
+            burst.event.collapse(burst.count, Instant.ofEpochMilli(burst.last));
+        }
+        auditWriter.enqueue(burst.event).subscribe();
+    }
+
+    /**
+     * Audit document that can record how often it was repeated.
+     */
+    public interface Collapsible {
+
+        /**
+         * Marks the document as standing for {@code count} identical events, the last at {@code lastTimestamp}.
+         */
+        void collapse(long count, Instant lastTimestamp);
+    }
+
+    /**
+     * Mutated only inside {@link ConcurrentHashMap#compute} and read after removal, so the map's locking
+     * makes its fields visible to the sweeping thread.
+     */
+    private static final class Burst {
+        private final Collapsible event;
+        private final long first;
+        private long last;
+        private long count = 1;
+
+        Burst(Collapsible event, long first) {
+            this.event = event;
+            this.first = first;
+            this.last = first;
+        }
+
+        void repeat(long now) {
+            count++;
+            last = Math.max(last, now);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+
+import java.util.List;
+
+/**
+ * A time-series collection of audit events, queried under the name {@code source}. {@code metadataFields}
+ * are the fields kept under {@link #META_FIELD}, which is what documents written before the collection
+ * became time-series are converted to, and {@code indexes} are the secondary indexes its queries need.
+ */
+public record AuditCollection(String source, String name, List<String> metadataFields, List<Index> indexes) {
+
+    public static final String TIME_FIELD = "timestamp";
+    public static final String META_FIELD = "metadata";
+    public static final String ID_FIELD = "_id";
+
+    /**
+     * Index serving the newest-first keyset scan of the audit query API, optionally narrowed by
+     * equality on the given metadata fields.
+     */
+    public static Index timelineIndex(String name, String... metadataFields) {
+        Index index = new Index();
+        for (String field : metadataFields) {
+            index.on(META_FIELD + "." + field, Sort.Direction.ASC);
+        }
+        return index.on(TIME_FIELD, Sort.Direction.DESC)
+                .on(ID_FIELD, Sort.Direction.DESC)
+                .named(name);
+    }
+
+    public AuditCollection {
+        metadataFields = List.copyOf(metadataFields);
+        indexes = List.copyOf(indexes);
+    }
+}
@@ -0,0 +1,236 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import com.company.security.shared.infrastructure.properties.AuditProperties;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the audit collections as MongoDB time-series collections with a TTL of
+ * {@code audit.storage.retention-days}, keeps the TTL in line with that setting and ensures each
+ * collection's query indexes. An existing regular collection is renamed to {@code <name>_legacy}, the
+ * time-series collection is created and events still inside the retention window are copied over in
+ * their new shape, oldest first. The copy resumes after the newest event already copied when it was
+ * interrupted, and the legacy collection is kept for the operator to drop once the copy has completed.
+ * With {@code audit.storage.migrate-legacy} turned off, a regular collection fails the initialization.
+ * Until {@link #ready()} completes, audit writes are held back so they never go to a regular collection.
+ */
+public class AuditCollectionInitializer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditCollectionInitializer.class);
+    private static final String LEGACY_SUFFIX = "_legacy";
+    private static final String REQUEST_METADATA = "requestMetadata";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final List<AuditCollection> collections;
+    private final AuditProperties.Storage settings;
+    private final Sinks.Empty<Void> ready = Sinks.empty();
+    private Disposable initialization;
+
+    public AuditCollectionInitializer(ReactiveMongoTemplate mongoTemplate, List<AuditCollection> collections,
+            AuditProperties.Storage settings) {
+        this.mongoTemplate = mongoTemplate;
+        this.collections = List.copyOf(collections);
+        this.settings = settings;
+    }
+
+    public void start() {
+        initialization = Flux.fromIterable(collections)
+                .concatMap(this::initialize)
+                .then()
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofMinutes(1))
+                        .doBeforeRetry(signal -> log.warn("Audit collections not initialized yet: {}",
+                                signal.failure().getMessage())))
+                .subscribe(null, e -> log.error("Audit collection initialization stopped", e), ready::tryEmitEmpty);
+    }
+
+    /**
+     * Completes once every audit collection exists with its indexes.
+     */
+    public Mono<Void> ready() {
+        return ready.asMono();
+    }
+
+    @Override
+    public void close() {
+        if (initialization != null) {
+            initialization.dispose();
+        }
+    }
+
+    Mono<Void> initialize(AuditCollection collection) {
+        return collectionInfo(collection.name())
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(info -> {
+                    if (info.isEmpty()) {
+                        return create(collection).then(resumeMigration(collection));
+                    }
+                    return "timeseries".equals(info.get().getString("type"))
+                            ? updateRetention(collection, info.get()).then(resumeMigration(collection))
+                            : convertLegacy(collection);
+                })
+                .then(Mono.defer(() -> Flux.fromIterable(collection.indexes())
+                        .concatMap(index -> mongoTemplate.indexOps(collection.name()).ensureIndex(index))
+                        .then()));
+    }
+
+    private Mono<Void> create(AuditCollection collection) {
+        CollectionOptions options = CollectionOptions.timeSeries(AuditCollection.TIME_FIELD, timeSeries -> timeSeries
+                .metaField(AuditCollection.META_FIELD)
+                .granularity(Granularity.valueOf(settings.getGranularity().toUpperCase(Locale.ROOT)))
+                .expireAfter(retention()));
+        return mongoTemplate.createCollection(collection.name(), options)
+                .doOnSuccess(created -> log.info("Created time-series audit collection {} with {} days retention",
+                        collection.name(), settings.getRetentionDays()))
+                .then();
+    }
+
+    private Mono<Void> updateRetention(AuditCollection collection, Document info) {
+        Number current = info.get("options", new Document()).get("expireAfterSeconds", Number.class);
+        long desired = retention().toSeconds();
+        if (current != null && current.longValue() == desired) {
+            return Mono.empty();
+        }
+        return mongoTemplate.executeCommand(new Document("collMod", collection.name()).append("expireAfterSeconds", desired))
+                .doOnSuccess(result -> log.info("Audit collection {} retention set to {} days",
+                        collection.name(), settings.getRetentionDays()))
+                .then();
+    }
+
+    private Mono<Void> convertLegacy(AuditCollection collection) {
+        String legacyName = collection.name() + LEGACY_SUFFIX;
+        if (!settings.isMigrateLegacy()) {
+            return Mono.error(new IllegalStateException("Audit collection " + collection.name()
+                    + " is not a time-series collection; set audit.storage.migrate-legacy=true to convert it"));
+        }
+        return mongoTemplate.collectionExists(legacyName).flatMap(legacyExists -> {
+            if (legacyExists) {
+                return Mono.error(new IllegalStateException("Audit collection " + collection.name()
+                        + " is not a time-series collection and cannot be migrated: " + legacyName + " already exists"));
+            }
+            return mongoTemplate.getMongoDatabase().flatMap(database -> Mono.from(database.getCollection(collection.name())
+                            .renameCollection(new MongoNamespace(database.getName(), legacyName)))
+                    .then(create(collection))
+                    .then(copy(database, collection, legacyName)));
+        });
+    }
+
+    /**
+     * Finishes a migration that stopped after the legacy collection was renamed.
+     */
+    private Mono<Void> resumeMigration(AuditCollection collection) {
+        String legacyName = collection.name() + LEGACY_SUFFIX;
+        if (!settings.isMigrateLegacy()) {
+            return Mono.empty();
+        }
+        return mongoTemplate.collectionExists(legacyName)
+                .filter(Boolean::booleanValue)
+                .flatMap(legacyExists -> mongoTemplate.getMongoDatabase())
+                .flatMap(database -> copy(database, collection, legacyName));
+    }
+
+    /**
+     * Copies the legacy events inside the retention window, oldest first, that are newer than the newest
+     * event already copied. Events written since the migration started are newer than every legacy event,
+     * so only copied events are taken into account; at the newest copied instant, ids are compared.
+     */
+    private Mono<Void> copy(MongoDatabase database, AuditCollection collection, String legacyName) {
+        MongoCollection<Document> legacy = database.getCollection(legacyName);
+        MongoCollection<Document> target = database.getCollection(collection.name());
+        int batchSize = settings.getMigrationBatchSize();
+        Date cutoff = Date.from(Instant.now().minus(retention()));
+        return Mono.from(legacy.createIndex(Indexes.ascending(AuditCollection.TIME_FIELD)))
+                .then(Mono.from(legacy.find().sort(Sorts.descending(AuditCollection.TIME_FIELD)).first()))
+                .flatMap(newestLegacy -> Mono.from(target
+                                .find(Filters.lte(AuditCollection.TIME_FIELD, newestLegacy.getDate(AuditCollection.TIME_FIELD)))
+                                .sort(Sorts.descending(AuditCollection.TIME_FIELD))
+                                .first())
+                        .map(copied -> copied.getDate(AuditCollection.TIME_FIELD)))
+                .flatMap(newestCopied -> Flux.from(target.find(Filters.eq(AuditCollection.TIME_FIELD, newestCopied))
+                                .projection(Projections.include(AuditCollection.ID_FIELD)))
+                        .map(copied -> copied.get(AuditCollection.ID_FIELD))
+                        .collect(Collectors.toSet())
+                        .map(copiedIds -> new Resume(newestCopied.after(cutoff) ? newestCopied : cutoff, copiedIds)))
+                .defaultIfEmpty(new Resume(cutoff, Set.of()))
+                .flatMap(resume -> Flux.from(legacy.find(Filters.gte(AuditCollection.TIME_FIELD, resume.from()))
+                                .sort(Sorts.ascending(AuditCollection.TIME_FIELD))
+                                .batchSize(batchSize))
+                        .filter(document -> !resume.copiedIds().contains(document.get(AuditCollection.ID_FIELD)))
+                        .map(document -> toTimeSeries(document, collection.metadataFields()))
+                        .buffer(batchSize)
+                        .concatMap(documents -> Mono.from(target.insertMany(documents, new InsertManyOptions().ordered(false)))
+                                .thenReturn(documents.size()))
+                        .reduce(0L, Long::sum)
+                        .doOnNext(copied -> log.info("Migrated {} audit events from {} to time-series collection {} "
+                                        + "starting at {}; the migration is complete, drop {} once verified",
+                                copied, legacyName, collection.name(), resume.from().toInstant(), legacyName)))
+                .then();
+    }
+
+    /**
+     * Moves the metadata fields of a legacy audit document, which may sit at the top level or under
+     * {@code requestMetadata}, into the meta field and lifts the other request fields to the top level.
+     */
+    static Document toTimeSeries(Document legacy, List<String> metadataFields) {
+        Document request = legacy.get(REQUEST_METADATA, new Document());
+        Document metadata = new Document();
+        for (String field : metadataFields) {
+            Object value = legacy.containsKey(field) ? legacy.get(field) : request.get(field);
+            if (value != null) {
+                metadata.put(field, value);
+            }
+        }
+        Document converted = new Document();
+        legacy.forEach((field, value) -> {
+            if (!metadataFields.contains(field) && !REQUEST_METADATA.equals(field)) {
+                converted.put(field, value);
+            }
+        });
+        request.forEach((field, value) -> {
+            if (!metadataFields.contains(field)) {
+                converted.putIfAbsent(field, value);
+            }
+        });
+        converted.put(AuditCollection.META_FIELD, metadata);
+        return converted;
+    }
+
+    private Mono<Document> collectionInfo(String name) {
+        return mongoTemplate.getMongoDatabase()
+                .flatMap(database -> Mono.from(database.listCollections().filter(new Document("name", name)).first()));
+    }
+
+    private Duration retention() {
+        return Duration.ofDays(settings.getRetentionDays());
+    }
+
+    private record Resume(Date from, Set<Object> copiedIds) {
+    }
+}
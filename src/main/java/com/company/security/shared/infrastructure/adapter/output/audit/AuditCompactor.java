@@ -0,0 +1,220 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import com.company.security.shared.infrastructure.properties.AuditProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Shrinks audit documents before they are stored and restores them when they are read. User agents are
+ * interned in the {@code audit_user_agents} dictionary: the stored event keeps only {@code userAgentId}, a
+ * 64-bit id derived from a SHA-256 of the string, so every instance assigns the same id without
+ * coordination. New user agents are registered from the audit drainer with one upsert and then served from
+ * a local cache; while MongoDB is unreachable, or on the (unlikely) id collision, the full string is stored
+ * instead. IP literals in {@code metadata.ipAddress} are stored as 4 or 16 bytes of binary; anything else,
+ * such as a forged {@code X-Forwarded-For} value, stays text. Readers accept both forms, so events written
+ * before compaction or with it disabled read the same.
+ */
+public class AuditCompactor {
+
+    static final String COLLECTION = "audit_user_agents";
+    static final String USER_AGENT_FIELD = "userAgent";
+    static final String USER_AGENT_ID_FIELD = "userAgentId";
+    static final String IP_ADDRESS_FIELD = "ipAddress";
+
+    private static final Logger log = LoggerFactory.getLogger(AuditCompactor.class);
+    private static final Pattern IPV4 = Pattern.compile("(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})");
+    // starts with a hex digit or ':' so InetAddress parses it as a literal instead of looking it up
+    private static final Pattern IPV6 = Pattern.compile("[0-9a-fA-F]*:[0-9a-fA-F:.]*");
+    private static final String VALUE_FIELD = "value";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final AuditProperties.Compaction settings;
+    private final Cache<String, Long> idsByUserAgent;
+    private final Cache<Long, String> userAgentsById;
+    private final Counter registered;
+    private final Counter unregistered;
+    private volatile long registerRetryNanos = System.nanoTime();
+
+    public AuditCompactor(ReactiveMongoTemplate mongoTemplate, AuditProperties.Compaction settings,
+            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.settings = settings;
+        this.idsByUserAgent = Caffeine.newBuilder().maximumSize(settings.getUserAgentCacheSize()).build();
+        this.userAgentsById = Caffeine.newBuilder().maximumSize(settings.getUserAgentCacheSize()).build();
+        this.registered = Counter.builder("audit.user.agents.registered")
+                .register(meterRegistry);
+        this.unregistered = Counter.builder("audit.user.agents.unregistered")
+                .description("Audit events stored with the full user agent because it could not be interned")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replaces the user agent with its dictionary id and packs the IP address, in place. Called from the
+     * audit drainer; it may block up to {@code audit.compaction.register-timeout-millis} on a new user agent.
+     */
+    public Document compact(Document document) {
+        if (document.get(USER_AGENT_FIELD) instanceof String userAgent) {
+            Long id = intern(userAgent);
+            if (id != null) {
+                document.remove(USER_AGENT_FIELD);
+                document.put(USER_AGENT_ID_FIELD, id);
+            } else {
+                unregistered.increment();
+            }
+        }
+        if (document.get(AuditCollection.META_FIELD) instanceof Document metadata
+                && metadata.get(IP_ADDRESS_FIELD) instanceof String ipAddress) {
+            byte[] packed = packAddress(ipAddress);
+            if (packed != null) {
+                metadata.put(IP_ADDRESS_FIELD, new Binary(packed));
+            }
+        }
+        return document;
+    }
+
+    /**
+     * Restores the user agent string and the textual IP address, in place.
+     */
+    public Mono<Document> expand(Document document) {
+        if (document.get(AuditCollection.META_FIELD) instanceof Document metadata
+                && metadata.get(IP_ADDRESS_FIELD) instanceof Binary) {
+            metadata.put(IP_ADDRESS_FIELD, addressText(metadata.get(IP_ADDRESS_FIELD)));
+        }
+        if (!(document.get(USER_AGENT_ID_FIELD) instanceof Number id)) {
+            return Mono.just(document);
+        }
+        return userAgent(id.longValue())
+                .map(userAgent -> {
+                    document.remove(USER_AGENT_ID_FIELD);
+                    document.put(USER_AGENT_FIELD, userAgent);
+                    return document;
+                })
+                .defaultIfEmpty(document);
+    }
+
+    /**
+     * Returns the 4 or 16 bytes of an IP literal, or {@code null} for anything else. Never resolves names:
+     * IPv4 literals are parsed here, and only IPv6 literals are handed to {@link InetAddress}, which parses
+     * those without a lookup.
+     */
+    static byte[] packAddress(String ipAddress) {
+        if (ipAddress == null) {
+            return null;
+        }
+        Matcher ipv4 = IPV4.matcher(ipAddress);
+        if (ipv4.matches()) {
+            byte[] bytes = new byte[4];
+            for (int i = 0; i < bytes.length; i++) {
+                int octet = Integer.parseInt(ipv4.group(i + 1));
+                if (octet > 255) {
+                    return null;
+                }
+                bytes[i] = (byte) octet;
+            }
+            return bytes;
+        }
+        if (!IPV6.matcher(ipAddress).matches()) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(ipAddress).getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the textual form of a stored IP address, packed or not.
+     */
+    static String addressText(Object stored) {
+        if (stored instanceof Binary binary) {
+            try {
+                return InetAddress.getByAddress(binary.getData()).getHostAddress();
+            } catch (UnknownHostException e) {
+                return null;
+            }
+        }
+        return stored instanceof String text ? text : null;
+    }
+
+    /**
+     * Returns the dictionary id of a user agent: the first 64 bits of its SHA-256.
+     */
+    public static long idOf(String userAgent) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(userAgent.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Long intern(String userAgent) {
+        Long cached = idsByUserAgent.getIfPresent(userAgent);
+        if (cached != null) {
+            return cached;
+        }
+        if (System.nanoTime() - registerRetryNanos < 0) {
+            return null;
+        }
+        long id = idOf(userAgent);
+        try {
+            Document stored = mongoTemplate.findAndModify(
+                            Query.query(Criteria.where(AuditCollection.ID_FIELD).is(id)),
+                            new Update().setOnInsert(VALUE_FIELD, userAgent),
+                            FindAndModifyOptions.options().upsert(true).returnNew(true),
+                            Document.class, COLLECTION)
+                    .block(Duration.ofMillis(settings.getRegisterTimeoutMillis()));
+            if (stored == null || !userAgent.equals(stored.getString(VALUE_FIELD))) {
+                log.warn("User agent id {} is already taken by another user agent, storing it in full", id);
+                return null;
+            }
+        } catch (DuplicateKeyException e) {
+            // another instance registered it concurrently; the next event finds it
+            return null;
+        } catch (RuntimeException e) {
+            registerRetryNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.getRegisterRetryMillis());
+            log.warn("Could not register user agent, storing user agents in full for {} ms: {}",
+                    settings.getRegisterRetryMillis(), e.getMessage());
+            return null;
+        }
+        registered.increment();
+        idsByUserAgent.put(userAgent, id);
+        userAgentsById.put(id, userAgent);
+        return id;
+    }
+
+    private Mono<String> userAgent(long id) {
+        String cached = userAgentsById.getIfPresent(id);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return mongoTemplate.findById(id, Document.class, COLLECTION)
+                .mapNotNull(stored -> stored.getString(VALUE_FIELD))
+                .doOnNext(userAgent -> userAgentsById.put(id, userAgent));
+    }
+}
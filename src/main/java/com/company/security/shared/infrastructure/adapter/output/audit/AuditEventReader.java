@@ -0,0 +1,229 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import com.company.security.shared.domain.model.AuditEvent;
+import com.company.security.shared.domain.model.AuditEventQuery;
+import com.company.security.shared.domain.port.output.AuditEventQueryPort;
+import com.company.security.shared.infrastructure.properties.AuditProperties;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads audit events newest first for the audit query API. Pages are keyset-based: the cursor encodes
+ * the timestamp and id of the last event returned and the next page starts strictly below it, which the
+ * {@code (metadata..., timestamp desc, _id desc)} indexes serve without sorting in memory. Results are
+ * streamed from the driver cursor in batches of {@code audit.query.batch-size} as the subscriber demands
+ * them, and read with {@code audit.query.read-preference} (secondary preferred by default) so audit
+ * scans stay off the primary that takes the audit writes. Events shrunk by the {@link AuditCompactor} are
+ * expanded again, and IP address filters match both the packed and the textual form. When an
+ * {@link AuditArchive} is configured, MongoDB serves events from the archive horizon on and, if the range
+ * reaches further back, the stream continues with the archived segments, filtered in memory.
+ */
+public class AuditEventReader implements AuditEventQueryPort {
+
+    private static final Bson NEWEST_FIRST = Sorts.descending(AuditCollection.TIME_FIELD, AuditCollection.ID_FIELD);
+    private static final String SUCCESS_FIELD = "success";
+    private static final char CURSOR_SEPARATOR = ':';
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final AuditCompactor compactor;
+    private final AuditArchive archive;
+    private final Map<String, AuditCollection> collections = new LinkedHashMap<>();
+    private final AuditProperties.Query settings;
+    private final ReadPreference readPreference;
+
+    public AuditEventReader(ReactiveMongoTemplate mongoTemplate, List<AuditCollection> collections,
+            AuditProperties.Query settings) {
+        this(mongoTemplate, collections, null, null, settings);
+    }
+
+    /**
+     * @param compactor expands compacted events, or {@code null} to return documents as stored
+     * @param archive events moved out of MongoDB, or {@code null} to read MongoDB only
+     */
+    public AuditEventReader(ReactiveMongoTemplate mongoTemplate, List<AuditCollection> collections,
+            AuditCompactor compactor, AuditArchive archive, AuditProperties.Query settings) {
+        this.mongoTemplate = mongoTemplate;
+        this.compactor = compactor;
+        this.archive = archive;
+        collections.forEach(collection -> this.collections.put(collection.source(), collection));
+        this.settings = settings;
+        this.readPreference = ReadPreference.valueOf(settings.getReadPreference());
+    }
+
+    public Set<String> sources() {
+        return collections.keySet();
+    }
+
+    /**
+     * Streams the events matching the query.
+     *
+     * @throws IllegalArgumentException if the source, a filter field, the limit or the cursor is invalid
+     */
+    @Override
+    public Flux<AuditEvent> find(AuditEventQuery query) {
+        AuditCollection collection = collections.get(query.source());
+        if (collection == null) {
+            throw new IllegalArgumentException("Unknown audit source '" + query.source() + "', expected one of " + sources());
+        }
+        int limit = query.limit() != null ? query.limit() : settings.getDefaultLimit();
+        if (limit < 1 || limit > settings.getMaxLimit()) {
+            throw new IllegalArgumentException("limit must be between 1 and " + settings.getMaxLimit());
+        }
+        Bson filter = filter(collection, query);
+        Instant archivedUntil = archive != null ? archive.archivedUntil(collection.name()) : null;
+        Bson liveFilter = archivedUntil != null
+                ? Filters.and(filter, Filters.gte(AuditCollection.TIME_FIELD, Date.from(archivedUntil)))
+                : filter;
+        Flux<Document> documents = mongoTemplate.getCollection(collection.name())
+                .flatMapMany(mongoCollection -> mongoCollection.withReadPreference(readPreference)
+                        .find(liveFilter)
+                        .sort(NEWEST_FIRST)
+                        .limit(limit)
+                        .batchSize(Math.min(limit, settings.getBatchSize()))
+                        .maxTime(settings.getMaxTimeMillis(), TimeUnit.MILLISECONDS));
+        if (archivedUntil != null && (query.from() == null || query.from().isBefore(archivedUntil))) {
+            Instant to = query.to() != null && query.to().isBefore(archivedUntil) ? query.to() : archivedUntil;
+            documents = documents.concatWith(Flux.defer(() ->
+                    archive.find(collection.name(), query.from(), to, document -> matches(query, document))));
+        }
+        return documents
+                .take(limit)
+                .concatMap(document -> compactor != null ? compactor.expand(document) : Mono.just(document))
+                .map(document -> toEvent(collection.source(), document));
+    }
+
+    static AuditEvent toEvent(String source, Document document) {
+        Document metadata = document.get(AuditCollection.META_FIELD, new Document());
+        Date timestamp = document.getDate(AuditCollection.TIME_FIELD);
+        Date lastTimestamp = document.getDate("lastTimestamp");
+        Object count = document.get("count");
+        return new AuditEvent(
+                Objects.toString(document.get(AuditCollection.ID_FIELD), null),
+                source,
+                timestamp != null ? timestamp.toInstant() : null,
+                metadata.getString("eventType"),
+                metadata.getString("userId"),
+                metadata.getString("username"),
+                metadata.getString("email"),
+                metadata.getString("ipAddress"),
+                document.getBoolean(SUCCESS_FIELD, false),
+                document.getString("failureReason"),
+                document.getString("userAgent"),
+                document.getString("correlationId"),
+                count instanceof Number number ? number.longValue() : null,
+                lastTimestamp != null ? lastTimestamp.toInstant() : null,
+                cursorOf(document)
+        );
+    }
+
+    static Bson filter(AuditCollection collection, AuditEventQuery query) {
+        List<Bson> conditions = new ArrayList<>();
+        query.metadata().forEach((field, value) -> {
+            if (!collection.metadataFields().contains(field)) {
+                throw new IllegalArgumentException("Audit source '" + collection.source() + "' cannot be filtered by " + field);
+            }
+            byte[] packed = AuditCompactor.IP_ADDRESS_FIELD.equals(field) ? AuditCompactor.packAddress(value) : null;
+            conditions.add(packed != null
+                    ? Filters.in(AuditCollection.META_FIELD + "." + field, new Binary(packed), value)
+                    : Filters.eq(AuditCollection.META_FIELD + "." + field, value));
+        });
+        if (query.success() != null) {
+            conditions.add(Filters.eq(SUCCESS_FIELD, query.success()));
+        }
+        if (query.from() != null) {
+            conditions.add(Filters.gte(AuditCollection.TIME_FIELD, Date.from(query.from())));
+        }
+        if (query.to() != null) {
+            conditions.add(Filters.lt(AuditCollection.TIME_FIELD, Date.from(query.to())));
+        }
+        if (query.after() != null) {
+            conditions.add(after(query.after()));
+        }
+        return conditions.isEmpty() ? new Document() : Filters.and(conditions);
+    }
+
+    /**
+     * In-memory equivalent of {@link #filter} for archived events; the query must already have passed it.
+     */
+    static boolean matches(AuditEventQuery query, Document document) {
+        Document metadata = document.get(AuditCollection.META_FIELD, new Document());
+        for (Map.Entry<String, String> condition : query.metadata().entrySet()) {
+            Object stored = metadata.get(condition.getKey());
+            byte[] packed = AuditCompactor.IP_ADDRESS_FIELD.equals(condition.getKey())
+                    ? AuditCompactor.packAddress(condition.getValue()) : null;
+            boolean equal = packed != null
+                    ? Arrays.equals(packed, AuditCompactor.packAddress(AuditCompactor.addressText(stored)))
+                    : condition.getValue().equals(stored);
+            if (!equal) {
+                return false;
+            }
+        }
+        if (query.success() != null && query.success() != document.getBoolean(SUCCESS_FIELD, false)) {
+            return false;
+        }
+        Date timestamp = document.getDate(AuditCollection.TIME_FIELD);
+        if (query.from() != null && timestamp.toInstant().isBefore(query.from())) {
+            return false;
+        }
+        if (query.to() != null && !timestamp.toInstant().isBefore(query.to())) {
+            return false;
+        }
+        if (query.after() != null) {
+            Cursor cursor = Cursor.parse(query.after());
+            int byTime = timestamp.compareTo(cursor.timestamp());
+            return byTime < 0 || (byTime == 0
+                    && document.get(AuditCollection.ID_FIELD).toString().compareTo(cursor.id().toString()) < 0);
+        }
+        return true;
+    }
+
+    static String cursorOf(Document document) {
+        Date timestamp = document.getDate(AuditCollection.TIME_FIELD);
+        String value = timestamp.getTime() + String.valueOf(CURSOR_SEPARATOR) + document.get(AuditCollection.ID_FIELD);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Bson after(String value) {
+        Cursor cursor = Cursor.parse(value);
+        return Filters.or(
+                Filters.lt(AuditCollection.TIME_FIELD, cursor.timestamp()),
+                Filters.and(Filters.eq(AuditCollection.TIME_FIELD, cursor.timestamp()),
+                        Filters.lt(AuditCollection.ID_FIELD, cursor.id())));
+    }
+
+    private record Cursor(Date timestamp, Object id) {
+
+        static Cursor parse(String cursor) {
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = value.indexOf(CURSOR_SEPARATOR);
+                Date timestamp = Date.from(Instant.ofEpochMilli(Long.parseLong(value.substring(0, separator))));
+                String rawId = value.substring(separator + 1);
+                return new Cursor(timestamp, ObjectId.isValid(rawId) ? new ObjectId(rawId) : rawId);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid audit cursor", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import org.bson.Document;
+
+/**
+ * An audit event already mapped to the BSON document stored in {@code collection}.
+ */
+public record AuditRecord(String collection, Document document) {
+}
@@ -0,0 +1,255 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import com.company.security.shared.domain.model.AuditRollup;
+import com.company.security.shared.domain.model.AuditRollupQuery;
+import com.company.security.shared.domain.port.output.AuditRollupQueryPort;
+import com.company.security.shared.infrastructure.properties.AuditProperties;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-minute counts of audit events by source, event type, outcome and IP prefix (IPv4 /24, IPv6 /48),
+ * kept in memory as the {@link AuditWriter} drains events and flushed every
+ * {@code audit.rollups.flush-interval-seconds} as {@code $inc} upserts into {@code audit_rollups}, one
+ * document per minute and key. Dashboards read those documents through {@link #find}, so their cost
+ * grows with the number of minutes and keys instead of the number of events. Once {@code max-keys} keys
+ * are pending, new IP prefixes are counted under {@code other}. Counts that fail to flush are kept for the
+ * next attempt; a flush retried after a partial write may count some events twice.
+ */
+public class AuditRollups implements AuditRollupQueryPort, AutoCloseable {
+
+    static final String COLLECTION = "audit_rollups";
+    static final String OTHER = "other";
+    private static final String COUNT_FIELD = "count";
+
+    private static final Logger log = LoggerFactory.getLogger(AuditRollups.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final Map<String, String> sourcesByCollection = new HashMap<>();
+    private final AuditProperties.Rollups settings;
+    private final Scheduler scheduler;
+    private final ReadPreference readPreference;
+    private final ConcurrentHashMap<Key, Long> pending = new ConcurrentHashMap<>();
+    private final Counter flushedKeys;
+    private final Counter failedFlushes;
+    private volatile boolean indexesEnsured;
+    private Disposable flushTask;
+
+    public AuditRollups(ReactiveMongoTemplate mongoTemplate, List<AuditCollection> collections,
+            AuditProperties.Rollups settings, String readPreference, MeterRegistry meterRegistry) {
+        this(mongoTemplate, collections, settings, readPreference, meterRegistry, Schedulers.boundedElastic());
+    }
+
+    AuditRollups(ReactiveMongoTemplate mongoTemplate, List<AuditCollection> collections,
+            AuditProperties.Rollups settings, String readPreference, MeterRegistry meterRegistry, Scheduler scheduler) {
+        this.mongoTemplate = mongoTemplate;
+        collections.forEach(collection -> sourcesByCollection.put(collection.name(), collection.source()));
+        this.settings = settings;
+        this.readPreference = ReadPreference.valueOf(readPreference);
+        this.scheduler = scheduler;
+        this.flushedKeys = Counter.builder("audit.rollups.flushed")
+                .description("Rollup counters written to MongoDB")
+                .register(meterRegistry);
+        this.failedFlushes = Counter.builder("audit.rollups.flush.failures")
+                .register(meterRegistry);
+        Gauge.builder("audit.rollups.pending", pending, Map::size)
+                .description("Rollup counters waiting for the next flush")
+                .register(meterRegistry);
+    }
+
+    public void start() {
+        long interval = settings.getFlushIntervalSeconds();
+        flushTask = scheduler.schedulePeriodically(this::flush, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the periodic flush and writes out what is still counted.
+     */
+    @Override
+    public void close() {
+        if (flushTask != null) {
+            flushTask.dispose();
+        }
+        flush();
+    }
+
+    /**
+     * Counts one event, or as many as a collapsed event stands for.
+     */
+    public void record(AuditRecord record) {
+        Document document = record.document();
+        Date timestamp = document.getDate(AuditCollection.TIME_FIELD);
+        Document metadata = document.get(AuditCollection.META_FIELD, new Document());
+        long minute = (timestamp != null ? timestamp.toInstant() : Instant.now()).truncatedTo(ChronoUnit.MINUTES).toEpochMilli();
+        String source = sourcesByCollection.getOrDefault(record.collection(), record.collection());
+        Key key = new Key(source, minute, metadata.getString("eventType"),
+                document.getBoolean("success", false), ipPrefix(AuditCompactor.addressText(metadata.get("ipAddress"))));
+        if (pending.size() >= settings.getMaxKeys() && !pending.containsKey(key)) {
+            key = new Key(key.source(), key.minute(), key.eventType(), key.success(), OTHER);
+        }
+        Object count = document.get(COUNT_FIELD);
+        pending.merge(key, count instanceof Number number ? number.longValue() : 1L, Long::sum);
+    }
+
+    /**
+     * Writes the pending counts as upserts; on failure they are merged back for the next flush.
+     */
+    synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Key, Long> batch = new LinkedHashMap<>();
+        for (Key key : pending.keySet()) {
+            Long count = pending.remove(key);
+            if (count != null) {
+                batch.put(key, count);
+            }
+        }
+        try {
+            ensureIndexes();
+            ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION);
+            batch.forEach((key, count) -> bulk.upsert(
+                    Query.query(Criteria.where(AuditCollection.ID_FIELD).is(key.id())),
+                    new Update().inc("count", count)
+                            .setOnInsert("minute", new Date(key.minute()))
+                            .setOnInsert("source", key.source())
+                            .setOnInsert("eventType", key.eventType())
+                            .setOnInsert("success", key.success())
+                            .setOnInsert("ipPrefix", key.ipPrefix())));
+            bulk.execute().block(Duration.ofMillis(settings.getWriteTimeoutMillis()));
+            flushedKeys.increment(batch.size());
+        } catch (RuntimeException e) {
+            batch.forEach((key, count) -> pending.merge(key, count, Long::sum));
+            failedFlushes.increment();
+            log.warn("Could not flush {} audit rollup counters: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Streams per-minute counts for the query, oldest minute first.
+     *
+     * @throws IllegalArgumentException if the time range is missing, inverted or too long
+     */
+    @Override
+    public Flux<AuditRollup> find(AuditRollupQuery query) {
+        if (query.from() == null || query.to() == null || !query.from().isBefore(query.to())) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (Duration.between(query.from(), query.to()).compareTo(Duration.ofDays(settings.getMaxQueryRangeDays())) > 0) {
+            throw new IllegalArgumentException("Rollup queries cover at most " + settings.getMaxQueryRangeDays() + " days");
+        }
+        List<Bson> pipeline = pipeline(query);
+        return mongoTemplate.getCollection(COLLECTION)
+                .flatMapMany(collection -> collection.withReadPreference(readPreference).aggregate(pipeline))
+                .map(AuditRollups::toRollup);
+    }
+
+    static List<Bson> pipeline(AuditRollupQuery query) {
+        List<Bson> conditions = new ArrayList<>();
+        if (query.source() != null) {
+            conditions.add(Filters.eq("source", query.source()));
+        }
+        conditions.add(Filters.gte("minute", Date.from(query.from())));
+        conditions.add(Filters.lt("minute", Date.from(query.to())));
+        if (query.eventType() != null) {
+            conditions.add(Filters.eq("eventType", query.eventType()));
+        }
+        if (query.success() != null) {
+            conditions.add(Filters.eq("success", query.success()));
+        }
+        if (query.ipPrefix() != null) {
+            conditions.add(Filters.eq("ipPrefix", query.ipPrefix()));
+        }
+        Document group = new Document("minute", "$minute")
+                .append("source", "$source")
+                .append("eventType", "$eventType")
+                .append("success", "$success");
+        if (query.byIp()) {
+            group.append("ipPrefix", "$ipPrefix");
+        }
+        return List.of(
+                Aggregates.match(Filters.and(conditions)),
+                Aggregates.group(group, Accumulators.sum("count", "$count")),
+                Aggregates.sort(Sorts.ascending("_id.minute", "_id.eventType")));
+    }
+
+    /**
+     * IPv4 addresses are reduced to their /24 and IPv6 addresses to their /48; anything else is {@code other}.
+     */
+    static String ipPrefix(String ipAddress) {
+        if (ipAddress == null) {
+            return OTHER;
+        }
+        byte[] bytes = AuditCompactor.packAddress(ipAddress.split(",", 2)[0].trim());
+        if (bytes == null) {
+            return OTHER;
+        }
+        if (bytes.length == 4) {
+            return (bytes[0] & 0xff) + "." + (bytes[1] & 0xff) + "." + (bytes[2] & 0xff) + ".0/24";
+        }
+        return String.format("%x:%x:%x::/48", ((bytes[0] & 0xff) << 8) | (bytes[1] & 0xff),
+                ((bytes[2] & 0xff) << 8) | (bytes[3] & 0xff), ((bytes[4] & 0xff) << 8) | (bytes[5] & 0xff));
+    }
+
+    private void ensureIndexes() {
+        if (indexesEnsured) {
+            return;
+        }
+        mongoTemplate.indexOps(COLLECTION)
+                .ensureIndex(new Index().on("source", Sort.Direction.ASC).on("minute", Sort.Direction.ASC)
+                        .named("source_minute"))
+                .then(mongoTemplate.indexOps(COLLECTION).ensureIndex(new Index().on("minute", Sort.Direction.ASC)
+                        .expire(Duration.ofDays(settings.getRetentionDays())).named("minute_ttl")))
+                .block(Duration.ofMillis(settings.getWriteTimeoutMillis()));
+        indexesEnsured = true;
+    }
+
+    private static AuditRollup toRollup(Document document) {
+        Document id = document.get(AuditCollection.ID_FIELD, Document.class);
+        return new AuditRollup(id.getDate("minute").toInstant(), id.getString("source"), id.getString("eventType"),
+                id.getBoolean("success", false), id.getString("ipPrefix"),
+                document.get("count", Number.class).longValue());
+    }
+
+    private record Key(String source, long minute, String eventType, boolean success, String ipPrefix) {
+
+        String id() {
+            return String.join("|", source, Instant.ofEpochMilli(minute).toString(), String.valueOf(eventType),
+                    String.valueOf(success), ipPrefix);
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import com.company.security.shared.infrastructure.properties.AuditProperties;
+import com.mongodb.MongoClientSettings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of audit records on local disk, used by {@link AuditWriter} while MongoDB is down or
+ * too slow. Records are appended to fixed-size memory-mapped segment files under
+ * {@code audit.spool.directory}, and a checkpoint file remembers how far replay has got, so a restart
+ * resumes where it stopped. Each record is {@code length | crc32c | body} with the length written last;
+ * a record torn by a crash fails its checksum and marks the end of the log. Replayed segments are
+ * deleted, and no segment is added once the spool would exceed {@code audit.spool.max-size-bytes}.
+ */
+public class AuditSpool implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditSpool.class);
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int HEADER_BYTES = 8;
+    private static final DocumentCodec CODEC = new DocumentCodec(MongoClientSettings.getDefaultCodecRegistry());
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxSegments;
+    private final TreeSet<Long> segments = new TreeSet<>();
+    private final MappedByteBuffer checkpoint;
+    private final Counter appended;
+    private final Counter replayed;
+
+    private MappedByteBuffer writeBuffer;
+    private long writeSegment;
+    private int writeOffset;
+    private MappedByteBuffer readBuffer;
+    private long readSegment;
+    private int readOffset;
+
+    public AuditSpool(AuditProperties.Spool settings, MeterRegistry meterRegistry) {
+        if (settings.getSegmentSizeBytes() <= HEADER_BYTES || settings.getMaxSizeBytes() < settings.getSegmentSizeBytes()) {
+            throw new IllegalArgumentException("audit.spool.max-size-bytes must hold at least one segment");
+        }
+        this.directory = Path.of(settings.getDirectory());
+        this.segmentSize = settings.getSegmentSizeBytes();
+        this.maxSegments = settings.getMaxSizeBytes() / segmentSize;
+        try {
+            Files.createDirectories(directory);
+            this.checkpoint = map(directory.resolve(CHECKPOINT_FILE), Long.BYTES + Integer.BYTES);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open audit spool in " + directory, e);
+        }
+        this.appended = Counter.builder("audit.spool.appended")
+                .description("Audit events written to the local spool")
+                .register(meterRegistry);
+        this.replayed = Counter.builder("audit.spool.replayed")
+                .description("Spooled audit events replayed to MongoDB")
+                .register(meterRegistry);
+        Gauge.builder("audit.spool.size", this, AuditSpool::pendingBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("audit.spool.segments", this, AuditSpool::segmentCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Appends records in order and forces them to disk; returns how many were stored.
+     */
+    synchronized int append(List<AuditRecord> records) {
+        int stored = 0;
+        for (AuditRecord record : records) {
+            byte[] body = encode(record);
+            if (HEADER_BYTES + body.length > segmentSize) {
+                log.warn("Audit event of {} bytes does not fit in a spool segment", body.length);
+                continue;
+            }
+            if (writeOffset + HEADER_BYTES + body.length > segmentSize && !roll()) {
+                break;
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(body);
+            writeBuffer.put(writeOffset + HEADER_BYTES, body);
+            writeBuffer.putInt(writeOffset + Integer.BYTES, (int) crc.getValue());
+            writeBuffer.putInt(writeOffset, body.length);
+            writeOffset += HEADER_BYTES + body.length;
+            stored++;
+        }
+        if (stored > 0) {
+            writeBuffer.force();
+            appended.increment(stored);
+        }
+        return stored;
+    }
+
+    /**
+     * Reads up to {@code max} of the oldest records without consuming them.
+     */
+    synchronized Chunk peek(int max) {
+        List<AuditRecord> records = new ArrayList<>();
+        long segment = readSegment;
+        int offset = readOffset;
+        MappedByteBuffer buffer = readBuffer;
+        while (records.size() < max) {
+            int length = recordLength(buffer, offset, segment == writeSegment ? writeOffset : segmentSize);
+            if (length < 0) {
+                Long next = segments.higher(segment);
+                if (segment == writeSegment || next == null) {
+                    break;
+                }
+                segment = next;
+                offset = 0;
+                buffer = segment == writeSegment ? writeBuffer : mapSegment(segment);
+                continue;
+            }
+            records.add(decode(buffer, offset + HEADER_BYTES, length));
+            offset += HEADER_BYTES + length;
+        }
+        return new Chunk(List.copyOf(records), segment, offset);
+    }
+
+    /**
+     * Marks everything up to the end of {@code chunk} as replayed and deletes finished segments.
+     */
+    synchronized void commit(Chunk chunk) {
+        while (!segments.isEmpty() && segments.first() < chunk.segment()) {
+            delete(segments.pollFirst());
+        }
+        if (chunk.segment() != readSegment) {
+            readBuffer = chunk.segment() == writeSegment ? writeBuffer : mapSegment(chunk.segment());
+        }
+        readSegment = chunk.segment();
+        readOffset = chunk.offset();
+        saveCheckpoint();
+        replayed.increment(chunk.records().size());
+    }
+
+    synchronized boolean isEmpty() {
+        return readSegment == writeSegment && readOffset == writeOffset;
+    }
+
+    synchronized long pendingBytes() {
+        if (readSegment == writeSegment) {
+            return writeOffset - readOffset;
+        }
+        return (segmentSize - readOffset) + (segments.size() - 2L) * segmentSize + writeOffset;
+    }
+
+    private synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        writeBuffer.force();
+        checkpoint.force();
+    }
+
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name, SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length(), 10))
+                    .forEach(segments::add);
+        }
+        long checkpointSegment = checkpoint.getLong(0);
+        int checkpointOffset = checkpoint.getInt(Long.BYTES);
+        while (!segments.isEmpty() && segments.first() < checkpointSegment) {
+            delete(segments.pollFirst());
+        }
+        if (segments.isEmpty()) {
+            segments.add(checkpointSegment);
+            checkpointOffset = 0;
+        } else if (segments.first() != checkpointSegment) {
+            checkpointSegment = segments.first();
+            checkpointOffset = 0;
+        }
+        readSegment = checkpointSegment;
+        readOffset = checkpointOffset;
+        readBuffer = mapSegment(readSegment);
+        writeSegment = segments.last();
+        writeBuffer = writeSegment == readSegment ? readBuffer : mapSegment(writeSegment);
+        writeOffset = writeSegment == readSegment ? readOffset : 0;
+        int length;
+        while ((length = recordLength(writeBuffer, writeOffset, segmentSize)) >= 0) {
+            writeOffset += HEADER_BYTES + length;
+        }
+        saveCheckpoint();
+        if (!isEmpty()) {
+            log.info("Audit spool in {} holds {} bytes to replay", directory, pendingBytes());
+        }
+    }
+
+    private boolean roll() {
+        if (segments.size() >= maxSegments) {
+            return false;
+        }
+        if (writeOffset + Integer.BYTES <= segmentSize) {
+            writeBuffer.putInt(writeOffset, 0);
+        }
+        writeBuffer.force();
+        writeSegment++;
+        segments.add(writeSegment);
+        writeBuffer = mapSegment(writeSegment);
+        writeOffset = 0;
+        return true;
+    }
+
+    /**
+     * Length of the valid record at {@code offset}, or -1 at the end of the written part.
+     */
+    private static int recordLength(MappedByteBuffer buffer, int offset, int limit) {
+        if (offset + HEADER_BYTES > limit) {
+            return -1;
+        }
+        int length = buffer.getInt(offset);
+        if (length <= 0 || length > limit - offset - HEADER_BYTES) {
+            return -1;
+        }
+        byte[] body = new byte[length];
+        buffer.get(offset + HEADER_BYTES, body);
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        return (int) crc.getValue() == buffer.getInt(offset + Integer.BYTES) ? length : -1;
+    }
+
+    private static byte[] encode(AuditRecord record) {
+        byte[] collection = record.collection().getBytes(StandardCharsets.UTF_8);
+        BasicOutputBuffer bson = new BasicOutputBuffer();
+        CODEC.encode(new BsonBinaryWriter(bson), record.document(), EncoderContext.builder().build());
+        return ByteBuffer.allocate(Short.BYTES + collection.length + bson.getSize())
+                .putShort((short) collection.length)
+                .put(collection)
+                .put(bson.getInternalBuffer(), 0, bson.getSize())
+                .array();
+    }
+
+    private static AuditRecord decode(MappedByteBuffer buffer, int offset, int length) {
+        byte[] body = new byte[length];
+        buffer.get(offset, body);
+        int collectionLength = ByteBuffer.wrap(body).getShort();
+        String collection = new String(body, Short.BYTES, collectionLength, StandardCharsets.UTF_8);
+        int bsonOffset = Short.BYTES + collectionLength;
+        Document document = CODEC.decode(new BsonBinaryReader(ByteBuffer.wrap(body, bsonOffset, length - bsonOffset).slice()),
+                DecoderContext.builder().build());
+        return new AuditRecord(collection, document);
+    }
+
+    private void saveCheckpoint() {
+        checkpoint.putLong(0, readSegment);
+        checkpoint.putInt(Long.BYTES, readOffset);
+        checkpoint.force();
+    }
+
+    private MappedByteBuffer mapSegment(long segment) {
+        try {
+            return map(segmentPath(segment), segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map audit spool segment " + segment, e);
+        }
+    }
+
+    private void delete(long segment) {
+        try {
+            Files.deleteIfExists(segmentPath(segment));
+        } catch (IOException e) {
+            log.warn("Could not delete replayed audit spool segment {}: {}", segment, e.getMessage());
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    /**
+     * Records read by {@link #peek} and the position just after them.
+     */
+    record Chunk(List<AuditRecord> records, long segment, int offset) {
+    }
+}
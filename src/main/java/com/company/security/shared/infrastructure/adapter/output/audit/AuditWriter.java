@@ -0,0 +1,364 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import com.company.security.shared.infrastructure.properties.AuditProperties;
+import com.mongodb.MongoBulkWriteException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Shared audit pipeline. Adapters hand documents to {@link #enqueue}, which only touches an
+ * {@link AuditRingBuffer}; a single drainer thread takes them out in batches of up to
+ * {@code audit.writer.batch-size} or whatever arrived within {@code max-batch-delay-millis}, maps them to
+ * BSON (shrunk by the {@link AuditCompactor} when one is configured), counts them in the {@link AuditRollups}
+ * and writes each batch with one unordered bulk insert per
+ * collection. When the buffer is full the
+ * {@code overflow-policy} decides: {@code block} waits (without blocking the caller's thread) up to
+ * {@code block-timeout-millis} for space, {@code drop-oldest} evicts the oldest event and {@code sample}
+ * keeps one in {@code sample-rate} of the overflowing events by evicting the oldest and drops the rest.
+ * A batch that fails or exceeds {@code write-timeout-millis} goes to the {@link AuditSpool} when one is
+ * configured (otherwise it is logged and dropped); while the spool holds events, new batches are appended
+ * behind them and the drainer replays the spool in order, up to {@code replay-chunks-per-cycle} batches after
+ * every live batch so the backlog also shrinks under sustained load. Delivery is at least once: a batch retried after
+ * a partial write keeps its {@code _id}s, so regular collections reject the copies (duplicate key errors
+ * are ignored), but time-series collections, which do not enforce unique ids, may keep both. On shutdown
+ * the drainer writes out or spools what is still buffered.
+ */
+public class AuditWriter implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditWriter.class);
+    private static final Duration BLOCK_POLL_INTERVAL = Duration.ofMillis(1);
+    private static final RuntimeException BUFFER_FULL = new IllegalStateException("audit buffer full");
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final AuditRingBuffer<Object> buffer;
+    private final Function<Object, AuditRecord> encoder;
+    private final BatchInserter inserter;
+    private final AuditSpool spool;
+    private final AuditRollups rollups;
+    private final AuditProperties.Writer settings;
+    private final OverflowPolicy overflowPolicy;
+    private final AtomicLong overflowCount = new AtomicLong();
+    private final DistributionSummary batchSizes;
+    private final Timer batchWrites;
+    private final Counter written;
+    private final Counter failed;
+    private final Map<String, Counter> dropped = new LinkedHashMap<>();
+    private final Thread drainer;
+    private volatile boolean running = true;
+    private long nextReplayNanos = System.nanoTime();
+
+    /**
+     * @param storageReady completes once the target collections exist; writes wait for it
+     * @param spool where batches go while MongoDB is unavailable, or {@code null} to drop them
+     * @param rollups counters every drained event is added to, or {@code null}
+     * @param compactor interns user agents and packs IP addresses, or {@code null} to store them as given
+     */
+    public AuditWriter(ReactiveMongoOperations mongoOperations, Mono<Void> storageReady, AuditSpool spool,
+            AuditRollups rollups, AuditCompactor compactor, AuditProperties.Writer settings,
+            MeterRegistry meterRegistry) {
+        this(document -> toRecord(mongoOperations, compactor, document),
+                (collection, documents) -> storageReady.then(Mono.defer(() -> mongoOperations
+                        .bulkOps(BulkOperations.BulkMode.UNORDERED, collection)
+                        .insert(documents)
+                        .execute()
+                        .then()
+                        .onErrorResume(AuditWriter::onlyDuplicateKeys, e -> Mono.empty()))),
+                spool, rollups, settings, meterRegistry);
+    }
+
+    AuditWriter(Function<Object, AuditRecord> encoder, BatchInserter inserter, AuditSpool spool,
+            AuditRollups rollups, AuditProperties.Writer settings, MeterRegistry meterRegistry) {
+        this.buffer = new AuditRingBuffer<>(settings.getCapacity());
+        this.encoder = encoder;
+        this.inserter = inserter;
+        this.spool = spool;
+        this.rollups = rollups;
+        this.settings = settings;
+        this.overflowPolicy = OverflowPolicy.of(settings.getOverflowPolicy());
+        this.batchSizes = DistributionSummary.builder("audit.batch.size")
+                .description("Audit events written per batch")
+                .register(meterRegistry);
+        this.batchWrites = Timer.builder("audit.batch.write")
+                .register(meterRegistry);
+        this.written = Counter.builder("audit.events.written")
+                .register(meterRegistry);
+        this.failed = Counter.builder("audit.events.failed")
+                .description("Audit events lost because they could not be written or spooled")
+                .register(meterRegistry);
+        for (String reason : List.of("overflow", "shutdown", "spool-full")) {
+            dropped.put(reason, Counter.builder("audit.events.dropped")
+                    .tag("reason", reason)
+                    .register(meterRegistry));
+        }
+        Gauge.builder("audit.queue.depth", buffer, AuditRingBuffer::size)
+                .register(meterRegistry);
+        Gauge.builder("audit.queue.capacity", buffer, AuditRingBuffer::capacity)
+                .register(meterRegistry);
+        this.drainer = new Thread(this::drain, "audit-writer");
+        this.drainer.setDaemon(true);
+    }
+
+    public void start() {
+        drainer.start();
+    }
+
+    /**
+     * Buffers the document for the next batch. Completes once the document is buffered or dropped;
+     * it never fails.
+     */
+    public Mono<Void> enqueue(Object document) {
+        if (!running) {
+            dropped.get("shutdown").increment();
+            return Mono.empty();
+        }
+        if (buffer.offer(document)) {
+            signalIfBatchReady();
+            return Mono.empty();
+        }
+        return switch (overflowPolicy) {
+            case BLOCK -> waitForSpace(document);
+            case DROP_OLDEST -> {
+                evictAndOffer(document);
+                yield Mono.empty();
+            }
+            case SAMPLE -> {
+                if (overflowCount.incrementAndGet() % settings.getSampleRate() == 0) {
+                    evictAndOffer(document);
+                } else {
+                    dropped.get("overflow").increment();
+                }
+                yield Mono.empty();
+            }
+        };
+    }
+
+    /**
+     * Stops accepting events and waits for buffered ones to be written or spooled.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join(settings.getShutdownTimeoutMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int remaining = buffer.size();
+        if (remaining > 0) {
+            dropped.get("shutdown").increment(remaining);
+            log.warn("Audit writer stopped with {} events unwritten", remaining);
+        }
+    }
+
+    int bufferedCount() {
+        return buffer.size();
+    }
+
+    private Mono<Void> waitForSpace(Object document) {
+        long attempts = Math.max(1, settings.getBlockTimeoutMillis() / BLOCK_POLL_INTERVAL.toMillis());
+        return Mono.defer(() -> buffer.offer(document) ? Mono.<Void>empty() : Mono.<Void>error(BUFFER_FULL))
+                .retryWhen(Retry.fixedDelay(attempts, BLOCK_POLL_INTERVAL))
+                .doOnSuccess(ignored -> signalIfBatchReady())
+                .onErrorResume(e -> {
+                    dropped.get("overflow").increment();
+                    return Mono.empty();
+                });
+    }
+
+    private void evictAndOffer(Object document) {
+        while (!buffer.offer(document)) {
+            if (buffer.poll() != null) {
+                dropped.get("overflow").increment();
+            }
+        }
+        signalIfBatchReady();
+    }
+
+    private void signalIfBatchReady() {
+        if (buffer.size() >= settings.getBatchSize()) {
+            LockSupport.unpark(drainer);
+        }
+    }
+
+    private void drain() {
+        long maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(settings.getMaxBatchDelayMillis());
+        List<Object> batch = new ArrayList<>(settings.getBatchSize());
+        long batchStarted = 0;
+        while (running || !buffer.isEmpty()) {
+            if (batch.isEmpty()) {
+                batchStarted = System.nanoTime();
+            }
+            buffer.drainTo(batch, settings.getBatchSize() - batch.size());
+            long waited = System.nanoTime() - batchStarted;
+            if (batch.size() >= settings.getBatchSize() || (!batch.isEmpty() && (waited >= maxDelayNanos || !running))) {
+                deliver(batch);
+                batch.clear();
+                for (int i = 0; i < settings.getReplayChunksPerCycle() && replayDue(); i++) {
+                    replay();
+                }
+            } else if (replayDue()) {
+                replay();
+            } else {
+                LockSupport.parkNanos(this, batch.isEmpty() ? maxDelayNanos : maxDelayNanos - waited);
+            }
+        }
+        if (!batch.isEmpty()) {
+            deliver(batch);
+        }
+    }
+
+    private void deliver(List<Object> batch) {
+        List<AuditRecord> records = new ArrayList<>(batch.size());
+        for (Object document : batch) {
+            try {
+                AuditRecord record = encoder.apply(document);
+                records.add(record);
+                if (rollups != null) {
+                    rollups.record(record);
+                }
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.error("Could not map audit event {}: {}", document.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+        batchSizes.record(records.size());
+        if (spool != null && !spool.isEmpty()) {
+            // keep new events behind the spooled ones so replay preserves order
+            spill(records);
+            return;
+        }
+        List<AuditRecord> unwritten = insert(records);
+        if (unwritten.isEmpty()) {
+            return;
+        }
+        if (spool != null) {
+            spill(unwritten);
+            nextReplayNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.getReplayRetryMillis());
+        } else {
+            failed.increment(unwritten.size());
+        }
+    }
+
+    private boolean replayDue() {
+        return running && spool != null && !spool.isEmpty() && System.nanoTime() - nextReplayNanos >= 0;
+    }
+
+    private void replay() {
+        AuditSpool.Chunk chunk = spool.peek(settings.getBatchSize());
+        if (insert(chunk.records()).isEmpty()) {
+            spool.commit(chunk);
+            if (spool.isEmpty()) {
+                log.info("Audit spool replayed, writing to MongoDB directly again");
+            }
+        } else {
+            nextReplayNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.getReplayRetryMillis());
+        }
+    }
+
+    private void spill(List<AuditRecord> records) {
+        int stored = spool.append(records);
+        if (stored < records.size()) {
+            dropped.get("spool-full").increment(records.size() - stored);
+            log.error("Audit spool full, dropped {} events", records.size() - stored);
+        }
+    }
+
+    /**
+     * Inserts the records, one bulk write per collection; returns those that could not be written.
+     */
+    private List<AuditRecord> insert(List<AuditRecord> records) {
+        if (records.isEmpty()) {
+            return List.of();
+        }
+        Map<String, List<AuditRecord>> byCollection = new LinkedHashMap<>();
+        records.forEach(record -> byCollection.computeIfAbsent(record.collection(), c -> new ArrayList<>()).add(record));
+        Duration writeTimeout = Duration.ofMillis(settings.getWriteTimeoutMillis());
+        long started = System.nanoTime();
+        List<AuditRecord> unwritten;
+        try {
+            unwritten = Flux.fromIterable(byCollection.entrySet())
+                    .flatMap(entry -> inserter.insert(entry.getKey(), documents(entry.getValue()))
+                            .timeout(writeTimeout)
+                            .doOnSuccess(ignored -> written.increment(entry.getValue().size()))
+                            .thenReturn(List.<AuditRecord>of())
+                            .onErrorResume(e -> {
+                                log.warn("Failed to write {} audit events to {}: {}", entry.getValue().size(),
+                                        entry.getKey(), e.getMessage());
+                                return Mono.just(entry.getValue());
+                            }))
+                    .flatMapIterable(Function.identity())
+                    .collectList()
+                    .block();
+        } catch (RuntimeException e) {
+            log.warn("Audit batch of {} events failed: {}", records.size(), e.getMessage());
+            unwritten = records;
+        }
+        batchWrites.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return unwritten;
+    }
+
+    private static List<Document> documents(List<AuditRecord> records) {
+        return records.stream().map(AuditRecord::document).toList();
+    }
+
+    private static AuditRecord toRecord(ReactiveMongoOperations mongoOperations, AuditCompactor compactor,
+            Object entity) {
+        Document document = new Document();
+        mongoOperations.getConverter().write(entity, document);
+        document.putIfAbsent("_id", new ObjectId());
+        if (compactor != null) {
+            compactor.compact(document);
+        }
+        return new AuditRecord(mongoOperations.getCollectionName(entity.getClass()), document);
+    }
+
+    private static boolean onlyDuplicateKeys(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoBulkWriteException bulk) {
+                return bulk.getWriteConcernError() == null
+                        && bulk.getWriteErrors().stream().allMatch(e -> e.getCode() == DUPLICATE_KEY);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes documents into one collection.
+     */
+    @FunctionalInterface
+    interface BatchInserter {
+        Mono<Void> insert(String collection, List<Document> documents);
+    }
+
+    private enum OverflowPolicy {
+        BLOCK, DROP_OLDEST, SAMPLE;
+
+        static OverflowPolicy of(String value) {
+            return OverflowPolicy.valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        }
+    }
+}
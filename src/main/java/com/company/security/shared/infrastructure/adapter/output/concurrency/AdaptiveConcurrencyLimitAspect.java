@@ -0,0 +1,51 @@
+package com.company.security.shared.infrastructure.adapter.output.concurrency;
+
+import com.company.security.shared.infrastructure.properties.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies {@link AdaptiveConcurrencyLimited}. Ordered outside the Resilience4j aspects so that
+ * rejected calls are neither retried nor counted as circuit breaker failures.
+ */
+@Aspect
+public class AdaptiveConcurrencyLimitAspect implements Ordered {
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyLimitAspect(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(adaptiveConcurrencyLimited)")
+    public Object around(ProceedingJoinPoint joinPoint, AdaptiveConcurrencyLimited adaptiveConcurrencyLimited) {
+        return limiter(adaptiveConcurrencyLimited.name()).execute(Mono.defer(() -> {
+            try {
+                return (Mono<?>) joinPoint.proceed();
+            } catch (Throwable e) {
+                return Mono.error(e);
+            }
+        }));
+    }
+
+    @Override
+    public int getOrder() {
+        // Resilience4j Retry runs at LOWEST_PRECEDENCE - 4
+        return Ordered.LOWEST_PRECEDENCE - 5;
+    }
+
+    AdaptiveConcurrencyLimiter limiter(String name) {
+        return limiters.computeIfAbsent(name, key ->
+                new AdaptiveConcurrencyLimiter(key, properties.settingsFor(key), meterRegistry));
+    }
+}
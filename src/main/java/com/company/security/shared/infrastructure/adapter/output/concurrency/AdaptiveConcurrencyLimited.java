@@ -0,0 +1,15 @@
+package com.company.security.shared.infrastructure.adapter.output.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated {@code Mono}-returning method under the named adaptive concurrency limit.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdaptiveConcurrencyLimited {
+    String name();
+}
@@ -0,0 +1,188 @@
+package com.company.security.shared.infrastructure.adapter.output.concurrency;
+
+import com.company.security.shared.infrastructure.exception.ConcurrencyLimitExceededException;
+import com.company.security.shared.infrastructure.properties.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * AIMD concurrency limiter: the limit grows by one while calls complete quickly with the limit in use
+ * and shrinks multiplicatively when a call fails or exceeds the latency threshold. Callers above the
+ * limit wait in a short bounded queue and are rejected once it is full or their wait expires.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private final String name;
+    private final ConcurrencyLimitProperties.Settings settings;
+    private final LongSupplier nanoTime;
+    private final Deque<Waiter> queue = new ArrayDeque<>();
+    private final Counter rejections;
+    private double limit;
+    private int inflight;
+
+    public AdaptiveConcurrencyLimiter(String name, ConcurrencyLimitProperties.Settings settings,
+                                      MeterRegistry meterRegistry) {
+        this(name, settings, meterRegistry, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(String name, ConcurrencyLimitProperties.Settings settings,
+                               MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.name = name;
+        this.settings = settings;
+        this.nanoTime = nanoTime;
+        this.limit = settings.getInitialLimit();
+        Gauge.builder("concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.inflight", this, AdaptiveConcurrencyLimiter::getInflight)
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.queued", this, AdaptiveConcurrencyLimiter::getQueued)
+                .tag("name", name)
+                .register(meterRegistry);
+        this.rejections = Counter.builder("concurrency.rejections")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> execute(Mono<T> call) {
+        return acquire().then(Mono.defer(() -> {
+            long start = nanoTime.getAsLong();
+            int inflightAtStart = getInflight();
+            AtomicBoolean dropped = new AtomicBoolean();
+            return call
+                    .doOnError(e -> dropped.set(isDrop(e)))
+                    .doFinally(signal -> onComplete(signal, start, inflightAtStart, dropped.get()));
+        }));
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInflight() {
+        return inflight;
+    }
+
+    public synchronized int getQueued() {
+        return queue.size();
+    }
+
+    private Mono<Void> acquire() {
+        return Mono.defer(() -> {
+            synchronized (this) {
+                if (inflight < (int) limit) {
+                    inflight++;
+                    return Mono.<Void>empty();
+                }
+                if (queue.size() >= settings.getMaxQueueSize()) {
+                    return Mono.<Void>error(reject());
+                }
+            }
+            return Mono.<Boolean>create(this::enqueue)
+                    .timeout(Duration.ofMillis(settings.getMaxQueueWaitMillis()))
+                    .onErrorMap(TimeoutException.class, e -> reject())
+                    .then();
+        });
+    }
+
+    private void enqueue(MonoSink<Boolean> sink) {
+        Waiter waiter = new Waiter(sink);
+        sink.onCancel(() -> {
+            if (waiter.claim()) {
+                synchronized (this) {
+                    queue.remove(waiter);
+                }
+            } else {
+                // Granted concurrently with the cancellation: hand the permit back
+                release();
+            }
+        });
+        boolean granted;
+        synchronized (this) {
+            granted = inflight < (int) limit && queue.isEmpty() && waiter.claim();
+            if (granted) {
+                inflight++;
+            } else {
+                queue.addLast(waiter);
+            }
+        }
+        if (granted) {
+            sink.success(true);
+        }
+    }
+
+    private void onComplete(SignalType signal, long start, int inflightAtStart, boolean dropped) {
+        if (signal != SignalType.CANCEL) {
+            long latencyMillis = Duration.ofNanos(nanoTime.getAsLong() - start).toMillis();
+            adjustLimit(dropped || latencyMillis > settings.getMaxLatencyMillis(), inflightAtStart);
+        }
+        release();
+    }
+
+    private synchronized void adjustLimit(boolean dropped, int inflightAtStart) {
+        double previous = limit;
+        if (dropped) {
+            limit = Math.max(settings.getMinLimit(), limit * settings.getBackoffRatio());
+        } else if (inflightAtStart * 2 >= limit) {
+            limit = Math.min(settings.getMaxLimit(), limit + 1);
+        }
+        if ((int) previous != (int) limit) {
+            log.debug("Concurrency limit for {} changed from {} to {}", name, (int) previous, (int) limit);
+        }
+    }
+
+    private void release() {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            inflight--;
+            while (inflight < (int) limit && !queue.isEmpty()) {
+                Waiter next = queue.pollFirst();
+                if (next.claim()) {
+                    inflight++;
+                    granted.add(next);
+                }
+            }
+        }
+        granted.forEach(waiter -> waiter.sink().success(true));
+    }
+
+    private boolean isDrop(Throwable error) {
+        return settings.getIgnoreExceptions().stream().noneMatch(type -> type.isInstance(error));
+    }
+
+    private ConcurrencyLimitExceededException reject() {
+        rejections.increment();
+        return new ConcurrencyLimitExceededException(
+                "Too many concurrent requests to " + name + ". Try again later.",
+                settings.getRetryAfterSeconds());
+    }
+
+    private record Waiter(MonoSink<Boolean> sink, AtomicBoolean claimed) {
+
+        Waiter(MonoSink<Boolean> sink) {
+            this(sink, new AtomicBoolean());
+        }
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.company.security.shared.infrastructure.adapter.output.keycloak;
+
+import com.company.security.shared.infrastructure.properties.KeycloakProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Bounded two-way cache between Keycloak user ids and usernames.
+ * Lets Admin API callers address a user by id without a search round trip.
+ */
+public class KeycloakIdentityCache {
+
+    private final Cache<String, String> usernamesById;
+    private final Cache<String, String> idsByUsername;
+
+    public KeycloakIdentityCache(KeycloakProperties keycloakProperties) {
+        KeycloakProperties.IdentityCache settings = keycloakProperties.getIdentityCache();
+        this.usernamesById = newCache(settings);
+        this.idsByUsername = newCache(settings);
+    }
+
+    public void remember(String userId, String username) {
+        if (userId == null || username == null || userId.equals(username)) {
+            return;
+        }
+        usernamesById.put(userId, username);
+        idsByUsername.put(usernameKey(username), userId);
+    }
+
+    public Optional<String> usernameFor(String userId) {
+        return Optional.ofNullable(usernamesById.getIfPresent(userId));
+    }
+
+    public Optional<String> idFor(String username) {
+        return Optional.ofNullable(idsByUsername.getIfPresent(usernameKey(username)));
+    }
+
+    public void forget(String userId) {
+        String username = usernamesById.asMap().remove(userId);
+        if (username != null) {
+            idsByUsername.asMap().remove(usernameKey(username), userId);
+        }
+    }
+
+    private static String usernameKey(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private static Cache<String, String> newCache(KeycloakProperties.IdentityCache settings) {
+        return Caffeine.newBuilder()
+                .maximumSize(settings.getMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(settings.getTtlSeconds()))
+                .build();
+    }
+}
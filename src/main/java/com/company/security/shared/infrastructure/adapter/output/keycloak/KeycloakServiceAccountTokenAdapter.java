@@ -0,0 +1,204 @@
+package com.company.security.shared.infrastructure.adapter.output.keycloak;
+
+import com.company.security.shared.infrastructure.properties.KeycloakProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Shared cache for the Keycloak service-account (client credentials) token used by the Admin API adapters.
+ * Refreshes the token shortly before {@code expires_in} and coalesces concurrent fetches into one grant.
+ */
+public class KeycloakServiceAccountTokenAdapter {
+
+    private static final Logger log = LoggerFactory.getLogger(KeycloakServiceAccountTokenAdapter.class);
+    private static final long DEFAULT_EXPIRES_IN_SECONDS = 60;
+    private static final long EXPIRY_MARGIN_SECONDS = 5;
+    private static final Duration REFRESH_RETRY_DELAY = Duration.ofSeconds(5);
+
+    private final WebClient webClient;
+    private final KeycloakProperties keycloakProperties;
+    private final InstantSource clock;
+    private final Scheduler scheduler;
+    private final AtomicReference<CachedToken> current = new AtomicReference<>();
+    private final AtomicReference<Mono<CachedToken>> inFlight = new AtomicReference<>();
+    private final AtomicReference<Disposable> scheduledRefresh = new AtomicReference<>();
+    private volatile boolean closed;
+
+    public KeycloakServiceAccountTokenAdapter(
+            WebClient.Builder webClientBuilder,
+            KeycloakProperties keycloakProperties) {
+        this(webClientBuilder, keycloakProperties, InstantSource.system(), Schedulers.parallel());
+    }
+
+    KeycloakServiceAccountTokenAdapter(
+            WebClient.Builder webClientBuilder,
+            KeycloakProperties keycloakProperties,
+            InstantSource clock,
+            Scheduler scheduler) {
+        this.webClient = webClientBuilder
+                .baseUrl(keycloakProperties.getServerUrl())
+                .build();
+        this.keycloakProperties = keycloakProperties;
+        this.clock = clock;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Returns a valid service-account access token, fetching one only when none is cached.
+     */
+    public Mono<String> getAccessToken() {
+        return Mono.defer(() -> {
+            CachedToken token = current.get();
+            Instant now = clock.instant();
+            if (token != null && now.isBefore(token.expiresAt())) {
+                if (!now.isBefore(token.refreshAt())) {
+                    refresh();
+                }
+                return Mono.just(token.value());
+            }
+            return refresh().map(CachedToken::value);
+        });
+    }
+
+    /**
+     * Runs an Admin API call with the cached token. If Keycloak answers 401 the token is discarded
+     * and the call is retried once with a freshly issued one.
+     */
+    public <T> Mono<T> withAccessToken(Function<String, Mono<T>> call) {
+        return getAccessToken().flatMap(token -> call.apply(token)
+                .onErrorResume(WebClientResponseException.Unauthorized.class, e -> {
+                    log.debug("Keycloak rejected the cached service-account token, requesting a new one");
+                    invalidate(token);
+                    return getAccessToken().flatMap(call);
+                }));
+    }
+
+    /**
+     * Discards the cached token if it is still the given one.
+     */
+    public void invalidate(String token) {
+        current.updateAndGet(cached -> cached != null && cached.value().equals(token) ? null : cached);
+    }
+
+    public void close() {
+        closed = true;
+        Disposable task = scheduledRefresh.getAndSet(null);
+        if (task != null) {
+            task.dispose();
+        }
+    }
+
+    private Mono<CachedToken> refresh() {
+        while (true) {
+            Mono<CachedToken> pending = inFlight.get();
+            if (pending != null) {
+                return pending;
+            }
+            Sinks.One<CachedToken> sink = Sinks.one();
+            Mono<CachedToken> created = sink.asMono();
+            if (inFlight.compareAndSet(null, created)) {
+                requestToken().subscribe(
+                        token -> {
+                            current.set(token);
+                            inFlight.set(null);
+                            scheduleRefresh(token);
+                            sink.tryEmitValue(token);
+                        },
+                        error -> {
+                            inFlight.set(null);
+                            log.warn("Failed to obtain Keycloak service-account token: {}", error.getMessage());
+                            sink.tryEmitError(error);
+                        });
+                return created;
+            }
+        }
+    }
+
+    private void scheduleRefresh(CachedToken token) {
+        if (!keycloakProperties.getServiceAccount().isProactiveRefresh() || closed) {
+            return;
+        }
+        long delayMillis = Math.max(0, Duration.between(clock.instant(), token.refreshAt()).toMillis());
+        replaceScheduledRefresh(scheduler.schedule(this::backgroundRefresh, delayMillis, TimeUnit.MILLISECONDS));
+    }
+
+    private void backgroundRefresh() {
+        refresh().subscribe(
+                token -> log.debug("Refreshed Keycloak service-account token ahead of expiry"),
+                error -> {
+                    CachedToken token = current.get();
+                    if (!closed && token != null && clock.instant().isBefore(token.expiresAt())) {
+                        replaceScheduledRefresh(scheduler.schedule(this::backgroundRefresh,
+                                REFRESH_RETRY_DELAY.toMillis(), TimeUnit.MILLISECONDS));
+                    }
+                });
+    }
+
+    private void replaceScheduledRefresh(Disposable task) {
+        Disposable previous = scheduledRefresh.getAndSet(task);
+        if (previous != null && previous != task) {
+            previous.dispose();
+        }
+    }
+
+    private Mono<CachedToken> requestToken() {
+        String tokenUri = String.format("/realms/%s/protocol/openid-connect/token",
+                keycloakProperties.getRealm());
+
+        return webClient.post()
+                .uri(tokenUri)
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body(BodyInserters.fromFormData("grant_type", "client_credentials")
+                        .with("client_id", keycloakProperties.getClientId())
+                        .with("client_secret", keycloakProperties.getClientSecret()))
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, response ->
+                        response.bodyToMono(String.class)
+                                .defaultIfEmpty("")
+                                .flatMap(body -> Mono.error(new IllegalStateException(
+                                        "Failed to obtain client credentials token: " + body))))
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .switchIfEmpty(Mono.error(new IllegalStateException("Empty client credentials response")))
+                .flatMap(this::toCachedToken);
+    }
+
+    private Mono<CachedToken> toCachedToken(Map<String, Object> tokenResponse) {
+        String accessToken = (String) tokenResponse.get("access_token");
+        if (accessToken == null) {
+            return Mono.error(new IllegalStateException("No access_token in client credentials response"));
+        }
+        long lifetime = tokenResponse.get("expires_in") instanceof Number expiresIn
+                ? expiresIn.longValue()
+                : DEFAULT_EXPIRES_IN_SECONDS;
+        long refreshAfter = Math.max(lifetime - keycloakProperties.getServiceAccount().getRefreshSkewSeconds(),
+                lifetime / 2);
+        long expireAfter = Math.max(lifetime - EXPIRY_MARGIN_SECONDS, refreshAfter);
+
+        Instant issuedAt = clock.instant();
+        return Mono.just(new CachedToken(accessToken,
+                issuedAt.plusSeconds(refreshAfter),
+                issuedAt.plusSeconds(expireAfter)));
+    }
+
+    private record CachedToken(String value, Instant refreshAt, Instant expiresAt) {
+    }
+}
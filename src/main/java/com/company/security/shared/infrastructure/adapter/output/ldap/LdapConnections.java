@@ -0,0 +1,58 @@
+package com.company.security.shared.infrastructure.adapter.output.ldap;
+
+import com.company.security.shared.infrastructure.properties.LdapProperties;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.LDAPConnectionOptions;
+import com.unboundid.ldap.sdk.LDAPURL;
+import com.unboundid.util.ssl.HostNameSSLSocketVerifier;
+
+import javax.net.SocketFactory;
+import javax.net.ssl.SSLContext;
+
+/**
+ * Opens dedicated manager-bound connections for background jobs that stream or page through the directory.
+ */
+final class LdapConnections {
+
+    private LdapConnections() {
+    }
+
+    /**
+     * Returns {@code url} when set, else the first read replica, else {@code ldap.url}.
+     */
+    static String readUrl(LdapProperties ldapProperties, String url) {
+        if (url != null && !url.isBlank()) {
+            return url;
+        }
+        return ldapProperties.getReplicas().isEmpty() ? ldapProperties.getUrl() : ldapProperties.getReplicas().get(0);
+    }
+
+    /**
+     * ldaps connections trust what the Spring LDAP context trusts, the JVM default SSL context, and check
+     * that the server certificate matches the host name before binding as the manager.
+     */
+    static LDAPConnection open(LdapProperties ldapProperties, String url) throws Exception {
+        LDAPURL ldapUrl = new LDAPURL(url);
+        LDAPConnectionOptions options = new LDAPConnectionOptions();
+        options.setConnectTimeoutMillis(ldapProperties.getConnectTimeoutMillis());
+        options.setResponseTimeoutMillis(ldapProperties.getReadTimeoutMillis());
+        SocketFactory socketFactory = null;
+        if ("ldaps".equalsIgnoreCase(ldapUrl.getScheme())) {
+            socketFactory = SSLContext.getDefault().getSocketFactory();
+            options.setSSLSocketVerifier(new HostNameSSLSocketVerifier(false));
+        }
+        return new LDAPConnection(socketFactory, options, ldapUrl.getHost(), ldapUrl.getPort(),
+                ldapProperties.getManagerDn(), ldapProperties.getManagerPassword());
+    }
+
+    /**
+     * Resolves {@code searchBase} against {@code ldap.base}.
+     */
+    static String subtreeDn(LdapProperties ldapProperties, String searchBase) {
+        String base = ldapProperties.getBase();
+        if (searchBase == null || searchBase.isBlank()) {
+            return base;
+        }
+        return base == null || base.isBlank() ? searchBase : searchBase + "," + base;
+    }
+}
@@ -0,0 +1,318 @@
+package com.company.security.shared.infrastructure.adapter.output.ldap;
+
+import com.company.security.shared.infrastructure.properties.LdapProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ldap.core.DirContextAdapter;
+import org.springframework.ldap.core.DirContextOperations;
+import org.springframework.ldap.support.LdapUtils;
+
+import javax.naming.directory.BasicAttribute;
+import javax.naming.directory.BasicAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory copy of the user subtree, restricted to the mapped attributes and indexed by the user DN
+ * attribute. Changes arrive from {@link LdapMirrorSynchronizer} under the instance lock; lookups are served
+ * from memory only after the first full refresh and while the mirror is not further behind the
+ * directory than {@code ldap.mirror.max-staleness-millis}. Otherwise callers query LDAP directly.
+ * The mirror switches itself off for good once its estimated size exceeds {@code ldap.mirror.max-bytes}.
+ */
+public class LdapDirectoryMirror {
+
+    private static final Logger log = LoggerFactory.getLogger(LdapDirectoryMirror.class);
+    private static final long ENTRY_OVERHEAD_BYTES = 160;
+    private static final long ATTRIBUTE_OVERHEAD_BYTES = 48;
+    private static final long VALUE_OVERHEAD_BYTES = 40;
+
+    private final String usernameAttribute;
+    private final long maxBytes;
+    private final long maxStalenessNanos;
+    private final LongSupplier nanoTime;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter fallbacks;
+    private final Map<String, Counter> changes = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    private volatile Map<String, MirroredEntry> entriesByDn = new ConcurrentHashMap<>();
+    private volatile Map<String, MirroredEntry> entriesByUsername = new ConcurrentHashMap<>();
+    private volatile long bytes;
+    private volatile boolean initialized;
+    private volatile boolean disabled;
+    private volatile long behindSince;
+    private volatile boolean current;
+
+    // Guarded by this
+    private Map<String, MirroredEntry> staging;
+    private Set<String> changedDuringRefresh;
+    private long stagingBytes;
+
+    public LdapDirectoryMirror(LdapProperties ldapProperties, MeterRegistry meterRegistry) {
+        this(ldapProperties, meterRegistry, System::nanoTime);
+    }
+
+    LdapDirectoryMirror(LdapProperties ldapProperties, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        LdapProperties.Mirror settings = ldapProperties.getMirror();
+        this.usernameAttribute = ldapProperties.getUserDnAttribute();
+        this.maxBytes = settings.getMaxBytes();
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(settings.getMaxStalenessMillis());
+        this.nanoTime = nanoTime;
+        this.meterRegistry = meterRegistry;
+        this.behindSince = nanoTime.getAsLong();
+        this.hits = lookupCounter("hit");
+        this.misses = lookupCounter("miss");
+        this.fallbacks = lookupCounter("fallback");
+        Gauge.builder("ldap.mirror.entries", this, mirror -> mirror.entriesByDn.size())
+                .register(meterRegistry);
+        Gauge.builder("ldap.mirror.bytes", this, mirror -> mirror.bytes)
+                .baseUnit("bytes")
+                .description("Estimated heap used by mirrored entries")
+                .register(meterRegistry);
+        TimeGauge.builder("ldap.mirror.staleness", this, TimeUnit.NANOSECONDS, LdapDirectoryMirror::stalenessNanos)
+                .description("Time since the mirror was last known to be in sync with the directory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Looks the user up in memory. {@link Lookup#served()} is false when the caller must query LDAP.
+     */
+    public Lookup lookup(String username) {
+        if (!isServing()) {
+            fallbacks.increment();
+            return Lookup.FALLBACK;
+        }
+        MirroredEntry entry = entriesByUsername.get(key(username));
+        if (entry == null) {
+            misses.increment();
+            return Lookup.NOT_FOUND;
+        }
+        hits.increment();
+        return new Lookup(true, entry.toContext());
+    }
+
+    public boolean isServing() {
+        return initialized && !disabled && stalenessNanos() <= maxStalenessNanos;
+    }
+
+    public boolean isDisabled() {
+        return disabled;
+    }
+
+    /**
+     * Starts a full refresh. Until {@link #commitRefresh()} lookups keep using the previous content.
+     */
+    public synchronized void beginRefresh() {
+        staging = new HashMap<>();
+        changedDuringRefresh = new HashSet<>();
+        stagingBytes = 0;
+    }
+
+    /**
+     * Adds an entry from the refresh snapshot, unless a change for it has already been seen.
+     */
+    public synchronized void load(String dn, Map<String, String[]> attributes) {
+        String dnKey = key(dn);
+        if (disabled || staging == null || changedDuringRefresh.contains(dnKey)) {
+            return;
+        }
+        stage(dnKey, new MirroredEntry(dn, attributes));
+    }
+
+    /**
+     * Applies an added or modified entry reported by the change stream.
+     */
+    public synchronized void apply(String dn, Map<String, String[]> attributes) {
+        if (disabled) {
+            return;
+        }
+        countChange("upsert");
+        String dnKey = key(dn);
+        MirroredEntry entry = new MirroredEntry(dn, attributes);
+        if (staging != null) {
+            changedDuringRefresh.add(dnKey);
+            stage(dnKey, entry);
+            return;
+        }
+        removeLive(dnKey);
+        entriesByDn.put(dnKey, entry);
+        usernames(entry).forEach(username -> entriesByUsername.put(username, entry));
+        bytes += entry.bytes();
+        enforceLimit(bytes);
+    }
+
+    /**
+     * Applies a deletion reported by the change stream.
+     */
+    public synchronized void remove(String dn) {
+        if (disabled) {
+            return;
+        }
+        countChange("delete");
+        String dnKey = key(dn);
+        if (staging != null) {
+            changedDuringRefresh.add(dnKey);
+            MirroredEntry removed = staging.remove(dnKey);
+            if (removed != null) {
+                stagingBytes -= removed.bytes();
+            }
+            return;
+        }
+        removeLive(dnKey);
+    }
+
+    /**
+     * Replaces the served content with the refreshed snapshot and marks the mirror as current.
+     */
+    public synchronized void commitRefresh() {
+        if (staging == null || disabled) {
+            return;
+        }
+        Map<String, MirroredEntry> byUsername = new ConcurrentHashMap<>();
+        staging.values().forEach(entry -> usernames(entry).forEach(username -> byUsername.put(username, entry)));
+        entriesByDn = new ConcurrentHashMap<>(staging);
+        entriesByUsername = byUsername;
+        bytes = stagingBytes;
+        staging = null;
+        changedDuringRefresh = null;
+        stagingBytes = 0;
+        initialized = true;
+        markCurrent();
+        log.info("LDAP mirror refreshed with {} entries (~{} KiB)", entriesByDn.size(), bytes / 1024);
+    }
+
+    public void markCurrent() {
+        current = true;
+    }
+
+    /**
+     * Marks the mirror as possibly behind (e.g. the change stream was lost). Lookups fall back once
+     * this has lasted longer than the staleness limit.
+     */
+    public synchronized void markBehind() {
+        if (current) {
+            behindSince = nanoTime.getAsLong();
+            current = false;
+        }
+        staging = null;
+        changedDuringRefresh = null;
+    }
+
+    /**
+     * Stops serving and releases the mirrored entries.
+     */
+    public synchronized void disable(String reason) {
+        if (!disabled) {
+            log.warn("LDAP mirror disabled, lookups go to the directory: {}", reason);
+        }
+        disabled = true;
+        staging = null;
+        changedDuringRefresh = null;
+        entriesByDn = new ConcurrentHashMap<>();
+        entriesByUsername = new ConcurrentHashMap<>();
+        bytes = 0;
+    }
+
+    long stalenessNanos() {
+        return current ? 0 : nanoTime.getAsLong() - behindSince;
+    }
+
+    private void stage(String dnKey, MirroredEntry entry) {
+        MirroredEntry previous = staging.put(dnKey, entry);
+        stagingBytes += entry.bytes() - (previous != null ? previous.bytes() : 0);
+        enforceLimit(bytes + stagingBytes);
+    }
+
+    private void removeLive(String dnKey) {
+        MirroredEntry removed = entriesByDn.remove(dnKey);
+        if (removed != null) {
+            usernames(removed).forEach(username -> entriesByUsername.remove(username, removed));
+            bytes -= removed.bytes();
+        }
+    }
+
+    private void enforceLimit(long estimatedBytes) {
+        if (estimatedBytes > maxBytes) {
+            disable("estimated size " + estimatedBytes + " bytes exceeds ldap.mirror.max-bytes=" + maxBytes);
+        }
+    }
+
+    private Set<String> usernames(MirroredEntry entry) {
+        Set<String> usernames = new HashSet<>();
+        entry.attributes().forEach((name, values) -> {
+            if (name.equalsIgnoreCase(usernameAttribute)) {
+                for (String value : values) {
+                    usernames.add(key(value));
+                }
+            }
+        });
+        return usernames;
+    }
+
+    private void countChange(String type) {
+        if (initialized) {
+            changes.computeIfAbsent(type, t -> Counter.builder("ldap.mirror.changes")
+                    .tag("type", t)
+                    .register(meterRegistry)).increment();
+        }
+    }
+
+    private Counter lookupCounter(String result) {
+        return Counter.builder("ldap.mirror.lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Result of a mirror lookup: {@code served} with a {@code null} entry means the user does not exist.
+     */
+    public record Lookup(boolean served, DirContextOperations entry) {
+        static final Lookup FALLBACK = new Lookup(false, null);
+        static final Lookup NOT_FOUND = new Lookup(true, null);
+    }
+
+    private record MirroredEntry(String dn, Map<String, String[]> attributes, long bytes) {
+
+        MirroredEntry(String dn, Map<String, String[]> attributes) {
+            this(dn, Map.copyOf(attributes), estimateBytes(dn, attributes));
+        }
+
+        DirContextOperations toContext() {
+            BasicAttributes copy = new BasicAttributes(true);
+            attributes.forEach((name, values) -> {
+                BasicAttribute attribute = new BasicAttribute(name);
+                for (String value : values) {
+                    attribute.add(value);
+                }
+                copy.put(attribute);
+            });
+            return new DirContextAdapter(copy, LdapUtils.newLdapName(dn));
+        }
+
+        private static long estimateBytes(String dn, Map<String, String[]> attributes) {
+            long size = ENTRY_OVERHEAD_BYTES + 2L * dn.length();
+            for (Map.Entry<String, String[]> attribute : attributes.entrySet()) {
+                size += ATTRIBUTE_OVERHEAD_BYTES + 2L * attribute.getKey().length();
+                for (String value : attribute.getValue()) {
+                    size += VALUE_OVERHEAD_BYTES + 2L * value.length();
+                }
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.company.security.shared.infrastructure.adapter.output.ldap;
+
+import com.company.security.shared.infrastructure.properties.LdapProperties;
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.sdk.Filter;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.SearchRequest;
+import com.unboundid.ldap.sdk.SearchResult;
+import com.unboundid.ldap.sdk.SearchResultEntry;
+import com.unboundid.ldap.sdk.SearchScope;
+import com.unboundid.ldap.sdk.controls.SimplePagedResultsControl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory group hierarchy used to expand a user's direct groups into every group they belong to
+ * through nesting. The graph maps each group DN to its parent group DNs and is reloaded from the
+ * directory with a paged search every {@code ldap.groups.refresh-interval-seconds}; each reload swaps
+ * in a new immutable snapshot. Transitive closures are computed on first use and memoized per snapshot,
+ * so a login costs a few map lookups instead of recursive LDAP queries. Cycles in the hierarchy are
+ * tolerated. Until the first load succeeds, groups expand to themselves.
+ */
+public class LdapGroupGraph implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(LdapGroupGraph.class);
+
+    private final LdapProperties ldapProperties;
+    private final LdapProperties.Groups settings;
+    private final String baseDn;
+    private final Filter filter;
+    private final LongSupplier nanoTime;
+    private final Scheduler scheduler;
+    private final Counter successfulRefreshes;
+    private final Counter failedRefreshes;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile long loadedAt;
+    private Disposable refreshTask;
+
+    public LdapGroupGraph(LdapProperties ldapProperties, MeterRegistry meterRegistry) {
+        this(ldapProperties, meterRegistry, System::nanoTime, Schedulers.boundedElastic());
+    }
+
+    LdapGroupGraph(LdapProperties ldapProperties, MeterRegistry meterRegistry, LongSupplier nanoTime,
+            Scheduler scheduler) {
+        this.ldapProperties = ldapProperties;
+        this.settings = ldapProperties.getGroups();
+        this.baseDn = LdapConnections.subtreeDn(ldapProperties, settings.getSearchBase());
+        this.filter = parseFilter(settings.getFilter());
+        this.nanoTime = nanoTime;
+        this.scheduler = scheduler;
+        this.loadedAt = nanoTime.getAsLong();
+        this.successfulRefreshes = refreshCounter(meterRegistry, "success");
+        this.failedRefreshes = refreshCounter(meterRegistry, "failure");
+        Gauge.builder("ldap.group.graph.groups", this, graph -> graph.snapshot.parents.size())
+                .register(meterRegistry);
+        TimeGauge.builder("ldap.group.graph.age", this, TimeUnit.NANOSECONDS,
+                        graph -> graph.snapshot == Snapshot.EMPTY ? 0 : graph.nanoTime.getAsLong() - graph.loadedAt)
+                .description("Time since the group hierarchy was last loaded")
+                .register(meterRegistry);
+    }
+
+    public void start() {
+        refreshTask = scheduler.schedulePeriodically(this::refresh, 0,
+                settings.getRefreshIntervalSeconds(), TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (refreshTask != null) {
+            refreshTask.dispose();
+        }
+    }
+
+    /**
+     * Reloads the hierarchy; on failure the previous snapshot stays in use.
+     */
+    public void refresh() {
+        try (LDAPConnection connection = LdapConnections.open(ldapProperties,
+                LdapConnections.readUrl(ldapProperties, settings.getUrl()))) {
+            load(connection);
+        } catch (Exception e) {
+            failedRefreshes.increment();
+            log.warn("Could not load the LDAP group hierarchy from {}: {}", baseDn, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads every group below the group search base page by page and replaces the graph.
+     */
+    void load(LDAPConnection conn) throws LDAPException {
+        String parentAttribute = settings.getParentAttribute();
+        Map<String, Collection<String>> parentsByGroup = new HashMap<>();
+        ASN1OctetString cookie = null;
+        do {
+            SearchRequest request = new SearchRequest(baseDn, SearchScope.SUB, filter, parentAttribute);
+            request.addControl(new SimplePagedResultsControl(settings.getPageSize(), cookie));
+            SearchResult result = conn.search(request);
+            for (SearchResultEntry entry : result.getSearchEntries()) {
+                String[] parents = entry.getAttributeValues(parentAttribute);
+                parentsByGroup.put(entry.getDN(), parents != null ? List.of(parents) : List.of());
+            }
+            SimplePagedResultsControl response = SimplePagedResultsControl.get(result);
+            cookie = response != null && response.moreResultsToReturn() ? response.getCookie() : null;
+        } while (cookie != null);
+        replace(parentsByGroup);
+    }
+
+    /**
+     * Swaps in a new hierarchy given as group DN to parent group DNs.
+     */
+    public void replace(Map<String, ? extends Collection<String>> parentsByGroup) {
+        Map<String, List<String>> parents = new HashMap<>();
+        parentsByGroup.forEach((group, groupParents) -> parents.put(key(group), List.copyOf(groupParents)));
+        snapshot = new Snapshot(Map.copyOf(parents), new ConcurrentHashMap<>());
+        loadedAt = nanoTime.getAsLong();
+        successfulRefreshes.increment();
+        log.info("LDAP group hierarchy loaded with {} groups", parents.size());
+    }
+
+    /**
+     * Returns the given group DNs plus every group they are nested in, without duplicates.
+     */
+    public Set<String> expand(Collection<String> groupDns) {
+        Snapshot current = snapshot;
+        Map<String, String> expanded = new LinkedHashMap<>();
+        for (String groupDn : groupDns) {
+            expanded.putIfAbsent(key(groupDn), groupDn);
+            for (String ancestor : current.ancestors(groupDn)) {
+                expanded.putIfAbsent(key(ancestor), ancestor);
+            }
+        }
+        return new LinkedHashSet<>(expanded.values());
+    }
+
+    private static Filter parseFilter(String filter) {
+        try {
+            return Filter.create(filter);
+        } catch (LDAPException e) {
+            throw new IllegalArgumentException("Invalid ldap.groups.filter: " + filter, e);
+        }
+    }
+
+    private static Counter refreshCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ldap.group.graph.refreshes")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String key(String dn) {
+        return dn.toLowerCase(Locale.ROOT).replace(", ", ",");
+    }
+
+    private record Snapshot(Map<String, List<String>> parents, Map<String, List<String>> closures) {
+
+        static final Snapshot EMPTY = new Snapshot(Map.of(), new ConcurrentHashMap<>());
+
+        List<String> ancestors(String groupDn) {
+            String groupKey = key(groupDn);
+            if (!parents.containsKey(groupKey)) {
+                return List.of();
+            }
+            return closures.computeIfAbsent(groupKey, this::walk);
+        }
+
+        private List<String> walk(String groupKey) {
+            Map<String, String> seen = new LinkedHashMap<>();
+            Deque<String> pending = new ArrayDeque<>(parents.get(groupKey));
+            while (!pending.isEmpty()) {
+                String parent = pending.poll();
+                String parentKey = key(parent);
+                if (parentKey.equals(groupKey) || seen.putIfAbsent(parentKey, parent) != null) {
+                    continue;
+                }
+                pending.addAll(parents.getOrDefault(parentKey, List.of()));
+            }
+            return List.copyOf(seen.values());
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.company.security.shared.infrastructure.adapter.output.ldap;
+
+import com.company.security.shared.infrastructure.properties.LdapProperties;
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.sdk.AsyncRequestID;
+import com.unboundid.ldap.sdk.AsyncSearchResultListener;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.Filter;
+import com.unboundid.ldap.sdk.IntermediateResponse;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.RootDSE;
+import com.unboundid.ldap.sdk.SearchRequest;
+import com.unboundid.ldap.sdk.SearchResult;
+import com.unboundid.ldap.sdk.SearchResultEntry;
+import com.unboundid.ldap.sdk.SearchResultReference;
+import com.unboundid.ldap.sdk.SearchScope;
+import com.unboundid.ldap.sdk.controls.ContentSyncInfoIntermediateResponse;
+import com.unboundid.ldap.sdk.controls.ContentSyncInfoType;
+import com.unboundid.ldap.sdk.controls.ContentSyncRequestControl;
+import com.unboundid.ldap.sdk.controls.ContentSyncRequestMode;
+import com.unboundid.ldap.sdk.controls.ContentSyncState;
+import com.unboundid.ldap.sdk.controls.ContentSyncStateControl;
+import com.unboundid.ldap.sdk.controls.EntryChangeNotificationControl;
+import com.unboundid.ldap.sdk.controls.PersistentSearchChangeType;
+import com.unboundid.ldap.sdk.controls.PersistentSearchRequestControl;
+import com.unboundid.ldap.sdk.controls.SimplePagedResultsControl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Keeps an {@link LdapDirectoryMirror} in sync on a dedicated thread. With RFC 4533 content sync
+ * (refreshAndPersist) the refresh phase loads the mirror and the persist phase streams changes. With
+ * persistent search the change stream is opened first and the mirror is loaded with a paged search,
+ * so no change made during the load is lost. When the connection drops the mirror is marked behind,
+ * and after a delay a new connection starts a full refresh. Both streams use {@code ldap.user-search-filter}
+ * with the username left open, so the mirror holds the same entries a user search can return.
+ */
+public class LdapMirrorSynchronizer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(LdapMirrorSynchronizer.class);
+
+    private final LdapDirectoryMirror mirror;
+    private final LdapProperties ldapProperties;
+    private final LdapProperties.Mirror settings;
+    private final String[] attributes;
+    private final String baseDn;
+    private final Filter filter;
+    private volatile boolean closed;
+    private volatile LDAPConnection connection;
+    private Thread thread;
+
+    public LdapMirrorSynchronizer(LdapDirectoryMirror mirror, LdapProperties ldapProperties, String[] attributes) {
+        this.mirror = mirror;
+        this.ldapProperties = ldapProperties;
+        this.settings = ldapProperties.getMirror();
+        this.attributes = attributes.clone();
+        this.baseDn = LdapConnections.subtreeDn(ldapProperties, ldapProperties.getUserSearchBase());
+        this.filter = userFilter(ldapProperties);
+    }
+
+    public void start() {
+        thread = new Thread(this::run, "ldap-mirror-sync");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LDAPConnection current = connection;
+        if (current != null) {
+            current.close();
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void run() {
+        while (!closed && !mirror.isDisabled()) {
+            try (LDAPConnection conn = connect()) {
+                connection = conn;
+                synchronize(conn);
+            } catch (Exception e) {
+                if (!closed) {
+                    log.warn("LDAP mirror lost its change stream: {}", e.getMessage());
+                }
+            } finally {
+                connection = null;
+                mirror.markBehind();
+            }
+            sleep(settings.getReconnectDelayMillis());
+        }
+    }
+
+    void synchronize(LDAPConnection conn) throws Exception {
+        switch (syncMode(conn.getRootDSE())) {
+            case SYNC_REPL -> contentSync(conn);
+            case PERSISTENT_SEARCH -> persistentSearch(conn);
+            default -> mirror.disable("directory supports neither content sync nor persistent search");
+        }
+    }
+
+    /**
+     * Loads the subtree into the mirror page by page.
+     */
+    void bootstrap(LDAPConnection conn) throws LDAPException {
+        ASN1OctetString cookie = null;
+        do {
+            SearchRequest request = new SearchRequest(baseDn, SearchScope.SUB, filter, attributes);
+            request.addControl(new SimplePagedResultsControl(settings.getPageSize(), cookie));
+            SearchResult result = conn.search(request);
+            for (SearchResultEntry entry : result.getSearchEntries()) {
+                mirror.load(entry.getDN(), attributesOf(entry));
+            }
+            SimplePagedResultsControl response = SimplePagedResultsControl.get(result);
+            cookie = response != null && response.moreResultsToReturn() ? response.getCookie() : null;
+        } while (cookie != null && !mirror.isDisabled());
+    }
+
+    private void contentSync(LDAPConnection conn) throws LDAPException {
+        log.info("Synchronizing LDAP mirror of {} with content sync", baseDn);
+        mirror.beginRefresh();
+        boolean[] refreshing = {true};
+        SearchRequest request = new SearchRequest(listener(entry -> {
+            ContentSyncStateControl state = stateOf(entry);
+            if (state != null && state.getState() == ContentSyncState.DELETE) {
+                mirror.remove(entry.getDN());
+            } else if (state == null || state.getState() != ContentSyncState.PRESENT) {
+                if (refreshing[0]) {
+                    mirror.load(entry.getDN(), attributesOf(entry));
+                } else {
+                    mirror.apply(entry.getDN(), attributesOf(entry));
+                }
+            }
+        }), baseDn, SearchScope.SUB, filter, attributes);
+        request.addControl(new ContentSyncRequestControl(true, ContentSyncRequestMode.REFRESH_AND_PERSIST, null, false));
+        request.setIntermediateResponseListener((IntermediateResponse response) -> {
+            if (refreshing[0] && isRefreshDone(response)) {
+                refreshing[0] = false;
+                mirror.commitRefresh();
+            }
+        });
+        request.setResponseTimeoutMillis(0);
+        // Returns only when the persist phase ends
+        conn.search(request);
+    }
+
+    private void persistentSearch(LDAPConnection conn) throws Exception {
+        log.info("Synchronizing LDAP mirror of {} with persistent search", baseDn);
+        mirror.beginRefresh();
+        SearchRequest request = new SearchRequest(listener(entry -> {
+            EntryChangeNotificationControl change = changeOf(entry);
+            PersistentSearchChangeType type = change != null ? change.getChangeType() : PersistentSearchChangeType.MODIFY;
+            if (type == PersistentSearchChangeType.DELETE) {
+                mirror.remove(entry.getDN());
+                return;
+            }
+            if (type == PersistentSearchChangeType.MODIFY_DN && change.getPreviousDN() != null) {
+                mirror.remove(change.getPreviousDN());
+            }
+            mirror.apply(entry.getDN(), attributesOf(entry));
+        }), baseDn, SearchScope.SUB, filter, attributes);
+        request.addControl(new PersistentSearchRequestControl(PersistentSearchChangeType.allChangeTypes(), true, true));
+        request.setResponseTimeoutMillis(0);
+        AsyncRequestID changes = conn.asyncSearch(request);
+
+        bootstrap(conn);
+        mirror.commitRefresh();
+        // Blocks until the persistent search ends
+        changes.get();
+    }
+
+    /**
+     * The configured user search filter with {@code {0}} matching any username, or the presence of the
+     * user DN attribute when no filter is configured.
+     */
+    static Filter userFilter(LdapProperties ldapProperties) {
+        String configured = ldapProperties.getUserSearchFilter();
+        if (configured == null || configured.isBlank()) {
+            return Filter.createPresenceFilter(ldapProperties.getUserDnAttribute());
+        }
+        try {
+            return Filter.create(configured.replace("{0}", "*"));
+        } catch (LDAPException e) {
+            throw new IllegalArgumentException("Invalid ldap.user-search-filter: " + configured, e);
+        }
+    }
+
+    private SyncMode syncMode(RootDSE rootDse) {
+        String configured = settings.getSyncMode();
+        if ("sync-repl".equalsIgnoreCase(configured)) {
+            return SyncMode.SYNC_REPL;
+        }
+        if ("persistent-search".equalsIgnoreCase(configured)) {
+            return SyncMode.PERSISTENT_SEARCH;
+        }
+        if (rootDse != null && rootDse.supportsControl(ContentSyncRequestControl.SYNC_REQUEST_OID)) {
+            return SyncMode.SYNC_REPL;
+        }
+        if (rootDse != null && rootDse.supportsControl(PersistentSearchRequestControl.PERSISTENT_SEARCH_REQUEST_OID)) {
+            return SyncMode.PERSISTENT_SEARCH;
+        }
+        return SyncMode.NONE;
+    }
+
+    private LDAPConnection connect() throws Exception {
+        return LdapConnections.open(ldapProperties, LdapConnections.readUrl(ldapProperties, settings.getUrl()));
+    }
+
+    private static boolean isRefreshDone(IntermediateResponse response) {
+        if (!ContentSyncInfoIntermediateResponse.SYNC_INFO_OID.equals(response.getOID())) {
+            return false;
+        }
+        try {
+            ContentSyncInfoIntermediateResponse info = ContentSyncInfoIntermediateResponse.decode(response);
+            return (info.getType() == ContentSyncInfoType.REFRESH_DELETE
+                    || info.getType() == ContentSyncInfoType.REFRESH_PRESENT) && info.refreshDone();
+        } catch (LDAPException e) {
+            log.warn("Ignoring malformed content sync info message: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static ContentSyncStateControl stateOf(SearchResultEntry entry) {
+        try {
+            return ContentSyncStateControl.get(entry);
+        } catch (LDAPException e) {
+            log.warn("Ignoring malformed content sync state for {}: {}", entry.getDN(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static EntryChangeNotificationControl changeOf(SearchResultEntry entry) {
+        try {
+            return EntryChangeNotificationControl.get(entry);
+        } catch (LDAPException e) {
+            log.warn("Ignoring malformed entry change notification for {}: {}", entry.getDN(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static Map<String, String[]> attributesOf(SearchResultEntry entry) {
+        Map<String, String[]> values = new HashMap<>();
+        for (Attribute attribute : entry.getAttributes()) {
+            values.put(attribute.getName(), attribute.getValues());
+        }
+        return values;
+    }
+
+    /**
+     * Asynchronous so that the persistent search can run next to the paged load; the final result is
+     * read from the request id or the blocking search.
+     */
+    private static AsyncSearchResultListener listener(Consumer<SearchResultEntry> onEntry) {
+        return new AsyncSearchResultListener() {
+            @Override
+            public void searchEntryReturned(SearchResultEntry entry) {
+                onEntry.accept(entry);
+            }
+
+            @Override
+            public void searchReferenceReturned(SearchResultReference reference) {
+                // referrals are not followed
+            }
+
+            @Override
+            public void searchResultReceived(AsyncRequestID requestID, SearchResult searchResult) {
+                // read through the request id
+            }
+        };
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closed = true;
+        }
+    }
+
+    private enum SyncMode {
+        SYNC_REPL, PERSISTENT_SEARCH, NONE
+    }
+}
@@ -0,0 +1,15 @@
+package com.company.security.shared.infrastructure.adapter.output.ldap;
+
+import org.springframework.ldap.core.LdapTemplate;
+import org.springframework.ldap.core.support.LdapContextSource;
+
+/**
+ * One LDAP replica with its own context source (and therefore its own JNDI connection pool)
+ * and latency tracker.
+ */
+public record LdapReplica(
+        String name,
+        LdapTemplate ldapTemplate,
+        LdapContextSource contextSource,
+        ReplicaLatencyTracker tracker) {
+}
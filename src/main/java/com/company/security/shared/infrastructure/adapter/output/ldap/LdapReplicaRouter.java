@@ -0,0 +1,228 @@
+package com.company.security.shared.infrastructure.adapter.output.ldap;
+
+import com.company.security.shared.infrastructure.properties.LdapProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.ldap.AuthenticationException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Routes LDAP reads to the fastest healthy replica and hedges them: when the first replica has
+ * not answered within its own p95, the same read is sent to the next replica and whichever
+ * answers first wins; the other subscription is cancelled. Binds go through {@link #execute}
+ * against a single replica. Modifications go to the writer, and reads for a subject written within
+ * the read-your-writes window are pinned to the writer until the replicas have caught up.
+ */
+public class LdapReplicaRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(LdapReplicaRouter.class);
+
+    private final LdapReplica writer;
+    private final List<LdapReplica> replicas;
+    private final LdapProperties.Routing routing;
+    private final LongSupplier nanoTime;
+    private final Scheduler scheduler;
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+    private final Counter pinnedReads;
+    private final ReadYourWritesWindow recentWrites;
+
+    public LdapReplicaRouter(
+            LdapReplica writer,
+            List<LdapReplica> replicas,
+            LdapProperties.Routing routing,
+            MeterRegistry meterRegistry) {
+        this(writer, replicas, routing, meterRegistry, System::nanoTime, Schedulers.parallel());
+    }
+
+    LdapReplicaRouter(
+            LdapReplica writer,
+            List<LdapReplica> replicas,
+            LdapProperties.Routing routing,
+            MeterRegistry meterRegistry,
+            LongSupplier nanoTime,
+            Scheduler scheduler) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one LDAP replica is required");
+        }
+        this.writer = writer;
+        this.replicas = List.copyOf(replicas);
+        this.routing = routing;
+        this.nanoTime = nanoTime;
+        this.scheduler = scheduler;
+        this.hedgesSent = Counter.builder("ldap.hedge.requests")
+                .description("Hedged LDAP reads sent to a second replica")
+                .register(meterRegistry);
+        this.hedgesWon = Counter.builder("ldap.hedge.wins")
+                .description("Hedged LDAP reads answered first by the second replica")
+                .register(meterRegistry);
+        this.pinnedReads = Counter.builder("ldap.reads.pinned")
+                .description("LDAP reads sent to the writer because the subject was written recently")
+                .register(meterRegistry);
+        this.recentWrites = new ReadYourWritesWindow(Duration.ofSeconds(routing.getReadYourWritesSeconds()),
+                routing.getReadYourWritesMaxEntries(), nanoTime::getAsLong);
+        this.replicas.forEach(replica -> registerGauges(replica, meterRegistry));
+    }
+
+    /**
+     * Runs a read on the best replica, hedging to the runner-up when enabled. The callable must
+     * return a value for "not found" (e.g. an empty Optional) so that only faults trigger failover.
+     */
+    public <T> Mono<Routed<T>> read(Function<LdapReplica, T> call) {
+        return Mono.defer(() -> {
+            List<LdapReplica> ranked = ranked();
+            LdapReplica primary = ranked.get(0);
+            Mono<Routed<T>> primaryCall = execute(primary, call).map(value -> new Routed<>(primary, value));
+            if (!routing.isHedgingEnabled() || ranked.size() < 2) {
+                return primaryCall;
+            }
+
+            LdapReplica secondary = ranked.get(1);
+            Sinks.Empty<Void> primaryFailed = Sinks.empty();
+            Mono<Routed<T>> hedgeCall = Mono.firstWithSignal(
+                            Mono.delay(hedgeDelay(primary), scheduler).then(),
+                            primaryFailed.asMono())
+                    .then(Mono.defer(() -> {
+                        hedgesSent.increment();
+                        log.debug("Hedging LDAP read from {} to {}", primary.name(), secondary.name());
+                        return execute(secondary, call)
+                                .map(value -> new Routed<>(secondary, value))
+                                .doOnNext(routed -> hedgesWon.increment());
+                    }));
+
+            return Mono.firstWithValue(
+                            primaryCall.doOnError(e -> primaryFailed.tryEmitEmpty()),
+                            hedgeCall)
+                    .onErrorMap(NoSuchElementException.class, LdapReplicaRouter::firstCause);
+        });
+    }
+
+    /**
+     * Like {@link #read(Function)}, but reads about a subject written within the read-your-writes
+     * window go to the writer, which is the only server guaranteed to have the change.
+     */
+    public <T> Mono<Routed<T>> read(String subject, Function<LdapReplica, T> call) {
+        return Mono.defer(() -> {
+            if (!recentWrites.contains(subject)) {
+                return read(call);
+            }
+            pinnedReads.increment();
+            return execute(writer, call).map(value -> new Routed<>(writer, value));
+        });
+    }
+
+    /**
+     * Runs a modification on the writer and pins the subject's reads to the writer for the
+     * read-your-writes window. The window opens even when the outcome is unknown (error or
+     * cancellation), since the change may still have been applied.
+     */
+    public Mono<Void> write(String subject, Consumer<LdapReplica> operation) {
+        return execute(writer, replica -> {
+            operation.accept(replica);
+            return Boolean.TRUE;
+        }).doFinally(signal -> recentWrites.record(subject)).then();
+    }
+
+    /**
+     * Runs a blocking operation against one replica, recording its latency and health.
+     */
+    public <T> Mono<T> execute(LdapReplica replica, Function<LdapReplica, T> call) {
+        return Mono.fromCallable(() -> {
+            long start = nanoTime.getAsLong();
+            try {
+                T result = call.apply(replica);
+                replica.tracker().recordSuccess(nanoTime.getAsLong() - start);
+                return result;
+            } catch (RuntimeException e) {
+                long end = nanoTime.getAsLong();
+                if (isReplicaFault(e)) {
+                    replica.tracker().recordFailure(end - start, end);
+                } else {
+                    replica.tracker().recordSuccess(end - start);
+                }
+                throw e;
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Fastest healthy read replica, used for operations that must not be duplicated.
+     */
+    public LdapReplica fastest() {
+        return ranked().get(0);
+    }
+
+    /**
+     * Replica for a single, non-hedged read about the subject, such as a bind.
+     */
+    public LdapReplica replicaFor(String subject) {
+        return recentWrites.contains(subject) ? writer : fastest();
+    }
+
+    public LdapReplica writer() {
+        return writer;
+    }
+
+    List<LdapReplica> ranked() {
+        long now = nanoTime.getAsLong();
+        List<LdapReplica> healthy = replicas.stream()
+                .filter(replica -> replica.tracker().isHealthy(now))
+                .sorted(Comparator.comparingDouble(replica -> replica.tracker().ewmaNanos()))
+                .toList();
+        return healthy.isEmpty() ? replicas : healthy;
+    }
+
+    private Duration hedgeDelay(LdapReplica replica) {
+        ReplicaLatencyTracker tracker = replica.tracker();
+        long delayNanos = tracker.sampleCount() >= routing.getMinSamples()
+                ? tracker.p95Nanos()
+                : TimeUnit.MILLISECONDS.toNanos(routing.getInitialHedgeDelayMillis());
+        return Duration.ofNanos(Math.max(delayNanos, TimeUnit.MILLISECONDS.toNanos(routing.getMinHedgeDelayMillis())));
+    }
+
+    private static boolean isReplicaFault(Throwable e) {
+        return !(e instanceof AuthenticationException || e instanceof IncorrectResultSizeDataAccessException);
+    }
+
+    private static Throwable firstCause(NoSuchElementException e) {
+        List<Throwable> causes = Exceptions.unwrapMultiple(e.getCause());
+        return causes.isEmpty() || causes.get(0) == null ? e : causes.get(0);
+    }
+
+    private void registerGauges(LdapReplica replica, MeterRegistry meterRegistry) {
+        ReplicaLatencyTracker tracker = replica.tracker();
+        TimeGauge.builder("ldap.replica.latency", tracker, TimeUnit.NANOSECONDS, ReplicaLatencyTracker::ewmaNanos)
+                .tags("replica", replica.name(), "statistic", "ewma")
+                .register(meterRegistry);
+        TimeGauge.builder("ldap.replica.latency", tracker, TimeUnit.NANOSECONDS, t -> t.p95Nanos())
+                .tags("replica", replica.name(), "statistic", "p95")
+                .register(meterRegistry);
+        Gauge.builder("ldap.replica.healthy", tracker, t -> t.isHealthy(nanoTime.getAsLong()) ? 1 : 0)
+                .tag("replica", replica.name())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Result of a routed read together with the replica that produced it.
+     */
+    public record Routed<T>(LdapReplica replica, T value) {
+    }
+}
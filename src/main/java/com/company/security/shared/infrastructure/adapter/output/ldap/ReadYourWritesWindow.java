@@ -0,0 +1,38 @@
+package com.company.security.shared.infrastructure.adapter.output.ldap;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Remembers which subjects were written recently, for as long as replicas may lag behind the writer.
+ */
+public class ReadYourWritesWindow {
+
+    private final Cache<String, Boolean> recentWrites;
+
+    public ReadYourWritesWindow(Duration window, long maxEntries, Ticker ticker) {
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(window)
+                .ticker(ticker)
+                .build();
+    }
+
+    public void record(String subject) {
+        if (subject != null) {
+            recentWrites.put(key(subject), Boolean.TRUE);
+        }
+    }
+
+    public boolean contains(String subject) {
+        return subject != null && recentWrites.getIfPresent(key(subject)) != null;
+    }
+
+    private static String key(String subject) {
+        return subject.toLowerCase(Locale.ROOT);
+    }
+}
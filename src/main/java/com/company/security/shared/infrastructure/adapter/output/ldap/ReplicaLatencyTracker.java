@@ -0,0 +1,71 @@
+package com.company.security.shared.infrastructure.adapter.output.ldap;
+
+import java.util.Arrays;
+
+/**
+ * Per-replica latency and health bookkeeping: an EWMA for ranking, a p95 over a sliding
+ * window of recent samples for the hedge delay, and a consecutive-failure circuit.
+ */
+public class ReplicaLatencyTracker {
+
+    private static final double EWMA_ALPHA = 0.2;
+    private static final int WINDOW_SIZE = 128;
+
+    private final int failureThreshold;
+    private final long cooldownNanos;
+    private final long[] window = new long[WINDOW_SIZE];
+    private int next;
+    private int count;
+    private double ewmaNanos;
+    private int consecutiveFailures;
+    private long unhealthyUntilNanos;
+
+    public ReplicaLatencyTracker(int failureThreshold, long cooldownNanos) {
+        this.failureThreshold = failureThreshold;
+        this.cooldownNanos = cooldownNanos;
+    }
+
+    public synchronized void recordSuccess(long latencyNanos) {
+        record(latencyNanos);
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void recordFailure(long latencyNanos, long nowNanos) {
+        record(latencyNanos);
+        if (++consecutiveFailures >= failureThreshold) {
+            unhealthyUntilNanos = nowNanos + cooldownNanos;
+        }
+    }
+
+    /**
+     * A replica marked unhealthy becomes eligible again once its cooldown has elapsed,
+     * so the next request acts as a probe.
+     */
+    public synchronized boolean isHealthy(long nowNanos) {
+        return consecutiveFailures < failureThreshold || nowNanos - unhealthyUntilNanos >= 0;
+    }
+
+    public synchronized double ewmaNanos() {
+        return ewmaNanos;
+    }
+
+    public synchronized int sampleCount() {
+        return count;
+    }
+
+    public synchronized long p95Nanos() {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(window, count);
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(0.95 * count) - 1];
+    }
+
+    private void record(long latencyNanos) {
+        window[next] = latencyNanos;
+        next = (next + 1) % WINDOW_SIZE;
+        count = Math.min(count + 1, WINDOW_SIZE);
+        ewmaNanos = ewmaNanos == 0 ? latencyNanos : EWMA_ALPHA * latencyNanos + (1 - EWMA_ALPHA) * ewmaNanos;
+    }
+}
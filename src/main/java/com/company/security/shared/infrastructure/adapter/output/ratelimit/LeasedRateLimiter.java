@@ -0,0 +1,186 @@
+package com.company.security.shared.infrastructure.adapter.output.ratelimit;
+
+import com.company.security.shared.infrastructure.exception.RateLimitExceededException;
+import com.company.security.shared.infrastructure.properties.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Serves most rate limit checks from local leases instead of a Redis round trip per request. The first
+ * request for a key takes a chunk of {@code maxRequests * rate-limit.lease.max-error-fraction} permits from
+ * the shared {@link RateLimitingRedisAdapter} quota; later requests on this instance take from the chunk and
+ * only go to Redis, once per key however many are waiting, when it is used up. Leases last
+ * {@code lease-millis} (at most one window); permits left when a lease expires are handed back to Redis by a
+ * periodic sweep. Every permit is taken from Redis before it is used, so the limit stays cluster-wide and is
+ * never exceeded; the error is the other way round, at most one chunk per instance held but not yet used.
+ * Limits too small for a chunk of two, such as sign-in and password recovery, are checked in Redis on every
+ * request, and so are new keys while {@code max-keys} leases are held.
+ */
+public class LeasedRateLimiter implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(LeasedRateLimiter.class);
+
+    private final RateLimitingRedisAdapter rateLimitingAdapter;
+    private final RateLimitProperties.Lease settings;
+    private final LongSupplier nanoTime;
+    private final Scheduler scheduler;
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+    private final Map<String, Mono<Lease>> refills = new ConcurrentHashMap<>();
+    private final Counter local;
+    private final Counter refilled;
+    private Disposable sweepTask;
+
+    public LeasedRateLimiter(RateLimitingRedisAdapter rateLimitingAdapter, RateLimitProperties.Lease settings,
+            MeterRegistry meterRegistry) {
+        this(rateLimitingAdapter, settings, meterRegistry, System::nanoTime, Schedulers.parallel());
+    }
+
+    LeasedRateLimiter(RateLimitingRedisAdapter rateLimitingAdapter, RateLimitProperties.Lease settings,
+            MeterRegistry meterRegistry, LongSupplier nanoTime, Scheduler scheduler) {
+        this.rateLimitingAdapter = rateLimitingAdapter;
+        this.settings = settings;
+        this.nanoTime = nanoTime;
+        this.scheduler = scheduler;
+        this.local = Counter.builder("rate.limit.lease.local")
+                .description("Rate limit checks served from a local lease without calling Redis")
+                .register(meterRegistry);
+        this.refilled = Counter.builder("rate.limit.lease.refills")
+                .register(meterRegistry);
+        Gauge.builder("rate.limit.leases", leases, Map::size)
+                .register(meterRegistry);
+    }
+
+    public void start() {
+        long interval = settings.getLeaseMillis();
+        sweepTask = scheduler.schedulePeriodically(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic sweep and hands every unused permit back.
+     */
+    @Override
+    public void close() {
+        if (sweepTask != null) {
+            sweepTask.dispose();
+        }
+        leases.forEach((key, lease) -> {
+            if (leases.remove(key, lease)) {
+                release(key, lease);
+            }
+        });
+    }
+
+    /**
+     * Fails with {@link RateLimitExceededException} when the request is over the limit.
+     */
+    public Mono<Void> checkRateLimit(String key, int maxRequests, Duration window) {
+        long chunk = (long) (maxRequests * settings.getMaxErrorFraction());
+        if (chunk < 2) {
+            return rateLimitingAdapter.checkRateLimit(key, maxRequests, window);
+        }
+        Lease lease = leases.get(key);
+        if (lease != null && lease.take(nanoTime.getAsLong())) {
+            local.increment();
+            return Mono.empty();
+        }
+        if (lease == null && leases.size() >= settings.getMaxKeys()) {
+            return rateLimitingAdapter.checkRateLimit(key, maxRequests, window);
+        }
+        return refills.computeIfAbsent(key, k -> refill(k, maxRequests, window, chunk))
+                .flatMap(refilledLease -> refilledLease.take(nanoTime.getAsLong())
+                        ? Mono.<Void>empty()
+                        : Mono.defer(() -> checkRateLimit(key, maxRequests, window)));
+    }
+
+    int leaseCount() {
+        return leases.size();
+    }
+
+    /**
+     * Drops expired leases and hands their unused permits back.
+     */
+    void sweep() {
+        long now = nanoTime.getAsLong();
+        leases.forEach((key, lease) -> {
+            if (lease.expired(now) && leases.remove(key, lease)) {
+                release(key, lease);
+            }
+        });
+    }
+
+    /**
+     * Takes a chunk from Redis and installs it as the key's lease; shared by every request waiting on the key.
+     * The refill is forgotten before waiters see the lease, so a waiter that finds it drained starts a new one.
+     */
+    private Mono<Lease> refill(String key, int maxRequests, Duration window, long chunk) {
+        return rateLimitingAdapter.acquire(key, maxRequests, window, chunk)
+                .flatMap(decision -> {
+                    if (!decision.allowed()) {
+                        return Mono.<Lease>error(new RateLimitExceededException(
+                                "Rate limit exceeded. Try again later.", decision.retryAfter(), decision.resetAfter()));
+                    }
+                    refilled.increment();
+                    long ttl = Math.min(TimeUnit.MILLISECONDS.toNanos(settings.getLeaseMillis()), window.toNanos());
+                    Lease lease = new Lease(decision.granted(), nanoTime.getAsLong() + ttl, maxRequests, window);
+                    Lease previous = leases.put(key, lease);
+                    if (previous != null) {
+                        release(key, previous);
+                    }
+                    return Mono.just(lease);
+                })
+                .doOnTerminate(() -> refills.remove(key))
+                .cache();
+    }
+
+    private void release(String key, Lease lease) {
+        long unused = lease.drain();
+        if (unused > 0) {
+            rateLimitingAdapter.release(key, lease.maxRequests, lease.window, unused)
+                    .subscribe(null, e -> log.debug("Could not release {} rate limit permits of {}: {}",
+                            unused, key, e.getMessage()));
+        }
+    }
+
+    /**
+     * Permits taken from Redis for one key and not used yet.
+     */
+    private static final class Lease {
+        private final AtomicLong permits;
+        private final long expiresAt;
+        private final int maxRequests;
+        private final Duration window;
+
+        Lease(long permits, long expiresAt, int maxRequests, Duration window) {
+            this.permits = new AtomicLong(permits);
+            this.expiresAt = expiresAt;
+            this.maxRequests = maxRequests;
+            this.window = window;
+        }
+
+        boolean take(long now) {
+            return !expired(now) && permits.getAndUpdate(left -> left > 0 ? left - 1 : 0) > 0;
+        }
+
+        boolean expired(long now) {
+            return now - expiresAt >= 0;
+        }
+
+        long drain() {
+            return permits.getAndSet(0);
+        }
+    }
+}
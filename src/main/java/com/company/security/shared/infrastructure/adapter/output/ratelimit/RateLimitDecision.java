@@ -0,0 +1,15 @@
+package com.company.security.shared.infrastructure.adapter.output.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one rate limit check. {@code granted} is how many of the requested permits were taken,
+ * {@code remaining} how many more would be available right now, {@code retryAfter} how long a rejected
+ * caller has to wait (zero when allowed) and {@code resetAfter} when the full quota is available again.
+ */
+public record RateLimitDecision(long granted, long remaining, Duration retryAfter, Duration resetAfter) {
+
+    public boolean allowed() {
+        return granted > 0;
+    }
+}
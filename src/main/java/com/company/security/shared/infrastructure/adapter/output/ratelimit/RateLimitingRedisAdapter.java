@@ -2,32 +2,107 @@ package com.company.security.shared.infrastructure.adapter.output.ratelimit;
 
 import com.company.security.shared.infrastructure.exception.RateLimitExceededException;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.List;
 
+/**
+ * Redis rate limiter using the generic cell rate algorithm (GCRA): {@code maxRequests} per {@code window}
+ * means one request every {@code window / maxRequests}, with bursts of up to {@code maxRequests}. The key
+ * holds a single number, the theoretical arrival time of the next request, and is read, checked and updated
+ * by one Lua script, so each check is one atomic round trip and the key always carries its expiry. Unlike a
+ * fixed window counter it never lets twice the limit through around a window boundary. Time comes from the
+ * Redis server, so instances with skewed clocks share one limit. Several permits can be taken at once, as
+ * many as are available up to the number asked for, and unused ones handed back; the
+ * {@link LeasedRateLimiter} uses this to serve most checks from a local lease.
+ */
 public class RateLimitingRedisAdapter {
 
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> GCRA = RedisScript.of("""
+            local emission = tonumber(ARGV[1])
+            local tolerance = tonumber(ARGV[2])
+            local permits = tonumber(ARGV[3])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+            local tat = tonumber(redis.call('GET', KEYS[1]))
+            if tat == nil or tat < now then
+                tat = now
+            end
+            if permits < 0 then
+                tat = math.max(now, tat + permits * emission)
+                if tat > now then
+                    redis.call('SET', KEYS[1], string.format('%.0f', tat), 'PX', math.ceil((tat - now) / 1000))
+                else
+                    redis.call('DEL', KEYS[1])
+                end
+                return {0, 0, 0, tat - now}
+            end
+            local available = math.floor((now + tolerance - tat) / emission)
+            if available < 1 then
+                return {0, 0, tat + emission - tolerance - now, tat - now}
+            end
+            local granted = math.min(permits, available)
+            local next_tat = tat + granted * emission
+            redis.call('SET', KEYS[1], string.format('%.0f', next_tat), 'PX', math.ceil((next_tat - now) / 1000))
+            return {granted, available - granted, 0, next_tat - now}
+            """, List.class);
+
     private final ReactiveRedisTemplate<String, String> redisTemplate;
 
     public RateLimitingRedisAdapter(ReactiveRedisTemplate<String, String> redisTemplate) {
         this.redisTemplate = redisTemplate;
     }
 
+    /**
+     * Fails with {@link RateLimitExceededException} when the request is over the limit.
+     */
     public Mono<Void> checkRateLimit(String key, int maxRequests, Duration window) {
-        return redisTemplate.opsForValue().increment(key)
-                .flatMap(count -> {
-                    if (count == 1L) {
-                        return redisTemplate.expire(key, window).thenReturn(count);
-                    }
-                    return Mono.just(count);
-                })
-                .flatMap(count -> {
-                    if (count > maxRequests) {
-                        return Mono.error(new RateLimitExceededException(
-                                "Rate limit exceeded. Try again later."));
-                    }
-                    return Mono.empty();
-                });
+        return acquire(key, maxRequests, window)
+                .flatMap(decision -> decision.allowed()
+                        ? Mono.empty()
+                        : Mono.error(new RateLimitExceededException(
+                                "Rate limit exceeded. Try again later.", decision.retryAfter(), decision.resetAfter())));
+    }
+
+    /**
+     * Takes one request from the quota if available and reports what is left.
+     */
+    public Mono<RateLimitDecision> acquire(String key, int maxRequests, Duration window) {
+        return acquire(key, maxRequests, window, 1);
+    }
+
+    /**
+     * Takes up to {@code permits} requests from the quota, as many as are available.
+     */
+    public Mono<RateLimitDecision> acquire(String key, int maxRequests, Duration window, long permits) {
+        return run(key, maxRequests, window, permits);
+    }
+
+    /**
+     * Hands back permits taken but not used.
+     */
+    public Mono<Void> release(String key, int maxRequests, Duration window, long permits) {
+        return run(key, maxRequests, window, -permits).then();
+    }
+
+    private Mono<RateLimitDecision> run(String key, int maxRequests, Duration window, long permits) {
+        long windowMicros = window.toNanos() / 1000;
+        long emissionMicros = Math.max(1, windowMicros / maxRequests);
+        long toleranceMicros = emissionMicros * maxRequests;
+        return redisTemplate.execute(GCRA, List.of(key), List.of(
+                        String.valueOf(emissionMicros), String.valueOf(toleranceMicros), String.valueOf(permits)))
+                .next()
+                .map(RateLimitingRedisAdapter::toDecision);
+    }
+
+    private static RateLimitDecision toDecision(List<?> result) {
+        return new RateLimitDecision(
+                ((Number) result.get(0)).longValue(),
+                ((Number) result.get(1)).longValue(),
+                Duration.ofNanos(((Number) result.get(2)).longValue() * 1000),
+                Duration.ofNanos(((Number) result.get(3)).longValue() * 1000));
     }
 }
@@ -12,9 +12,15 @@ import java.time.Duration;
 public class RedisRateLimitAspect {
 
     private final RateLimitingRedisAdapter rateLimitingAdapter;
+    private final LeasedRateLimiter leasedRateLimiter;
 
     public RedisRateLimitAspect(RateLimitingRedisAdapter rateLimitingAdapter) {
+        this(rateLimitingAdapter, null);
+    }
+
+    public RedisRateLimitAspect(RateLimitingRedisAdapter rateLimitingAdapter, LeasedRateLimiter leasedRateLimiter) {
         this.rateLimitingAdapter = rateLimitingAdapter;
+        this.leasedRateLimiter = leasedRateLimiter;
     }
 
     @Around("@annotation(redisRateLimited)")
@@ -27,7 +33,10 @@ public class RedisRateLimitAspect {
         String redisKey = redisRateLimited.keyPrefix() + keyValue;
         Duration window = Duration.ofSeconds(redisRateLimited.windowSeconds());
 
-        return rateLimitingAdapter.checkRateLimit(redisKey, redisRateLimited.maxRequests(), window)
+        Mono<Void> check = leasedRateLimiter != null
+                ? leasedRateLimiter.checkRateLimit(redisKey, redisRateLimited.maxRequests(), window)
+                : rateLimitingAdapter.checkRateLimit(redisKey, redisRateLimited.maxRequests(), window);
+        return check
                 .then(Mono.defer(() -> {
                     try {
                         return (Mono<?>) joinPoint.proceed();
@@ -0,0 +1,52 @@
+package com.company.security.shared.infrastructure.adapter.output.timeout;
+
+import com.company.security.shared.infrastructure.properties.AdaptiveTimeoutProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies {@link AdaptiveTimeLimited}. Ordered inside the Resilience4j circuit breaker and retry
+ * aspects, where the time limiter used to run, so each attempt is bounded and timeouts count as
+ * circuit breaker failures.
+ */
+@Aspect
+public class AdaptiveTimeLimitAspect implements Ordered {
+
+    private final AdaptiveTimeoutProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveTimeLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdaptiveTimeLimitAspect(AdaptiveTimeoutProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(adaptiveTimeLimited)")
+    public Object around(ProceedingJoinPoint joinPoint, AdaptiveTimeLimited adaptiveTimeLimited) {
+        return limiter(adaptiveTimeLimited.name()).execute(Mono.defer(() -> {
+            try {
+                return (Mono<?>) joinPoint.proceed();
+            } catch (Throwable e) {
+                return Mono.error(e);
+            }
+        }));
+    }
+
+    @Override
+    public int getOrder() {
+        // Resilience4j Bulkhead runs at LOWEST_PRECEDENCE, TimeLimiter at LOWEST_PRECEDENCE - 1
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+
+    AdaptiveTimeLimiter limiter(String name) {
+        return limiters.computeIfAbsent(name, key ->
+                new AdaptiveTimeLimiter(key, properties.settingsFor(key), meterRegistry));
+    }
+}
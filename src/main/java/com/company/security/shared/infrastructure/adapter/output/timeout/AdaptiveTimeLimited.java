@@ -0,0 +1,16 @@
+package com.company.security.shared.infrastructure.adapter.output.timeout;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Bounds the annotated {@code Mono}-returning method by the named adaptive timeout and by the
+ * remaining request deadline.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdaptiveTimeLimited {
+    String name();
+}
@@ -0,0 +1,129 @@
+package com.company.security.shared.infrastructure.adapter.output.timeout;
+
+import com.company.security.shared.infrastructure.filter.RequestDeadlineFilter;
+import com.company.security.shared.infrastructure.properties.AdaptiveTimeoutProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+/**
+ * Timeout that follows the observed latency of one downstream: a multiple of the p99 over a sliding
+ * window of recent calls, clamped between a floor and a ceiling. Until enough samples exist the
+ * ceiling applies. Each call is further bounded by the request deadline found in the Reactor context.
+ * Timed-out calls are recorded at the limit they hit so that a slower downstream raises its timeout.
+ * With {@code adaptive: false} the ceiling is used as a fixed timeout and the request deadline only
+ * stops calls that have not started yet, for writes such as password changes that must not be reported as
+ * failed while the downstream may still apply them.
+ */
+public class AdaptiveTimeLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveTimeLimiter.class);
+    private static final double PERCENTILE = 0.99;
+
+    private final String name;
+    private final AdaptiveTimeoutProperties.Settings settings;
+    private final LongSupplier nanoTime;
+    private final long[] samples;
+    private final long floorNanos;
+    private final long ceilingNanos;
+    private final Counter timeouts;
+    private final Counter deadlineExpirations;
+    private int count;
+    private int next;
+    private int sinceRecompute;
+    private volatile long timeoutNanos;
+
+    public AdaptiveTimeLimiter(String name, AdaptiveTimeoutProperties.Settings settings, MeterRegistry meterRegistry) {
+        this(name, settings, meterRegistry, System::nanoTime);
+    }
+
+    AdaptiveTimeLimiter(String name, AdaptiveTimeoutProperties.Settings settings,
+                        MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.name = name;
+        this.settings = settings;
+        this.nanoTime = nanoTime;
+        this.samples = new long[Math.max(1, settings.getWindowSize())];
+        this.floorNanos = TimeUnit.MILLISECONDS.toNanos(settings.getFloorMillis());
+        this.ceilingNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(settings.getFloorMillis(), settings.getCeilingMillis()));
+        this.timeoutNanos = ceilingNanos;
+        TimeGauge.builder("adaptive.timeout", this, TimeUnit.NANOSECONDS, limiter -> limiter.timeoutNanos)
+                .tag("name", name)
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("adaptive.timeout.expirations")
+                .tag("name", name)
+                .tag("cause", "timeout")
+                .register(meterRegistry);
+        this.deadlineExpirations = Counter.builder("adaptive.timeout.expirations")
+                .tag("name", name)
+                .tag("cause", "deadline")
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> execute(Mono<T> call) {
+        return Mono.deferContextual(context -> {
+            long start = nanoTime.getAsLong();
+            long limit = timeoutNanos;
+            boolean deadlineBound = false;
+            Long deadline = context.getOrDefault(RequestDeadlineFilter.DEADLINE_CONTEXT_KEY, null);
+            if (deadline != null) {
+                long remaining = deadline - start;
+                if (remaining <= 0) {
+                    deadlineExpirations.increment();
+                    return Mono.error(new TimeoutException(name + " call skipped, request deadline already passed"));
+                }
+                if (remaining < limit && settings.isAdaptive()) {
+                    limit = remaining;
+                    deadlineBound = true;
+                }
+            }
+            long appliedLimit = limit;
+            boolean byDeadline = deadlineBound;
+            return call
+                    .doOnSuccess(value -> record(nanoTime.getAsLong() - start))
+                    .timeout(Duration.ofNanos(appliedLimit), Mono.defer(() -> onTimeout(appliedLimit, byDeadline)));
+        });
+    }
+
+    public Duration getTimeout() {
+        return Duration.ofNanos(timeoutNanos);
+    }
+
+    synchronized void record(long latencyNanos) {
+        samples[next] = latencyNanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        if (settings.isAdaptive() && count >= settings.getMinSamples() && ++sinceRecompute >= settings.getRecomputeEvery()) {
+            sinceRecompute = 0;
+            timeoutNanos = computeTimeout();
+        }
+    }
+
+    private long computeTimeout() {
+        long[] window = Arrays.copyOf(samples, count);
+        Arrays.sort(window);
+        long p99 = window[Math.max(0, (int) Math.ceil(PERCENTILE * count) - 1)];
+        long scaled = (long) Math.min(Long.MAX_VALUE, p99 * settings.getMultiplier());
+        return Math.min(ceilingNanos, Math.max(floorNanos, scaled));
+    }
+
+    private <T> Mono<T> onTimeout(long limitNanos, boolean byDeadline) {
+        if (byDeadline) {
+            deadlineExpirations.increment();
+            return Mono.error(new TimeoutException(name + " call exceeded the request deadline"));
+        }
+        timeouts.increment();
+        record(limitNanos);
+        log.debug("{} call timed out after {} ms", name, TimeUnit.NANOSECONDS.toMillis(limitNanos));
+        return Mono.error(new TimeoutException(name + " call timed out after "
+                + TimeUnit.NANOSECONDS.toMillis(limitNanos) + " ms"));
+    }
+}
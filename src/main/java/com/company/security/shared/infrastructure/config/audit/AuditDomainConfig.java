@@ -0,0 +1,30 @@
+package com.company.security.shared.infrastructure.config.audit;
+
+import com.company.security.shared.domain.port.input.QueryAuditEventsUseCase;
+import com.company.security.shared.domain.port.input.QueryAuditRollupsUseCase;
+import com.company.security.shared.domain.port.output.AuditEventQueryPort;
+import com.company.security.shared.domain.port.output.AuditRollupQueryPort;
+import com.company.security.shared.domain.usecase.QueryAuditEventsUseCaseImpl;
+import com.company.security.shared.domain.usecase.QueryAuditRollupsUseCaseImpl;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Domain bean configuration for the audit read API.
+ * Wires use cases.
+ */
+@Configuration
+public class AuditDomainConfig {
+
+    @Bean
+    public QueryAuditEventsUseCase queryAuditEventsUseCase(AuditEventQueryPort auditEventQueryPort) {
+        return new QueryAuditEventsUseCaseImpl(auditEventQueryPort);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "audit.rollups", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public QueryAuditRollupsUseCase queryAuditRollupsUseCase(AuditRollupQueryPort auditRollupQueryPort) {
+        return new QueryAuditRollupsUseCaseImpl(auditRollupQueryPort);
+    }
+}
@@ -0,0 +1,38 @@
+package com.company.security.shared.infrastructure.config.audit;
+
+import com.company.security.shared.domain.port.input.QueryAuditEventsUseCase;
+import com.company.security.shared.domain.port.input.QueryAuditRollupsUseCase;
+import com.company.security.shared.infrastructure.adapter.input.rest.handler.AuditEventHandler;
+import com.company.security.shared.infrastructure.adapter.input.rest.handler.AuditRollupHandler;
+import com.company.security.shared.infrastructure.adapter.input.rest.mapper.AuditEventRestMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Infrastructure bean configuration for the audit read API.
+ * Wires mappers and handlers; the MongoDB adapters are wired in {@code MongoConfig}.
+ */
+@Configuration
+public class AuditInfrastructureConfig {
+
+    @Bean
+    public AuditEventRestMapper auditEventRestMapper() {
+        return new AuditEventRestMapper();
+    }
+
+    @Bean
+    public AuditEventHandler auditEventHandler(
+            QueryAuditEventsUseCase queryAuditEventsUseCase,
+            AuditEventRestMapper auditEventRestMapper) {
+        return new AuditEventHandler(queryAuditEventsUseCase, auditEventRestMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "audit.rollups", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public AuditRollupHandler auditRollupHandler(
+            QueryAuditRollupsUseCase queryAuditRollupsUseCase,
+            AuditEventRestMapper auditEventRestMapper) {
+        return new AuditRollupHandler(queryAuditRollupsUseCase, auditEventRestMapper);
+    }
+}
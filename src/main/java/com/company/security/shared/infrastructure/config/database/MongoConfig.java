@@ -1,11 +1,116 @@
 package com.company.security.shared.infrastructure.config.database;
 
+import com.company.security.shared.domain.port.output.AuditEventQueryPort;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditArchive;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditArchiver;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditBurstCollapser;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditCollection;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditCollectionInitializer;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditCompactor;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditEventReader;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditRollups;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditSpool;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditWriter;
+import com.company.security.shared.infrastructure.properties.AuditProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.EnableReactiveMongoAuditing;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
 
+import java.util.List;
+
 @Configuration
 @EnableReactiveMongoAuditing
 @EnableReactiveMongoRepositories(basePackages = "com.company.security")
 public class MongoConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "audit.spool", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public AuditSpool auditSpool(AuditProperties auditProperties, MeterRegistry meterRegistry) {
+        return new AuditSpool(auditProperties.getSpool(), meterRegistry);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public AuditCollectionInitializer auditCollectionInitializer(
+            ReactiveMongoTemplate reactiveMongoTemplate,
+            List<AuditCollection> auditCollections,
+            AuditProperties auditProperties) {
+        return new AuditCollectionInitializer(reactiveMongoTemplate, auditCollections, auditProperties.getStorage());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "audit.rollups", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public AuditRollups auditRollups(
+            ReactiveMongoTemplate reactiveMongoTemplate,
+            List<AuditCollection> auditCollections,
+            AuditProperties auditProperties,
+            MeterRegistry meterRegistry) {
+        return new AuditRollups(reactiveMongoTemplate, auditCollections, auditProperties.getRollups(),
+                auditProperties.getQuery().getReadPreference(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "audit.compaction", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public AuditCompactor auditCompactor(
+            ReactiveMongoTemplate reactiveMongoTemplate,
+            AuditProperties auditProperties,
+            MeterRegistry meterRegistry) {
+        return new AuditCompactor(reactiveMongoTemplate, auditProperties.getCompaction(), meterRegistry);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public AuditWriter auditWriter(
+            ReactiveMongoTemplate reactiveMongoTemplate,
+            AuditCollectionInitializer auditCollectionInitializer,
+            ObjectProvider<AuditSpool> auditSpool,
+            ObjectProvider<AuditRollups> auditRollups,
+            ObjectProvider<AuditCompactor> auditCompactor,
+            AuditProperties auditProperties,
+            MeterRegistry meterRegistry) {
+        return new AuditWriter(reactiveMongoTemplate, auditCollectionInitializer.ready(), auditSpool.getIfAvailable(),
+                auditRollups.getIfAvailable(), auditCompactor.getIfAvailable(), auditProperties.getWriter(),
+                meterRegistry);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "audit.collapse", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public AuditBurstCollapser auditBurstCollapser(
+            AuditWriter auditWriter,
+            AuditProperties auditProperties,
+            MeterRegistry meterRegistry) {
+        return new AuditBurstCollapser(auditWriter, auditProperties.getCollapse(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "audit.archive", name = "enabled", havingValue = "true")
+    public AuditArchive auditArchive(AuditProperties auditProperties, MeterRegistry meterRegistry) {
+        return new AuditArchive(auditProperties.getArchive(), meterRegistry);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "audit.archive", name = {"enabled", "archiver-enabled"}, havingValue = "true")
+    public AuditArchiver auditArchiver(
+            ReactiveMongoTemplate reactiveMongoTemplate,
+            List<AuditCollection> auditCollections,
+            AuditArchive auditArchive,
+            AuditProperties auditProperties,
+            MeterRegistry meterRegistry) {
+        return new AuditArchiver(reactiveMongoTemplate, auditCollections, auditArchive, auditProperties.getArchive(),
+                meterRegistry);
+    }
+
+    @Bean
+    public AuditEventQueryPort auditEventQueryPort(
+            ReactiveMongoTemplate reactiveMongoTemplate,
+            List<AuditCollection> auditCollections,
+            ObjectProvider<AuditCompactor> auditCompactor,
+            ObjectProvider<AuditArchive> auditArchive,
+            AuditProperties auditProperties) {
+        return new AuditEventReader(reactiveMongoTemplate, auditCollections, auditCompactor.getIfAvailable(),
+                auditArchive.getIfAvailable(), auditProperties.getQuery());
+    }
 }
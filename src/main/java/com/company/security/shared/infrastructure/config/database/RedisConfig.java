@@ -1,7 +1,12 @@
 package com.company.security.shared.infrastructure.config.database;
 
+import com.company.security.shared.infrastructure.adapter.output.ratelimit.LeasedRateLimiter;
 import com.company.security.shared.infrastructure.adapter.output.ratelimit.RateLimitingRedisAdapter;
 import com.company.security.shared.infrastructure.adapter.output.ratelimit.RedisRateLimitAspect;
+import com.company.security.shared.infrastructure.properties.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
@@ -36,8 +41,19 @@ public class RedisConfig {
         return new RateLimitingRedisAdapter(reactiveRedisTemplate);
     }
 
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "rate-limit.lease", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public LeasedRateLimiter leasedRateLimiter(
+            RateLimitingRedisAdapter rateLimitingRedisAdapter,
+            RateLimitProperties rateLimitProperties,
+            MeterRegistry meterRegistry) {
+        return new LeasedRateLimiter(rateLimitingRedisAdapter, rateLimitProperties.getLease(), meterRegistry);
+    }
+
     @Bean
-    public RedisRateLimitAspect redisRateLimitAspect(RateLimitingRedisAdapter rateLimitingRedisAdapter) {
-        return new RedisRateLimitAspect(rateLimitingRedisAdapter);
+    public RedisRateLimitAspect redisRateLimitAspect(
+            RateLimitingRedisAdapter rateLimitingRedisAdapter,
+            ObjectProvider<LeasedRateLimiter> leasedRateLimiter) {
+        return new RedisRateLimitAspect(rateLimitingRedisAdapter, leasedRateLimiter.getIfAvailable());
     }
 }
@@ -0,0 +1,28 @@
+package com.company.security.shared.infrastructure.config.keycloak;
+
+import com.company.security.shared.infrastructure.adapter.output.keycloak.KeycloakIdentityCache;
+import com.company.security.shared.infrastructure.adapter.output.keycloak.KeycloakServiceAccountTokenAdapter;
+import com.company.security.shared.infrastructure.config.web.WebClientConfig;
+import com.company.security.shared.infrastructure.properties.KeycloakProperties;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@Configuration
+@ConditionalOnProperty(name = "auth.provider", havingValue = "keycloak")
+public class KeycloakConfig {
+
+    @Bean
+    public KeycloakServiceAccountTokenAdapter keycloakServiceAccountTokenAdapter(
+            @Qualifier(WebClientConfig.KEYCLOAK) WebClient.Builder webClientBuilder,
+            KeycloakProperties keycloakProperties) {
+        return new KeycloakServiceAccountTokenAdapter(webClientBuilder, keycloakProperties);
+    }
+
+    @Bean
+    public KeycloakIdentityCache keycloakIdentityCache(KeycloakProperties keycloakProperties) {
+        return new KeycloakIdentityCache(keycloakProperties);
+    }
+}
@@ -1,12 +1,20 @@
 package com.company.security.shared.infrastructure.config.ldap;
 
+import com.company.security.shared.infrastructure.adapter.output.ldap.LdapReplica;
+import com.company.security.shared.infrastructure.adapter.output.ldap.LdapReplicaRouter;
+import com.company.security.shared.infrastructure.adapter.output.ldap.ReplicaLatencyTracker;
 import com.company.security.shared.infrastructure.properties.LdapProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.ldap.core.LdapTemplate;
 import org.springframework.ldap.core.support.LdapContextSource;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class LdapConfig {
 
@@ -16,15 +24,13 @@ public class LdapConfig {
         this.ldapProperties = ldapProperties;
     }
 
+    /**
+     * Write context source on {@code ldap.url}; reads use their own context sources in {@link #ldapReplicaRouter}.
+     */
     @Bean
     @ConditionalOnExpression("'${auth.provider:ldap}' != 'keycloak'")
     public LdapContextSource ldapContextSource() {
-        LdapContextSource contextSource = new LdapContextSource();
-        contextSource.setUrl(ldapProperties.getUrl());
-        contextSource.setBase(ldapProperties.getBase());
-        contextSource.setUserDn(ldapProperties.getManagerDn());
-        contextSource.setPassword(ldapProperties.getManagerPassword());
-        return contextSource;
+        return contextSource(ldapProperties.getUrl(), false);
     }
 
     @Bean
@@ -32,4 +38,52 @@ public class LdapConfig {
     public LdapTemplate ldapTemplate(LdapContextSource ldapContextSource) {
         return new LdapTemplate(ldapContextSource);
     }
+
+    /**
+     * Read replicas for binds and lookups plus the writer for modifications. Without {@code ldap.replicas}
+     * reads go to the primary URL through a separate read context source, so their pool is not shared
+     * with writes.
+     */
+    @Bean
+    @ConditionalOnExpression("'${auth.provider:ldap}' != 'keycloak'")
+    public LdapReplicaRouter ldapReplicaRouter(
+            LdapContextSource ldapContextSource,
+            LdapTemplate ldapTemplate,
+            MeterRegistry meterRegistry) {
+        List<String> readUrls = ldapProperties.getReplicas().isEmpty()
+                ? List.of(ldapProperties.getUrl())
+                : ldapProperties.getReplicas();
+        List<LdapReplica> replicas = readUrls.stream()
+                .map(url -> {
+                    LdapContextSource contextSource = contextSource(url, true);
+                    return replica(url, contextSource, new LdapTemplate(contextSource));
+                })
+                .toList();
+        LdapReplica writer = replica(ldapProperties.getUrl(), ldapContextSource, ldapTemplate);
+        return new LdapReplicaRouter(writer, replicas, ldapProperties.getRouting(), meterRegistry);
+    }
+
+    private LdapReplica replica(String url, LdapContextSource contextSource, LdapTemplate ldapTemplate) {
+        LdapProperties.Routing routing = ldapProperties.getRouting();
+        return new LdapReplica(url, ldapTemplate, contextSource,
+                new ReplicaLatencyTracker(routing.getFailureThreshold(),
+                        TimeUnit.SECONDS.toNanos(routing.getCooldownSeconds())));
+    }
+
+    private LdapContextSource contextSource(String url, boolean initialize) {
+        LdapContextSource contextSource = new LdapContextSource();
+        contextSource.setUrl(url);
+        contextSource.setBase(ldapProperties.getBase());
+        contextSource.setUserDn(ldapProperties.getManagerDn());
+        contextSource.setPassword(ldapProperties.getManagerPassword());
+        // JNDI pools connections per URL, so every replica keeps its own pool
+        contextSource.setPooled(true);
+        contextSource.setBaseEnvironmentProperties(Map.of(
+                "com.sun.jndi.ldap.connect.timeout", String.valueOf(ldapProperties.getConnectTimeoutMillis()),
+                "com.sun.jndi.ldap.read.timeout", String.valueOf(ldapProperties.getReadTimeoutMillis())));
+        if (initialize) {
+            contextSource.afterPropertiesSet();
+        }
+        return contextSource;
+    }
 }
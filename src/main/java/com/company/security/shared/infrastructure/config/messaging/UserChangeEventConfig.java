@@ -0,0 +1,66 @@
+package com.company.security.shared.infrastructure.config.messaging;
+
+import com.company.security.shared.infrastructure.adapter.input.messaging.UserChangeEventConsumer;
+import com.company.security.shared.infrastructure.adapter.input.messaging.UserChangeEventNormalizer;
+import com.company.security.shared.infrastructure.event.UserChangeEventBus;
+import com.company.security.shared.infrastructure.event.UserChangeHandler;
+import com.company.security.shared.infrastructure.properties.UserChangeEventsProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.kafka.receiver.MicrometerConsumerListener;
+import reactor.kafka.receiver.ReceiverOptions;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+public class UserChangeEventConfig {
+
+    @Bean
+    public UserChangeEventBus userChangeEventBus() {
+        return new UserChangeEventBus();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "user-change-events.enabled", havingValue = "true")
+    public UserChangeEventNormalizer userChangeEventNormalizer(
+            ObjectMapper objectMapper,
+            UserChangeEventsProperties userChangeEventsProperties) {
+        return new UserChangeEventNormalizer(objectMapper, userChangeEventsProperties.getTypeAliases());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(name = "user-change-events.enabled", havingValue = "true")
+    public UserChangeEventConsumer userChangeEventConsumer(
+            KafkaProperties kafkaProperties,
+            UserChangeEventsProperties userChangeEventsProperties,
+            UserChangeEventNormalizer userChangeEventNormalizer,
+            UserChangeEventBus userChangeEventBus,
+            ObjectProvider<UserChangeHandler> userChangeHandlers,
+            MeterRegistry meterRegistry) {
+        Map<String, Object> consumerProps = kafkaProperties.buildConsumerProperties(null);
+        // Every instance keeps its own caches, so every instance needs its own consumer group
+        consumerProps.put(ConsumerConfig.GROUP_ID_CONFIG, userChangeEventsProperties.getGroupId());
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, userChangeEventsProperties.getAutoOffsetReset());
+        consumerProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        consumerProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        consumerProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+
+        ReceiverOptions<String, String> receiverOptions = ReceiverOptions.<String, String>create(consumerProps)
+                .subscription(userChangeEventsProperties.getTopics())
+                .commitInterval(Duration.ofMillis(userChangeEventsProperties.getCommitIntervalMillis()))
+                .commitBatchSize(userChangeEventsProperties.getCommitBatchSize())
+                .maxDeferredCommits(userChangeEventsProperties.getMaxDeferredCommits())
+                .consumerListener(new MicrometerConsumerListener(meterRegistry));
+
+        return new UserChangeEventConsumer(receiverOptions, userChangeEventNormalizer, userChangeEventBus,
+                userChangeHandlers.orderedStream().toList(), userChangeEventsProperties, meterRegistry);
+    }
+}
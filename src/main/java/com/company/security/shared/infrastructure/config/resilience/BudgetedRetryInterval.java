@@ -0,0 +1,81 @@
+package com.company.security.shared.infrastructure.config.resilience;
+
+import com.company.security.shared.infrastructure.properties.RetryPolicyProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.core.IntervalBiFunction;
+import io.github.resilience4j.core.functions.Either;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Retry interval for a Resilience4j instance: exponential backoff with full jitter, gated by a
+ * {@link RetryBudget} and by the circuit breaker of the same name. Returning -1 tells the
+ * Resilience4j retry operator to give up and propagate the error.
+ */
+public class BudgetedRetryInterval implements IntervalBiFunction<Object> {
+
+    static final long NO_RETRY = -1L;
+
+    private final RetryPolicyProperties.Settings settings;
+    private final RetryBudget budget;
+    private final CircuitBreaker circuitBreaker;
+    private final DoubleSupplier random;
+    private final Counter spent;
+    private final Counter denied;
+    private final Counter suppressed;
+
+    public BudgetedRetryInterval(String name, RetryPolicyProperties.Settings settings, RetryBudget budget,
+                                 CircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        this(name, settings, budget, circuitBreaker, meterRegistry, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    BudgetedRetryInterval(String name, RetryPolicyProperties.Settings settings, RetryBudget budget,
+                          CircuitBreaker circuitBreaker, MeterRegistry meterRegistry, DoubleSupplier random) {
+        this.settings = settings;
+        this.budget = budget;
+        this.circuitBreaker = circuitBreaker;
+        this.random = random;
+        this.spent = retryCounter(meterRegistry, name, "spent");
+        this.denied = retryCounter(meterRegistry, name, "budget_denied");
+        this.suppressed = retryCounter(meterRegistry, name, "half_open_suppressed");
+        Gauge.builder("retry.budget.balance", budget, RetryBudget::balance)
+                .tag("name", name)
+                .register(meterRegistry);
+        // Every attempt passes through the circuit breaker, so its events feed the budget
+        circuitBreaker.getEventPublisher()
+                .onSuccess(event -> budget.recordCall())
+                .onError(event -> budget.recordCall())
+                .onIgnoredError(event -> budget.recordCall());
+    }
+
+    @Override
+    public Long apply(Integer attempt, Either<Throwable, Object> either) {
+        if (circuitBreaker.getState() == CircuitBreaker.State.HALF_OPEN) {
+            suppressed.increment();
+            return NO_RETRY;
+        }
+        if (!budget.tryAcquireRetry()) {
+            denied.increment();
+            return NO_RETRY;
+        }
+        spent.increment();
+        return fullJitter(attempt);
+    }
+
+    private long fullJitter(int attempt) {
+        double ceiling = Math.min(settings.getMaxBackoffMillis(),
+                settings.getInitialBackoffMillis() * Math.pow(2, attempt - 1d));
+        return (long) (random.getAsDouble() * ceiling);
+    }
+
+    private static Counter retryCounter(MeterRegistry meterRegistry, String name, String outcome) {
+        return Counter.builder("retry.budget.attempts")
+                .description("Retries spent or refused by the retry budget")
+                .tags("name", name, "outcome", outcome)
+                .register(meterRegistry);
+    }
+}
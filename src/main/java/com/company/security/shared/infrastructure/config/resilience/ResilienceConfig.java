@@ -1,12 +1,87 @@
 package com.company.security.shared.infrastructure.config.resilience;
 
+import com.company.security.shared.infrastructure.adapter.output.concurrency.AdaptiveConcurrencyLimitAspect;
+import com.company.security.shared.infrastructure.adapter.output.timeout.AdaptiveTimeLimitAspect;
+import com.company.security.shared.infrastructure.properties.AdaptiveTimeoutProperties;
+import com.company.security.shared.infrastructure.properties.ConcurrencyLimitProperties;
+import com.company.security.shared.infrastructure.properties.RetryPolicyProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.common.retry.configuration.RetryConfigCustomizer;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
  * Resilience4j configuration placeholder.
- * Circuit breaker, rate limiter, retry, and time limiter configurations
+ * Circuit breaker, rate limiter and retry configurations
  * are managed via application properties.
+ * Adaptive concurrency limits are applied by {@link AdaptiveConcurrencyLimitAspect}, latency-based
+ * timeouts by {@link AdaptiveTimeLimitAspect}; retry intervals of the outbound Retry instances use
+ * {@link BudgetedRetryInterval}.
  */
 @Configuration
 public class ResilienceConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimitAspect adaptiveConcurrencyLimitAspect(
+            ConcurrencyLimitProperties concurrencyLimitProperties,
+            MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimitAspect(concurrencyLimitProperties, meterRegistry);
+    }
+
+    @Bean
+    public AdaptiveTimeLimitAspect adaptiveTimeLimitAspect(
+            AdaptiveTimeoutProperties adaptiveTimeoutProperties,
+            MeterRegistry meterRegistry) {
+        return new AdaptiveTimeLimitAspect(adaptiveTimeoutProperties, meterRegistry);
+    }
+
+    @Bean
+    public RetryConfigCustomizer directoryServiceRetryCustomizer(
+            RetryPolicyProperties retryPolicyProperties,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            MeterRegistry meterRegistry) {
+        return budgetedRetry("directoryService", retryPolicyProperties, circuitBreakerRegistry, meterRegistry);
+    }
+
+    @Bean
+    public RetryConfigCustomizer keycloakServiceRetryCustomizer(
+            RetryPolicyProperties retryPolicyProperties,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            MeterRegistry meterRegistry) {
+        return budgetedRetry("keycloakService", retryPolicyProperties, circuitBreakerRegistry, meterRegistry);
+    }
+
+    @Bean
+    public RetryConfigCustomizer clientServiceRetryCustomizer(
+            RetryPolicyProperties retryPolicyProperties,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            MeterRegistry meterRegistry) {
+        return budgetedRetry("clientService", retryPolicyProperties, circuitBreakerRegistry, meterRegistry);
+    }
+
+    private static RetryConfigCustomizer budgetedRetry(
+            String name,
+            RetryPolicyProperties retryPolicyProperties,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            MeterRegistry meterRegistry) {
+        RetryPolicyProperties.Settings settings = retryPolicyProperties.settingsFor(name);
+        RetryBudget budget = new RetryBudget(settings.getBudgetRatio(), settings.getMinRetriesPerSecond(),
+                settings.getMaxBudget(), System::nanoTime);
+        BudgetedRetryInterval interval = new BudgetedRetryInterval(name, settings, budget,
+                circuitBreakerRegistry.circuitBreaker(name), meterRegistry);
+        return RetryConfigCustomizer.of(name, builder -> {
+            RetryConfig.Builder<?> typedBuilder = builder;
+            useInterval(typedBuilder, interval);
+        });
+    }
+
+    /**
+     * The customizer hands over a raw builder; capturing its result type here sets the interval without an
+     * unchecked call. The interval never looks at results, so they are only widened to {@code Object}.
+     */
+    private static <T> void useInterval(RetryConfig.Builder<T> builder, BudgetedRetryInterval interval) {
+        builder.intervalBiFunction((attempt, either) -> interval.apply(attempt, either.map(Object.class::cast)));
+    }
 }
@@ -0,0 +1,55 @@
+package com.company.security.shared.infrastructure.config.resilience;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that caps retries to a fraction of the calls made to a dependency.
+ * Every call deposits {@code ratio} tokens and every retry withdraws one; a small
+ * per-second allowance keeps low-traffic dependencies retryable.
+ */
+public class RetryBudget {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final double ratio;
+    private final double minRetriesPerSecond;
+    private final double maxBalance;
+    private final LongSupplier nanoTime;
+    private double balance;
+    private long lastRefillNanos;
+
+    public RetryBudget(double ratio, double minRetriesPerSecond, double maxBalance, LongSupplier nanoTime) {
+        this.ratio = ratio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.maxBalance = maxBalance;
+        this.nanoTime = nanoTime;
+        this.balance = maxBalance;
+        this.lastRefillNanos = nanoTime.getAsLong();
+    }
+
+    public synchronized void recordCall() {
+        refill();
+        balance = Math.min(maxBalance, balance + ratio);
+    }
+
+    public synchronized boolean tryAcquireRetry() {
+        refill();
+        if (balance < 1) {
+            return false;
+        }
+        balance -= 1;
+        return true;
+    }
+
+    public synchronized double balance() {
+        refill();
+        return balance;
+    }
+
+    private void refill() {
+        long now = nanoTime.getAsLong();
+        double elapsedSeconds = (now - lastRefillNanos) / NANOS_PER_SECOND;
+        lastRefillNanos = now;
+        balance = Math.min(maxBalance, balance + elapsedSeconds * minRetriesPerSecond);
+    }
+}
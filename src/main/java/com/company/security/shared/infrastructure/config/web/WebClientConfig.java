@@ -1,14 +1,128 @@
 package com.company.security.shared.infrastructure.config.web;
 
+import com.company.security.shared.infrastructure.properties.HttpClientProperties;
+import com.company.security.shared.infrastructure.properties.KeycloakProperties;
+import com.company.security.shared.infrastructure.properties.ServicesProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Scope;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebClient builders per downstream. Each downstream gets its own named reactor-netty
+ * connection pool and timeouts, so a slow service cannot exhaust another one's connections.
+ * Pool metrics are published under {@code reactor.netty.connection.provider.*} tagged by pool name.
+ */
 @Configuration
 public class WebClientConfig {
 
+    public static final String KEYCLOAK = "keycloakWebClientBuilder";
+    public static final String CLIENT_SERVICE = "clientServiceWebClientBuilder";
+
     @Bean
+    @Primary
     public WebClient.Builder webClientBuilder() {
         return WebClient.builder();
     }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider keycloakConnectionProvider(HttpClientProperties httpClientProperties) {
+        return connectionProvider("keycloak", httpClientProperties.getKeycloak());
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider clientServiceConnectionProvider(HttpClientProperties httpClientProperties) {
+        return connectionProvider("client-service", httpClientProperties.getClientService());
+    }
+
+    @Bean
+    public ClientHttpConnector keycloakClientHttpConnector(
+            @Qualifier("keycloakConnectionProvider") ConnectionProvider connectionProvider,
+            HttpClientProperties httpClientProperties,
+            KeycloakProperties keycloakProperties,
+            MeterRegistry meterRegistry) {
+        return connector("keycloak", connectionProvider, httpClientProperties.getKeycloak(),
+                keycloakProperties.getServerUrl(), keycloakProperties.getConnectionTimeout(),
+                keycloakProperties.getReadTimeout(), meterRegistry);
+    }
+
+    @Bean
+    public ClientHttpConnector clientServiceClientHttpConnector(
+            @Qualifier("clientServiceConnectionProvider") ConnectionProvider connectionProvider,
+            HttpClientProperties httpClientProperties,
+            ServicesProperties servicesProperties,
+            MeterRegistry meterRegistry) {
+        ServicesProperties.ServiceConfig clientService = servicesProperties.getClientService();
+        return connector("client-service", connectionProvider, httpClientProperties.getClientService(),
+                clientService.getBaseUrl(), clientService.getTimeout(), clientService.getTimeout(), meterRegistry);
+    }
+
+    @Bean(KEYCLOAK)
+    @Scope("prototype")
+    public WebClient.Builder keycloakWebClientBuilder(
+            @Qualifier("keycloakClientHttpConnector") ClientHttpConnector connector) {
+        return WebClient.builder().clientConnector(connector);
+    }
+
+    @Bean(CLIENT_SERVICE)
+    @Scope("prototype")
+    public WebClient.Builder clientServiceWebClientBuilder(
+            @Qualifier("clientServiceClientHttpConnector") ClientHttpConnector connector) {
+        return WebClient.builder().clientConnector(connector);
+    }
+
+    static ConnectionProvider connectionProvider(String name, HttpClientProperties.Pool pool) {
+        return ConnectionProvider.builder(name)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(Duration.ofMillis(pool.getPendingAcquireTimeoutMillis()))
+                .maxIdleTime(Duration.ofSeconds(pool.getMaxIdleTimeSeconds()))
+                .maxLifeTime(Duration.ofSeconds(pool.getMaxLifeTimeSeconds()))
+                .evictInBackground(Duration.ofSeconds(pool.getEvictInBackgroundSeconds()))
+                .metrics(true)
+                .build();
+    }
+
+    static ClientHttpConnector connector(
+            String downstream,
+            ConnectionProvider connectionProvider,
+            HttpClientProperties.Pool pool,
+            String baseUrl,
+            int connectTimeoutMillis,
+            int responseTimeoutMillis,
+            MeterRegistry meterRegistry) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMillis))
+                .keepAlive(pool.isKeepAlive());
+        if (pool.isHttp2()) {
+            boolean secure = baseUrl != null && baseUrl.startsWith("https");
+            httpClient = httpClient.protocol(secure ? HttpProtocol.H2 : HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+
+        registerTimeout(meterRegistry, downstream, "connect", connectTimeoutMillis);
+        registerTimeout(meterRegistry, downstream, "response", responseTimeoutMillis);
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    private static void registerTimeout(MeterRegistry meterRegistry, String downstream, String type, long millis) {
+        TimeGauge.builder("http.client.timeout", () -> millis, TimeUnit.MILLISECONDS)
+                .tags(Tags.of("downstream", downstream, "type", type))
+                .description("Configured timeout applied to the downstream HTTP client")
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,22 @@
+package com.company.security.shared.infrastructure.event;
+
+import java.time.Instant;
+
+/**
+ * In-process notification that a directory user changed in a way that invalidates cached state.
+ * Either identifier may be null when the publisher only knows one of them.
+ */
+public record UserChangeEvent(Type type, String userId, String username, Instant occurredAt) {
+
+    public enum Type {
+        PASSWORD_CHANGED,
+        ACCOUNT_DISABLED,
+        ACCOUNT_DELETED,
+        ROLES_CHANGED,
+        PROFILE_UPDATED
+    }
+
+    public static UserChangeEvent of(Type type, String userId, String username) {
+        return new UserChangeEvent(type, userId, username, Instant.now());
+    }
+}
@@ -0,0 +1,32 @@
+package com.company.security.shared.infrastructure.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+/**
+ * Best-effort in-process bus for {@link UserChangeEvent}s.
+ * Lets one feature react to user changes made by another without a compile-time dependency between them.
+ */
+public class UserChangeEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(UserChangeEventBus.class);
+    private static final Duration EMIT_RETRY_WINDOW = Duration.ofMillis(100);
+
+    private final Sinks.Many<UserChangeEvent> sink = Sinks.many().multicast().directBestEffort();
+
+    public void publish(UserChangeEvent event) {
+        try {
+            sink.emitNext(event, Sinks.EmitFailureHandler.busyLooping(EMIT_RETRY_WINDOW));
+        } catch (Sinks.EmissionException e) {
+            log.warn("Dropped user change event {} for user: {}", event.type(), event.userId(), e);
+        }
+    }
+
+    public Flux<UserChangeEvent> events() {
+        return sink.asFlux();
+    }
+}
@@ -0,0 +1,13 @@
+package com.company.security.shared.infrastructure.event;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Reacts to a user change received from outside the service. Unlike {@link UserChangeEventBus}
+ * subscribers, handlers complete before the event is acknowledged, so their work is not lost on restart.
+ */
+@FunctionalInterface
+public interface UserChangeHandler {
+
+    Mono<Void> handle(UserChangeEvent event);
+}
@@ -1,8 +1,27 @@
 package com.company.security.shared.infrastructure.exception;
 
+import java.time.Duration;
+
 public class RateLimitExceededException extends RuntimeException {
 
+    private final Duration retryAfter;
+    private final Duration resetAfter;
+
     public RateLimitExceededException(String message) {
+        this(message, Duration.ZERO, Duration.ZERO);
+    }
+
+    public RateLimitExceededException(String message, Duration retryAfter, Duration resetAfter) {
         super(message);
+        this.retryAfter = retryAfter;
+        this.resetAfter = resetAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public Duration getResetAfter() {
+        return resetAfter;
     }
 }
@@ -13,6 +13,7 @@ import com.company.security.token.domain.exception.InvalidTokenException;
 import com.company.security.token.domain.exception.TokenExpiredException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +23,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.bind.support.WebExchangeBindException;
 import org.springframework.web.server.ServerWebInputException;
 
+import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -102,7 +104,28 @@ public class RestExceptionHandler {
 
     @ExceptionHandler(RateLimitExceededException.class)
     public ResponseEntity<ErrorResponse> handleRateLimitExceeded(RateLimitExceededException ex, ServerHttpRequest request) {
-        return buildResponse(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", ex.getMessage(), request, "GEN-902");
+        ErrorResponse response = ErrorResponse.of(HttpStatus.TOO_MANY_REQUESTS.value(), "Too Many Requests",
+                ex.getMessage(), request.getPath().value(), "GEN-902");
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON);
+        if (!ex.getRetryAfter().isZero()) {
+            builder.header(HttpHeaders.RETRY_AFTER, String.valueOf(ceilSeconds(ex.getRetryAfter())))
+                    .header("RateLimit-Remaining", "0")
+                    .header("RateLimit-Reset", String.valueOf(ceilSeconds(ex.getResetAfter())));
+        }
+        return builder.body(response);
+    }
+
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencyLimitExceeded(ConcurrencyLimitExceededException ex, ServerHttpRequest request) {
+        ErrorResponse response = ErrorResponse.of(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable",
+                ex.getMessage(), request.getPath().value(), "GEN-903");
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .body(response);
     }
 
     @ExceptionHandler(DomainException.class)
@@ -117,6 +140,10 @@ public class RestExceptionHandler {
                 "An unexpected error occurred. Please try again later.", request, "GEN-900");
     }
 
+    private static long ceilSeconds(Duration duration) {
+        return (duration.toMillis() + 999) / 1000;
+    }
+
     private ResponseEntity<ErrorResponse> buildResponse(HttpStatus status, String title, String detail,
                                                          ServerHttpRequest request, String errorCode) {
         ErrorResponse response = ErrorResponse.of(
@@ -0,0 +1,55 @@
+package com.company.security.shared.infrastructure.filter;
+
+import com.company.security.shared.infrastructure.properties.AdaptiveTimeoutProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores the request deadline ({@link System#nanoTime()} based) in the Reactor context so outbound
+ * calls can stop once the caller has given up. The budget comes from the timeout header, capped at
+ * the configured maximum, or the default budget when the header is absent or invalid.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class RequestDeadlineFilter implements WebFilter {
+
+    public static final String DEADLINE_CONTEXT_KEY = "requestDeadlineNanos";
+
+    private final AdaptiveTimeoutProperties.RequestDeadline settings;
+
+    public RequestDeadlineFilter(AdaptiveTimeoutProperties adaptiveTimeoutProperties) {
+        this.settings = adaptiveTimeoutProperties.getRequestDeadline();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long budgetMillis = budgetMillis(exchange.getRequest().getHeaders().getFirst(settings.getHeaderName()));
+        if (budgetMillis <= 0) {
+            return chain.filter(exchange);
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        return chain.filter(exchange)
+                .contextWrite(ctx -> ctx.put(DEADLINE_CONTEXT_KEY, deadline));
+    }
+
+    private long budgetMillis(String header) {
+        if (header != null && !header.isBlank()) {
+            try {
+                long requested = Long.parseLong(header.trim());
+                if (requested > 0) {
+                    return settings.getMaxMillis() > 0 ? Math.min(requested, settings.getMaxMillis()) : requested;
+                }
+            } catch (NumberFormatException ignored) {
+                // fall back to the default budget
+            }
+        }
+        return settings.getDefaultMillis();
+    }
+}
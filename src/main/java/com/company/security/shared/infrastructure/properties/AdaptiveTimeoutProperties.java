@@ -0,0 +1,39 @@
+package com.company.security.shared.infrastructure.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "adaptive-timeouts")
+public class AdaptiveTimeoutProperties {
+
+    private Map<String, Settings> instances = new HashMap<>();
+    private RequestDeadline requestDeadline = new RequestDeadline();
+
+    public Settings settingsFor(String name) {
+        return instances.getOrDefault(name, new Settings());
+    }
+
+    @Data
+    public static class Settings {
+        private boolean adaptive = true;
+        private double multiplier = 3.0;
+        private long floorMillis = 100;
+        private long ceilingMillis = 5000;
+        private int minSamples = 50;
+        private int windowSize = 512;
+        private int recomputeEvery = 32;
+    }
+
+    @Data
+    public static class RequestDeadline {
+        private String headerName = "X-Request-Timeout-Ms";
+        private long defaultMillis = 10000;
+        private long maxMillis = 30000;
+    }
+}
@@ -0,0 +1,96 @@
+package com.company.security.shared.infrastructure.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "audit")
+public class AuditProperties {
+
+    private Writer writer = new Writer();
+    private Spool spool = new Spool();
+    private Storage storage = new Storage();
+    private Query query = new Query();
+    private Rollups rollups = new Rollups();
+    private Collapse collapse = new Collapse();
+    private Compaction compaction = new Compaction();
+    private Archive archive = new Archive();
+
+    @Data
+    public static class Writer {
+        private int capacity = 8192;
+        private int batchSize = 500;
+        private long maxBatchDelayMillis = 200;
+        private String overflowPolicy = "drop-oldest";
+        private long blockTimeoutMillis = 50;
+        private int sampleRate = 10;
+        private long writeTimeoutMillis = 2000;
+        private long replayRetryMillis = 5000;
+        private int replayChunksPerCycle = 4;
+        private long shutdownTimeoutMillis = 10000;
+    }
+
+    @Data
+    public static class Spool {
+        private boolean enabled = true;
+        private String directory = System.getProperty("java.io.tmpdir") + "/security-service/audit-spool";
+        private int segmentSizeBytes = 16 * 1024 * 1024;
+        private long maxSizeBytes = 1024L * 1024 * 1024;
+    }
+
+    @Data
+    public static class Storage {
+        private int retentionDays = 365;
+        private String granularity = "seconds";
+        private boolean migrateLegacy = true;
+        private int migrationBatchSize = 1000;
+    }
+
+    @Data
+    public static class Query {
+        private String readPreference = "secondaryPreferred";
+        private int defaultLimit = 1000;
+        private int maxLimit = 10000;
+        private int batchSize = 500;
+        private long maxTimeMillis = 30000;
+    }
+
+    @Data
+    public static class Rollups {
+        private boolean enabled = true;
+        private long flushIntervalSeconds = 10;
+        private int maxKeys = 50000;
+        private int retentionDays = 400;
+        private int maxQueryRangeDays = 31;
+        private long writeTimeoutMillis = 5000;
+    }
+
+    @Data
+    public static class Collapse {
+        private boolean enabled = true;
+        private long windowMillis = 10000;
+        private int maxBursts = 10000;
+    }
+
+    @Data
+    public static class Compaction {
+        private boolean enabled = true;
+        private int userAgentCacheSize = 10000;
+        private long registerTimeoutMillis = 1000;
+        private long registerRetryMillis = 30000;
+    }
+
+    @Data
+    public static class Archive {
+        private boolean enabled = false;
+        private boolean archiverEnabled = true;
+        private String directory = System.getProperty("java.io.tmpdir") + "/security-service/audit-archive";
+        private int archiveAfterDays = 90;
+        private long intervalMinutes = 60;
+        private int maxRowsPerSegment = 100000;
+        private int readBatchSize = 1000;
+        private int compressionLevel = 9;
+    }
+}
@@ -0,0 +1,35 @@
+package com.company.security.shared.infrastructure.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "concurrency-limits")
+public class ConcurrencyLimitProperties {
+
+    private Map<String, Settings> instances = new HashMap<>();
+
+    public Settings settingsFor(String name) {
+        return instances.getOrDefault(name, new Settings());
+    }
+
+    @Data
+    public static class Settings {
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+        private double backoffRatio = 0.9;
+        private long maxLatencyMillis = 2000;
+        private int maxQueueSize = 50;
+        private long maxQueueWaitMillis = 100;
+        private long retryAfterSeconds = 1;
+        private List<Class<? extends Throwable>> ignoreExceptions = new ArrayList<>();
+    }
+}
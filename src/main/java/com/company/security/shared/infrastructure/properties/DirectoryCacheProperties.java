@@ -0,0 +1,22 @@
+package com.company.security.shared.infrastructure.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "auth.directory-cache")
+public class DirectoryCacheProperties {
+
+    private Settings ldap = new Settings();
+    private Settings keycloak = new Settings();
+
+    @Data
+    public static class Settings {
+        private boolean enabled = true;
+        private long maxSize = 10000;
+        private long ttlSeconds = 300;
+        private long negativeTtlSeconds = 30;
+    }
+}
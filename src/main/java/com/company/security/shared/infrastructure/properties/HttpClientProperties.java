@@ -0,0 +1,26 @@
+package com.company.security.shared.infrastructure.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "http-client")
+public class HttpClientProperties {
+
+    private Pool keycloak = new Pool();
+    private Pool clientService = new Pool();
+
+    @Data
+    public static class Pool {
+        private int maxConnections = 50;
+        private int pendingAcquireMaxCount = 100;
+        private long pendingAcquireTimeoutMillis = 2000;
+        private long maxIdleTimeSeconds = 30;
+        private long maxLifeTimeSeconds = 300;
+        private long evictInBackgroundSeconds = 30;
+        private boolean keepAlive = true;
+        private boolean http2 = false;
+    }
+}
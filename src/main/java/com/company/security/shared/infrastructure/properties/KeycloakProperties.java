@@ -16,6 +16,9 @@ public class KeycloakProperties {
     private int connectionTimeout = 5000;
     private int readTimeout = 5000;
     private RoleMapping roleMapping = new RoleMapping();
+    private ServiceAccount serviceAccount = new ServiceAccount();
+    private TokenVerification tokenVerification = new TokenVerification();
+    private IdentityCache identityCache = new IdentityCache();
 
     @Data
     public static class RoleMapping {
@@ -23,4 +26,24 @@ public class KeycloakProperties {
         private boolean useClientRoles = true;
         private String clientIdForRoles;
     }
+
+    @Data
+    public static class ServiceAccount {
+        private long refreshSkewSeconds = 30;
+        private boolean proactiveRefresh = true;
+    }
+
+    @Data
+    public static class TokenVerification {
+        private boolean enabled = true;
+        private String issuer;
+        private long jwksMinRefreshSeconds = 30;
+        private long clockSkewSeconds = 30;
+    }
+
+    @Data
+    public static class IdentityCache {
+        private long maxSize = 10000;
+        private long ttlSeconds = 3600;
+    }
 }
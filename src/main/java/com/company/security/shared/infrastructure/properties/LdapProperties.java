@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Data
 @Validated
 @ConfigurationProperties(prefix = "ldap")
@@ -16,4 +19,44 @@ public class LdapProperties {
     private String userSearchBase;
     private String userSearchFilter;
     private String userDnAttribute = "uid";
+    private List<String> replicas = new ArrayList<>();
+    private int connectTimeoutMillis = 2000;
+    private int readTimeoutMillis = 5000;
+    private Routing routing = new Routing();
+    private Mirror mirror = new Mirror();
+    private Groups groups = new Groups();
+
+    @Data
+    public static class Routing {
+        private boolean hedgingEnabled = true;
+        private long initialHedgeDelayMillis = 50;
+        private long minHedgeDelayMillis = 5;
+        private int minSamples = 20;
+        private int failureThreshold = 3;
+        private long cooldownSeconds = 10;
+        private long readYourWritesSeconds = 5;
+        private long readYourWritesMaxEntries = 10000;
+    }
+
+    @Data
+    public static class Mirror {
+        private boolean enabled = false;
+        private String url;
+        private String syncMode = "auto";
+        private int pageSize = 500;
+        private long maxBytes = 64L * 1024 * 1024;
+        private long maxStalenessMillis = 5000;
+        private long reconnectDelayMillis = 5000;
+    }
+
+    @Data
+    public static class Groups {
+        private boolean nestedEnabled = true;
+        private String url;
+        private String searchBase = "ou=groups";
+        private String filter = "(|(objectClass=group)(objectClass=groupOfNames)(objectClass=groupOfUniqueNames))";
+        private String parentAttribute = "memberOf";
+        private int pageSize = 500;
+        private long refreshIntervalSeconds = 300;
+    }
 }
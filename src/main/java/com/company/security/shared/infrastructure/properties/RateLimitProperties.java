@@ -0,0 +1,21 @@
+package com.company.security.shared.infrastructure.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private Lease lease = new Lease();
+
+    @Data
+    public static class Lease {
+        private boolean enabled = true;
+        private double maxErrorFraction = 0.1;
+        private long leaseMillis = 1000;
+        private int maxKeys = 100000;
+    }
+}
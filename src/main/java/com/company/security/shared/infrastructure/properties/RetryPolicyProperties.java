@@ -0,0 +1,29 @@
+package com.company.security.shared.infrastructure.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "retry-policies")
+public class RetryPolicyProperties {
+
+    private Map<String, Settings> instances = new HashMap<>();
+
+    public Settings settingsFor(String name) {
+        return instances.getOrDefault(name, new Settings());
+    }
+
+    @Data
+    public static class Settings {
+        private long initialBackoffMillis = 100;
+        private long maxBackoffMillis = 2000;
+        private double budgetRatio = 0.1;
+        private double minRetriesPerSecond = 1;
+        private double maxBudget = 10;
+    }
+}
@@ -0,0 +1,48 @@
+package com.company.security.shared.infrastructure.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "auth.role-mapping")
+public class RoleMappingProperties {
+
+    private String file;
+    private long reloadIntervalSeconds = 30;
+    private long cacheMaxSize = 10000;
+    private Rules rules = new Rules();
+
+    @Data
+    public static class Rules {
+        private Map<String, List<String>> exact = new LinkedHashMap<>();
+        private List<PrefixRule> prefixes = new ArrayList<>(List.of(
+                new PrefixRule("APP_", "ROLE_"),
+                new PrefixRule("ROLE_", "ROLE_")));
+        private List<PatternRule> patterns = new ArrayList<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PrefixRule {
+        private String prefix;
+        private String replacement;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PatternRule {
+        private String regex;
+        private String role;
+    }
+}
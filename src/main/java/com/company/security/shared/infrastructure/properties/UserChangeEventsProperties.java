@@ -0,0 +1,28 @@
+package com.company.security.shared.infrastructure.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "user-change-events")
+public class UserChangeEventsProperties {
+
+    private boolean enabled = false;
+    private List<String> topics = new ArrayList<>(List.of("security.user.changes"));
+    private String groupId = "security-service";
+    private String autoOffsetReset = "latest";
+    private int concurrency = 8;
+    private int maxAttempts = 3;
+    private long retryBackoffMillis = 200;
+    private long commitIntervalMillis = 1000;
+    private int commitBatchSize = 100;
+    private int maxDeferredCommits = 1000;
+    private Map<String, String> typeAliases = new LinkedHashMap<>();
+}
@@ -0,0 +1,67 @@
+package com.company.security.authentication.infrastructure.adapter.input.event;
+
+import com.company.security.authentication.domain.port.output.RefreshTokenPort;
+import com.company.security.shared.infrastructure.event.UserChangeEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserSessionRevocationHandlerTest {
+
+    @Mock
+    private RefreshTokenPort refreshTokenPort;
+
+    private UserSessionRevocationHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler = new UserSessionRevocationHandler(refreshTokenPort, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void handle_disabledAccount_deletesAllRefreshTokens() {
+        when(refreshTokenPort.deleteAllForUser("u-1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(handler.handle(UserChangeEvent.of(UserChangeEvent.Type.ACCOUNT_DISABLED, "u-1", "jdoe")))
+                .verifyComplete();
+
+        verify(refreshTokenPort).deleteAllForUser("u-1");
+    }
+
+    @Test
+    void handle_withoutUserId_fallsBackToUsername() {
+        when(refreshTokenPort.deleteAllForUser("jdoe")).thenReturn(Mono.empty());
+
+        StepVerifier.create(handler.handle(UserChangeEvent.of(UserChangeEvent.Type.PASSWORD_CHANGED, null, "jdoe")))
+                .verifyComplete();
+
+        verify(refreshTokenPort).deleteAllForUser("jdoe");
+    }
+
+    @Test
+    void handle_profileUpdate_keepsSessions() {
+        StepVerifier.create(handler.handle(UserChangeEvent.of(UserChangeEvent.Type.PROFILE_UPDATED, "u-1", "jdoe")))
+                .verifyComplete();
+
+        verifyNoInteractions(refreshTokenPort);
+    }
+
+    @Test
+    void handle_rolesChange_keepsSessions() {
+        // new roles reach the user on the next refresh, so there is no reason to sign them out
+        StepVerifier.create(handler.handle(UserChangeEvent.of(UserChangeEvent.Type.ROLES_CHANGED, "u-1", "jdoe")))
+                .verifyComplete();
+
+        verifyNoInteractions(refreshTokenPort);
+    }
+}
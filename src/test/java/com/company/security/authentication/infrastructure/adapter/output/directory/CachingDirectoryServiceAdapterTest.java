@@ -0,0 +1,156 @@
+package com.company.security.authentication.infrastructure.adapter.output.directory;
+
+import com.company.security.authentication.domain.exception.AccountDisabledException;
+import com.company.security.authentication.domain.exception.DirectoryServiceException;
+import com.company.security.authentication.domain.model.AuthenticatedUser;
+import com.company.security.authentication.domain.model.Credentials;
+import com.company.security.authentication.domain.port.output.DirectoryServicePort;
+import com.company.security.shared.infrastructure.event.UserChangeEvent;
+import com.company.security.shared.infrastructure.properties.DirectoryCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingDirectoryServiceAdapterTest {
+
+    private static final String USERNAME = "jdoe";
+    private static final String USER_ID = "kc-123";
+
+    @Mock
+    private DirectoryServicePort delegate;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private CachingDirectoryServiceAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        DirectoryCacheProperties.Settings settings = new DirectoryCacheProperties.Settings();
+        settings.setTtlSeconds(300);
+        settings.setNegativeTtlSeconds(30);
+        meterRegistry = new SimpleMeterRegistry();
+        adapter = new CachingDirectoryServiceAdapter(delegate, settings, "ldap", meterRegistry, nanos::get);
+    }
+
+    @Test
+    void findByUsername_servesRepeatedLookupsFromCache() {
+        when(delegate.findByUsername(USERNAME)).thenReturn(Mono.just(buildUser(true)));
+
+        StepVerifier.create(adapter.findByUsername(USERNAME)).expectNextCount(1).verifyComplete();
+        advance(Duration.ofSeconds(10));
+        StepVerifier.create(adapter.findByUsername("JDoe")).expectNextCount(1).verifyComplete();
+
+        verify(delegate, times(1)).findByUsername(USERNAME);
+        assertThat(meterRegistry.get("directory.cache.hit.age").summary().totalAmount()).isEqualTo(10.0);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void findByUsername_reloadsAfterTtl() {
+        when(delegate.findByUsername(USERNAME)).thenReturn(Mono.just(buildUser(true)));
+
+        StepVerifier.create(adapter.findByUsername(USERNAME)).expectNextCount(1).verifyComplete();
+        advance(Duration.ofSeconds(301));
+        StepVerifier.create(adapter.findByUsername(USERNAME)).expectNextCount(1).verifyComplete();
+
+        verify(delegate, times(2)).findByUsername(USERNAME);
+    }
+
+    @Test
+    void findByUsername_cachesUnknownUsersForNegativeTtl() {
+        when(delegate.findByUsername("ghost")).thenReturn(Mono.empty());
+
+        StepVerifier.create(adapter.findByUsername("ghost")).verifyComplete();
+        advance(Duration.ofSeconds(20));
+        StepVerifier.create(adapter.findByUsername("ghost")).verifyComplete();
+        verify(delegate, times(1)).findByUsername("ghost");
+
+        advance(Duration.ofSeconds(11));
+        StepVerifier.create(adapter.findByUsername("ghost")).verifyComplete();
+        verify(delegate, times(2)).findByUsername("ghost");
+    }
+
+    @Test
+    void findByUsername_doesNotCacheDirectoryFailures() {
+        when(delegate.findByUsername(USERNAME))
+                .thenReturn(Mono.error(new DirectoryServiceException("unavailable")))
+                .thenReturn(Mono.just(buildUser(true)));
+
+        StepVerifier.create(adapter.findByUsername(USERNAME)).expectError(DirectoryServiceException.class).verify();
+        StepVerifier.create(adapter.findByUsername(USERNAME)).expectNextCount(1).verifyComplete();
+
+        verify(delegate, times(2)).findByUsername(USERNAME);
+    }
+
+    @Test
+    void findByUsername_coalescesConcurrentLookups() {
+        Sinks.One<AuthenticatedUser> pending = Sinks.one();
+        when(delegate.findByUsername(USERNAME)).thenReturn(pending.asMono());
+
+        Mono<AuthenticatedUser> first = adapter.findByUsername(USERNAME);
+        Mono<AuthenticatedUser> second = adapter.findByUsername(USERNAME);
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> pending.tryEmitValue(buildUser(true)))
+                .assertNext(pair -> assertThat(pair.getT1()).isSameAs(pair.getT2()))
+                .verifyComplete();
+
+        verify(delegate, times(1)).findByUsername(USERNAME);
+    }
+
+    @Test
+    void onUserChange_passwordChangedByUserId_invalidatesEntry() {
+        when(delegate.findByUsername(USERNAME)).thenReturn(Mono.just(buildUser(true)));
+
+        StepVerifier.create(adapter.findByUsername(USERNAME)).expectNextCount(1).verifyComplete();
+        adapter.onUserChange(UserChangeEvent.of(UserChangeEvent.Type.PASSWORD_CHANGED, USER_ID, null));
+        StepVerifier.create(adapter.findByUsername(USERNAME)).expectNextCount(1).verifyComplete();
+
+        verify(delegate, times(2)).findByUsername(USERNAME);
+        assertThat(meterRegistry.get("directory.cache.invalidations").tag("reason", "password_changed")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void authenticate_withDisabledAccount_invalidatesEntry() {
+        Credentials credentials = Credentials.of(USERNAME, "secret");
+        when(delegate.findByUsername(USERNAME)).thenReturn(Mono.just(buildUser(true)));
+        when(delegate.authenticate(credentials)).thenReturn(Mono.error(new AccountDisabledException(USERNAME)));
+
+        StepVerifier.create(adapter.findByUsername(USERNAME)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(adapter.authenticate(credentials)).expectError(AccountDisabledException.class).verify();
+        StepVerifier.create(adapter.findByUsername(USERNAME)).expectNextCount(1).verifyComplete();
+
+        verify(delegate, times(2)).findByUsername(USERNAME);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private AuthenticatedUser buildUser(boolean enabled) {
+        return AuthenticatedUser.builder()
+                .userId(USER_ID)
+                .username(USERNAME)
+                .email("jdoe@example.com")
+                .roles(Set.of("ROLE_USER"))
+                .enabled(enabled)
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.company.security.authentication.infrastructure.adapter.output.directory;
+
+import com.company.security.authentication.domain.model.AuthenticatedUser;
+import com.company.security.shared.infrastructure.adapter.output.ldap.LdapGroupGraph;
+import com.company.security.shared.infrastructure.properties.LdapProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ldap.core.DirContextAdapter;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DirectoryUserMapperTest {
+
+    @Test
+    void shouldMapDirectGroupsAndDeriveRoles() {
+        DirContextAdapter ctx = user("cn=APP_USER,ou=groups,dc=example,dc=com",
+                "CN=Finance\\, EMEA,OU=Groups,DC=example,DC=com",
+                "ou=legacy,dc=example,dc=com");
+
+        AuthenticatedUser user = new DirectoryUserMapper().mapFromLdapContext(ctx, "jdoe");
+
+        assertThat(user.groups()).containsExactlyInAnyOrder("APP_USER", "Finance, EMEA", "ou=legacy,dc=example,dc=com");
+        assertThat(user.roles()).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void shouldDeriveRolesFromNestedGroups() {
+        LdapGroupGraph graph = new LdapGroupGraph(new LdapProperties(), new SimpleMeterRegistry());
+        graph.replace(Map.of(
+                "cn=team,ou=groups,dc=example,dc=com", List.of("cn=APP_ADMIN,ou=groups,dc=example,dc=com")));
+
+        AuthenticatedUser user = new DirectoryUserMapper(graph, RoleMappingEngine.defaults())
+                .mapFromLdapContext(user("cn=team,ou=groups,dc=example,dc=com"), "jdoe");
+
+        assertThat(user.groups()).containsExactlyInAnyOrder("team", "APP_ADMIN");
+        assertThat(user.roles()).containsExactly("ROLE_ADMIN");
+    }
+
+    private static DirContextAdapter user(String... memberOf) {
+        DirContextAdapter ctx = new DirContextAdapter();
+        ctx.setAttributeValue("uid", "jdoe");
+        ctx.setAttributeValue("mail", "jdoe@example.com");
+        ctx.setAttributeValue("givenName", "John");
+        ctx.setAttributeValue("sn", "Doe");
+        ctx.setAttributeValues("memberOf", memberOf);
+        return ctx;
+    }
+}
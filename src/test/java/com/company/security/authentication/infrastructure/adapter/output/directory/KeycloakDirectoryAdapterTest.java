@@ -4,10 +4,17 @@ import com.company.security.authentication.domain.exception.AccountDisabledExcep
 import com.company.security.authentication.domain.exception.DirectoryServiceException;
 import com.company.security.authentication.domain.exception.InvalidCredentialsException;
 import com.company.security.authentication.domain.model.Credentials;
+import com.company.security.shared.infrastructure.adapter.output.keycloak.KeycloakIdentityCache;
+import com.company.security.shared.infrastructure.adapter.output.keycloak.KeycloakServiceAccountTokenAdapter;
 import com.company.security.shared.infrastructure.properties.KeycloakProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.RsaPublicJwk;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,16 +22,26 @@ import org.springframework.web.reactive.function.client.WebClient;
 import reactor.test.StepVerifier;
 
 import java.io.IOException;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
 import java.util.Base64;
+import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 class KeycloakDirectoryAdapterTest {
 
+    private static final KeyPair SIGNING_KEYS = Jwts.SIG.RS256.keyPair().build();
+
     private MockWebServer mockWebServer;
     private KeycloakDirectoryAdapter adapter;
     private ObjectMapper objectMapper;
+    private String issuer;
 
     @BeforeEach
     void setUp() throws IOException {
@@ -37,6 +54,8 @@ class KeycloakDirectoryAdapterTest {
             baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
         }
 
+        issuer = baseUrl + "/realms/test-realm";
+
         KeycloakProperties properties = new KeycloakProperties();
         properties.setServerUrl(baseUrl);
         properties.setRealm("test-realm");
@@ -52,7 +71,10 @@ class KeycloakDirectoryAdapterTest {
                 WebClient.builder().baseUrl(baseUrl),
                 properties,
                 userMapper,
-                objectMapper);
+                objectMapper,
+                new KeycloakServiceAccountTokenAdapter(WebClient.builder(), properties),
+                new KeycloakAccessTokenVerifier(WebClient.builder(), properties, objectMapper),
+                new KeycloakIdentityCache(properties));
     }
 
     @AfterEach
@@ -67,7 +89,7 @@ class KeycloakDirectoryAdapterTest {
                 "sub", "user-123",
                 "preferred_username", "jdoe",
                 "email", "jdoe@example.com",
-                "realm_access", Map.of("roles", java.util.List.of("APP_ADMIN")));
+                "realm_access", Map.of("roles", List.of("APP_ADMIN")));
         String payloadJson = objectMapper.writeValueAsString(tokenPayload);
         String fakeJwt = "header." + Base64.getUrlEncoder().withoutPadding().encodeToString(payloadJson.getBytes()) + ".sig";
 
@@ -106,6 +128,75 @@ class KeycloakDirectoryAdapterTest {
                 .verifyComplete();
     }
 
+    @Test
+    void authenticateShouldBuildUserFromVerifiedTokenWithoutUserInfo() throws Exception {
+        enqueueTokenResponse(signedAccessToken(SIGNING_KEYS.getPrivate()));
+        enqueueJwks();
+
+        StepVerifier.create(adapter.authenticate(Credentials.of("jdoe", "password123")))
+                .assertNext(user -> {
+                    assertThat(user.userId()).isEqualTo("user-123");
+                    assertThat(user.username()).isEqualTo("jdoe");
+                    assertThat(user.firstName()).isEqualTo("John");
+                    assertThat(user.lastName()).isEqualTo("Doe");
+                    assertThat(user.roles()).contains("ROLE_ADMIN");
+                    assertThat(user.groups()).containsExactly("engineering");
+                })
+                .verifyComplete();
+
+        mockWebServer.takeRequest();
+        assertThat(mockWebServer.takeRequest().getPath()).endsWith("/protocol/openid-connect/certs");
+
+        // Second sign-in reuses the cached signing key
+        enqueueTokenResponse(signedAccessToken(SIGNING_KEYS.getPrivate()));
+        StepVerifier.create(adapter.authenticate(Credentials.of("jdoe", "password123")))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    void authenticateShouldTakeGroupsFromUserInfoWhenTokenHasNoGroupsClaim() throws Exception {
+        enqueueTokenResponse(signedAccessToken(SIGNING_KEYS.getPrivate(), null));
+        enqueueJwks();
+        mockWebServer.enqueue(new MockResponse()
+                .setBody(objectMapper.writeValueAsString(Map.of(
+                        "sub", "user-123",
+                        "preferred_username", "jdoe",
+                        "groups", List.of("engineering", "oncall"))))
+                .addHeader("Content-Type", "application/json"));
+
+        StepVerifier.create(adapter.authenticate(Credentials.of("jdoe", "password123")))
+                .assertNext(user -> {
+                    assertThat(user.groups()).containsExactlyInAnyOrder("engineering", "oncall");
+                    assertThat(user.roles()).contains("ROLE_ADMIN");
+                })
+                .verifyComplete();
+
+        mockWebServer.takeRequest();
+        mockWebServer.takeRequest();
+        assertThat(mockWebServer.takeRequest().getPath()).endsWith("/protocol/openid-connect/userinfo");
+    }
+
+    @Test
+    void authenticateShouldFallBackToUserInfoWhenSignatureDoesNotVerify() throws Exception {
+        KeyPair otherKeys = Jwts.SIG.RS256.keyPair().build();
+        enqueueTokenResponse(signedAccessToken(otherKeys.getPrivate()));
+        enqueueJwks();
+        mockWebServer.enqueue(new MockResponse()
+                .setBody(objectMapper.writeValueAsString(Map.of(
+                        "sub", "user-123",
+                        "preferred_username", "jdoe",
+                        "given_name", "Johnny")))
+                .addHeader("Content-Type", "application/json"));
+
+        StepVerifier.create(adapter.authenticate(Credentials.of("jdoe", "password123")))
+                .assertNext(user -> assertThat(user.firstName()).isEqualTo("Johnny"))
+                .verifyComplete();
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(3);
+    }
+
     @Test
     void authenticateShouldThrowInvalidCredentialsOnInvalidGrant() throws Exception {
         Map<String, Object> errorResponse = Map.of(
@@ -190,7 +281,7 @@ class KeycloakDirectoryAdapterTest {
                 .addHeader("Content-Type", "application/json"));
 
         // Admin API user search response
-        java.util.List<Map<String, Object>> usersResponse = java.util.List.of(Map.of(
+        List<Map<String, Object>> usersResponse = List.of(Map.of(
                 "id", "user-789",
                 "username", "jsmith",
                 "email", "jsmith@example.com",
@@ -202,7 +293,7 @@ class KeycloakDirectoryAdapterTest {
                 .addHeader("Content-Type", "application/json"));
 
         // Realm role mappings response
-        java.util.List<Map<String, Object>> rolesResponse = java.util.List.of(
+        List<Map<String, Object>> rolesResponse = List.of(
                 Map.of("name", "APP_USER"),
                 Map.of("name", "default-roles-test-realm"));
         mockWebServer.enqueue(new MockResponse()
@@ -223,7 +314,107 @@ class KeycloakDirectoryAdapterTest {
     }
 
     @Test
-    void findByUsernameShouldThrowWhenUserNotFound() throws Exception {
+    void findByUsernameWithKnownIdShouldSkipSearchAndReuseServiceAccountToken() throws Exception {
+        String userJson = objectMapper.writeValueAsString(Map.of(
+                "id", "user-789", "username", "jsmith", "email", "jsmith@example.com", "enabled", true));
+        String rolesJson = objectMapper.writeValueAsString(List.of(Map.of("name", "APP_USER")));
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getPath();
+                String body;
+                if (path.endsWith("/protocol/openid-connect/token")) {
+                    body = "{\"access_token\": \"admin-token\", \"expires_in\": 300}";
+                } else if (path.contains("/users?")) {
+                    body = "[" + userJson + "]";
+                } else if (path.endsWith("/role-mappings/realm")) {
+                    body = rolesJson;
+                } else if (path.endsWith("/users/user-789")) {
+                    body = userJson;
+                } else {
+                    return new MockResponse().setResponseCode(404);
+                }
+                return new MockResponse().setBody(body).addHeader("Content-Type", "application/json");
+            }
+        });
+
+        // Cold: token, search, roles
+        StepVerifier.create(adapter.findByUsername("jsmith")).expectNextCount(1).verifyComplete();
+        // Warm: user by id and roles, fetched concurrently
+        StepVerifier.create(adapter.findByUsername("jsmith"))
+                .assertNext(user -> {
+                    assertThat(user.userId()).isEqualTo("user-789");
+                    assertThat(user.roles()).containsExactly("ROLE_USER");
+                })
+                .verifyComplete();
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(5);
+        List<String> paths = new java.util.ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            paths.add(mockWebServer.takeRequest().getPath());
+        }
+        assertThat(paths).filteredOn(path -> path.contains("/users?")).hasSize(1);
+    }
+
+    @Test
+    void findByUsernameShouldFailWhenRoleMappingsCannotBeFetched() throws Exception {
+        String userJson = objectMapper.writeValueAsString(Map.of(
+                "id", "user-789", "username", "jsmith", "email", "jsmith@example.com", "enabled", true));
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getPath();
+                if (path.endsWith("/protocol/openid-connect/token")) {
+                    return new MockResponse().setBody("{\"access_token\": \"admin-token\", \"expires_in\": 300}")
+                            .addHeader("Content-Type", "application/json");
+                } else if (path.contains("/users?")) {
+                    return new MockResponse().setBody("[" + userJson + "]").addHeader("Content-Type", "application/json");
+                }
+                return new MockResponse().setResponseCode(503).setBody("unavailable");
+            }
+        });
+
+        // a user without roles must not be returned, and so not cached
+        StepVerifier.create(adapter.findByUsername("jsmith"))
+                .expectError(DirectoryServiceException.class)
+                .verify();
+    }
+
+    @Test
+    void findByUsernameShouldRetryRoleMappingsWithNewTokenWhenRejected() throws Exception {
+        String userJson = objectMapper.writeValueAsString(Map.of(
+                "id", "user-789", "username", "jsmith", "email", "jsmith@example.com", "enabled", true));
+        String rolesJson = objectMapper.writeValueAsString(List.of(Map.of("name", "APP_USER")));
+        AtomicInteger tokens = new AtomicInteger();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getPath();
+                String body;
+                if (path.endsWith("/protocol/openid-connect/token")) {
+                    body = "{\"access_token\": \"admin-token-" + tokens.incrementAndGet() + "\", \"expires_in\": 300}";
+                } else if (path.endsWith("/role-mappings/realm")) {
+                    if ("Bearer admin-token-1".equals(request.getHeader("Authorization"))) {
+                        return new MockResponse().setResponseCode(401);
+                    }
+                    body = rolesJson;
+                } else if (path.contains("/users?")) {
+                    body = "[" + userJson + "]";
+                } else {
+                    return new MockResponse().setResponseCode(404);
+                }
+                return new MockResponse().setBody(body).addHeader("Content-Type", "application/json");
+            }
+        });
+
+        StepVerifier.create(adapter.findByUsername("jsmith"))
+                .assertNext(user -> assertThat(user.roles()).containsExactly("ROLE_USER"))
+                .verifyComplete();
+        assertThat(tokens.get()).isEqualTo(2);
+    }
+
+    @Test
+    void findByUsernameShouldCompleteEmptyWhenUserNotFound() throws Exception {
         // Client credentials token response
         Map<String, Object> tokenResponse = Map.of(
                 "access_token", "admin-token",
@@ -239,8 +430,7 @@ class KeycloakDirectoryAdapterTest {
                 .addHeader("Content-Type", "application/json"));
 
         StepVerifier.create(adapter.findByUsername("nonexistent"))
-                .expectError(DirectoryServiceException.class)
-                .verify();
+                .verifyComplete();
     }
 
     @Test
@@ -260,4 +450,40 @@ class KeycloakDirectoryAdapterTest {
 
         assertThat(result).isEmpty();
     }
+
+    private String signedAccessToken(PrivateKey signingKey) {
+        return signedAccessToken(signingKey, List.of("engineering"));
+    }
+
+    private String signedAccessToken(PrivateKey signingKey, List<String> groups) {
+        return Jwts.builder()
+                .header().keyId("kid-1").and()
+                .issuer(issuer)
+                .subject("user-123")
+                .claim("preferred_username", "jdoe")
+                .claim("email", "jdoe@example.com")
+                .claim("given_name", "John")
+                .claim("family_name", "Doe")
+                .claim("realm_access", Map.of("roles", List.of("APP_ADMIN")))
+                .claim("groups", groups)
+                .expiration(Date.from(Instant.now().plusSeconds(300)))
+                .signWith(signingKey)
+                .compact();
+    }
+
+    private void enqueueTokenResponse(String accessToken) throws Exception {
+        mockWebServer.enqueue(new MockResponse()
+                .setBody(objectMapper.writeValueAsString(Map.of(
+                        "access_token", accessToken,
+                        "token_type", "Bearer",
+                        "expires_in", 300)))
+                .addHeader("Content-Type", "application/json"));
+    }
+
+    private void enqueueJwks() {
+        RsaPublicJwk jwk = Jwks.builder().key((RSAPublicKey) SIGNING_KEYS.getPublic()).id("kid-1").build();
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"keys\": [" + Jwks.json(jwk) + "]}")
+                .addHeader("Content-Type", "application/json"));
+    }
 }
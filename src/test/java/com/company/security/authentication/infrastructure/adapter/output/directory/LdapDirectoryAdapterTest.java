@@ -0,0 +1,192 @@
+package com.company.security.authentication.infrastructure.adapter.output.directory;
+
+import com.company.security.authentication.domain.exception.DirectoryServiceException;
+import com.company.security.authentication.domain.exception.InvalidCredentialsException;
+import com.company.security.authentication.domain.model.Credentials;
+import com.company.security.shared.infrastructure.adapter.output.ldap.LdapDirectoryMirror;
+import com.company.security.shared.infrastructure.adapter.output.ldap.LdapReplica;
+import com.company.security.shared.infrastructure.adapter.output.ldap.LdapReplicaRouter;
+import com.company.security.shared.infrastructure.adapter.output.ldap.ReplicaLatencyTracker;
+import com.company.security.shared.infrastructure.properties.LdapProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.ldap.AuthenticationException;
+import org.springframework.ldap.core.DirContextAdapter;
+import org.springframework.ldap.core.LdapTemplate;
+import org.springframework.ldap.core.support.LdapContextSource;
+import org.springframework.ldap.query.LdapQuery;
+import org.springframework.ldap.support.LdapNameBuilder;
+import reactor.test.StepVerifier;
+
+import javax.naming.directory.BasicAttributes;
+import javax.naming.directory.DirContext;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LdapDirectoryAdapterTest {
+
+    private static final String USER_DN = "uid=jdoe,ou=users,dc=example,dc=com";
+
+    @Mock
+    private LdapTemplate ldapTemplate;
+
+    @Mock
+    private LdapContextSource ldapContextSource;
+
+    private LdapDirectoryAdapter adapter;
+    private LdapReplicaRouter router;
+    private LdapProperties ldapProperties;
+
+    @BeforeEach
+    void setUp() {
+        ldapProperties = new LdapProperties();
+        ldapProperties.setUserSearchBase("ou=users");
+        ldapProperties.setUserDnAttribute("uid");
+        LdapReplica replica = new LdapReplica("ldap://primary", ldapTemplate, ldapContextSource,
+                new ReplicaLatencyTracker(3, 10_000_000_000L));
+        router = new LdapReplicaRouter(replica, List.of(replica), ldapProperties.getRouting(),
+                new SimpleMeterRegistry());
+        adapter = new LdapDirectoryAdapter(router, new DirectoryUserMapper(), ldapProperties);
+    }
+
+    @Test
+    void authenticate_searchesOnceAndBindsAsResolvedDn() {
+        when(ldapTemplate.searchForContext(any(LdapQuery.class))).thenReturn(buildUserEntry());
+        when(ldapContextSource.getContext(USER_DN, "secret")).thenReturn(mock(DirContext.class));
+
+        StepVerifier.create(adapter.authenticate(Credentials.of("jdoe", "secret")))
+                .assertNext(user -> {
+                    assertThat(user.userId()).isEqualTo("jdoe");
+                    assertThat(user.email().value()).isEqualTo("jdoe@example.com");
+                    assertThat(user.firstName()).isEqualTo("John");
+                    assertThat(user.lastName()).isEqualTo("Doe");
+                    assertThat(user.groups()).containsExactly("APP_ADMIN");
+                    assertThat(user.roles()).containsExactly("ROLE_ADMIN");
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<LdapQuery> queryCaptor = ArgumentCaptor.forClass(LdapQuery.class);
+        verify(ldapTemplate, times(1)).searchForContext(queryCaptor.capture());
+        assertThat(queryCaptor.getValue().attributes())
+                .containsExactlyInAnyOrder("uid", "mail", "givenName", "sn", "memberOf");
+        verify(ldapTemplate, never()).authenticate(any(LdapQuery.class), anyString());
+    }
+
+    @Test
+    void authenticate_withWrongPassword_throwsInvalidCredentials() {
+        when(ldapTemplate.searchForContext(any(LdapQuery.class))).thenReturn(buildUserEntry());
+        when(ldapContextSource.getContext(USER_DN, "wrong"))
+                .thenThrow(new AuthenticationException(new javax.naming.AuthenticationException("Invalid credentials")));
+
+        StepVerifier.create(adapter.authenticate(Credentials.of("jdoe", "wrong")))
+                .expectError(InvalidCredentialsException.class)
+                .verify();
+    }
+
+    @Test
+    void authenticate_withUnknownUser_throwsInvalidCredentialsWithoutBinding() {
+        when(ldapTemplate.searchForContext(any(LdapQuery.class))).thenThrow(new EmptyResultDataAccessException(1));
+
+        StepVerifier.create(adapter.authenticate(Credentials.of("ghost", "secret")))
+                .expectError(InvalidCredentialsException.class)
+                .verify();
+
+        verify(ldapContextSource, never()).getContext(anyString(), anyString());
+    }
+
+    @Test
+    void authenticate_withDirectoryFailure_throwsDirectoryServiceException() {
+        when(ldapTemplate.searchForContext(any(LdapQuery.class))).thenThrow(new IllegalStateException("connection reset"));
+
+        StepVerifier.create(adapter.authenticate(Credentials.of("jdoe", "secret")))
+                .expectError(DirectoryServiceException.class)
+                .verify();
+    }
+
+    @Test
+    void findByUsername_requestsOnlyMappedAttributes() {
+        when(ldapTemplate.searchForContext(any(LdapQuery.class))).thenReturn(buildUserEntry());
+
+        StepVerifier.create(adapter.findByUsername("jdoe"))
+                .assertNext(user -> assertThat(user.username()).isEqualTo("jdoe"))
+                .verifyComplete();
+
+        ArgumentCaptor<LdapQuery> queryCaptor = ArgumentCaptor.forClass(LdapQuery.class);
+        verify(ldapTemplate).searchForContext(queryCaptor.capture());
+        assertThat(queryCaptor.getValue().attributes()).contains("memberOf");
+    }
+
+    @Test
+    void findByUsername_withConfiguredFilter_searchesWithEncodedUsername() {
+        ldapProperties.setUserSearchFilter("(&(objectClass=inetOrgPerson)(uid={0}))");
+        when(ldapTemplate.searchForContext(any(LdapQuery.class))).thenReturn(buildUserEntry());
+
+        StepVerifier.create(adapter.findByUsername("j*doe"))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        ArgumentCaptor<LdapQuery> queryCaptor = ArgumentCaptor.forClass(LdapQuery.class);
+        verify(ldapTemplate).searchForContext(queryCaptor.capture());
+        assertThat(queryCaptor.getValue().filter().encode())
+                .isEqualTo("(&(objectClass=inetOrgPerson)(uid=j\\2adoe))");
+    }
+
+    @Test
+    void findByUsername_withUnknownUser_completesEmpty() {
+        when(ldapTemplate.searchForContext(any(LdapQuery.class))).thenThrow(new EmptyResultDataAccessException(1));
+
+        StepVerifier.create(adapter.findByUsername("ghost"))
+                .verifyComplete();
+    }
+
+    @Test
+    void authenticate_withMirror_bindsWithoutSearching() {
+        LdapDirectoryMirror mirror = new LdapDirectoryMirror(ldapProperties, new SimpleMeterRegistry());
+        mirror.beginRefresh();
+        mirror.load(USER_DN, Map.of(
+                "uid", new String[]{"jdoe"},
+                "mail", new String[]{"jdoe@example.com"},
+                "givenName", new String[]{"John"},
+                "sn", new String[]{"Doe"},
+                "memberOf", new String[]{"cn=APP_ADMIN,ou=groups,dc=example,dc=com"}));
+        mirror.commitRefresh();
+        adapter = new LdapDirectoryAdapter(router, new DirectoryUserMapper(), ldapProperties, mirror);
+        when(ldapContextSource.getContext(USER_DN, "secret")).thenReturn(mock(DirContext.class));
+
+        StepVerifier.create(adapter.authenticate(Credentials.of("jdoe", "secret")))
+                .assertNext(user -> assertThat(user.roles()).containsExactly("ROLE_ADMIN"))
+                .verifyComplete();
+        StepVerifier.create(adapter.findByUsername("ghost")).verifyComplete();
+
+        verify(ldapTemplate, never()).searchForContext(any(LdapQuery.class));
+    }
+
+    private DirContextAdapter buildUserEntry() {
+        DirContextAdapter entry = new DirContextAdapter(
+                new BasicAttributes(true),
+                LdapNameBuilder.newInstance("uid=jdoe,ou=users").build(),
+                LdapNameBuilder.newInstance("dc=example,dc=com").build());
+        entry.setAttributeValue("uid", "jdoe");
+        entry.setAttributeValue("mail", "jdoe@example.com");
+        entry.setAttributeValue("givenName", "John");
+        entry.setAttributeValue("sn", "Doe");
+        entry.setAttributeValues("memberOf", new String[]{"cn=APP_ADMIN,ou=groups,dc=example,dc=com"});
+        return entry;
+    }
+}
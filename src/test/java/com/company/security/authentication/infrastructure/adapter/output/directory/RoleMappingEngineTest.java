@@ -0,0 +1,81 @@
+package com.company.security.authentication.infrastructure.adapter.output.directory;
+
+import com.company.security.shared.infrastructure.properties.RoleMappingProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoleMappingEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void defaults_mapAppPrefixAndKeepRolePrefix() {
+        RoleMappingEngine engine = RoleMappingEngine.defaults();
+
+        assertThat(engine.rolesFor(Set.of("APP_ADMIN", "ROLE_AUDITOR", "Finance")))
+                .containsExactlyInAnyOrder("ROLE_ADMIN", "ROLE_AUDITOR");
+    }
+
+    @Test
+    void compiledRules_applyExactLongestPrefixAndPatternMappings() {
+        RoleMappingProperties properties = new RoleMappingProperties();
+        properties.getRules().getExact().put("Finance", List.of("ROLE_FINANCE", "ROLE_REPORTS"));
+        properties.getRules().getPrefixes().add(new RoleMappingProperties.PrefixRule("APP_OPS_", "ROLE_OPERATIONS_"));
+        properties.getRules().getPatterns().add(new RoleMappingProperties.PatternRule("team-(.+)-admins", "ROLE_$1_ADMIN"));
+        RoleMappingEngine engine = new RoleMappingEngine(properties, new ObjectMapper());
+
+        assertThat(engine.rolesFor(Set.of("Finance", "APP_OPS_ONCALL", "APP_USER", "team-billing-admins")))
+                .containsExactlyInAnyOrder("ROLE_FINANCE", "ROLE_REPORTS", "ROLE_OPERATIONS_ONCALL", "ROLE_USER",
+                        "ROLE_billing_ADMIN");
+    }
+
+    @Test
+    void rolesFor_memoizesPerDistinctGroupSet() {
+        RoleMappingEngine engine = RoleMappingEngine.defaults();
+
+        Set<String> first = engine.rolesFor(List.of("APP_USER", "APP_ADMIN"));
+        Set<String> second = engine.rolesFor(List.of("APP_ADMIN", "APP_USER"));
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void reloadIfChanged_swapsRulesWhenFileChangesAndKeepsThemOnInvalidFile() throws Exception {
+        Path file = tempDir.resolve("role-mapping.json");
+        Files.writeString(file, "{\"exact\": {\"Finance\": [\"ROLE_FINANCE\"]}}");
+        RoleMappingProperties properties = new RoleMappingProperties();
+        properties.setFile(file.toString());
+        RoleMappingEngine engine = new RoleMappingEngine(properties, new ObjectMapper(), Schedulers.immediate());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        engine.bindTo(meterRegistry);
+
+        assertThat(engine.rolesFor(Set.of("Finance", "APP_USER"))).containsExactlyInAnyOrder("ROLE_FINANCE", "ROLE_USER");
+
+        Files.writeString(file, "{\"exact\": {\"Finance\": [\"ROLE_ACCOUNTING\"]}, \"prefixes\": []}");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(5)));
+        engine.reloadIfChanged();
+        assertThat(engine.rolesFor(Set.of("Finance", "APP_USER"))).containsExactly("ROLE_ACCOUNTING");
+
+        Files.writeString(file, "{\"patterns\": [{\"regex\": \"(\", \"role\": \"ROLE_X\"}]}");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(10)));
+        engine.reloadIfChanged();
+        assertThat(engine.rolesFor(Set.of("Finance"))).containsExactly("ROLE_ACCOUNTING");
+        assertThat(meterRegistry.get("auth.role.mapping.reloads").tag("outcome", "success").functionCounter().count())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.get("auth.role.mapping.reloads").tag("outcome", "failure").functionCounter().count())
+                .isEqualTo(1.0);
+    }
+}
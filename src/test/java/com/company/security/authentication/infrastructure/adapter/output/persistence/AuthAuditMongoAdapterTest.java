@@ -1,7 +1,9 @@
 package com.company.security.authentication.infrastructure.adapter.output.persistence;
 
 import com.company.security.authentication.infrastructure.adapter.output.persistence.document.AuthAuditDocument;
-import com.company.security.authentication.infrastructure.adapter.output.persistence.repository.AuthAuditRepository;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditBurstCollapser;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditCompactor;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditWriter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,13 +15,16 @@ import reactor.test.StepVerifier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class AuthAuditMongoAdapterTest {
 
     @Mock
-    private AuthAuditRepository repository;
+    private AuditWriter auditWriter;
 
     private AuthAuditMongoAdapter adapter;
 
@@ -30,55 +35,84 @@ class AuthAuditMongoAdapterTest {
 
     @BeforeEach
     void setUp() {
-        adapter = new AuthAuditMongoAdapter(repository);
+        adapter = new AuthAuditMongoAdapter(auditWriter);
     }
 
     @Test
-    void recordSignInSuccess_savesDocument() {
+    void recordSignInSuccess_queuesDocument() {
         ArgumentCaptor<AuthAuditDocument> captor = ArgumentCaptor.forClass(AuthAuditDocument.class);
-        when(repository.save(captor.capture())).thenReturn(Mono.just(new AuthAuditDocument("SIGN_IN_SUCCESS", USER_ID, USERNAME, true, null, null)));
+        when(auditWriter.enqueue(captor.capture())).thenReturn(Mono.empty());
 
         StepVerifier.create(adapter.recordSignInSuccess(USER_ID, USERNAME, IP, UA))
                 .verifyComplete();
 
         AuthAuditDocument saved = captor.getValue();
-        assertThat(saved.getEventType()).isEqualTo("SIGN_IN_SUCCESS");
-        assertThat(saved.getUserId()).isEqualTo(USER_ID);
-        assertThat(saved.getUsername()).isEqualTo(USERNAME);
+        assertThat(saved.getMetadata().getEventType()).isEqualTo("SIGN_IN_SUCCESS");
+        assertThat(saved.getMetadata().getUserId()).isEqualTo(USER_ID);
+        assertThat(saved.getMetadata().getUsername()).isEqualTo(USERNAME);
+        assertThat(saved.getMetadata().getIpAddress()).isEqualTo(IP);
+        assertThat(saved.getUserAgent()).isEqualTo(UA);
         assertThat(saved.isSuccess()).isTrue();
     }
 
     @Test
-    void recordSignInFailure_savesDocumentWithFailureReason() {
-        when(repository.save(any(AuthAuditDocument.class))).thenReturn(
-                Mono.just(new AuthAuditDocument("SIGN_IN_FAILED", null, USERNAME, false, "Invalid credentials", null)));
+    void recordSignInFailure_queuesDocumentWithFailureReason() {
+        when(auditWriter.enqueue(any(AuthAuditDocument.class))).thenReturn(Mono.empty());
 
         StepVerifier.create(adapter.recordSignInFailure(USERNAME, IP, UA, "Invalid credentials"))
                 .verifyComplete();
     }
 
     @Test
-    void recordSignOut_savesDocument() {
-        when(repository.save(any(AuthAuditDocument.class))).thenReturn(
-                Mono.just(new AuthAuditDocument("SIGN_OUT", USER_ID, USERNAME, true, null, null)));
+    void recordSignInFailure_withCollapser_submitsByUsernameIpReasonAndAgent() {
+        AuditBurstCollapser collapser = mock(AuditBurstCollapser.class);
+        when(collapser.submit(any(), any())).thenReturn(Mono.empty());
+        when(auditWriter.enqueue(any(AuthAuditDocument.class))).thenReturn(Mono.empty());
+        adapter = new AuthAuditMongoAdapter(auditWriter, collapser);
+
+        StepVerifier.create(adapter.recordSignInFailure(USERNAME, IP, UA, "Invalid credentials"))
+                .verifyComplete();
+        StepVerifier.create(adapter.recordSignInSuccess(USER_ID, USERNAME, IP, UA))
+                .verifyComplete();
+
+        verify(collapser).submit(eq(new AuthAuditMongoAdapter.BurstKey(USERNAME, IP, "Invalid credentials",
+                        AuditCompactor.idOf(UA))),
+                any(AuthAuditDocument.class));
+        verify(auditWriter).enqueue(any(AuthAuditDocument.class));
+    }
+
+    @Test
+    void burstKey_keepsFailuresWithDifferentFieldsApart() {
+        // the fields are attacker-controlled: a separator inside one must not move text into another
+        assertThat(AuthAuditMongoAdapter.burstKey("a|b", IP, "c", UA))
+                .isNotEqualTo(AuthAuditMongoAdapter.burstKey("a", IP, "b|c", UA));
+        // "Aa" and "BB" share a String.hashCode
+        assertThat(AuthAuditMongoAdapter.burstKey(USERNAME, IP, "c", "Aa"))
+                .isNotEqualTo(AuthAuditMongoAdapter.burstKey(USERNAME, IP, "c", "BB"));
+        assertThat(AuthAuditMongoAdapter.burstKey(USERNAME, IP, "c", null))
+                .isEqualTo(AuthAuditMongoAdapter.burstKey(USERNAME, IP, "c", null))
+                .isNotEqualTo(AuthAuditMongoAdapter.burstKey(USERNAME, IP, "c", ""));
+    }
+
+    @Test
+    void recordSignOut_queuesDocument() {
+        when(auditWriter.enqueue(any(AuthAuditDocument.class))).thenReturn(Mono.empty());
 
         StepVerifier.create(adapter.recordSignOut(USER_ID, USERNAME, IP, UA))
                 .verifyComplete();
     }
 
     @Test
-    void recordTokenRefresh_savesDocument() {
-        when(repository.save(any(AuthAuditDocument.class))).thenReturn(
-                Mono.just(new AuthAuditDocument("TOKEN_REFRESH", USER_ID, USERNAME, true, null, null)));
+    void recordTokenRefresh_queuesDocument() {
+        when(auditWriter.enqueue(any(AuthAuditDocument.class))).thenReturn(Mono.empty());
 
         StepVerifier.create(adapter.recordTokenRefresh(USER_ID, USERNAME, IP, UA))
                 .verifyComplete();
     }
 
     @Test
-    void recordTokenRevoked_savesDocument() {
-        when(repository.save(any(AuthAuditDocument.class))).thenReturn(
-                Mono.just(new AuthAuditDocument("TOKEN_REVOKED", USER_ID, USERNAME, true, null, null)));
+    void recordTokenRevoked_queuesDocument() {
+        when(auditWriter.enqueue(any(AuthAuditDocument.class))).thenReturn(Mono.empty());
 
         StepVerifier.create(adapter.recordTokenRevoked(USER_ID, USERNAME, IP, UA))
                 .verifyComplete();
@@ -8,6 +8,7 @@ import com.company.security.password.domain.model.PasswordResetToken;
 import com.company.security.password.domain.service.PasswordPolicyService;
 import com.company.security.password.domain.port.output.DirectoryPasswordPort;
 import com.company.security.password.domain.port.output.PasswordAuditPort;
+import com.company.security.password.domain.port.output.UserChangeNotificationPort;
 import com.company.security.password.domain.port.output.PasswordResetTokenPort;
 import com.company.security.shared.domain.model.Email;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,6 +22,7 @@ import reactor.test.StepVerifier;
 import java.time.Instant;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +37,9 @@ class ResetPasswordUseCaseImplTest {
     @Mock
     private PasswordAuditPort passwordAuditPort;
 
+    @Mock
+    private UserChangeNotificationPort userChangeNotificationPort;
+
     private PasswordPolicyService passwordPolicyService;
     private ResetPasswordUseCaseImpl resetPasswordUseCase;
 
@@ -52,7 +57,8 @@ class ResetPasswordUseCaseImplTest {
                 passwordResetTokenPort,
                 directoryPasswordPort,
                 passwordAuditPort,
-                passwordPolicyService);
+                passwordPolicyService,
+                userChangeNotificationPort);
     }
 
     @Test
@@ -61,6 +67,7 @@ class ResetPasswordUseCaseImplTest {
 
         when(passwordResetTokenPort.findByToken(TOKEN)).thenReturn(Mono.just(resetToken));
         when(directoryPasswordPort.resetPassword(USER_ID, NEW_PASSWORD)).thenReturn(Mono.empty());
+        when(userChangeNotificationPort.notifyPasswordChanged(USER_ID)).thenReturn(Mono.empty());
         when(passwordResetTokenPort.markAsUsed(TOKEN)).thenReturn(Mono.just(resetToken.markAsUsed()));
         when(passwordAuditPort.recordEvent(
                 PasswordAuditPort.EventType.PASSWORD_RESET_COMPLETED,
@@ -74,6 +81,8 @@ class ResetPasswordUseCaseImplTest {
                     assertThat(result.changeType()).isEqualTo(PasswordChangeResult.ChangeType.RESET);
                 })
                 .verifyComplete();
+
+        verify(userChangeNotificationPort).notifyPasswordChanged(USER_ID);
     }
 
     @Test
@@ -6,6 +6,7 @@ import com.company.security.password.domain.model.PasswordPolicy;
 import com.company.security.password.domain.service.PasswordPolicyService;
 import com.company.security.password.domain.port.output.DirectoryPasswordPort;
 import com.company.security.password.domain.port.output.PasswordAuditPort;
+import com.company.security.password.domain.port.output.UserChangeNotificationPort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,6 +16,8 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +29,9 @@ class UpdatePasswordUseCaseImplTest {
     @Mock
     private PasswordAuditPort passwordAuditPort;
 
+    @Mock
+    private UserChangeNotificationPort userChangeNotificationPort;
+
     private PasswordPolicyService passwordPolicyService;
     private UpdatePasswordUseCaseImpl updatePasswordUseCase;
 
@@ -41,13 +47,15 @@ class UpdatePasswordUseCaseImplTest {
         updatePasswordUseCase = new UpdatePasswordUseCaseImpl(
                 directoryPasswordPort,
                 passwordAuditPort,
-                passwordPolicyService);
+                passwordPolicyService,
+                userChangeNotificationPort);
     }
 
     @Test
     void updatePassword_withCorrectCurrentPassword_changesPassword() {
         when(directoryPasswordPort.verifyPassword(USER_ID, CURRENT_PASSWORD)).thenReturn(Mono.just(true));
         when(directoryPasswordPort.changePassword(USER_ID, NEW_PASSWORD)).thenReturn(Mono.empty());
+        when(userChangeNotificationPort.notifyPasswordChanged(USER_ID)).thenReturn(Mono.empty());
         when(passwordAuditPort.recordEvent(
                 PasswordAuditPort.EventType.PASSWORD_UPDATED,
                 USER_ID, null, true, null, IP_ADDRESS, USER_AGENT))
@@ -60,6 +68,8 @@ class UpdatePasswordUseCaseImplTest {
                     assertThat(result.changeType()).isEqualTo(PasswordChangeResult.ChangeType.UPDATE);
                 })
                 .verifyComplete();
+
+        verify(userChangeNotificationPort).notifyPasswordChanged(USER_ID);
     }
 
     @Test
@@ -69,5 +79,7 @@ class UpdatePasswordUseCaseImplTest {
         StepVerifier.create(updatePasswordUseCase.updatePassword(USER_ID, CURRENT_PASSWORD, NEW_PASSWORD, IP_ADDRESS, USER_AGENT))
                 .expectError(CurrentPasswordMismatchException.class)
                 .verify();
+
+        verify(userChangeNotificationPort, never()).notifyPasswordChanged(USER_ID);
     }
 }
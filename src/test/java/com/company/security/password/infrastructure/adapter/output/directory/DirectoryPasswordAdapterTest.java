@@ -1,6 +1,10 @@
 package com.company.security.password.infrastructure.adapter.output.directory;
 
+import com.company.security.shared.infrastructure.adapter.output.ldap.LdapReplica;
+import com.company.security.shared.infrastructure.adapter.output.ldap.LdapReplicaRouter;
+import com.company.security.shared.infrastructure.adapter.output.ldap.ReplicaLatencyTracker;
 import com.company.security.shared.infrastructure.properties.LdapProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,6 +16,7 @@ import reactor.test.StepVerifier;
 
 import javax.naming.directory.DirContext;
 import javax.naming.directory.ModificationItem;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -19,6 +24,8 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +37,9 @@ class DirectoryPasswordAdapterTest {
     @Mock
     private LdapContextSource ldapContextSource;
 
+    @Mock
+    private LdapContextSource writerContextSource;
+
     private DirectoryPasswordAdapter adapter;
 
     @BeforeEach
@@ -37,7 +47,13 @@ class DirectoryPasswordAdapterTest {
         LdapProperties ldapProperties = new LdapProperties();
         ldapProperties.setUserDnAttribute("uid");
         ldapProperties.setUserSearchBase("ou=people,dc=company,dc=com");
-        adapter = new DirectoryPasswordAdapter(ldapTemplate, ldapContextSource, ldapProperties);
+        LdapReplica writer = new LdapReplica("ldap://primary", ldapTemplate, writerContextSource,
+                new ReplicaLatencyTracker(3, 10_000_000_000L));
+        LdapReplica reader = new LdapReplica("ldap://replica", mock(LdapTemplate.class), ldapContextSource,
+                new ReplicaLatencyTracker(3, 10_000_000_000L));
+        LdapReplicaRouter router = new LdapReplicaRouter(writer, List.of(reader), ldapProperties.getRouting(),
+                new SimpleMeterRegistry());
+        adapter = new DirectoryPasswordAdapter(router, ldapProperties);
     }
 
     @Test
@@ -81,6 +97,20 @@ class DirectoryPasswordAdapterTest {
                 .verify();
     }
 
+    @Test
+    void verifyPassword_afterChange_bindsAgainstWriter() {
+        doNothing().when(ldapTemplate).modifyAttributes(anyString(), any(ModificationItem[].class));
+        when(writerContextSource.getContext("uid=user-123,ou=people,dc=company,dc=com", "newPassword123!"))
+                .thenReturn(mock(DirContext.class));
+
+        StepVerifier.create(adapter.changePassword("user-123", "newPassword123!")).verifyComplete();
+        StepVerifier.create(adapter.verifyPassword("user-123", "newPassword123!"))
+                .assertNext(result -> assertThat(result).isTrue())
+                .verifyComplete();
+
+        verify(ldapContextSource, never()).getContext(anyString(), anyString());
+    }
+
     @Test
     void resetPassword_delegatesToChangePassword() {
         doNothing().when(ldapTemplate).modifyAttributes(anyString(), any(ModificationItem[].class));
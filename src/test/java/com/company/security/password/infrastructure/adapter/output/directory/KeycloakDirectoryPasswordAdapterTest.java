@@ -1,5 +1,7 @@
 package com.company.security.password.infrastructure.adapter.output.directory;
 
+import com.company.security.shared.infrastructure.adapter.output.keycloak.KeycloakIdentityCache;
+import com.company.security.shared.infrastructure.adapter.output.keycloak.KeycloakServiceAccountTokenAdapter;
 import com.company.security.shared.infrastructure.properties.KeycloakProperties;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
@@ -29,7 +31,9 @@ class KeycloakDirectoryPasswordAdapterTest {
         properties.setClientId("test-client");
         properties.setClientSecret("test-secret");
 
-        adapter = new KeycloakDirectoryPasswordAdapter(WebClient.builder(), properties);
+        adapter = new KeycloakDirectoryPasswordAdapter(WebClient.builder(), properties,
+                new KeycloakServiceAccountTokenAdapter(WebClient.builder(), properties),
+                new KeycloakIdentityCache(properties));
     }
 
     @AfterEach
@@ -57,6 +61,31 @@ class KeycloakDirectoryPasswordAdapterTest {
                 .verifyComplete();
     }
 
+    @Test
+    void verifyPassword_withKnownUser_skipsUsernameLookup() {
+        // First verification resolves the username through the Admin API
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"access_token\": \"admin-token\", \"expires_in\": 300}")
+                .setHeader("Content-Type", "application/json"));
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"username\": \"john.doe\"}")
+                .setHeader("Content-Type", "application/json"));
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"access_token\": \"user-token\"}")
+                .setHeader("Content-Type", "application/json"));
+        // Second verification only needs the ROPC call
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"access_token\": \"user-token\"}")
+                .setHeader("Content-Type", "application/json"));
+
+        StepVerifier.create(adapter.verifyPassword("user-123", "correct-password")
+                        .then(adapter.verifyPassword("user-123", "correct-password")))
+                .assertNext(result -> assertThat(result).isTrue())
+                .verifyComplete();
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(4);
+    }
+
     @Test
     void verifyPassword_withInvalidCredentials_returnsFalse() {
         // Client credentials token for user lookup
@@ -108,6 +137,39 @@ class KeycloakDirectoryPasswordAdapterTest {
                 .verify();
     }
 
+    @Test
+    void resetPassword_reusesServiceAccountTokenAcrossCalls() {
+        // Client credentials token, requested once
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"access_token\": \"admin-token\", \"expires_in\": 300}")
+                .setHeader("Content-Type", "application/json"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+
+        StepVerifier.create(adapter.resetPassword("user-123", "newPassword!")
+                        .then(adapter.resetPassword("user-456", "otherPassword!")))
+                .verifyComplete();
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    void resetPassword_withRejectedServiceAccountToken_retriesWithNewToken() {
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"access_token\": \"stale-token\", \"expires_in\": 300}")
+                .setHeader("Content-Type", "application/json"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(401));
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"access_token\": \"fresh-token\", \"expires_in\": 300}")
+                .setHeader("Content-Type", "application/json"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+
+        StepVerifier.create(adapter.resetPassword("user-123", "newPassword!"))
+                .verifyComplete();
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(4);
+    }
+
     @Test
     void changePassword_delegatesToResetPassword() {
         // Client credentials token
@@ -2,7 +2,7 @@ package com.company.security.password.infrastructure.adapter.output.persistence;
 
 import com.company.security.password.domain.port.output.PasswordAuditPort;
 import com.company.security.password.infrastructure.adapter.output.persistence.document.PasswordAuditDocument;
-import com.company.security.password.infrastructure.adapter.output.persistence.repository.PasswordAuditRepository;
+import com.company.security.shared.infrastructure.adapter.output.audit.AuditWriter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,19 +18,18 @@ import static org.mockito.Mockito.when;
 class PasswordAuditMongoAdapterTest {
 
     @Mock
-    private PasswordAuditRepository repository;
+    private AuditWriter auditWriter;
 
     private PasswordAuditMongoAdapter adapter;
 
     @BeforeEach
     void setUp() {
-        adapter = new PasswordAuditMongoAdapter(repository);
+        adapter = new PasswordAuditMongoAdapter(auditWriter);
     }
 
     @Test
-    void recordEvent_savesDocumentSuccessfully() {
-        when(repository.save(any(PasswordAuditDocument.class)))
-                .thenReturn(Mono.just(new PasswordAuditDocument("PASSWORD_RESET_REQUESTED", "user-123", "john@company.com", true, null, null)));
+    void recordEvent_queuesDocument() {
+        when(auditWriter.enqueue(any(PasswordAuditDocument.class))).thenReturn(Mono.empty());
 
         StepVerifier.create(adapter.recordEvent(
                         PasswordAuditPort.EventType.PASSWORD_RESET_REQUESTED,
@@ -39,9 +38,8 @@ class PasswordAuditMongoAdapterTest {
     }
 
     @Test
-    void recordEvent_withFailure_savesWithFailureReason() {
-        when(repository.save(any(PasswordAuditDocument.class)))
-                .thenReturn(Mono.just(new PasswordAuditDocument("PASSWORD_RESET_FAILED", "user-123", "john@company.com", false, "Token expired", null)));
+    void recordEvent_withFailure_queuesWithFailureReason() {
+        when(auditWriter.enqueue(any(PasswordAuditDocument.class))).thenReturn(Mono.empty());
 
         StepVerifier.create(adapter.recordEvent(
                         PasswordAuditPort.EventType.PASSWORD_RESET_FAILED,
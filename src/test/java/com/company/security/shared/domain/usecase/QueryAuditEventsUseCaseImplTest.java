@@ -0,0 +1,52 @@
+package com.company.security.shared.domain.usecase;
+
+import com.company.security.shared.domain.model.AuditEvent;
+import com.company.security.shared.domain.model.AuditEventQuery;
+import com.company.security.shared.domain.port.output.AuditEventQueryPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class QueryAuditEventsUseCaseImplTest {
+
+    @Mock
+    private AuditEventQueryPort auditEventQueryPort;
+
+    private QueryAuditEventsUseCaseImpl useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new QueryAuditEventsUseCaseImpl(auditEventQueryPort);
+    }
+
+    @Test
+    void find_streamsEventsFromThePort() {
+        AuditEventQuery query = new AuditEventQuery("auth", Map.of(), true, null, null, null, null);
+        AuditEvent event = new AuditEvent("e-1", "auth", Instant.parse("2026-03-01T10:15:30Z"), "SIGN_IN_SUCCESS",
+                "u-1", "john.doe", null, null, true, null, null, null, null, null, "c-1");
+        when(auditEventQueryPort.find(query)).thenReturn(Flux.just(event));
+
+        StepVerifier.create(useCase.find(query))
+                .expectNext(event)
+                .verifyComplete();
+    }
+
+    @Test
+    void find_withInvalidQuery_propagatesTheRejection() {
+        AuditEventQuery query = new AuditEventQuery("unknown", Map.of(), null, null, null, null, null);
+        when(auditEventQueryPort.find(query)).thenThrow(new IllegalArgumentException("Unknown audit source 'unknown'"));
+
+        assertThatThrownBy(() -> useCase.find(query)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
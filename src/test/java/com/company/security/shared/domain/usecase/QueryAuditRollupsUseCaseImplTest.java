@@ -0,0 +1,42 @@
+package com.company.security.shared.domain.usecase;
+
+import com.company.security.shared.domain.model.AuditRollup;
+import com.company.security.shared.domain.model.AuditRollupQuery;
+import com.company.security.shared.domain.port.output.AuditRollupQueryPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class QueryAuditRollupsUseCaseImplTest {
+
+    @Mock
+    private AuditRollupQueryPort auditRollupQueryPort;
+
+    private QueryAuditRollupsUseCaseImpl useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new QueryAuditRollupsUseCaseImpl(auditRollupQueryPort);
+    }
+
+    @Test
+    void find_streamsCountsFromThePort() {
+        Instant from = Instant.parse("2026-03-01T10:00:00Z");
+        AuditRollupQuery query = new AuditRollupQuery(null, "SIGN_IN_FAILED", false, null, from, from.plusSeconds(600), true);
+        AuditRollup rollup = new AuditRollup(from, "auth", "SIGN_IN_FAILED", false, "10.0.0", 7);
+        when(auditRollupQueryPort.find(query)).thenReturn(Flux.just(rollup));
+
+        StepVerifier.create(useCase.find(query))
+                .expectNext(rollup)
+                .verifyComplete();
+    }
+}
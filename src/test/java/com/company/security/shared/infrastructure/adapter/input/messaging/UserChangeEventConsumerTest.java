@@ -0,0 +1,98 @@
+package com.company.security.shared.infrastructure.adapter.input.messaging;
+
+import com.company.security.shared.infrastructure.event.UserChangeEvent;
+import com.company.security.shared.infrastructure.event.UserChangeEventBus;
+import com.company.security.shared.infrastructure.event.UserChangeHandler;
+import com.company.security.shared.infrastructure.properties.UserChangeEventsProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserChangeEventConsumerTest {
+
+    private final UserChangeEventBus eventBus = new UserChangeEventBus();
+    private final List<UserChangeEvent> published = new CopyOnWriteArrayList<>();
+    private final List<UserChangeEvent> handled = new CopyOnWriteArrayList<>();
+    private UserChangeEventsProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        eventBus.events().subscribe(published::add);
+        properties = new UserChangeEventsProperties();
+        properties.setRetryBackoffMillis(1);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void process_publishesToBusAndRunsHandlers() {
+        UserChangeEventConsumer consumer = consumer(event -> Mono.fromRunnable(() -> handled.add(event)));
+
+        StepVerifier.create(consumer.process(record("{\"type\": \"USER_DISABLED\", \"userId\": \"u-1\"}")))
+                .verifyComplete();
+
+        assertThat(published).singleElement().extracting(UserChangeEvent::userId).isEqualTo("u-1");
+        assertThat(handled).singleElement().extracting(UserChangeEvent::type)
+                .isEqualTo(UserChangeEvent.Type.ACCOUNT_DISABLED);
+        assertThat(outcome("processed")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("user.change.events.delay").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void process_retriesFailingHandlerThenSkipsRecord() {
+        AtomicInteger attempts = new AtomicInteger();
+        UserChangeEventConsumer consumer = consumer(event -> Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(new IllegalStateException("redis down"));
+        }));
+
+        StepVerifier.create(consumer.process(record("{\"type\": \"USER_DELETED\", \"userId\": \"u-1\"}")))
+                .verifyComplete();
+
+        assertThat(attempts).hasValue(3);
+        assertThat(outcome("failed")).isEqualTo(1.0);
+    }
+
+    @Test
+    void process_skipsMalformedAndIrrelevantMessages() {
+        UserChangeEventConsumer consumer = consumer(event -> Mono.fromRunnable(() -> handled.add(event)));
+
+        StepVerifier.create(consumer.process(record("{broken"))).verifyComplete();
+        StepVerifier.create(consumer.process(record("{\"type\": \"LOGIN\", \"userId\": \"u-1\"}"))).verifyComplete();
+
+        assertThat(published).isEmpty();
+        assertThat(handled).isEmpty();
+        assertThat(outcome("invalid")).isEqualTo(1.0);
+        assertThat(outcome("ignored")).isEqualTo(1.0);
+    }
+
+    private UserChangeEventConsumer consumer(UserChangeHandler handler) {
+        return new UserChangeEventConsumer(ReceiverOptions.create(Map.of()),
+                new UserChangeEventNormalizer(new ObjectMapper(), Map.of()), eventBus, List.of(handler),
+                properties, meterRegistry);
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("user.change.events").tag("outcome", outcome).counter().count();
+    }
+
+    private static ConsumerRecord<String, String> record(String value) {
+        return new ConsumerRecord<>("security.user.changes", 0, 0L, System.currentTimeMillis() - 50,
+                TimestampType.CREATE_TIME, 3, value.length(), "u-1", value, new RecordHeaders(), Optional.empty());
+    }
+}
@@ -0,0 +1,120 @@
+package com.company.security.shared.infrastructure.adapter.input.messaging;
+
+import com.company.security.shared.infrastructure.event.UserChangeEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserChangeEventNormalizerTest {
+
+    private static final String KC_USER_ID = "0b7e2c7a-5f7e-4d7e-9d55-6f5f1b0a4c11";
+
+    private final UserChangeEventNormalizer normalizer =
+            new UserChangeEventNormalizer(new ObjectMapper(), Map.of("hr_termination", "account_deleted"));
+
+    @Test
+    void normalize_readsOwnFormatWithPayload() {
+        UserChangeEvent event = normalizer.normalize("""
+                {"eventType": "USER_DISABLED", "timestamp": "2026-01-02T03:04:05Z",
+                 "payload": {"userId": "u-1", "username": "jdoe"}}
+                """).orElseThrow();
+
+        assertThat(event.type()).isEqualTo(UserChangeEvent.Type.ACCOUNT_DISABLED);
+        assertThat(event.userId()).isEqualTo("u-1");
+        assertThat(event.username()).isEqualTo("jdoe");
+        assertThat(event.occurredAt()).isEqualTo(Instant.parse("2026-01-02T03:04:05Z"));
+    }
+
+    @Test
+    void normalize_readsKeycloakUserAndAdminEvents() {
+        assertThat(normalizer.normalize("""
+                {"type": "UPDATE_PASSWORD", "userId": "kc-1", "time": 1700000000000}
+                """).orElseThrow().type()).isEqualTo(UserChangeEvent.Type.PASSWORD_CHANGED);
+
+        UserChangeEvent roles = normalizer.normalize("""
+                {"operationType": "CREATE", "resourceType": "REALM_ROLE_MAPPING",
+                 "resourcePath": "users/kc-2/role-mappings/realm"}
+                """).orElseThrow();
+        assertThat(roles.type()).isEqualTo(UserChangeEvent.Type.ROLES_CHANGED);
+        assertThat(roles.userId()).isEqualTo("kc-2");
+
+        assertThat(normalizer.normalize("""
+                {"operationType": "DELETE", "resourceType": "CLIENT", "resourcePath": "clients/abc"}
+                """)).isEmpty();
+    }
+
+    @Test
+    void normalize_keycloakAdminDisable_isAccountDisabled() throws Exception {
+        UserChangeEvent event = normalizer.normalize(adminEvent("UPDATE", "users/" + KC_USER_ID, """
+                {"id": "0b7e2c7a-5f7e-4d7e-9d55-6f5f1b0a4c11", "createdTimestamp": 1690000000000, "username": "jdoe",
+                 "enabled": false, "totp": false, "emailVerified": true, "firstName": "John", "lastName": "Doe",
+                 "email": "jdoe@example.com", "attributes": {}, "disableableCredentialTypes": [],
+                 "requiredActions": [], "notBefore": 0}
+                """)).orElseThrow();
+
+        assertThat(event.type()).isEqualTo(UserChangeEvent.Type.ACCOUNT_DISABLED);
+        assertThat(event.userId()).isEqualTo(KC_USER_ID);
+        assertThat(event.occurredAt()).isEqualTo(Instant.ofEpochMilli(1760000000000L));
+    }
+
+    @Test
+    void normalize_keycloakAdminProfileEdit_isProfileUpdated() throws Exception {
+        assertThat(normalizer.normalize(adminEvent("UPDATE", "users/" + KC_USER_ID, """
+                {"id": "0b7e2c7a-5f7e-4d7e-9d55-6f5f1b0a4c11", "username": "jdoe", "enabled": true,
+                 "firstName": "Johnny", "lastName": "Doe", "email": "jdoe@example.com"}
+                """)).orElseThrow().type()).isEqualTo(UserChangeEvent.Type.PROFILE_UPDATED);
+    }
+
+    @Test
+    void normalize_keycloakAdminCredentialChanges_arePasswordChanges() throws Exception {
+        UserChangeEvent reset = normalizer.normalize(adminEvent("ACTION", "users/" + KC_USER_ID + "/reset-password",
+                "{\"type\": \"password\", \"temporary\": false}")).orElseThrow();
+        assertThat(reset.type()).isEqualTo(UserChangeEvent.Type.PASSWORD_CHANGED);
+        assertThat(reset.userId()).isEqualTo(KC_USER_ID);
+
+        assertThat(normalizer.normalize(adminEvent("DELETE",
+                "users/" + KC_USER_ID + "/credentials/5e1c7d0a-9a3b-4c5e-8f7d-2b6a1c9e4d30", null))
+                .orElseThrow().type()).isEqualTo(UserChangeEvent.Type.PASSWORD_CHANGED);
+    }
+
+    @Test
+    void normalize_keycloakAdminUserDeletion_isAccountDeletedButOtherSubResourcesAreIgnored() throws Exception {
+        assertThat(normalizer.normalize(adminEvent("DELETE", "users/" + KC_USER_ID, null))
+                .orElseThrow().type()).isEqualTo(UserChangeEvent.Type.ACCOUNT_DELETED);
+        assertThat(normalizer.normalize(adminEvent("DELETE",
+                "users/" + KC_USER_ID + "/consents/account-console", null))).isEmpty();
+    }
+
+    @Test
+    void normalize_appliesConfiguredAliasesAndIgnoresUnknownTypes() {
+        assertThat(normalizer.normalize("{\"type\": \"HR_TERMINATION\", \"username\": \"jdoe\"}").orElseThrow().type())
+                .isEqualTo(UserChangeEvent.Type.ACCOUNT_DELETED);
+        assertThat(normalizer.normalize("{\"type\": \"LOGIN\", \"userId\": \"u-1\"}")).isEmpty();
+    }
+
+    @Test
+    void normalize_rejectsMalformedMessages() {
+        assertThatThrownBy(() -> normalizer.normalize("not json")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> normalizer.normalize("{\"type\": \"USER_DELETED\"}"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /** An admin event as the Keycloak event listener SPI serializes it; the representation is a JSON string. */
+    private static String adminEvent(String operationType, String resourcePath, String representation)
+            throws JsonProcessingException {
+        return """
+                {"id": "3f9b2c4e-6a1d-4e8f-b7c2-9d0e1f2a3b4c", "time": 1760000000000,
+                 "realmId": "7a1e4f2b-0c3d-4b5a-9e8f-1d2c3b4a5f6e",
+                 "authDetails": {"realmId": "master", "clientId": "b3c4d5e6-f7a8-4b9c-8d0e-1f2a3b4c5d6e",
+                                 "userId": "c9d8e7f6-a5b4-4c3d-8e2f-1a0b9c8d7e6f", "ipAddress": "10.0.4.17"},
+                 "operationType": "%s", "resourceType": "USER", "resourcePath": "%s",
+                 "representation": %s, "error": null, "details": null}
+                """.formatted(operationType, resourcePath, new ObjectMapper().writeValueAsString(representation));
+    }
+}
@@ -0,0 +1,65 @@
+package com.company.security.shared.infrastructure.adapter.input.rest.controller;
+
+import com.company.security.shared.domain.model.AuditEventQuery;
+import com.company.security.shared.infrastructure.adapter.input.rest.dto.response.AuditEventResponse;
+import com.company.security.shared.infrastructure.adapter.input.rest.handler.AuditEventHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditEventControllerTest {
+
+    @Mock
+    private AuditEventHandler handler;
+
+    private AuditEventController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new AuditEventController(handler);
+    }
+
+    @Test
+    void events_streamsEventsForTheGivenFilters() {
+        AuditEventResponse response = new AuditEventResponse("e-1", "auth", Instant.parse("2026-03-01T10:15:30Z"),
+                "SIGN_IN_FAILED", null, "john.doe", null, "10.0.0.1", false, "Invalid credentials",
+                null, null, null, null, "c-1");
+        ArgumentCaptor<AuditEventQuery> query = ArgumentCaptor.forClass(AuditEventQuery.class);
+        when(handler.events(query.capture())).thenReturn(Flux.just(response));
+
+        StepVerifier.create(controller.events("auth", null, "john.doe", null, null, "10.0.0.1", false,
+                        null, null, null, 50))
+                .expectNext(response)
+                .verifyComplete();
+
+        assertThat(query.getValue().source()).isEqualTo("auth");
+        assertThat(query.getValue().metadata()).isEqualTo(Map.of("username", "john.doe", "ipAddress", "10.0.0.1"));
+        assertThat(query.getValue().success()).isFalse();
+        assertThat(query.getValue().limit()).isEqualTo(50);
+    }
+
+    @Test
+    void events_withInvalidQuery_isABadRequest() {
+        when(handler.events(any())).thenThrow(new IllegalArgumentException("Invalid audit cursor"));
+
+        assertThatThrownBy(() -> controller.events("auth", null, null, null, null, null, null,
+                null, null, "bad", null))
+                .isInstanceOf(ServerWebInputException.class)
+                .hasMessageContaining("Invalid audit cursor");
+    }
+}
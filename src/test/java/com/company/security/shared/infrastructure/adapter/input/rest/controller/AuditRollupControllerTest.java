@@ -0,0 +1,60 @@
+package com.company.security.shared.infrastructure.adapter.input.rest.controller;
+
+import com.company.security.shared.domain.model.AuditRollupQuery;
+import com.company.security.shared.infrastructure.adapter.input.rest.dto.response.AuditRollupResponse;
+import com.company.security.shared.infrastructure.adapter.input.rest.handler.AuditRollupHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditRollupControllerTest {
+
+    private static final Instant FROM = Instant.parse("2026-03-01T10:00:00Z");
+    private static final Instant TO = Instant.parse("2026-03-01T11:00:00Z");
+
+    @Mock
+    private AuditRollupHandler handler;
+
+    private AuditRollupController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new AuditRollupController(handler);
+    }
+
+    @Test
+    void rollups_streamsCountsForTheGivenFilters() {
+        AuditRollupResponse response = new AuditRollupResponse(FROM, "auth", "SIGN_IN_FAILED", false, "10.0.0", 12);
+        ArgumentCaptor<AuditRollupQuery> query = ArgumentCaptor.forClass(AuditRollupQuery.class);
+        when(handler.rollups(query.capture())).thenReturn(Flux.just(response));
+
+        StepVerifier.create(controller.rollups("auth", "SIGN_IN_FAILED", false, null, FROM, TO, true))
+                .expectNext(response)
+                .verifyComplete();
+
+        assertThat(query.getValue()).isEqualTo(new AuditRollupQuery("auth", "SIGN_IN_FAILED", false, null, FROM, TO, true));
+    }
+
+    @Test
+    void rollups_withInvalidRange_isABadRequest() {
+        when(handler.rollups(any())).thenThrow(new IllegalArgumentException("from must be before to"));
+
+        assertThatThrownBy(() -> controller.rollups(null, null, null, null, TO, FROM, false))
+                .isInstanceOf(ServerWebInputException.class)
+                .hasMessageContaining("from must be before to");
+    }
+}
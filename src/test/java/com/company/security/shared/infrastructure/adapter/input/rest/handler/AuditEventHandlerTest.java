@@ -0,0 +1,55 @@
+package com.company.security.shared.infrastructure.adapter.input.rest.handler;
+
+import com.company.security.shared.domain.model.AuditEvent;
+import com.company.security.shared.domain.model.AuditEventQuery;
+import com.company.security.shared.domain.port.input.QueryAuditEventsUseCase;
+import com.company.security.shared.infrastructure.adapter.input.rest.mapper.AuditEventRestMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditEventHandlerTest {
+
+    @Mock
+    private QueryAuditEventsUseCase queryAuditEventsUseCase;
+
+    private AuditEventHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler = new AuditEventHandler(queryAuditEventsUseCase, new AuditEventRestMapper());
+    }
+
+    @Test
+    void events_mapsEventsReturnedByTheUseCase() {
+        Instant timestamp = Instant.parse("2026-03-01T10:15:30Z");
+        AuditEventQuery query = new AuditEventQuery("auth", Map.of("username", "john.doe"), null, null, null, null, 10);
+        when(queryAuditEventsUseCase.find(query)).thenReturn(Flux.just(new AuditEvent("e-1", "auth", timestamp,
+                "SIGN_IN_FAILED", null, "john.doe", null, "10.0.0.1", false, "Invalid credentials",
+                null, null, 3L, timestamp.plusSeconds(5), "c-1")));
+
+        StepVerifier.create(handler.events(query))
+                .assertNext(response -> {
+                    assertThat(response.id()).isEqualTo("e-1");
+                    assertThat(response.timestamp()).isEqualTo(timestamp);
+                    assertThat(response.eventType()).isEqualTo("SIGN_IN_FAILED");
+                    assertThat(response.username()).isEqualTo("john.doe");
+                    assertThat(response.success()).isFalse();
+                    assertThat(response.count()).isEqualTo(3L);
+                    assertThat(response.lastTimestamp()).isEqualTo(timestamp.plusSeconds(5));
+                    assertThat(response.cursor()).isEqualTo("c-1");
+                })
+                .verifyComplete();
+    }
+}
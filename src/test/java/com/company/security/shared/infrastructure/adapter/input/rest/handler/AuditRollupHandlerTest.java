@@ -0,0 +1,51 @@
+package com.company.security.shared.infrastructure.adapter.input.rest.handler;
+
+import com.company.security.shared.domain.model.AuditRollup;
+import com.company.security.shared.domain.model.AuditRollupQuery;
+import com.company.security.shared.domain.port.input.QueryAuditRollupsUseCase;
+import com.company.security.shared.infrastructure.adapter.input.rest.mapper.AuditEventRestMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditRollupHandlerTest {
+
+    @Mock
+    private QueryAuditRollupsUseCase queryAuditRollupsUseCase;
+
+    private AuditRollupHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler = new AuditRollupHandler(queryAuditRollupsUseCase, new AuditEventRestMapper());
+    }
+
+    @Test
+    void rollups_mapsCountsReturnedByTheUseCase() {
+        Instant minute = Instant.parse("2026-03-01T10:15:00Z");
+        AuditRollupQuery query = new AuditRollupQuery("auth", null, null, null, minute, minute.plusSeconds(3600), false);
+        when(queryAuditRollupsUseCase.find(query))
+                .thenReturn(Flux.just(new AuditRollup(minute, "auth", "SIGN_IN_SUCCESS", true, null, 42)));
+
+        StepVerifier.create(handler.rollups(query))
+                .assertNext(response -> {
+                    assertThat(response.minute()).isEqualTo(minute);
+                    assertThat(response.source()).isEqualTo("auth");
+                    assertThat(response.eventType()).isEqualTo("SIGN_IN_SUCCESS");
+                    assertThat(response.success()).isTrue();
+                    assertThat(response.ipPrefix()).isNull();
+                    assertThat(response.count()).isEqualTo(42);
+                })
+                .verifyComplete();
+    }
+}
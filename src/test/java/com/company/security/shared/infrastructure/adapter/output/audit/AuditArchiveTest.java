@@ -0,0 +1,128 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import com.company.security.shared.infrastructure.properties.AuditProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditArchiveTest {
+
+    private static final String COLLECTION = "auth_audit_logs";
+    private static final Instant DAY = Instant.parse("2026-01-05T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private AuditProperties.Archive settings;
+    private AuditArchive archive;
+
+    @BeforeEach
+    void setUp() {
+        settings = new AuditProperties.Archive();
+        settings.setDirectory(directory.toString());
+        archive = new AuditArchive(settings, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void write_roundTripsDocumentsColumnByColumn() {
+        List<Document> documents = List.of(
+                event(DAY.plusSeconds(1), "SIGN_IN_FAILED", false).append("userAgentId", 42L),
+                event(DAY.plusSeconds(2), "SIGN_IN_SUCCESS", true).append("correlationId", "c-1"));
+
+        AuditArchive.Segment segment = archive.write(COLLECTION, "000", documents);
+
+        assertThat(segment.file()).isEqualTo(COLLECTION + "/2026-01-05-000.seg.zst");
+        assertThat(segment.rows()).isEqualTo(2);
+        assertThat(segment.first()).isEqualTo(DAY.plusSeconds(1));
+        assertThat(archive.read(segment)).isEqualTo(documents);
+    }
+
+    @Test
+    void commit_persistsManifestAcrossRestarts() {
+        AuditArchive.Segment segment = archive.write(COLLECTION, "000", List.of(event(DAY, "SIGN_IN_FAILED", false)));
+
+        archive.commit(COLLECTION, List.of(segment), DAY.plusSeconds(86400));
+
+        AuditArchive reopened = new AuditArchive(settings, new SimpleMeterRegistry());
+        assertThat(reopened.archivedUntil(COLLECTION)).isEqualTo(DAY.plusSeconds(86400));
+        assertThat(reopened.archivedUntil("password_audit_logs")).isNull();
+        assertThat(reopened.read(segment)).hasSize(1);
+    }
+
+    @Test
+    void find_streamsMatchingEventsNewestFirstAcrossDays() {
+        AuditArchive.Segment older = archive.write(COLLECTION, "000", List.of(
+                event(DAY.plusSeconds(10), "SIGN_IN_FAILED", false),
+                event(DAY.plusSeconds(20), "SIGN_IN_SUCCESS", true)));
+        Instant nextDay = DAY.plusSeconds(86400);
+        AuditArchive.Segment newer = archive.write(COLLECTION, "000", List.of(
+                event(nextDay.plusSeconds(5), "SIGN_IN_FAILED", false),
+                event(nextDay.plusSeconds(6), "SIGN_IN_FAILED", false)));
+        archive.commit(COLLECTION, List.of(older, newer), nextDay.plusSeconds(86400));
+
+        StepVerifier.create(archive.find(COLLECTION, DAY.plusSeconds(15), null, document -> !document.getBoolean("success"))
+                        .map(document -> document.getDate("timestamp").toInstant()))
+                .expectNext(nextDay.plusSeconds(6), nextDay.plusSeconds(5))
+                .verifyComplete();
+    }
+
+    @Test
+    void find_mergesSegmentsOfTheSameDayNewestFirst() {
+        AuditArchive.Segment day = archive.write(COLLECTION, "000", List.of(
+                event(DAY, "SIGN_IN_FAILED", false),
+                event(DAY.plusSeconds(6 * 3600), "SIGN_IN_FAILED", false),
+                event(DAY.plusSeconds(18 * 3600), "SIGN_IN_FAILED", false),
+                event(DAY.plusSeconds(86399), "SIGN_IN_FAILED", false)));
+        AuditArchive.Segment late = archive.write(COLLECTION, "late-1767657600000-000", List.of(
+                event(DAY.plusSeconds(12 * 3600), "SIGN_IN_FAILED", false),
+                event(DAY.plusSeconds(23 * 3600), "SIGN_IN_FAILED", false)));
+        archive.commit(COLLECTION, List.of(day, late), DAY.plusSeconds(86400));
+
+        StepVerifier.create(archive.find(COLLECTION, null, null, document -> true)
+                        .map(document -> document.getDate("timestamp").toInstant()))
+                .expectNext(DAY.plusSeconds(86399), DAY.plusSeconds(23 * 3600), DAY.plusSeconds(18 * 3600),
+                        DAY.plusSeconds(12 * 3600), DAY.plusSeconds(6 * 3600), DAY)
+                .verifyComplete();
+
+        // the next page starts below the last event of a page that ended inside the day segment
+        StepVerifier.create(archive.find(COLLECTION, null, DAY.plusSeconds(18 * 3600), document -> true)
+                        .map(document -> document.getDate("timestamp").toInstant()))
+                .expectNext(DAY.plusSeconds(12 * 3600), DAY.plusSeconds(6 * 3600), DAY)
+                .verifyComplete();
+    }
+
+    @Test
+    void overlapping_groupsOnlySegmentsWhoseRangesIntersect() {
+        AuditArchive.Segment first = segment("a", DAY, DAY.plusSeconds(100));
+        AuditArchive.Segment late = segment("b", DAY.plusSeconds(50), DAY.plusSeconds(60));
+        AuditArchive.Segment second = segment("c", DAY.plusSeconds(200), DAY.plusSeconds(300));
+
+        assertThat(AuditArchive.overlapping(List.of(first, second, late)))
+                .containsExactly(List.of(second), List.of(first, late));
+    }
+
+    private static AuditArchive.Segment segment(String file, Instant first, Instant last) {
+        return new AuditArchive.Segment(COLLECTION, file, first, last, 1, 1);
+    }
+
+    private static Document event(Instant timestamp, String eventType, boolean success) {
+        return new Document("_id", new ObjectId())
+                .append("timestamp", Date.from(timestamp))
+                .append("metadata", new Document("eventType", eventType)
+                        .append("username", "john.doe")
+                        .append("ipAddress", new Binary(new byte[]{10, 0, 0, 1})))
+                .append("success", success);
+    }
+}
@@ -0,0 +1,152 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import com.company.security.shared.infrastructure.properties.AuditProperties;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.reactivestreams.client.FindPublisher;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Subscriber;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditArchiverTest {
+
+    private static final String COLLECTION = "auth_audit_logs";
+    private static final Instant NOW = Instant.parse("2026-04-10T12:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+    @Mock
+    private MongoCollection<Document> mongoCollection;
+
+    private AuditArchive archive;
+    private AuditArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        AuditProperties.Archive settings = new AuditProperties.Archive();
+        settings.setDirectory(directory.toString());
+        settings.setArchiveAfterDays(90);
+        settings.setMaxRowsPerSegment(2);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        archive = new AuditArchive(settings, meterRegistry);
+        archiver = new AuditArchiver(mongoTemplate,
+                List.of(new AuditCollection("auth", COLLECTION, List.of(), List.of())),
+                archive, settings, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC), Schedulers.immediate());
+        when(mongoTemplate.getCollection(COLLECTION)).thenReturn(Mono.just(mongoCollection));
+    }
+
+    @Test
+    void run_movesCompleteDaysOlderThanTheCutoffAndDeletesThem() {
+        Instant cutoff = Instant.parse("2026-01-10T00:00:00Z");
+        Instant oldest = cutoff.minusSeconds(86400 - 60);
+        List<Document> events = List.of(event(oldest), event(oldest.plusSeconds(1)), event(oldest.plusSeconds(1)));
+        FindPublisher<Document> first = publisher(List.of(events.get(0)));
+        FindPublisher<Document> day = publisher(events);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(first, day);
+        when(mongoCollection.deleteMany(any(Bson.class))).thenReturn(Mono.just(DeleteResult.acknowledged(3)));
+
+        archiver.run();
+
+        assertThat(archive.archivedUntil(COLLECTION)).isEqualTo(cutoff);
+        List<Document> archived = archive.find(COLLECTION, null, null, document -> true).collectList().block();
+        assertThat(archived).hasSize(3);
+        // equal timestamps are never split across segments
+        assertThat(directory.resolve(COLLECTION).toFile().list()).containsExactly("2026-01-09-000.seg.zst");
+        verify(mongoCollection, times(1)).deleteMany(any(Bson.class));
+    }
+
+    @Test
+    void run_archivesLateEventsBelowTheHorizonAndDeletesOnlyWhatItRead() {
+        Instant cutoff = Instant.parse("2026-01-10T00:00:00Z");
+        Instant day = cutoff.minusSeconds(86400);
+        Document undeleted = event(day.plusSeconds(60));
+        archive.commit(COLLECTION, List.of(archive.write(COLLECTION, "000", List.of(undeleted))), cutoff);
+        // replayed from the spool after the day was archived
+        Document late = event(day.plusSeconds(3600));
+        FindPublisher<Document> oldest = publisher(List.of(undeleted));
+        FindPublisher<Document> belowHorizon = publisher(List.of(undeleted, late));
+        FindPublisher<Document> none = publisher(List.of());
+        when(mongoCollection.find(any(Bson.class))).thenReturn(oldest, belowHorizon, none);
+        ArgumentCaptor<Bson> deleted = ArgumentCaptor.forClass(Bson.class);
+        when(mongoCollection.deleteMany(deleted.capture())).thenReturn(Mono.just(DeleteResult.acknowledged(2)));
+
+        archiver.run();
+
+        assertThat(archive.archivedUntil(COLLECTION)).isEqualTo(cutoff);
+        assertThat(archive.find(COLLECTION, null, null, document -> true).collectList().block())
+                .extracting(document -> document.get("_id"))
+                .containsExactlyInAnyOrder(undeleted.get("_id"), late.get("_id"));
+        assertThat(directory.resolve(COLLECTION).toFile().list())
+                .containsExactlyInAnyOrder("2026-01-09-000.seg.zst", "2026-01-09-late-" + NOW.toEpochMilli() + "-000.seg.zst");
+        assertThat(bson(deleted.getValue())).isEqualTo(bson(Filters.in("_id", undeleted.get("_id"), late.get("_id"))));
+    }
+
+    @Test
+    void run_withNothingStored_doesNotArchive() {
+        FindPublisher<Document> empty = publisher(List.of());
+        when(mongoCollection.find(any(Bson.class))).thenReturn(empty);
+
+        archiver.run();
+
+        assertThat(archive.archivedUntil(COLLECTION)).isNull();
+        verify(mongoCollection, never()).deleteMany(any(Bson.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FindPublisher<Document> publisher(List<Document> documents) {
+        FindPublisher<Document> publisher = mock(FindPublisher.class, RETURNS_SELF);
+        doAnswer(invocation -> {
+            Flux.fromIterable(documents).subscribe(invocation.<Subscriber<Document>>getArgument(0));
+            return null;
+        }).when(publisher).subscribe(any());
+        return publisher;
+    }
+
+    private static BsonDocument bson(Bson filter) {
+        return filter.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+    }
+
+    private static Document event(Instant timestamp) {
+        return new Document("_id", new ObjectId())
+                .append("timestamp", Date.from(timestamp))
+                .append("metadata", new Document("eventType", "SIGN_IN_FAILED"))
+                .append("success", false);
+    }
+}
@@ -0,0 +1,127 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import com.company.security.shared.infrastructure.properties.AuditProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AuditBurstCollapserTest {
+
+    @Mock
+    private AuditWriter auditWriter;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private AuditProperties.Collapse settings;
+    private SimpleMeterRegistry meterRegistry;
+    private AuditBurstCollapser collapser;
+
+    @BeforeEach
+    void setUp() {
+        settings = new AuditProperties.Collapse();
+        settings.setWindowMillis(1000);
+        meterRegistry = new SimpleMeterRegistry();
+        collapser = new AuditBurstCollapser(auditWriter, settings, meterRegistry, clock::get, Schedulers.immediate());
+        lenient().when(auditWriter.enqueue(any())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void submit_repeatedEventsWithinWindow_areWrittenOnceWithCountAndLastTimestamp() {
+        Event first = new Event();
+        StepVerifier.create(collapser.submit("key", first)).verifyComplete();
+        clock.addAndGet(300);
+        collapser.submit("key", new Event()).block();
+        clock.addAndGet(400);
+        collapser.submit("key", new Event()).block();
+
+        collapser.sweep();
+        verify(auditWriter, never()).enqueue(any());
+
+        clock.addAndGet(300);
+        collapser.sweep();
+
+        verify(auditWriter).enqueue(first);
+        assertThat(first.count).isEqualTo(3);
+        assertThat(first.lastTimestamp).isEqualTo(Instant.ofEpochMilli(1_000_700));
+        assertThat(collapser.openCount()).isZero();
+        assertThat(meterRegistry.get("audit.events.collapsed").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void sweep_singleEvent_isWrittenUnmarked() {
+        Event event = new Event();
+        collapser.submit("key", event).block();
+        clock.addAndGet(1000);
+
+        collapser.sweep();
+
+        verify(auditWriter).enqueue(event);
+        assertThat(event.count).isZero();
+    }
+
+    @Test
+    void submit_afterWindowClosed_opensNewBurst() {
+        Event first = new Event();
+        Event second = new Event();
+        collapser.submit("key", first).block();
+        clock.addAndGet(1000);
+        collapser.sweep();
+
+        collapser.submit("key", second).block();
+        clock.addAndGet(1000);
+        collapser.sweep();
+
+        verify(auditWriter).enqueue(first);
+        verify(auditWriter).enqueue(second);
+    }
+
+    @Test
+    void submit_beyondMaxBursts_writesNewKeysDirectly() {
+        settings.setMaxBursts(1);
+        collapser.submit("a", new Event()).block();
+        Event other = new Event();
+
+        collapser.submit("b", other).block();
+
+        verify(auditWriter).enqueue(other);
+        assertThat(collapser.openCount()).isEqualTo(1);
+    }
+
+    @Test
+    void close_writesOpenBursts() {
+        Event event = new Event();
+        collapser.submit("key", event).block();
+        collapser.submit("key", new Event()).block();
+
+        collapser.close();
+
+        verify(auditWriter).enqueue(event);
+        assertThat(event.count).isEqualTo(2);
+    }
+
+    private static final class Event implements AuditBurstCollapser.Collapsible {
+        private long count;
+        private Instant lastTimestamp;
+
+        @Override
+        public void collapse(long count, Instant lastTimestamp) {
+            this.count = count;
+            this.lastTimestamp = lastTimestamp;
+        }
+    }
+}
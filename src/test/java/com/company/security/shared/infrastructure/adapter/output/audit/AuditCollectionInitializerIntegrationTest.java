@@ -0,0 +1,154 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import com.company.security.shared.infrastructure.properties.AuditProperties;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for AuditCollectionInitializer using Testcontainers MongoDB, covering the migration of
+ * a regular audit collection to a time-series one, including a copy that was interrupted.
+ * Note: Requires Docker to run Testcontainers; skipped where Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Audit Collection Initializer Integration Tests")
+class AuditCollectionInitializerIntegrationTest {
+
+    private static final AuditCollection COLLECTION = new AuditCollection("auth", "auth_audit_logs",
+            List.of("eventType", "username"), List.of());
+    private static final String LEGACY = "auth_audit_logs_legacy";
+
+    @Container
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private static MongoClient client;
+    private static ReactiveMongoTemplate mongoTemplate;
+
+    private AuditProperties.Storage settings;
+
+    @BeforeAll
+    static void connect() {
+        client = MongoClients.create(MONGO.getReplicaSetUrl());
+        mongoTemplate = new ReactiveMongoTemplate(client, "security");
+    }
+
+    @AfterAll
+    static void disconnect() {
+        client.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.getMongoDatabase().flatMap(database -> Mono.from(database.drop())).block();
+        settings = new AuditProperties.Storage();
+    }
+
+    @Test
+    @DisplayName("Should convert a regular collection and copy its events")
+    void regularCollection_isMigrated() {
+        Instant start = Instant.now().truncatedTo(ChronoUnit.MILLIS).minus(1, ChronoUnit.HOURS);
+        insert(COLLECTION.name(), legacyEvent(start), legacyEvent(start.plusSeconds(1)));
+
+        StepVerifier.create(initializer().initialize(COLLECTION)).verifyComplete();
+
+        assertThat(type(COLLECTION.name())).isEqualTo("timeseries");
+        assertThat(count(COLLECTION.name())).isEqualTo(2);
+        assertThat(count(LEGACY)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should resume an interrupted copy after the newest copied event without duplicates")
+    void interruptedCopy_resumesAfterNewestCopiedEvent() {
+        Instant start = Instant.now().truncatedTo(ChronoUnit.MILLIS).minus(1, ChronoUnit.HOURS);
+        Document first = legacyEvent(start);
+        Document second = legacyEvent(start.plusSeconds(1));
+        Document sameInstant = legacyEvent(start.plusSeconds(1));
+        Document last = legacyEvent(start.plusSeconds(2));
+        insert(LEGACY, first, second, sameInstant, last);
+        mongoTemplate.createCollection(COLLECTION.name(), CollectionOptions.timeSeries(AuditCollection.TIME_FIELD,
+                timeSeries -> timeSeries.metaField(AuditCollection.META_FIELD))).block();
+        // the first run stopped after copying two events; one live event was written since
+        insert(COLLECTION.name(), timeSeries(first), timeSeries(second),
+                timeSeries(legacyEvent(Instant.now().truncatedTo(ChronoUnit.MILLIS))));
+
+        StepVerifier.create(initializer().initialize(COLLECTION)).verifyComplete();
+
+        List<Object> ids = Flux.from(client.getDatabase("security").getCollection(COLLECTION.name()).find())
+                .map(document -> document.get(AuditCollection.ID_FIELD))
+                .collectList()
+                .block();
+        assertThat(ids).hasSize(5)
+                .doesNotHaveDuplicates()
+                .contains(first.get("_id"), second.get("_id"), sameInstant.get("_id"), last.get("_id"));
+    }
+
+    @Test
+    @DisplayName("Should fail initialization for a regular collection when migration is off")
+    void regularCollection_withMigrationOff_failsInitialization() {
+        settings.setMigrateLegacy(false);
+        insert(COLLECTION.name(), legacyEvent(Instant.now()));
+
+        StepVerifier.create(initializer().initialize(COLLECTION))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessageContaining("not a time-series collection"))
+                .verify();
+        assertThat(type(COLLECTION.name())).isEqualTo("collection");
+    }
+
+    private AuditCollectionInitializer initializer() {
+        return new AuditCollectionInitializer(mongoTemplate, List.of(COLLECTION), settings);
+    }
+
+    private static Document legacyEvent(Instant timestamp) {
+        return new Document("_id", new ObjectId())
+                .append("eventType", "SIGN_IN_FAILED")
+                .append("username", "john.doe")
+                .append("timestamp", Date.from(timestamp))
+                .append("success", false);
+    }
+
+    private static Document timeSeries(Document legacy) {
+        return AuditCollectionInitializer.toTimeSeries(legacy, COLLECTION.metadataFields());
+    }
+
+    private static void insert(String collection, Document... documents) {
+        Flux.fromArray(documents)
+                .concatMap(document -> mongoTemplate.insert(document, collection))
+                .blockLast();
+    }
+
+    private static long count(String collection) {
+        return mongoTemplate.count(new Query(), collection).block();
+    }
+
+    private static String type(String collection) {
+        return mongoTemplate.getMongoDatabase()
+                .flatMap(database -> Mono.from(database.listCollections()
+                        .filter(new Document("name", collection)).first()))
+                .map(info -> info.getString("type"))
+                .block();
+    }
+}
@@ -0,0 +1,53 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditCollectionInitializerTest {
+
+    private static final List<String> METADATA_FIELDS = List.of("eventType", "userId", "username", "ipAddress");
+
+    @Test
+    void toTimeSeries_movesQueryFieldsIntoMetadata() {
+        Date timestamp = new Date();
+        Document legacy = new Document("_id", "a1")
+                .append("eventType", "SIGN_IN_FAILED")
+                .append("username", "john.doe")
+                .append("timestamp", timestamp)
+                .append("success", false)
+                .append("failureReason", "Invalid credentials")
+                .append("requestMetadata", new Document("ipAddress", "10.0.0.1")
+                        .append("userAgent", "TestAgent/1.0")
+                        .append("correlationId", "c-1"))
+                .append("_class", "AuthAuditDocument");
+
+        Document converted = AuditCollectionInitializer.toTimeSeries(legacy, METADATA_FIELDS);
+
+        assertThat(converted.get("metadata", Document.class)).isEqualTo(new Document("eventType", "SIGN_IN_FAILED")
+                .append("username", "john.doe")
+                .append("ipAddress", "10.0.0.1"));
+        assertThat(converted).containsEntry("_id", "a1")
+                .containsEntry("timestamp", timestamp)
+                .containsEntry("success", false)
+                .containsEntry("failureReason", "Invalid credentials")
+                .containsEntry("userAgent", "TestAgent/1.0")
+                .containsEntry("correlationId", "c-1")
+                .doesNotContainKeys("eventType", "username", "requestMetadata");
+    }
+
+    @Test
+    void toTimeSeries_withoutRequestMetadata_keepsAvailableFields() {
+        Document legacy = new Document("eventType", "PASSWORD_CHANGED").append("userId", "u-1");
+
+        Document converted = AuditCollectionInitializer.toTimeSeries(legacy, METADATA_FIELDS);
+
+        assertThat(converted).containsOnlyKeys("metadata");
+        assertThat(converted.get("metadata", Document.class))
+                .isEqualTo(new Document("eventType", "PASSWORD_CHANGED").append("userId", "u-1"));
+    }
+}
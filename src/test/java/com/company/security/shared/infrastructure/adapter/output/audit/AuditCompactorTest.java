@@ -0,0 +1,141 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import com.company.security.shared.infrastructure.properties.AuditProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditCompactorTest {
+
+    private static final String UA = "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/126.0 Safari/537.36";
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuditCompactor compactor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        compactor = new AuditCompactor(mongoTemplate, new AuditProperties.Compaction(), meterRegistry);
+    }
+
+    @Test
+    void compact_internsUserAgentOnceAndPacksIpAddress() {
+        long id = AuditCompactor.idOf(UA);
+        whenRegistered().thenReturn(Mono.just(new Document("_id", id).append("value", UA)));
+
+        Document first = compactor.compact(event(UA, "203.0.113.7"));
+        Document second = compactor.compact(event(UA, "2001:db8::1"));
+
+        assertThat(first.containsKey("userAgent")).isFalse();
+        assertThat(first.get("userAgentId")).isEqualTo(id);
+        assertThat(first.get("metadata", Document.class).get("ipAddress"))
+                .isEqualTo(new Binary(new byte[]{(byte) 203, 0, 113, 7}));
+        assertThat(second.get("metadata", Document.class).get("ipAddress", Binary.class).getData()).hasSize(16);
+        verify(mongoTemplate, times(1)).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Document.class), eq(AuditCompactor.COLLECTION));
+    }
+
+    @Test
+    void compact_mongoUnavailable_keepsUserAgentAndBacksOff() {
+        whenRegistered().thenReturn(Mono.error(new IllegalStateException("mongo down")));
+
+        Document first = compactor.compact(event(UA, "unknown"));
+        Document second = compactor.compact(event(UA, "unknown"));
+
+        assertThat(first.getString("userAgent")).isEqualTo(UA);
+        assertThat(second.getString("userAgent")).isEqualTo(UA);
+        assertThat(first.get("metadata", Document.class).get("ipAddress")).isEqualTo("unknown");
+        verify(mongoTemplate, times(1)).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Document.class), eq(AuditCompactor.COLLECTION));
+        assertThat(meterRegistry.get("audit.user.agents.unregistered").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void compact_idTakenByAnotherUserAgent_keepsUserAgent() {
+        whenRegistered().thenReturn(Mono.just(new Document("value", "something else")));
+
+        Document document = compactor.compact(event(UA, "10.0.0.1"));
+
+        assertThat(document.getString("userAgent")).isEqualTo(UA);
+        assertThat(document.containsKey("userAgentId")).isFalse();
+    }
+
+    @Test
+    void expand_restoresUserAgentAndIpAddress() {
+        long id = AuditCompactor.idOf(UA);
+        when(mongoTemplate.findById(id, Document.class, AuditCompactor.COLLECTION))
+                .thenReturn(Mono.just(new Document("_id", id).append("value", UA)));
+        Document stored = new Document("userAgentId", id)
+                .append("metadata", new Document("ipAddress", new Binary(new byte[]{10, 0, 0, 1})));
+
+        StepVerifier.create(compactor.expand(stored))
+                .assertNext(document -> {
+                    assertThat(document.getString("userAgent")).isEqualTo(UA);
+                    assertThat(document.containsKey("userAgentId")).isFalse();
+                    assertThat(document.get("metadata", Document.class).getString("ipAddress")).isEqualTo("10.0.0.1");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void packAddress_onlyAcceptsLiterals() {
+        assertThat(AuditCompactor.packAddress("192.168.1.1")).containsExactly(192, 168, 1, 1);
+        assertThat(AuditCompactor.packAddress("::1")).hasSize(16);
+        assertThat(AuditCompactor.packAddress("localhost")).isNull();
+        assertThat(AuditCompactor.packAddress("unknown")).isNull();
+        assertThat(AuditCompactor.packAddress(null)).isNull();
+        assertThat(AuditCompactor.addressText(new Binary(AuditCompactor.packAddress("192.168.1.1")))).isEqualTo("192.168.1.1");
+        assertThat(AuditCompactor.addressText("unknown")).isEqualTo("unknown");
+    }
+
+    @Test
+    void packAddress_outOfRangeOctets_areNotLiterals() {
+        assertThat(AuditCompactor.packAddress("255.255.255.255")).containsExactly(255, 255, 255, 255);
+        assertThat(AuditCompactor.packAddress("0.0.0.0")).containsExactly(0, 0, 0, 0);
+        assertThat(AuditCompactor.packAddress("300.1.1.1")).isNull();
+        assertThat(AuditCompactor.packAddress("1.1.1.256")).isNull();
+        assertThat(AuditCompactor.packAddress("999.999.999.999")).isNull();
+        assertThat(AuditCompactor.packAddress("::ffff:300.1.1.1")).isNull();
+        assertThat(AuditCompactor.packAddress(".:1")).isNull();
+    }
+
+    @Test
+    void compact_outOfRangeIpAddress_staysText() {
+        Document compacted = compactor.compact(new Document("metadata", new Document("ipAddress", "300.1.1.1")));
+
+        assertThat(compacted.get("metadata", Document.class).get("ipAddress")).isEqualTo("300.1.1.1");
+    }
+
+    private OngoingStubbing<Mono<Document>> whenRegistered() {
+        return when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Document.class), eq(AuditCompactor.COLLECTION)));
+    }
+
+    private static Document event(String userAgent, String ipAddress) {
+        return new Document("metadata", new Document("eventType", "SIGN_IN_FAILED").append("ipAddress", ipAddress))
+                .append("userAgent", userAgent);
+    }
+}
@@ -0,0 +1,133 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import com.company.security.shared.domain.model.AuditEvent;
+import com.company.security.shared.domain.model.AuditEventQuery;
+import com.company.security.shared.infrastructure.properties.AuditProperties;
+import com.mongodb.MongoClientSettings;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class AuditEventReaderTest {
+
+    private static final AuditCollection AUTH = new AuditCollection("auth", "auth_audit_logs",
+            List.of("eventType", "userId", "username", "ipAddress"), List.of());
+
+    @Test
+    void filter_combinesMetadataSuccessAndTimeRange() {
+        Instant from = Instant.parse("2026-01-01T00:00:00Z");
+        Instant to = Instant.parse("2026-02-01T00:00:00Z");
+        AuditEventQuery query = new AuditEventQuery("auth", Map.of("ipAddress", "10.0.0.1"), false, from, to, null, null);
+
+        BsonDocument filter = bson(AuditEventReader.filter(AUTH, query));
+
+        assertThat(filter).isEqualTo(bson(new Document("$and", List.of(
+                new Document("metadata.ipAddress", new Document("$in", List.of(
+                        new Binary(new byte[]{10, 0, 0, 1}), "10.0.0.1"))),
+                new Document("success", false),
+                new Document("timestamp", new Document("$gte", Date.from(from))),
+                new Document("timestamp", new Document("$lt", Date.from(to)))))));
+    }
+
+    @Test
+    void filter_afterCursor_startsStrictlyBelowTheLastEvent() {
+        ObjectId id = new ObjectId();
+        Date timestamp = new Date(1_700_000_000_000L);
+        String cursor = AuditEventReader.cursorOf(new Document("_id", id).append("timestamp", timestamp));
+
+        BsonDocument filter = bson(AuditEventReader.filter(AUTH,
+                new AuditEventQuery("auth", Map.of(), null, null, null, cursor, null)));
+
+        assertThat(filter).isEqualTo(bson(new Document("$and", List.of(new Document("$or", List.of(
+                new Document("timestamp", new Document("$lt", timestamp)),
+                new Document("$and", List.of(
+                        new Document("timestamp", timestamp),
+                        new Document("_id", new Document("$lt", id))))))))));
+    }
+
+    @Test
+    void matches_appliesTheFilterToArchivedEvents() {
+        ObjectId id = new ObjectId();
+        Date timestamp = new Date(1_700_000_000_000L);
+        Document archived = new Document("_id", id).append("timestamp", timestamp)
+                .append("metadata", new Document("ipAddress", new Binary(new byte[]{10, 0, 0, 1})))
+                .append("success", false);
+        String sameEvent = AuditEventReader.cursorOf(archived);
+        String later = AuditEventReader.cursorOf(new Document("_id", id).append("timestamp", new Date(timestamp.getTime() + 1)));
+
+        assertThat(AuditEventReader.matches(new AuditEventQuery("auth", Map.of("ipAddress", "10.0.0.1"), false,
+                null, null, later, null), archived)).isTrue();
+        assertThat(AuditEventReader.matches(new AuditEventQuery("auth", Map.of("ipAddress", "10.0.0.2"), null,
+                null, null, null, null), archived)).isFalse();
+        assertThat(AuditEventReader.matches(new AuditEventQuery("auth", Map.of("ipAddress", "unknown"), null,
+                null, null, null, null), archived)).isFalse();
+        assertThat(AuditEventReader.matches(new AuditEventQuery("auth", Map.of(), true,
+                null, null, null, null), archived)).isFalse();
+        assertThat(AuditEventReader.matches(new AuditEventQuery("auth", Map.of(), null,
+                null, null, sameEvent, null), archived)).isFalse();
+    }
+
+    @Test
+    void toEvent_readsStoredFieldsAndCursor() {
+        Instant timestamp = Instant.parse("2026-03-01T10:15:30Z");
+        Document document = new Document("_id", "e-1")
+                .append("timestamp", Date.from(timestamp))
+                .append("metadata", new Document("eventType", "SIGN_IN_FAILED")
+                        .append("username", "john.doe")
+                        .append("ipAddress", "10.0.0.1"))
+                .append("success", false)
+                .append("failureReason", "Invalid credentials")
+                .append("count", 3)
+                .append("lastTimestamp", Date.from(timestamp.plusSeconds(5)));
+
+        AuditEvent event = AuditEventReader.toEvent("auth", document);
+
+        assertThat(event.id()).isEqualTo("e-1");
+        assertThat(event.source()).isEqualTo("auth");
+        assertThat(event.timestamp()).isEqualTo(timestamp);
+        assertThat(event.eventType()).isEqualTo("SIGN_IN_FAILED");
+        assertThat(event.username()).isEqualTo("john.doe");
+        assertThat(event.ipAddress()).isEqualTo("10.0.0.1");
+        assertThat(event.success()).isFalse();
+        assertThat(event.failureReason()).isEqualTo("Invalid credentials");
+        assertThat(event.count()).isEqualTo(3L);
+        assertThat(event.lastTimestamp()).isEqualTo(timestamp.plusSeconds(5));
+        assertThat(event.cursor()).isEqualTo(AuditEventReader.cursorOf(document));
+    }
+
+    @Test
+    void find_rejectsInvalidQueries() {
+        AuditProperties.Query settings = new AuditProperties.Query();
+        AuditEventReader reader = new AuditEventReader(mock(ReactiveMongoTemplate.class), List.of(AUTH), settings);
+
+        assertThatThrownBy(() -> reader.find(query("password", Map.of(), null, null)))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Unknown audit source");
+        assertThatThrownBy(() -> reader.find(query("auth", Map.of("email", "a@b.c"), null, null)))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("cannot be filtered by email");
+        assertThatThrownBy(() -> reader.find(query("auth", Map.of(), null, 10_001)))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("limit");
+        assertThatThrownBy(() -> reader.find(query("auth", Map.of(), "not-a-cursor", null)))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid audit cursor");
+    }
+
+    private static AuditEventQuery query(String source, Map<String, String> metadata, String after, Integer limit) {
+        return new AuditEventQuery(source, metadata, null, null, null, after, limit);
+    }
+
+    private static BsonDocument bson(Bson filter) {
+        return filter.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+    }
+}
@@ -0,0 +1,168 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import com.company.security.shared.domain.model.AuditRollupQuery;
+import com.company.security.shared.infrastructure.properties.AuditProperties;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditRollupsTest {
+
+    private static final Instant MINUTE = Instant.parse("2026-03-01T10:15:00Z");
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+    @Mock
+    private ReactiveBulkOperations bulk;
+    @Mock
+    private ReactiveIndexOperations indexOps;
+
+    private AuditProperties.Rollups settings;
+    private SimpleMeterRegistry meterRegistry;
+    private AuditRollups rollups;
+
+    @BeforeEach
+    void setUp() {
+        settings = new AuditProperties.Rollups();
+        meterRegistry = new SimpleMeterRegistry();
+        rollups = new AuditRollups(mongoTemplate,
+                List.of(new AuditCollection("auth", "auth_audit_logs", List.of(), List.of())),
+                settings, "secondaryPreferred", meterRegistry, Schedulers.immediate());
+        lenient().when(mongoTemplate.indexOps(AuditRollups.COLLECTION)).thenReturn(indexOps);
+        lenient().when(indexOps.ensureIndex(any())).thenReturn(Mono.just("index"));
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AuditRollups.COLLECTION)).thenReturn(bulk);
+        lenient().when(bulk.upsert(any(Query.class), any(Update.class))).thenReturn(bulk);
+    }
+
+    @Test
+    void flush_upsertsOneIncrementPerMinuteAndKey() {
+        when(bulk.execute()).thenReturn(Mono.just(BulkWriteResult.unacknowledged()));
+        rollups.record(event(MINUTE.plusSeconds(5), "SIGN_IN_FAILED", false, "10.0.0.1"));
+        rollups.record(event(MINUTE.plusSeconds(40), "SIGN_IN_FAILED", false, "10.0.0.77"));
+        rollups.record(event(MINUTE.plusSeconds(61), "SIGN_IN_FAILED", false, "10.0.0.1"));
+
+        rollups.flush();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(2)).upsert(query.capture(), update.capture());
+        assertThat(query.getAllValues().get(0).getQueryObject().getString("_id"))
+                .isEqualTo("auth|2026-03-01T10:15:00Z|SIGN_IN_FAILED|false|10.0.0.0/24");
+        assertThat(update.getAllValues()).extracting(u -> u.getUpdateObject().get("$inc", Document.class).get("count"))
+                .containsExactlyInAnyOrder(2L, 1L);
+        assertThat(meterRegistry.get("audit.rollups.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void flush_failure_keepsCountsForTheNextFlush() {
+        when(bulk.execute())
+                .thenReturn(Mono.error(new IllegalStateException("mongo down")))
+                .thenReturn(Mono.just(BulkWriteResult.unacknowledged()));
+        rollups.record(event(MINUTE, "SIGN_IN_SUCCESS", true, "10.0.0.1"));
+        rollups.flush();
+        rollups.record(event(MINUTE, "SIGN_IN_SUCCESS", true, "10.0.0.1"));
+
+        rollups.flush();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(2)).upsert(any(Query.class), update.capture());
+        assertThat(update.getValue().getUpdateObject().get("$inc", Document.class).get("count")).isEqualTo(2L);
+        assertThat(meterRegistry.get("audit.rollups.flush.failures").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void record_collapsedEvent_countsEveryAttempt() {
+        when(bulk.execute()).thenReturn(Mono.just(BulkWriteResult.unacknowledged()));
+        AuditRecord collapsed = event(MINUTE, "SIGN_IN_FAILED", false, "10.0.0.1");
+        collapsed.document().append("count", 250L);
+        rollups.record(collapsed);
+
+        rollups.flush();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulk).upsert(any(Query.class), update.capture());
+        assertThat(update.getValue().getUpdateObject().get("$inc", Document.class).get("count")).isEqualTo(250L);
+    }
+
+    @Test
+    void record_beyondMaxKeys_foldsNewIpPrefixesIntoOther() {
+        settings.setMaxKeys(1);
+        when(bulk.execute()).thenReturn(Mono.just(BulkWriteResult.unacknowledged()));
+        rollups.record(event(MINUTE, "SIGN_IN_FAILED", false, "10.0.0.1"));
+        rollups.record(event(MINUTE, "SIGN_IN_FAILED", false, "192.168.1.1"));
+
+        rollups.flush();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(bulk, times(2)).upsert(query.capture(), any(Update.class));
+        assertThat(query.getAllValues()).extracting(q -> q.getQueryObject().getString("_id"))
+                .anyMatch(id -> id.endsWith("|other"));
+    }
+
+    @Test
+    void ipPrefix_coarsensAddresses() {
+        assertThat(AuditRollups.ipPrefix("203.0.113.42")).isEqualTo("203.0.113.0/24");
+        assertThat(AuditRollups.ipPrefix("203.0.113.42, 10.0.0.1")).isEqualTo("203.0.113.0/24");
+        assertThat(AuditRollups.ipPrefix("2001:db8:abcd:12::1")).isEqualTo("2001:db8:abcd::/48");
+        assertThat(AuditRollups.ipPrefix("unknown")).isEqualTo("other");
+        assertThat(AuditRollups.ipPrefix(null)).isEqualTo("other");
+    }
+
+    @Test
+    void pipeline_groupsByIpPrefixOnlyWhenAsked() {
+        AuditRollupQuery query = new AuditRollupQuery("auth", null, false, null, MINUTE, MINUTE.plusSeconds(3600), true);
+
+        List<BsonDocument> stages = AuditRollups.pipeline(query).stream()
+                .map(stage -> stage.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry()))
+                .toList();
+
+        assertThat(stages.get(1).getDocument("$group").getDocument("_id").keySet())
+                .containsExactly("minute", "source", "eventType", "success", "ipPrefix");
+        assertThat(stages.get(0).toJson()).contains("\"success\": false").contains("\"source\": \"auth\"");
+    }
+
+    @Test
+    void find_rejectsRangesBeyondTheLimit() {
+        assertThatThrownBy(() -> rollups.find(new AuditRollupQuery(null, null, null, null,
+                MINUTE, MINUTE.plusSeconds(32L * 86400), false)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> rollups.find(new AuditRollupQuery(null, null, null, null,
+                MINUTE, MINUTE, false)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static AuditRecord event(Instant timestamp, String eventType, boolean success, String ipAddress) {
+        return new AuditRecord("auth_audit_logs", new Document("timestamp", Date.from(timestamp))
+                .append("metadata", new Document("eventType", eventType).append("ipAddress", ipAddress))
+                .append("success", success));
+    }
+}
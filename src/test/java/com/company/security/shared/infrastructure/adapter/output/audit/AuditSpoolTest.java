@@ -0,0 +1,130 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import com.company.security.shared.infrastructure.properties.AuditProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditSpoolTest {
+
+    @TempDir
+    Path directory;
+
+    private AuditProperties.Spool settings;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        settings = new AuditProperties.Spool();
+        settings.setDirectory(directory.toString());
+        settings.setSegmentSizeBytes(512);
+        settings.setMaxSizeBytes(2048);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void appendAndPeek_roundTripRecordsAcrossSegmentsInOrder() {
+        AuditSpool spool = new AuditSpool(settings, meterRegistry);
+        ObjectId id = new ObjectId();
+        Date timestamp = Date.from(Instant.parse("2026-01-01T00:00:00Z"));
+        List<AuditRecord> records = IntStream.range(0, 10)
+                .mapToObj(i -> new AuditRecord("auth_audit_logs",
+                        new Document("_id", id).append("seq", i).append("timestamp", timestamp)))
+                .toList();
+
+        assertThat(spool.append(records)).isEqualTo(10);
+        AuditSpool.Chunk chunk = spool.peek(100);
+
+        assertThat(segmentFiles()).hasSizeGreaterThan(1);
+        assertThat(chunk.records()).extracting(r -> r.document().getInteger("seq"))
+                .containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assertThat(chunk.records().get(0)).isEqualTo(records.get(0));
+    }
+
+    @Test
+    void commit_deletesReplayedSegmentsAndEmptiesTheSpool() {
+        AuditSpool spool = new AuditSpool(settings, meterRegistry);
+        spool.append(records(10));
+
+        spool.commit(spool.peek(100));
+
+        assertThat(spool.isEmpty()).isTrue();
+        assertThat(spool.pendingBytes()).isZero();
+        assertThat(segmentFiles()).hasSize(1);
+        assertThat(meterRegistry.get("audit.spool.replayed").counter().count()).isEqualTo(10.0);
+    }
+
+    @Test
+    void reopen_resumesAfterTheLastCommittedRecord() {
+        AuditSpool spool = new AuditSpool(settings, meterRegistry);
+        spool.append(records(6));
+        spool.commit(spool.peek(2));
+        spool.close();
+
+        AuditSpool reopened = new AuditSpool(settings, new SimpleMeterRegistry());
+
+        assertThat(reopened.peek(100).records()).extracting(r -> r.document().getInteger("seq"))
+                .containsExactly(2, 3, 4, 5);
+    }
+
+    @Test
+    void reopen_ignoresATornRecordAndAppendsOverIt() throws Exception {
+        AuditSpool spool = new AuditSpool(settings, meterRegistry);
+        spool.append(records(2));
+        spool.close();
+        Path segment = segmentFiles().get(0);
+        long secondRecord = spool.peek(1).offset();
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(secondRecord + 12);
+            file.write(0x7f);
+        }
+
+        AuditSpool reopened = new AuditSpool(settings, new SimpleMeterRegistry());
+        reopened.append(List.of(record(9)));
+
+        assertThat(reopened.peek(100).records()).extracting(r -> r.document().getInteger("seq"))
+                .containsExactly(0, 9);
+    }
+
+    @Test
+    void append_stopsAtTheSizeQuota() {
+        AuditSpool spool = new AuditSpool(settings, meterRegistry);
+
+        int stored = spool.append(records(200));
+
+        assertThat(stored).isLessThan(200);
+        assertThat(segmentFiles()).hasSize(4);
+        assertThat(meterRegistry.get("audit.spool.segments").gauge().value()).isEqualTo(4.0);
+        assertThat(spool.peek(1000).records()).hasSize(stored);
+    }
+
+    private static List<AuditRecord> records(int count) {
+        return IntStream.range(0, count).mapToObj(AuditSpoolTest::record).toList();
+    }
+
+    private static AuditRecord record(int seq) {
+        return new AuditRecord("auth_audit_logs", new Document("seq", seq).append("eventType", "SIGN_IN_SUCCESS"));
+    }
+
+    private List<Path> segmentFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("segment-")).sorted().toList();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
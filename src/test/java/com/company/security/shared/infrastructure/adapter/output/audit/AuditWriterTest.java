@@ -0,0 +1,227 @@
+package com.company.security.shared.infrastructure.adapter.output.audit;
+
+import com.company.security.shared.infrastructure.properties.AuditProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.bson.Document;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditWriterTest {
+
+    private final List<List<Object>> batches = new CopyOnWriteArrayList<>();
+    private AuditProperties.Writer settings;
+    private SimpleMeterRegistry meterRegistry;
+    private AuditWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        settings = new AuditProperties.Writer();
+        settings.setCapacity(4);
+        settings.setBatchSize(2);
+        settings.setMaxBatchDelayMillis(50);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    void enqueue_writesFullBatchesAndFlushesPartialOnesAfterDelay() {
+        writer = newWriter(recording());
+        writer.start();
+
+        for (String event : List.of("a", "b", "c")) {
+            StepVerifier.create(writer.enqueue(event)).verifyComplete();
+        }
+
+        waitUntil(() -> meterRegistry.get("audit.events.written").counter().count() == 3.0);
+        assertThat(batches).containsExactly(List.of("a", "b"), List.of("c"));
+        assertThat(meterRegistry.get("audit.events.written").counter().count()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("audit.batch.size").summary().max()).isEqualTo(2.0);
+    }
+
+    @Test
+    void enqueue_withDropOldest_evictsOldestWhenFull() {
+        writer = newWriter(recording());
+
+        for (int i = 0; i < 6; i++) {
+            writer.enqueue(i).block();
+        }
+
+        assertThat(writer.bufferedCount()).isEqualTo(4);
+        assertThat(dropped("overflow")).isEqualTo(2.0);
+        writer.start();
+        writer.close();
+        assertThat(batches.stream().flatMap(List::stream)).containsExactly(2, 3, 4, 5);
+    }
+
+    @Test
+    void enqueue_withSample_keepsOneInSampleRate() {
+        settings.setOverflowPolicy("sample");
+        settings.setSampleRate(3);
+        writer = newWriter(recording());
+
+        for (int i = 0; i < 10; i++) {
+            writer.enqueue(i).block();
+        }
+
+        // 6 overflowing events: the 3rd and 6th evict the oldest, the other 4 are dropped
+        assertThat(dropped("overflow")).isEqualTo(6.0);
+        writer.start();
+        writer.close();
+        assertThat(batches.stream().flatMap(List::stream)).containsExactly(2, 3, 6, 9);
+    }
+
+    @Test
+    void enqueue_withBlock_dropsAfterTimeoutWhenNoSpaceFrees() {
+        settings.setOverflowPolicy("block");
+        settings.setBlockTimeoutMillis(10);
+        writer = newWriter(recording());
+        for (int i = 0; i < 4; i++) {
+            writer.enqueue(i).block();
+        }
+
+        StepVerifier.create(writer.enqueue(4)).verifyComplete();
+
+        assertThat(dropped("overflow")).isEqualTo(1.0);
+        assertThat(writer.bufferedCount()).isEqualTo(4);
+    }
+
+    @Test
+    void close_flushesBufferedEventsAndRejectsLaterOnes() {
+        settings.setMaxBatchDelayMillis(60_000);
+        writer = newWriter(recording());
+        writer.start();
+        writer.enqueue("only").block();
+
+        writer.close();
+        writer.enqueue("late").block();
+
+        assertThat(batches).containsExactly(List.of("only"));
+        assertThat(dropped("shutdown")).isEqualTo(1.0);
+    }
+
+    @Test
+    void failedBatch_isCountedAndDoesNotStopTheWriter() {
+        writer = newWriter((collection, documents) -> "Integer".equals(collection)
+                ? Mono.error(new IllegalStateException("mongo down"))
+                : Mono.fromRunnable(() -> batches.add(values(documents))));
+        writer.start();
+
+        writer.enqueue(1).block();
+        writer.enqueue("a").block();
+        writer.close();
+
+        assertThat(meterRegistry.get("audit.events.failed").counter().count()).isEqualTo(1.0);
+        assertThat(batches).containsExactly(List.of("a"));
+    }
+
+    @Test
+    void failedBatches_areSpooledAndReplayedInOrderOnceTheSinkRecovers(@TempDir Path directory) {
+        settings.setReplayRetryMillis(20);
+        AuditProperties.Spool spoolSettings = new AuditProperties.Spool();
+        spoolSettings.setDirectory(directory.toString());
+        spoolSettings.setSegmentSizeBytes(4096);
+        AuditSpool spool = new AuditSpool(spoolSettings, meterRegistry);
+        AtomicBoolean sinkUp = new AtomicBoolean(false);
+        AuditWriter.BatchInserter recording = recording();
+        writer = newWriter((collection, documents) -> sinkUp.get()
+                ? recording.insert(collection, documents)
+                : Mono.error(new IllegalStateException("mongo down")), spool);
+        writer.start();
+
+        for (String event : List.of("a", "b", "c", "d")) {
+            writer.enqueue(event).block();
+        }
+        waitUntil(() -> meterRegistry.get("audit.spool.appended").counter().count() == 4.0);
+        assertThat(batches).isEmpty();
+
+        sinkUp.set(true);
+        waitUntil(spool::isEmpty);
+        writer.enqueue("e").block();
+        writer.close();
+
+        assertThat(batches.stream().flatMap(List::stream)).containsExactly("a", "b", "c", "d", "e");
+        assertThat(meterRegistry.get("audit.spool.replayed").counter().count()).isEqualTo(4.0);
+        assertThat(meterRegistry.get("audit.events.failed").counter().count()).isZero();
+    }
+
+    @Test
+    void spooledEvents_areReplayedWhileLiveBatchesKeepArriving(@TempDir Path directory) throws InterruptedException {
+        AuditProperties.Spool spoolSettings = new AuditProperties.Spool();
+        spoolSettings.setDirectory(directory.toString());
+        spoolSettings.setSegmentSizeBytes(4096);
+        AuditSpool spool = new AuditSpool(spoolSettings, meterRegistry);
+        spool.append(List.of("s1", "s2", "s3", "s4").stream()
+                .map(value -> new AuditRecord("String", new Document("value", value)))
+                .toList());
+        writer = newWriter(recording(), spool);
+        writer.start();
+
+        AtomicBoolean producing = new AtomicBoolean(true);
+        Thread producer = new Thread(() -> {
+            while (producing.get()) {
+                writer.enqueue("live").block();
+            }
+        });
+        producer.start();
+        try {
+            waitUntil(spool::isEmpty);
+            assertThat(spool.isEmpty()).isTrue();
+            assertThat(producer.isAlive()).isTrue();
+        } finally {
+            producing.set(false);
+            producer.join();
+        }
+
+        assertThat(batches.stream().flatMap(List::stream).limit(4)).containsExactly("s1", "s2", "s3", "s4");
+    }
+
+    private AuditWriter newWriter(AuditWriter.BatchInserter inserter) {
+        return newWriter(inserter, null);
+    }
+
+    private AuditWriter newWriter(AuditWriter.BatchInserter inserter, AuditSpool spool) {
+        return new AuditWriter(
+                event -> new AuditRecord(event.getClass().getSimpleName(), new Document("value", event)),
+                inserter, spool, null, settings, meterRegistry);
+    }
+
+    private AuditWriter.BatchInserter recording() {
+        return (collection, documents) -> {
+            batches.add(values(documents));
+            return Mono.empty();
+        };
+    }
+
+    private static List<Object> values(List<Document> documents) {
+        return documents.stream().map(document -> document.get("value")).toList();
+    }
+
+    private void waitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private double dropped(String reason) {
+        return meterRegistry.get("audit.events.dropped").tag("reason", reason).counter().count();
+    }
+}
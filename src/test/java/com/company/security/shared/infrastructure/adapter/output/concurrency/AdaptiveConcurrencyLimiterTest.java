@@ -0,0 +1,135 @@
+package com.company.security.shared.infrastructure.adapter.output.concurrency;
+
+import com.company.security.shared.infrastructure.exception.ConcurrencyLimitExceededException;
+import com.company.security.shared.infrastructure.properties.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private ConcurrencyLimitProperties.Settings settings;
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        settings = new ConcurrencyLimitProperties.Settings();
+        settings.setInitialLimit(2);
+        settings.setMinLimit(1);
+        settings.setMaxLimit(10);
+        settings.setBackoffRatio(0.5);
+        settings.setMaxLatencyMillis(1000);
+        settings.setMaxQueueSize(1);
+        settings.setMaxQueueWaitMillis(50);
+        settings.setRetryAfterSeconds(2);
+        settings.setIgnoreExceptions(List.of(IllegalArgumentException.class));
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter("directoryService", settings, meterRegistry, nanos::get);
+    }
+
+    @Test
+    void execute_withFastCallsAtLimit_growsLimitAdditively() {
+        StepVerifier.create(limiter.execute(Mono.just("ok"))).expectNext("ok").verifyComplete();
+
+        assertThat(limiter.getLimit()).isEqualTo(3);
+        assertThat(limiter.getInflight()).isZero();
+    }
+
+    @Test
+    void execute_withFailure_shrinksLimitMultiplicatively() {
+        settings.setInitialLimit(8);
+        limiter = new AdaptiveConcurrencyLimiter("directoryService", settings, meterRegistry, nanos::get);
+
+        StepVerifier.create(limiter.execute(Mono.error(new IllegalStateException("timeout"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void execute_withSlowCall_shrinksLimit() {
+        settings.setInitialLimit(8);
+        limiter = new AdaptiveConcurrencyLimiter("directoryService", settings, meterRegistry, nanos::get);
+
+        StepVerifier.create(limiter.execute(Mono.fromSupplier(() -> nanos.addAndGet(Duration.ofSeconds(2).toNanos()))))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void execute_withIgnoredException_keepsLimit() {
+        settings.setInitialLimit(8);
+        limiter = new AdaptiveConcurrencyLimiter("directoryService", settings, meterRegistry, nanos::get);
+
+        StepVerifier.create(limiter.execute(Mono.error(new IllegalArgumentException("bad password"))))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    void execute_whenLimitAndQueueAreFull_rejectsImmediately() {
+        settings.setMaxQueueWaitMillis(5000);
+        limiter = new AdaptiveConcurrencyLimiter("directoryService", settings, meterRegistry, nanos::get);
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+        limiter.execute(first.asMono()).subscribe();
+        limiter.execute(second.asMono()).subscribe();
+        limiter.execute(Mono.just("queued")).subscribe();
+
+        StepVerifier.create(limiter.execute(Mono.just("rejected")))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(ConcurrencyLimitExceededException.class)
+                        .extracting("retryAfterSeconds").isEqualTo(2L))
+                .verify(Duration.ofMillis(20));
+
+        assertThat(meterRegistry.get("concurrency.rejections").tag("name", "directoryService")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void execute_whenPermitIsReleased_admitsQueuedCall() {
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+        limiter.execute(first.asMono()).subscribe();
+        limiter.execute(second.asMono()).subscribe();
+
+        StepVerifier.create(limiter.execute(Mono.just("queued")))
+                .then(() -> assertThat(limiter.getQueued()).isEqualTo(1))
+                .then(() -> first.tryEmitValue("done"))
+                .expectNext("queued")
+                .verifyComplete();
+    }
+
+    @Test
+    void execute_whenQueueWaitExpires_rejectsAndLeavesNoPermitBehind() {
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+        limiter.execute(first.asMono()).subscribe();
+        limiter.execute(second.asMono()).subscribe();
+
+        StepVerifier.create(limiter.execute(Mono.just("queued")))
+                .expectError(ConcurrencyLimitExceededException.class)
+                .verify(Duration.ofSeconds(1));
+
+        assertThat(limiter.getQueued()).isZero();
+        first.tryEmitValue("done");
+        second.tryEmitValue("done");
+        assertThat(limiter.getInflight()).isZero();
+    }
+}
@@ -0,0 +1,36 @@
+package com.company.security.shared.infrastructure.adapter.output.keycloak;
+
+import com.company.security.shared.infrastructure.properties.KeycloakProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeycloakIdentityCacheTest {
+
+    private final KeycloakIdentityCache cache = new KeycloakIdentityCache(new KeycloakProperties());
+
+    @Test
+    void remember_mapsIdAndUsernameBothWays() {
+        cache.remember("kc-1", "John.Doe");
+
+        assertThat(cache.usernameFor("kc-1")).contains("John.Doe");
+        assertThat(cache.idFor("john.doe")).contains("kc-1");
+    }
+
+    @Test
+    void remember_ignoresIdThatIsJustTheUsername() {
+        cache.remember("jdoe", "jdoe");
+
+        assertThat(cache.idFor("jdoe")).isEmpty();
+    }
+
+    @Test
+    void forget_removesBothDirections() {
+        cache.remember("kc-1", "jdoe");
+
+        cache.forget("kc-1");
+
+        assertThat(cache.usernameFor("kc-1")).isEmpty();
+        assertThat(cache.idFor("jdoe")).isEmpty();
+    }
+}
@@ -0,0 +1,167 @@
+package com.company.security.shared.infrastructure.adapter.output.keycloak;
+
+import com.company.security.shared.infrastructure.properties.KeycloakProperties;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeycloakServiceAccountTokenAdapterTest {
+
+    private MockWebServer mockWebServer;
+    private KeycloakProperties properties;
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-01-01T00:00:00Z"));
+    private KeycloakServiceAccountTokenAdapter adapter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+
+        properties = new KeycloakProperties();
+        properties.setServerUrl(mockWebServer.url("/").toString());
+        properties.setRealm("test-realm");
+        properties.setClientId("test-client");
+        properties.setClientSecret("test-secret");
+        properties.getServiceAccount().setProactiveRefresh(false);
+
+        adapter = new KeycloakServiceAccountTokenAdapter(WebClient.builder(), properties, now::get,
+                Schedulers.immediate());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        adapter.close();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    void getAccessToken_reusesTokenUntilRefreshWindow() {
+        enqueueToken("token-1", 300);
+
+        StepVerifier.create(adapter.getAccessToken()).expectNext("token-1").verifyComplete();
+        advance(Duration.ofSeconds(200));
+        StepVerifier.create(adapter.getAccessToken()).expectNext("token-1").verifyComplete();
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getAccessToken_coalescesConcurrentFetches() {
+        mockWebServer.enqueue(tokenResponse("token-1", 300).setBodyDelay(200, TimeUnit.MILLISECONDS));
+
+        StepVerifier.create(Mono.zip(adapter.getAccessToken(), adapter.getAccessToken()))
+                .assertNext(tokens -> {
+                    assertThat(tokens.getT1()).isEqualTo("token-1");
+                    assertThat(tokens.getT2()).isEqualTo("token-1");
+                })
+                .verifyComplete();
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getAccessToken_insideRefreshWindow_servesCachedTokenAndRefreshesInBackground() throws InterruptedException {
+        enqueueToken("token-1", 300);
+        enqueueToken("token-2", 300);
+
+        StepVerifier.create(adapter.getAccessToken()).expectNext("token-1").verifyComplete();
+        advance(Duration.ofSeconds(280));
+        StepVerifier.create(adapter.getAccessToken()).expectNext("token-1").verifyComplete();
+
+        mockWebServer.takeRequest(5, TimeUnit.SECONDS);
+        assertThat(mockWebServer.takeRequest(5, TimeUnit.SECONDS)).isNotNull();
+        StepVerifier.create(adapter.getAccessToken().repeat().skipUntil("token-2"::equals).next())
+                .expectNext("token-2")
+                .verifyComplete();
+    }
+
+    @Test
+    void proactiveRefresh_fetchesNewTokenBeforeExpiryWithoutCallers() throws InterruptedException {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        properties.getServiceAccount().setProactiveRefresh(true);
+        adapter = new KeycloakServiceAccountTokenAdapter(WebClient.builder(), properties, now::get, scheduler);
+        enqueueToken("token-1", 300);
+        enqueueToken("token-2", 300);
+
+        StepVerifier.create(adapter.getAccessToken()).expectNext("token-1").verifyComplete();
+        scheduler.advanceTimeBy(Duration.ofSeconds(269));
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        mockWebServer.takeRequest(5, TimeUnit.SECONDS);
+        assertThat(mockWebServer.takeRequest(5, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    void getAccessToken_afterExpiry_fetchesNewToken() {
+        enqueueToken("token-1", 300);
+        enqueueToken("token-2", 300);
+
+        StepVerifier.create(adapter.getAccessToken()).expectNext("token-1").verifyComplete();
+        advance(Duration.ofSeconds(300));
+        StepVerifier.create(adapter.getAccessToken()).expectNext("token-2").verifyComplete();
+    }
+
+    @Test
+    void withAccessToken_onUnauthorized_retriesOnceWithFreshToken() {
+        enqueueToken("token-1", 300);
+        enqueueToken("token-2", 300);
+        AtomicInteger calls = new AtomicInteger();
+
+        Mono<String> result = adapter.withAccessToken(token -> {
+            calls.incrementAndGet();
+            if ("token-1".equals(token)) {
+                return Mono.error(WebClientResponseException.create(
+                        HttpStatus.UNAUTHORIZED.value(), "Unauthorized", null, null, null));
+            }
+            return Mono.just("ok with " + token);
+        });
+
+        StepVerifier.create(result).expectNext("ok with token-2").verifyComplete();
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void getAccessToken_withErrorResponse_throwsIllegalState() {
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(401)
+                .setBody("{\"error\": \"unauthorized_client\"}")
+                .setHeader("Content-Type", "application/json"));
+
+        StepVerifier.create(adapter.getAccessToken())
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    private void advance(Duration duration) {
+        now.updateAndGet(instant -> instant.plus(duration));
+    }
+
+    private void enqueueToken(String token, int expiresIn) {
+        mockWebServer.enqueue(tokenResponse(token, expiresIn));
+    }
+
+    private MockResponse tokenResponse(String token, int expiresIn) {
+        return new MockResponse()
+                .setBody("{\"access_token\": \"" + token + "\", \"expires_in\": " + expiresIn + "}")
+                .setHeader("Content-Type", "application/json");
+    }
+}
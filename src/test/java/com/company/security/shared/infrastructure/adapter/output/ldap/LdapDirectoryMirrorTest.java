@@ -0,0 +1,123 @@
+package com.company.security.shared.infrastructure.adapter.output.ldap;
+
+import com.company.security.shared.infrastructure.properties.LdapProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+class LdapDirectoryMirrorTest {
+
+    private static final String JDOE_DN = "uid=jdoe,ou=users,dc=example,dc=com";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private LdapProperties ldapProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private LdapDirectoryMirror mirror;
+
+    @BeforeEach
+    void setUp() {
+        ldapProperties = new LdapProperties();
+        ldapProperties.setUserDnAttribute("uid");
+        ldapProperties.getMirror().setMaxStalenessMillis(1000);
+        meterRegistry = new SimpleMeterRegistry();
+        mirror = new LdapDirectoryMirror(ldapProperties, meterRegistry, nanos::get);
+    }
+
+    @Test
+    void lookup_beforeFirstRefresh_fallsBack() {
+        mirror.beginRefresh();
+        mirror.load(JDOE_DN, user("jdoe", "jdoe@example.com"));
+
+        assertThat(mirror.lookup("jdoe").served()).isFalse();
+        assertThat(meterRegistry.get("ldap.mirror.lookups").tag("result", "fallback").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void lookup_afterRefresh_servesEntriesCaseInsensitively() {
+        refreshWith(JDOE_DN, user("jdoe", "jdoe@example.com"));
+
+        LdapDirectoryMirror.Lookup hit = mirror.lookup("JDoe");
+        assertThat(hit.served()).isTrue();
+        assertThat(hit.entry().getStringAttribute("mail")).isEqualTo("jdoe@example.com");
+        assertThat(hit.entry().getNameInNamespace()).isEqualTo(JDOE_DN);
+
+        LdapDirectoryMirror.Lookup miss = mirror.lookup("ghost");
+        assertThat(miss.served()).isTrue();
+        assertThat(miss.entry()).isNull();
+    }
+
+    @Test
+    void changesSeenDuringRefresh_winOverSnapshotEntries() {
+        mirror.beginRefresh();
+        mirror.apply(JDOE_DN, user("jdoe", "new@example.com"));
+        mirror.remove("uid=gone,ou=users,dc=example,dc=com");
+        mirror.load(JDOE_DN, user("jdoe", "old@example.com"));
+        mirror.load("uid=gone,ou=users,dc=example,dc=com", user("gone", "gone@example.com"));
+        mirror.commitRefresh();
+
+        assertThat(mirror.lookup("jdoe").entry().getStringAttribute("mail")).isEqualTo("new@example.com");
+        assertThat(mirror.lookup("gone").entry()).isNull();
+    }
+
+    @Test
+    void apply_afterRefresh_updatesAndRemovesEntries() {
+        refreshWith(JDOE_DN, user("jdoe", "jdoe@example.com"));
+
+        mirror.apply(JDOE_DN, user("jdoe", "changed@example.com"));
+        assertThat(mirror.lookup("jdoe").entry().getStringAttribute("mail")).isEqualTo("changed@example.com");
+
+        mirror.remove(JDOE_DN);
+        assertThat(mirror.lookup("jdoe").entry()).isNull();
+        assertThat(meterRegistry.get("ldap.mirror.entries").gauge().value()).isZero();
+    }
+
+    @Test
+    void lookup_whenBehindLongerThanStalenessLimit_fallsBack() {
+        refreshWith(JDOE_DN, user("jdoe", "jdoe@example.com"));
+
+        mirror.markBehind();
+        nanos.addAndGet(Duration.ofMillis(500).toNanos());
+        assertThat(mirror.lookup("jdoe").served()).isTrue();
+
+        nanos.addAndGet(Duration.ofMillis(600).toNanos());
+        assertThat(mirror.lookup("jdoe").served()).isFalse();
+        assertThat(meterRegistry.get("ldap.mirror.staleness").timeGauge().value())
+                .isEqualTo(1.1, offset(0.001));
+    }
+
+    @Test
+    void exceedingMemoryLimit_disablesMirror() {
+        ldapProperties.getMirror().setMaxBytes(1024);
+        mirror = new LdapDirectoryMirror(ldapProperties, new SimpleMeterRegistry(), nanos::get);
+
+        mirror.beginRefresh();
+        for (int i = 0; i < 10; i++) {
+            mirror.load("uid=user" + i + ",ou=users,dc=example,dc=com", user("user" + i, "user" + i + "@example.com"));
+        }
+        mirror.commitRefresh();
+
+        assertThat(mirror.isDisabled()).isTrue();
+        assertThat(mirror.lookup("user0").served()).isFalse();
+    }
+
+    private void refreshWith(String dn, Map<String, String[]> attributes) {
+        mirror.beginRefresh();
+        mirror.load(dn, attributes);
+        mirror.commitRefresh();
+    }
+
+    private static Map<String, String[]> user(String uid, String mail) {
+        return Map.of(
+                "uid", new String[]{uid},
+                "mail", new String[]{mail},
+                "memberOf", new String[]{"cn=APP_USER,ou=groups,dc=example,dc=com"});
+    }
+}
@@ -0,0 +1,104 @@
+package com.company.security.shared.infrastructure.adapter.output.ldap;
+
+import com.company.security.shared.infrastructure.properties.LdapProperties;
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LdapGroupGraphTest {
+
+    private static final String TEAM = "cn=team,ou=groups,dc=example,dc=com";
+    private static final String DEPARTMENT = "cn=department,ou=groups,dc=example,dc=com";
+    private static final String APP_ADMIN = "cn=APP_ADMIN,ou=groups,dc=example,dc=com";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private LdapProperties ldapProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private LdapGroupGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        ldapProperties = new LdapProperties();
+        ldapProperties.setBase("dc=example,dc=com");
+        ldapProperties.getGroups().setPageSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        graph = new LdapGroupGraph(ldapProperties, meterRegistry, nanos::get, Schedulers.immediate());
+    }
+
+    @Test
+    void expand_beforeFirstLoad_returnsDirectGroups() {
+        assertThat(graph.expand(List.of(TEAM))).containsExactly(TEAM);
+    }
+
+    @Test
+    void expand_followsNestingTransitively() {
+        graph.replace(Map.of(
+                TEAM, List.of(DEPARTMENT),
+                DEPARTMENT, List.of(APP_ADMIN),
+                APP_ADMIN, List.of()));
+
+        assertThat(graph.expand(List.of("CN=Team, OU=Groups,DC=example,DC=com")))
+                .containsExactly("CN=Team, OU=Groups,DC=example,DC=com", DEPARTMENT, APP_ADMIN);
+        assertThat(meterRegistry.get("ldap.group.graph.groups").gauge().value()).isEqualTo(3.0);
+    }
+
+    @Test
+    void expand_toleratesCycles() {
+        graph.replace(Map.of(
+                TEAM, List.of(DEPARTMENT),
+                DEPARTMENT, List.of(TEAM, APP_ADMIN),
+                APP_ADMIN, List.of(DEPARTMENT)));
+
+        assertThat(graph.expand(List.of(TEAM, APP_ADMIN))).containsExactlyInAnyOrder(TEAM, DEPARTMENT, APP_ADMIN);
+    }
+
+    @Test
+    void load_readsHierarchyAcrossPages() throws Exception {
+        InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig("dc=example,dc=com");
+        config.setSchema(null);
+        InMemoryDirectoryServer server = new InMemoryDirectoryServer(config);
+        try {
+            server.add("dn: dc=example,dc=com", "objectClass: domain", "dc: example");
+            server.add("dn: ou=groups,dc=example,dc=com", "objectClass: organizationalUnit", "ou: groups");
+            server.add("dn: " + TEAM, "objectClass: groupOfNames", "cn: team", "memberOf: " + DEPARTMENT);
+            server.add("dn: " + DEPARTMENT, "objectClass: groupOfNames", "cn: department", "memberOf: " + APP_ADMIN);
+            server.add("dn: " + APP_ADMIN, "objectClass: groupOfNames", "cn: APP_ADMIN");
+            server.add("dn: cn=other,ou=groups,dc=example,dc=com", "objectClass: groupOfNames", "cn: other");
+            server.startListening();
+
+            try (LDAPConnection connection = server.getConnection()) {
+                graph.load(connection);
+            }
+        } finally {
+            server.shutDown(true);
+        }
+
+        assertThat(graph.expand(List.of(TEAM))).containsExactly(TEAM, DEPARTMENT, APP_ADMIN);
+        assertThat(meterRegistry.get("ldap.group.graph.groups").gauge().value()).isEqualTo(4.0);
+        assertThat(meterRegistry.get("ldap.group.graph.refreshes").tag("outcome", "success").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void refresh_whenDirectoryUnreachable_keepsPreviousHierarchy() {
+        ldapProperties.setUrl("ldap://127.0.0.1:1");
+        ldapProperties.setConnectTimeoutMillis(200);
+        graph.replace(Map.of(TEAM, List.of(DEPARTMENT)));
+
+        graph.refresh();
+
+        assertThat(graph.expand(List.of(TEAM))).containsExactly(TEAM, DEPARTMENT);
+        assertThat(meterRegistry.get("ldap.group.graph.refreshes").tag("outcome", "failure").counter().count())
+                .isEqualTo(1.0);
+    }
+}
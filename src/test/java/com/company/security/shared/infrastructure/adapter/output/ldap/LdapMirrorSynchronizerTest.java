@@ -0,0 +1,237 @@
+package com.company.security.shared.infrastructure.adapter.output.ldap;
+
+import com.company.security.shared.infrastructure.properties.LdapProperties;
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSearchEntry;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSearchRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSearchResult;
+import com.unboundid.ldap.listener.interceptor.InMemoryOperationInterceptor;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.Control;
+import com.unboundid.ldap.sdk.Filter;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.ReadOnlySearchRequest;
+import com.unboundid.ldap.sdk.SearchRequest;
+import com.unboundid.ldap.sdk.SearchResultEntry;
+import com.unboundid.ldap.sdk.controls.ContentSyncInfoIntermediateResponse;
+import com.unboundid.ldap.sdk.controls.ContentSyncRequestControl;
+import com.unboundid.ldap.sdk.controls.ContentSyncState;
+import com.unboundid.ldap.sdk.controls.ContentSyncStateControl;
+import com.unboundid.ldap.sdk.controls.EntryChangeNotificationControl;
+import com.unboundid.ldap.sdk.controls.PersistentSearchChangeType;
+import com.unboundid.ldap.sdk.controls.PersistentSearchRequestControl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LdapMirrorSynchronizerTest {
+
+    private static final String[] ATTRIBUTES = {"uid", "mail", "memberOf"};
+    private static final String USERS = "ou=users,dc=example,dc=com";
+
+    private InMemoryDirectoryServer server;
+    private ChangeStream changeStream;
+    private LdapProperties ldapProperties;
+    private LdapDirectoryMirror mirror;
+    private LdapMirrorSynchronizer synchronizer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig("dc=example,dc=com");
+        config.setSchema(null);
+        changeStream = new ChangeStream();
+        config.addInMemoryOperationInterceptor(changeStream);
+        server = new InMemoryDirectoryServer(config);
+        server.add("dn: dc=example,dc=com", "objectClass: top", "objectClass: domain", "dc: example");
+        server.add("dn: " + USERS, "objectClass: organizationalUnit", "ou: users");
+        for (int i = 0; i < 5; i++) {
+            server.add("dn: uid=user" + i + "," + USERS,
+                    "objectClass: inetOrgPerson",
+                    "uid: user" + i,
+                    "mail: user" + i + "@example.com",
+                    "userPassword: secret",
+                    "memberOf: cn=APP_USER,ou=groups,dc=example,dc=com");
+        }
+        // Not a person: a user search never returns it, so the mirror must not hold it either
+        server.add("dn: uid=backup," + USERS, "objectClass: account", "uid: backup");
+        server.startListening();
+
+        ldapProperties = new LdapProperties();
+        ldapProperties.setBase("dc=example,dc=com");
+        ldapProperties.setUserSearchBase("ou=users");
+        ldapProperties.setUserDnAttribute("uid");
+        ldapProperties.setUserSearchFilter("(&(objectClass=inetOrgPerson)(uid={0}))");
+        ldapProperties.getMirror().setPageSize(2);
+        mirror = new LdapDirectoryMirror(ldapProperties, new SimpleMeterRegistry());
+        synchronizer = new LdapMirrorSynchronizer(mirror, ldapProperties, ATTRIBUTES);
+    }
+
+    @AfterEach
+    void tearDown() {
+        synchronizer.close();
+        server.shutDown(true);
+    }
+
+    @Test
+    void bootstrap_loadsSubtreeAcrossPagesWithMappedAttributesOnly() throws Exception {
+        try (LDAPConnection connection = server.getConnection()) {
+            mirror.beginRefresh();
+            synchronizer.bootstrap(connection);
+            mirror.commitRefresh();
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(mirror.lookup("user" + i).entry()).isNotNull();
+        }
+        LdapDirectoryMirror.Lookup lookup = mirror.lookup("user3");
+        assertThat(lookup.entry().getStringAttribute("mail")).isEqualTo("user3@example.com");
+        assertThat(lookup.entry().getStringAttribute("userPassword")).isNull();
+        assertThat(mirror.lookup("backup").entry()).isNull();
+    }
+
+    @Test
+    void userFilter_leavesUsernameOpenOrFallsBackToPresence() throws Exception {
+        assertThat(LdapMirrorSynchronizer.userFilter(ldapProperties))
+                .isEqualTo(Filter.create("(&(objectClass=inetOrgPerson)(uid=*))"));
+
+        ldapProperties.setUserSearchFilter(null);
+        assertThat(LdapMirrorSynchronizer.userFilter(ldapProperties)).isEqualTo(Filter.createPresenceFilter("uid"));
+    }
+
+    @Test
+    void synchronize_withContentSync_loadsRefreshPhaseThenAppliesPersistedChanges() throws Exception {
+        ldapProperties.getMirror().setSyncMode("sync-repl");
+        changeStream.changes.add(syncEntry(ContentSyncState.MODIFY, "user1", "user1@new.example.com"));
+        changeStream.changes.add(syncEntry(ContentSyncState.DELETE, "user2", null));
+        changeStream.changes.add(syncEntry(ContentSyncState.PRESENT, "user3", "ignored@example.com"));
+
+        try (LDAPConnection connection = server.getConnection()) {
+            synchronizer.synchronize(connection);
+        }
+
+        assertThat(changeStream.filters).contains(Filter.create("(&(objectClass=inetOrgPerson)(uid=*))"));
+        assertThat(mirror.isServing()).isTrue();
+        assertThat(mirror.lookup("user0").entry().getStringAttribute("mail")).isEqualTo("user0@example.com");
+        assertThat(mirror.lookup("user1").entry().getStringAttribute("mail")).isEqualTo("user1@new.example.com");
+        assertThat(mirror.lookup("user2").entry()).isNull();
+        assertThat(mirror.lookup("user3").entry().getStringAttribute("mail")).isEqualTo("user3@example.com");
+        assertThat(mirror.lookup("backup").entry()).isNull();
+    }
+
+    @Test
+    void synchronize_withPersistentSearch_changesDuringLoadWinOverSnapshot() throws Exception {
+        ldapProperties.getMirror().setSyncMode("persistent-search");
+        changeStream.changes.add(changeEntry(PersistentSearchChangeType.MODIFY, "user1", "user1@new.example.com", null));
+        changeStream.changes.add(changeEntry(PersistentSearchChangeType.DELETE, "user2", null, null));
+        changeStream.changes.add(changeEntry(PersistentSearchChangeType.MODIFY_DN, "user5", "user5@example.com",
+                "uid=user3," + USERS));
+
+        try (LDAPConnection connection = server.getConnection()) {
+            synchronizer.synchronize(connection);
+        }
+
+        assertThat(changeStream.filters).contains(Filter.create("(&(objectClass=inetOrgPerson)(uid=*))"));
+        assertThat(mirror.isServing()).isTrue();
+        assertThat(mirror.lookup("user0").entry()).isNotNull();
+        assertThat(mirror.lookup("user1").entry().getStringAttribute("mail")).isEqualTo("user1@new.example.com");
+        assertThat(mirror.lookup("user2").entry()).isNull();
+        assertThat(mirror.lookup("user3").entry()).isNull();
+        assertThat(mirror.lookup("user5").entry().getDn().toString()).isEqualTo("uid=user5," + USERS);
+        assertThat(mirror.lookup("backup").entry()).isNull();
+    }
+
+    @Test
+    void synchronize_withoutChangeNotificationSupport_disablesMirror() throws Exception {
+        try (LDAPConnection connection = server.getConnection()) {
+            synchronizer.synchronize(connection);
+        }
+
+        assertThat(mirror.isDisabled()).isTrue();
+        assertThat(mirror.lookup("user0").served()).isFalse();
+    }
+
+    private static SearchResultEntry syncEntry(ContentSyncState state, String uid, String mail) {
+        return new SearchResultEntry("uid=" + uid + "," + USERS, attributes(uid, mail),
+                new ContentSyncStateControl(state, UUID.randomUUID(), null));
+    }
+
+    private static SearchResultEntry changeEntry(PersistentSearchChangeType type, String uid, String mail,
+            String previousDn) {
+        return new SearchResultEntry("uid=" + uid + "," + USERS, attributes(uid, mail),
+                new EntryChangeNotificationControl(type, previousDn, 1));
+    }
+
+    private static Attribute[] attributes(String uid, String mail) {
+        return mail == null
+                ? new Attribute[]{new Attribute("uid", uid)}
+                : new Attribute[]{new Attribute("uid", uid), new Attribute("mail", mail)};
+    }
+
+    /**
+     * Stands in for a directory with content sync and persistent search, which the in-memory server lacks:
+     * it strips the request control, tags refresh entries as added, ends the refresh phase and sends the
+     * queued changes before the stream closes.
+     */
+    private static final class ChangeStream extends InMemoryOperationInterceptor {
+
+        private static final String MODE = "change-stream";
+
+        private final List<SearchResultEntry> changes = new CopyOnWriteArrayList<>();
+        private final List<Filter> filters = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void processSearchRequest(InMemoryInterceptedSearchRequest request) {
+            ReadOnlySearchRequest search = request.getRequest();
+            filters.add(search.getFilter());
+            if (search.hasControl(ContentSyncRequestControl.SYNC_REQUEST_OID)) {
+                request.setProperty(MODE, ContentSyncRequestControl.SYNC_REQUEST_OID);
+                request.setRequest(search.duplicate(new Control[0]));
+            } else if (search.hasControl(PersistentSearchRequestControl.PERSISTENT_SEARCH_REQUEST_OID)) {
+                // changes only: the stream itself returns no existing entries
+                request.setProperty(MODE, PersistentSearchRequestControl.PERSISTENT_SEARCH_REQUEST_OID);
+                SearchRequest changesOnly = search.duplicate(new Control[0]);
+                changesOnly.setFilter(Filter.createPresenceFilter("nonexistent"));
+                request.setRequest(changesOnly);
+            }
+        }
+
+        @Override
+        public void processSearchEntry(InMemoryInterceptedSearchEntry entry) {
+            SearchResultEntry found = entry.getSearchEntry();
+            // queued changes pass through here too and keep their own state
+            if (ContentSyncRequestControl.SYNC_REQUEST_OID.equals(entry.getProperty(MODE))
+                    && found.getControl(ContentSyncStateControl.SYNC_STATE_OID) == null) {
+                entry.setSearchEntry(new SearchResultEntry(found.getDN(), found.getAttributes(),
+                        new ContentSyncStateControl(ContentSyncState.ADD, UUID.randomUUID(), null)));
+            }
+        }
+
+        @Override
+        public void processSearchResult(InMemoryInterceptedSearchResult result) {
+            Object mode = result.getProperty(MODE);
+            if (mode == null) {
+                return;
+            }
+            try {
+                if (ContentSyncRequestControl.SYNC_REQUEST_OID.equals(mode)) {
+                    result.sendIntermediateResponse(ContentSyncInfoIntermediateResponse.createRefreshPresentResponse(
+                            null, true));
+                }
+                for (SearchResultEntry change : changes) {
+                    result.sendSearchEntry(change);
+                }
+            } catch (LDAPException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.company.security.shared.infrastructure.adapter.output.ldap;
+
+import com.company.security.shared.infrastructure.properties.LdapProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LdapReplicaRouterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private LdapProperties.Routing routing;
+    private SimpleMeterRegistry meterRegistry;
+    private LdapReplica slow;
+    private LdapReplica fast;
+    private LdapReplica writer;
+
+    @BeforeEach
+    void setUp() {
+        routing = new LdapProperties.Routing();
+        routing.setInitialHedgeDelayMillis(50);
+        meterRegistry = new SimpleMeterRegistry();
+        slow = replica("ldap://slow");
+        fast = replica("ldap://fast");
+        writer = replica("ldap://writer");
+    }
+
+    @Test
+    void read_routesToReplicaWithLowestEwma() {
+        slow.tracker().recordSuccess(80 * MILLIS);
+        fast.tracker().recordSuccess(5 * MILLIS);
+        LdapReplicaRouter router = router(slow, fast);
+
+        StepVerifier.create(router.read(LdapReplica::name))
+                .assertNext(routed -> assertThat(routed.value()).isEqualTo("ldap://fast"))
+                .verifyComplete();
+    }
+
+    @Test
+    void read_whenPrimaryExceedsHedgeDelay_returnsHedgedAnswer() {
+        fast.tracker().recordSuccess(80 * MILLIS);
+        slow.tracker().recordSuccess(1 * MILLIS);
+        LdapReplicaRouter router = router(slow, fast);
+
+        StepVerifier.create(router.read(replica -> {
+                    if (replica == slow) {
+                        sleep(1000);
+                    }
+                    return replica.name();
+                }))
+                .assertNext(routed -> assertThat(routed.replica()).isSameAs(fast))
+                .expectComplete()
+                .verify(Duration.ofMillis(800));
+
+        assertThat(meterRegistry.get("ldap.hedge.requests").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("ldap.hedge.wins").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void read_whenPrimaryAnswersInTime_doesNotHedge() {
+        routing.setInitialHedgeDelayMillis(500);
+        AtomicInteger calls = new AtomicInteger();
+        LdapReplicaRouter router = router(slow, fast);
+
+        StepVerifier.create(router.read(replica -> calls.incrementAndGet()))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("ldap.hedge.requests").counter().count()).isZero();
+    }
+
+    @Test
+    void read_whenPrimaryFails_hedgesImmediately() {
+        routing.setInitialHedgeDelayMillis(5000);
+        LdapReplicaRouter router = router(slow, fast);
+        LdapReplica first = router.fastest();
+
+        StepVerifier.create(router.read(replica -> {
+                    if (replica == first) {
+                        throw new IllegalStateException("connection reset");
+                    }
+                    return replica.name();
+                }))
+                .assertNext(routed -> assertThat(routed.replica()).isNotSameAs(first))
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void read_whenAllReplicasFail_propagatesReplicaError() {
+        LdapReplicaRouter router = router(slow, fast);
+
+        StepVerifier.create(router.read(replica -> {
+                    throw new IllegalStateException("down");
+                }))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void ranked_skipsReplicaAfterConsecutiveFailures() {
+        LdapReplicaRouter router = router(slow, fast);
+        for (int i = 0; i < 3; i++) {
+            fast.tracker().recordFailure(MILLIS, System.nanoTime());
+        }
+
+        assertThat(router.ranked()).containsExactly(slow);
+    }
+
+    @Test
+    void read_forRecentlyWrittenSubject_goesToWriterUntilWindowCloses() {
+        AtomicLong nanos = new AtomicLong();
+        routing.setReadYourWritesSeconds(5);
+        LdapReplicaRouter router = new LdapReplicaRouter(writer, List.of(fast), routing, meterRegistry,
+                nanos::get, Schedulers.parallel());
+
+        StepVerifier.create(router.write("jdoe", replica -> { })).verifyComplete();
+
+        StepVerifier.create(router.read("JDoe", LdapReplica::name))
+                .assertNext(routed -> assertThat(routed.replica()).isSameAs(writer))
+                .verifyComplete();
+        assertThat(router.replicaFor("jdoe")).isSameAs(writer);
+        assertThat(router.replicaFor("other")).isSameAs(fast);
+
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+        StepVerifier.create(router.read("jdoe", LdapReplica::name))
+                .assertNext(routed -> assertThat(routed.replica()).isSameAs(fast))
+                .verifyComplete();
+        assertThat(meterRegistry.get("ldap.reads.pinned").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void write_whenModificationFails_stillPinsSubjectToWriter() {
+        LdapReplicaRouter router = router(fast);
+
+        StepVerifier.create(router.write("jdoe", replica -> {
+                    throw new IllegalStateException("timeout");
+                }))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertThat(router.replicaFor("jdoe")).isSameAs(writer);
+    }
+
+    @Test
+    void tracker_reportsP95OfRecentSamples() {
+        ReplicaLatencyTracker tracker = new ReplicaLatencyTracker(3, 0);
+        for (int i = 1; i <= 100; i++) {
+            tracker.recordSuccess(i * MILLIS);
+        }
+
+        assertThat(tracker.p95Nanos()).isEqualTo(95 * MILLIS);
+    }
+
+    private LdapReplicaRouter router(LdapReplica... replicas) {
+        return new LdapReplicaRouter(writer, List.of(replicas), routing, meterRegistry);
+    }
+
+    private LdapReplica replica(String name) {
+        return new LdapReplica(name, null, null, new ReplicaLatencyTracker(3, 60_000 * MILLIS));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
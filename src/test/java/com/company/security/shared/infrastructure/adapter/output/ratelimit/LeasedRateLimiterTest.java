@@ -0,0 +1,127 @@
+package com.company.security.shared.infrastructure.adapter.output.ratelimit;
+
+import com.company.security.shared.infrastructure.exception.RateLimitExceededException;
+import com.company.security.shared.infrastructure.properties.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LeasedRateLimiterTest {
+
+    private static final Duration SECOND = Duration.ofSeconds(1);
+
+    @Mock
+    private RateLimitingRedisAdapter rateLimitingAdapter;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private RateLimitProperties.Lease settings;
+    private SimpleMeterRegistry meterRegistry;
+    private LeasedRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        settings = new RateLimitProperties.Lease();
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new LeasedRateLimiter(rateLimitingAdapter, settings, meterRegistry, nanoTime::get,
+                Schedulers.immediate());
+    }
+
+    @Test
+    void checkRateLimit_servesChunkLocallyAndRefillsOnceItIsUsedUp() {
+        when(rateLimitingAdapter.acquire("ip:1", 100, SECOND, 10)).thenReturn(granted(10));
+
+        for (int i = 0; i < 11; i++) {
+            StepVerifier.create(limiter.checkRateLimit("ip:1", 100, SECOND)).verifyComplete();
+        }
+
+        verify(rateLimitingAdapter, times(2)).acquire("ip:1", 100, SECOND, 10);
+        assertThat(meterRegistry.counter("rate.limit.lease.local").count()).isEqualTo(9);
+        assertThat(meterRegistry.counter("rate.limit.lease.refills").count()).isEqualTo(2);
+    }
+
+    @Test
+    void checkRateLimit_refillDenied_failsWithRetryAfter() {
+        when(rateLimitingAdapter.acquire("ip:1", 100, SECOND, 10)).thenReturn(Mono.just(
+                new RateLimitDecision(0, 0, Duration.ofMillis(10), SECOND)));
+
+        StepVerifier.create(limiter.checkRateLimit("ip:1", 100, SECOND))
+                .expectErrorSatisfies(error -> assertThat(((RateLimitExceededException) error).getRetryAfter())
+                        .isEqualTo(Duration.ofMillis(10)))
+                .verify();
+        assertThat(limiter.leaseCount()).isZero();
+    }
+
+    @Test
+    void checkRateLimit_limitTooSmallForChunk_checksRedisEveryTime() {
+        when(rateLimitingAdapter.checkRateLimit("user:1", 10, Duration.ofSeconds(60))).thenReturn(Mono.empty());
+
+        StepVerifier.create(limiter.checkRateLimit("user:1", 10, Duration.ofSeconds(60))).verifyComplete();
+        StepVerifier.create(limiter.checkRateLimit("user:1", 10, Duration.ofSeconds(60))).verifyComplete();
+
+        verify(rateLimitingAdapter, times(2)).checkRateLimit("user:1", 10, Duration.ofSeconds(60));
+        verify(rateLimitingAdapter, never()).acquire("user:1", 10, Duration.ofSeconds(60), 1);
+    }
+
+    @Test
+    void sweep_expiredLease_releasesUnusedPermits() {
+        when(rateLimitingAdapter.acquire("ip:1", 100, SECOND, 10)).thenReturn(granted(10));
+        when(rateLimitingAdapter.release("ip:1", 100, SECOND, 7)).thenReturn(Mono.empty());
+        for (int i = 0; i < 3; i++) {
+            limiter.checkRateLimit("ip:1", 100, SECOND).block();
+        }
+
+        limiter.sweep();
+        assertThat(limiter.leaseCount()).isEqualTo(1);
+
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(settings.getLeaseMillis()));
+        limiter.sweep();
+
+        assertThat(limiter.leaseCount()).isZero();
+        verify(rateLimitingAdapter).release("ip:1", 100, SECOND, 7);
+    }
+
+    @Test
+    void checkRateLimit_tooManyLeases_checksNewKeysInRedis() {
+        settings.setMaxKeys(1);
+        when(rateLimitingAdapter.acquire("ip:1", 100, SECOND, 10)).thenReturn(granted(10));
+        when(rateLimitingAdapter.checkRateLimit("ip:2", 100, SECOND)).thenReturn(Mono.empty());
+
+        limiter.checkRateLimit("ip:1", 100, SECOND).block();
+        StepVerifier.create(limiter.checkRateLimit("ip:2", 100, SECOND)).verifyComplete();
+
+        verify(rateLimitingAdapter).checkRateLimit("ip:2", 100, SECOND);
+        verify(rateLimitingAdapter, never()).acquire("ip:2", 100, SECOND, 10);
+    }
+
+    @Test
+    void close_releasesEveryLease() {
+        when(rateLimitingAdapter.acquire("ip:1", 100, SECOND, 10)).thenReturn(granted(4));
+        when(rateLimitingAdapter.release("ip:1", 100, SECOND, 3)).thenReturn(Mono.empty());
+        limiter.checkRateLimit("ip:1", 100, SECOND).block();
+
+        limiter.close();
+
+        verify(rateLimitingAdapter).release("ip:1", 100, SECOND, 3);
+    }
+
+    private static Mono<RateLimitDecision> granted(long permits) {
+        return Mono.just(new RateLimitDecision(permits, 0, Duration.ZERO, SECOND));
+    }
+}
@@ -0,0 +1,215 @@
+package com.company.security.shared.infrastructure.adapter.output.ratelimit;
+
+import com.company.security.shared.infrastructure.exception.RateLimitExceededException;
+import com.company.security.shared.infrastructure.properties.RateLimitProperties;
+import com.redis.testcontainers.RedisContainer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for RateLimitingRedisAdapter and LeasedRateLimiter using Testcontainers Redis, so the
+ * GCRA script itself runs, including chunked acquires and the release of unused permits.
+ * Note: Requires Docker to run Testcontainers; skipped where Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Rate Limiting Redis Adapter Integration Tests")
+class RateLimitingRedisAdapterIntegrationTest {
+
+    private static final String KEY = "security:ratelimit:test:10.0.0.1";
+    // long enough that the time a test takes never frees a permit
+    private static final Duration SLOW_WINDOW = Duration.ofMinutes(10);
+
+    @Container
+    private static final RedisContainer REDIS =
+            new RedisContainer(RedisContainer.DEFAULT_IMAGE_NAME.withTag(RedisContainer.DEFAULT_TAG));
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static ReactiveRedisTemplate<String, String> redisTemplate;
+
+    private RateLimitingRedisAdapter adapter;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getFirstMappedPort()));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new ReactiveRedisTemplate<>(connectionFactory, RedisSerializationContext.string());
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.delete(KEY).block();
+        adapter = new RateLimitingRedisAdapter(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Should let exactly maxRequests through in a burst")
+    void burst_allowsExactlyMaxRequests() {
+        for (int i = 0; i < 5; i++) {
+            RateLimitDecision decision = adapter.acquire(KEY, 5, SLOW_WINDOW).block();
+            assertThat(decision.granted()).as("request %d", i + 1).isEqualTo(1);
+            assertThat(decision.remaining()).isEqualTo(4 - i);
+        }
+
+        RateLimitDecision rejected = adapter.acquire(KEY, 5, SLOW_WINDOW).block();
+
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.remaining()).isZero();
+        // the next permit frees up one emission interval (window / maxRequests) after the burst
+        assertThat(rejected.retryAfter()).isBetween(Duration.ofMinutes(2).minusSeconds(5), Duration.ofMinutes(2));
+        assertThat(rejected.resetAfter()).isBetween(SLOW_WINDOW.minusSeconds(5), SLOW_WINDOW);
+    }
+
+    @Test
+    @DisplayName("Should fail checkRateLimit with the retry delay once the burst is used up")
+    void checkRateLimit_overLimit_failsWithRetryAfter() {
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(adapter.checkRateLimit(KEY, 3, SLOW_WINDOW)).verifyComplete();
+        }
+
+        StepVerifier.create(adapter.checkRateLimit(KEY, 3, SLOW_WINDOW))
+                .expectErrorSatisfies(error -> {
+                    assertThat(error).isInstanceOf(RateLimitExceededException.class);
+                    assertThat(((RateLimitExceededException) error).getRetryAfter())
+                            .isBetween(Duration.ofSeconds(195), Duration.ofSeconds(200));
+                })
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should free one permit per emission interval after a burst")
+    void afterOneEmissionInterval_onePermitIsAvailableAgain() throws InterruptedException {
+        Duration window = Duration.ofSeconds(2);
+        for (int i = 0; i < 4; i++) {
+            assertThat(adapter.acquire(KEY, 4, window).block().allowed()).isTrue();
+        }
+        RateLimitDecision rejected = adapter.acquire(KEY, 4, window).block();
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfter()).isPositive().isLessThanOrEqualTo(Duration.ofMillis(500));
+
+        Thread.sleep(rejected.retryAfter().toMillis() + 20);
+
+        assertThat(adapter.acquire(KEY, 4, window).block().allowed()).isTrue();
+        assertThat(adapter.acquire(KEY, 4, window).block().allowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should expire the key once the whole quota is available again")
+    void key_expiresWhenTheQuotaIsFull() {
+        adapter.acquire(KEY, 10, SLOW_WINDOW).block();
+        adapter.acquire(KEY, 10, SLOW_WINDOW).block();
+
+        Duration ttl = redisTemplate.getExpire(KEY).block();
+
+        // two permits taken: the key lives until both have been emitted again
+        assertThat(ttl).isBetween(Duration.ofMinutes(2).minusSeconds(5), Duration.ofMinutes(2));
+    }
+
+    @Test
+    @DisplayName("Should grant chunks up to what is available")
+    void acquire_withPermits_grantsAsManyAsAreAvailable() {
+        RateLimitDecision first = adapter.acquire(KEY, 10, SLOW_WINDOW, 4).block();
+        assertThat(first.granted()).isEqualTo(4);
+        assertThat(first.remaining()).isEqualTo(6);
+
+        RateLimitDecision second = adapter.acquire(KEY, 10, SLOW_WINDOW, 10).block();
+        assertThat(second.granted()).isEqualTo(6);
+        assertThat(second.remaining()).isZero();
+
+        assertThat(adapter.acquire(KEY, 10, SLOW_WINDOW, 1).block().allowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should make released permits available again, but never more than the quota")
+    void release_handsUnusedPermitsBack() {
+        assertThat(adapter.acquire(KEY, 10, SLOW_WINDOW, 10).block().granted()).isEqualTo(10);
+
+        adapter.release(KEY, 10, SLOW_WINDOW, 4).block();
+
+        assertThat(adapter.acquire(KEY, 10, SLOW_WINDOW, 10).block().granted()).isEqualTo(4);
+
+        adapter.release(KEY, 10, SLOW_WINDOW, 100).block();
+
+        assertThat(redisTemplate.hasKey(KEY).block()).isFalse();
+        assertThat(adapter.acquire(KEY, 10, SLOW_WINDOW, 100).block().granted()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should hand the unused part of an expired lease back to Redis")
+    void leasedLimiter_expiredLease_releasesUnusedPermits() {
+        AtomicLong nanoTime = new AtomicLong();
+        LeasedRateLimiter limiter = leasedLimiter(nanoTime);
+        StepVerifier.create(limiter.checkRateLimit(KEY, 100, SLOW_WINDOW)).verifyComplete();
+        String leased = redisTemplate.opsForValue().get(KEY).block();
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        limiter.sweep();
+        // the release is sent without waiting for the reply
+        long deadline = System.currentTimeMillis() + 2000;
+        while (leased.equals(redisTemplate.opsForValue().get(KEY).block()) && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        assertThat(limiter.leaseCount()).isZero();
+        // one permit of the chunk of ten was used
+        assertThat(adapter.acquire(KEY, 100, SLOW_WINDOW, 100).block().granted()).isEqualTo(99);
+    }
+
+    @Test
+    @DisplayName("Should keep the global limit with two leased limiters sharing a key")
+    void leasedLimiters_sharingAKey_neverExceedTheLimit() {
+        AtomicLong nanoTime = new AtomicLong();
+        List<LeasedRateLimiter> limiters = List.of(leasedLimiter(nanoTime), leasedLimiter(nanoTime));
+        int allowed = 0;
+        int rejected = 0;
+
+        for (int i = 0; i < 150; i++) {
+            Throwable error = limiters.get(i % 2).checkRateLimit(KEY, 50, SLOW_WINDOW)
+                    .then(Mono.<Throwable>empty())
+                    .onErrorResume(Mono::just)
+                    .block();
+            if (error == null) {
+                allowed++;
+            } else {
+                assertThat(error).isInstanceOf(RateLimitExceededException.class);
+                rejected++;
+            }
+        }
+
+        assertThat(allowed).isEqualTo(50);
+        assertThat(rejected).isEqualTo(100);
+        assertThat(adapter.acquire(KEY, 50, SLOW_WINDOW).block().allowed()).isFalse();
+    }
+
+    private LeasedRateLimiter leasedLimiter(AtomicLong nanoTime) {
+        RateLimitProperties.Lease settings = new RateLimitProperties.Lease();
+        settings.setLeaseMillis(1000);
+        return new LeasedRateLimiter(adapter, settings, new SimpleMeterRegistry(), nanoTime::get,
+                Schedulers.immediate());
+    }
+}
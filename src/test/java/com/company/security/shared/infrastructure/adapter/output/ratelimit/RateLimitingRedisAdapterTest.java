@@ -7,14 +7,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
-import org.springframework.data.redis.core.ReactiveValueOperations;
-import reactor.core.publisher.Mono;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
 import java.time.Duration;
+import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,9 +26,6 @@ class RateLimitingRedisAdapterTest {
     @Mock
     private ReactiveRedisTemplate<String, String> redisTemplate;
 
-    @Mock
-    private ReactiveValueOperations<String, String> valueOps;
-
     private RateLimitingRedisAdapter adapter;
 
     @BeforeEach
@@ -34,40 +34,64 @@ class RateLimitingRedisAdapterTest {
     }
 
     @Test
-    void checkRateLimit_firstRequest_setsExpireAndAllows() {
-        when(redisTemplate.opsForValue()).thenReturn(valueOps);
-        when(valueOps.increment("test-key")).thenReturn(Mono.just(1L));
-        when(redisTemplate.expire(eq("test-key"), any(Duration.class))).thenReturn(Mono.just(true));
-
-        StepVerifier.create(adapter.checkRateLimit("test-key", 10, Duration.ofSeconds(60)))
+    void acquire_runsOneScriptWithEmissionIntervalAndBurstTolerance() {
+        scriptReturns(1L, 9L, 0L, 6_000_000L);
+
+        StepVerifier.create(adapter.acquire("test-key", 10, Duration.ofSeconds(60)))
+                .assertNext(decision -> {
+                    assertThat(decision.allowed()).isTrue();
+                    assertThat(decision.granted()).isEqualTo(1);
+                    assertThat(decision.remaining()).isEqualTo(9);
+                    assertThat(decision.retryAfter()).isZero();
+                    assertThat(decision.resetAfter()).isEqualTo(Duration.ofSeconds(6));
+                })
                 .verifyComplete();
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("test-key")),
+                eq(List.of("6000000", "60000000", "1")));
     }
 
     @Test
     void checkRateLimit_underLimit_allows() {
-        when(redisTemplate.opsForValue()).thenReturn(valueOps);
-        when(valueOps.increment("test-key")).thenReturn(Mono.just(5L));
+        scriptReturns(1L, 0L, 0L, 60_000_000L);
 
         StepVerifier.create(adapter.checkRateLimit("test-key", 10, Duration.ofSeconds(60)))
                 .verifyComplete();
     }
 
     @Test
-    void checkRateLimit_overLimit_throwsRateLimitExceededException() {
-        when(redisTemplate.opsForValue()).thenReturn(valueOps);
-        when(valueOps.increment("test-key")).thenReturn(Mono.just(11L));
+    void checkRateLimit_overLimit_throwsWithRetryAfterAndReset() {
+        scriptReturns(0L, 0L, 5_500_000L, 59_500_000L);
 
         StepVerifier.create(adapter.checkRateLimit("test-key", 10, Duration.ofSeconds(60)))
-                .expectError(RateLimitExceededException.class)
+                .expectErrorSatisfies(error -> {
+                    assertThat(error).isInstanceOf(RateLimitExceededException.class);
+                    RateLimitExceededException exceeded = (RateLimitExceededException) error;
+                    assertThat(exceeded.getRetryAfter()).isEqualTo(Duration.ofMillis(5500));
+                    assertThat(exceeded.getResetAfter()).isEqualTo(Duration.ofMillis(59500));
+                })
                 .verify();
     }
 
     @Test
-    void checkRateLimit_atExactLimit_allows() {
-        when(redisTemplate.opsForValue()).thenReturn(valueOps);
-        when(valueOps.increment("test-key")).thenReturn(Mono.just(10L));
+    void acquireAndRelease_passPermitCountToScript() {
+        scriptReturns(4L, 0L, 0L, 24_000_000L);
 
-        StepVerifier.create(adapter.checkRateLimit("test-key", 10, Duration.ofSeconds(60)))
+        StepVerifier.create(adapter.acquire("test-key", 10, Duration.ofSeconds(60), 5))
+                .assertNext(decision -> assertThat(decision.granted()).isEqualTo(4))
+                .verifyComplete();
+        StepVerifier.create(adapter.release("test-key", 10, Duration.ofSeconds(60), 3))
                 .verifyComplete();
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("test-key")),
+                eq(List.of("6000000", "60000000", "5")));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("test-key")),
+                eq(List.of("6000000", "60000000", "-3")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void scriptReturns(Long... result) {
+        when(redisTemplate.execute(any(RedisScript.class), any(List.class), any(List.class)))
+                .thenReturn(Flux.just(List.of((Object[]) result)));
     }
 }
@@ -13,6 +13,8 @@ import reactor.test.StepVerifier;
 import java.time.Duration;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -21,6 +23,9 @@ class RedisRateLimitAspectTest {
     @Mock
     private RateLimitingRedisAdapter rateLimitingAdapter;
 
+    @Mock
+    private LeasedRateLimiter leasedRateLimiter;
+
     @Mock
     private ProceedingJoinPoint joinPoint;
 
@@ -61,6 +66,31 @@ class RedisRateLimitAspectTest {
                 .verifyComplete();
     }
 
+    @Test
+    void around_withLeasedRateLimiter_checksThroughLease() throws Throwable {
+        aspect = new RedisRateLimitAspect(rateLimitingAdapter, leasedRateLimiter);
+        when(joinPoint.getSignature()).thenReturn(methodSignature);
+        when(methodSignature.getParameterNames()).thenReturn(new String[]{"request", "ipAddress"});
+        when(joinPoint.getArgs()).thenReturn(new Object[]{"some-request", "192.168.1.1"});
+        when(annotation.keyPrefix()).thenReturn("security:ratelimit:test:");
+        when(annotation.maxRequests()).thenReturn(100);
+        when(annotation.windowSeconds()).thenReturn(1L);
+        when(annotation.keyParamName()).thenReturn("ipAddress");
+
+        when(leasedRateLimiter.checkRateLimit(
+                "security:ratelimit:test:192.168.1.1", 100, Duration.ofSeconds(1)))
+                .thenReturn(Mono.empty());
+        when(joinPoint.proceed()).thenReturn(Mono.just("result"));
+
+        @SuppressWarnings("unchecked")
+        Mono<Object> mono = (Mono<Object>) aspect.around(joinPoint, annotation);
+        StepVerifier.create(mono)
+                .expectNext("result")
+                .verifyComplete();
+        verify(rateLimitingAdapter, never()).checkRateLimit(
+                "security:ratelimit:test:192.168.1.1", 100, Duration.ofSeconds(1));
+    }
+
     @Test
     void around_withMissingParameter_throwsIllegalArgumentException() {
         when(joinPoint.getSignature()).thenReturn(methodSignature);
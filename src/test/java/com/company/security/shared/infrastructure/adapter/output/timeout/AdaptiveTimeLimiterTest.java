@@ -0,0 +1,154 @@
+package com.company.security.shared.infrastructure.adapter.output.timeout;
+
+import com.company.security.shared.infrastructure.filter.RequestDeadlineFilter;
+import com.company.security.shared.infrastructure.properties.AdaptiveTimeoutProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveTimeLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private AdaptiveTimeoutProperties.Settings settings;
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveTimeLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        settings = new AdaptiveTimeoutProperties.Settings();
+        settings.setMultiplier(3.0);
+        settings.setFloorMillis(5);
+        settings.setCeilingMillis(1000);
+        settings.setMinSamples(10);
+        settings.setWindowSize(100);
+        settings.setRecomputeEvery(1);
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveTimeLimiter("directoryService", settings, meterRegistry, nanos::get);
+    }
+
+    @Test
+    void usesCeilingUntilEnoughSamples() {
+        recordMillis(9, 10);
+
+        assertThat(limiter.getTimeout()).isEqualTo(Duration.ofMillis(1000));
+    }
+
+    @Test
+    void followsMultipleOfP99() {
+        recordMillis(99, 10);
+        recordMillis(1, 40);
+        assertThat(limiter.getTimeout()).isEqualTo(Duration.ofMillis(30));
+
+        recordMillis(1, 40);
+        assertThat(limiter.getTimeout()).isEqualTo(Duration.ofMillis(120));
+        assertThat(meterRegistry.get("adaptive.timeout").tag("name", "directoryService")
+                .timeGauge().value()).isGreaterThan(0);
+    }
+
+    @Test
+    void clampsToFloorAndCeiling() {
+        recordMillis(100, 1);
+        assertThat(limiter.getTimeout()).isEqualTo(Duration.ofMillis(5));
+
+        recordMillis(100, 900);
+        assertThat(limiter.getTimeout()).isEqualTo(Duration.ofMillis(1000));
+    }
+
+    @Test
+    void nonAdaptive_keepsCeilingWhateverTheLatency() {
+        settings.setAdaptive(false);
+
+        recordMillis(100, 1);
+
+        assertThat(limiter.getTimeout()).isEqualTo(Duration.ofMillis(1000));
+    }
+
+    @Test
+    void execute_slowCall_failsWithTimeoutAtLearnedLimit() {
+        recordMillis(100, 10);
+
+        StepVerifier.create(limiter.execute(Mono.never()))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(1));
+
+        assertThat(meterRegistry.get("adaptive.timeout.expirations").tag("cause", "timeout")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void execute_successfulCall_recordsLatency() {
+        settings.setMinSamples(1);
+        Mono<String> call = Mono.fromSupplier(() -> {
+            nanos.addAndGet(Duration.ofMillis(20).toNanos());
+            return "ok";
+        });
+
+        StepVerifier.create(limiter.execute(call)).expectNext("ok").verifyComplete();
+
+        assertThat(limiter.getTimeout()).isEqualTo(Duration.ofMillis(60));
+    }
+
+    @Test
+    void execute_afterRequestDeadline_failsWithoutCallingDownstream() {
+        nanos.set(Duration.ofSeconds(10).toNanos());
+        AtomicBoolean subscribed = new AtomicBoolean();
+        Mono<String> call = Mono.fromSupplier(() -> {
+            subscribed.set(true);
+            return "ok";
+        });
+
+        StepVerifier.create(limiter.execute(call)
+                        .contextWrite(ctx -> ctx.put(RequestDeadlineFilter.DEADLINE_CONTEXT_KEY,
+                                Duration.ofSeconds(9).toNanos())))
+                .expectError(TimeoutException.class)
+                .verify();
+
+        assertThat(subscribed).isFalse();
+        assertThat(meterRegistry.get("adaptive.timeout.expirations").tag("cause", "deadline")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void execute_deadlineShorterThanTimeout_boundsTheCall() {
+        StepVerifier.create(limiter.execute(Mono.never())
+                        .contextWrite(ctx -> ctx.put(RequestDeadlineFilter.DEADLINE_CONTEXT_KEY,
+                                Duration.ofMillis(20).toNanos())))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofMillis(500));
+
+        assertThat(meterRegistry.get("adaptive.timeout.expirations").tag("cause", "deadline")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(limiter.getTimeout()).isEqualTo(Duration.ofMillis(1000));
+    }
+
+    @Test
+    void execute_nonAdaptive_isNotCutShortByDeadline() {
+        settings.setAdaptive(false);
+        settings.setCeilingMillis(100);
+        limiter = new AdaptiveTimeLimiter("directoryPasswordWrites", settings, meterRegistry, nanos::get);
+
+        StepVerifier.create(limiter.execute(Mono.never())
+                        .contextWrite(ctx -> ctx.put(RequestDeadlineFilter.DEADLINE_CONTEXT_KEY,
+                                Duration.ofMillis(20).toNanos())))
+                .expectErrorMessage("directoryPasswordWrites call timed out after 100 ms")
+                .verify(Duration.ofMillis(500));
+
+        assertThat(meterRegistry.get("adaptive.timeout.expirations").tag("name", "directoryPasswordWrites")
+                .tag("cause", "deadline").counter().count()).isZero();
+    }
+
+    private void recordMillis(int times, long millis) {
+        for (int i = 0; i < times; i++) {
+            limiter.record(Duration.ofMillis(millis).toNanos());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.company.security.shared.infrastructure.config.resilience;
+
+import com.company.security.shared.infrastructure.properties.RetryPolicyProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.core.functions.Either;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BudgetedRetryIntervalTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private RetryPolicyProperties.Settings settings;
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        settings = new RetryPolicyProperties.Settings();
+        settings.setInitialBackoffMillis(100);
+        settings.setMaxBackoffMillis(1000);
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = CircuitBreaker.ofDefaults("directoryService");
+    }
+
+    @Test
+    void apply_usesFullJitterOverCappedExponentialBackoff() {
+        BudgetedRetryInterval interval = interval(new RetryBudget(0.1, 0, 10, nanos::get), () -> 0.5);
+
+        assertThat(interval.apply(1, failure())).isEqualTo(50L);
+        assertThat(interval.apply(3, failure())).isEqualTo(200L);
+        assertThat(interval.apply(10, failure())).isEqualTo(500L);
+    }
+
+    @Test
+    void apply_whenBudgetIsExhausted_refusesRetry() {
+        BudgetedRetryInterval interval = interval(new RetryBudget(0.1, 0, 2, nanos::get), () -> 0.5);
+
+        assertThat(interval.apply(1, failure())).isPositive();
+        assertThat(interval.apply(1, failure())).isPositive();
+        assertThat(interval.apply(1, failure())).isEqualTo(BudgetedRetryInterval.NO_RETRY);
+
+        assertThat(meterRegistry.get("retry.budget.attempts").tag("outcome", "spent").counter().count())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.get("retry.budget.attempts").tag("outcome", "budget_denied").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void apply_budgetIsRefilledByCallsThroughCircuitBreaker() {
+        RetryBudget budget = new RetryBudget(0.1, 0, 1, nanos::get);
+        BudgetedRetryInterval interval = interval(budget, () -> 0.5);
+        assertThat(interval.apply(1, failure())).isPositive();
+        assertThat(interval.apply(1, failure())).isEqualTo(BudgetedRetryInterval.NO_RETRY);
+
+        for (int i = 0; i < 11; i++) {
+            circuitBreaker.executeSupplier(() -> "ok");
+        }
+
+        assertThat(interval.apply(1, failure())).isPositive();
+    }
+
+    @Test
+    void apply_whileCircuitBreakerIsHalfOpen_suppressesRetry() {
+        BudgetedRetryInterval interval = interval(new RetryBudget(0.1, 0, 10, nanos::get), () -> 0.5);
+        circuitBreaker.transitionToOpenState();
+        circuitBreaker.transitionToHalfOpenState();
+
+        assertThat(interval.apply(1, failure())).isEqualTo(BudgetedRetryInterval.NO_RETRY);
+        assertThat(meterRegistry.get("retry.budget.attempts").tag("outcome", "half_open_suppressed")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void retryOperator_stopsRetryingWhenBudgetRefuses() {
+        BudgetedRetryInterval interval = interval(new RetryBudget(0.1, 0, 1, nanos::get), () -> 0.0);
+        Retry retry = Retry.of("directoryService", RetryConfig.custom()
+                .maxAttempts(5)
+                .retryExceptions(IOException.class)
+                .intervalBiFunction(interval)
+                .build());
+        AtomicInteger attempts = new AtomicInteger();
+
+        Mono<String> call = Mono.<String>defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(new IOException("connection reset"));
+        }).transformDeferred(RetryOperator.of(retry));
+
+        StepVerifier.create(call).expectError(IOException.class).verify();
+        assertThat(attempts.get()).isEqualTo(2);
+    }
+
+    @Test
+    void budget_refillsAtMinimumRatePerSecond() {
+        RetryBudget budget = new RetryBudget(0.1, 2, 10, nanos::get);
+        while (budget.tryAcquireRetry()) {
+            // drain
+        }
+
+        nanos.addAndGet(1_000_000_000L);
+
+        assertThat(budget.balance()).isEqualTo(2.0);
+    }
+
+    private BudgetedRetryInterval interval(RetryBudget budget, DoubleSupplier random) {
+        return new BudgetedRetryInterval("directoryService", settings, budget, circuitBreaker, meterRegistry, random);
+    }
+
+    private static Either<Throwable, Object> failure() {
+        return Either.left(new IOException("connection reset"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.company.security.shared.infrastructure.config.web;
+
+import com.company.security.shared.infrastructure.properties.HttpClientProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebClientConfigTest {
+
+    private MockWebServer slowServer;
+    private MockWebServer fastServer;
+    private SimpleMeterRegistry meterRegistry;
+    private ConnectionProvider clientServicePool;
+    private ConnectionProvider keycloakPool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        slowServer = new MockWebServer();
+        slowServer.start();
+        fastServer = new MockWebServer();
+        fastServer.start();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (clientServicePool != null) {
+            clientServicePool.dispose();
+        }
+        if (keycloakPool != null) {
+            keycloakPool.dispose();
+        }
+        slowServer.shutdown();
+        fastServer.shutdown();
+    }
+
+    @Test
+    void connector_appliesResponseTimeoutAndExportsIt() {
+        slowServer.enqueue(new MockResponse().setBody("late").setHeadersDelay(1, TimeUnit.SECONDS));
+        clientServicePool = WebClientConfig.connectionProvider("client-service", new HttpClientProperties.Pool());
+        WebClient webClient = WebClient.builder()
+                .clientConnector(WebClientConfig.connector("client-service", clientServicePool,
+                        new HttpClientProperties.Pool(), slowServer.url("/").toString(), 1000, 200, meterRegistry))
+                .baseUrl(slowServer.url("/").toString())
+                .build();
+
+        StepVerifier.create(webClient.get().retrieve().bodyToMono(String.class))
+                .expectError(WebClientRequestException.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(meterRegistry.get("http.client.timeout").tag("downstream", "client-service")
+                .tag("type", "response").timeGauge().value(TimeUnit.MILLISECONDS)).isEqualTo(200.0);
+    }
+
+    @Test
+    void saturatedClientServicePool_doesNotBlockKeycloakPool() {
+        slowServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        fastServer.enqueue(new MockResponse().setBody("ok"));
+
+        HttpClientProperties.Pool smallPool = new HttpClientProperties.Pool();
+        smallPool.setMaxConnections(1);
+        smallPool.setPendingAcquireMaxCount(1);
+        smallPool.setPendingAcquireTimeoutMillis(200);
+        clientServicePool = WebClientConfig.connectionProvider("client-service", smallPool);
+        keycloakPool = WebClientConfig.connectionProvider("keycloak", new HttpClientProperties.Pool());
+
+        WebClient clientService = WebClient.builder()
+                .clientConnector(WebClientConfig.connector("client-service", clientServicePool, smallPool,
+                        slowServer.url("/").toString(), 1000, 5000, meterRegistry))
+                .baseUrl(slowServer.url("/").toString())
+                .build();
+        WebClient keycloak = WebClient.builder()
+                .clientConnector(WebClientConfig.connector("keycloak", keycloakPool, new HttpClientProperties.Pool(),
+                        fastServer.url("/").toString(), 1000, 1000, meterRegistry))
+                .baseUrl(fastServer.url("/").toString())
+                .build();
+
+        clientService.get().retrieve().bodyToMono(String.class).subscribe(body -> { }, error -> { });
+
+        StepVerifier.create(clientService.get().retrieve().bodyToMono(String.class))
+                .expectError()
+                .verify(Duration.ofSeconds(5));
+        StepVerifier.create(keycloak.get().retrieve().bodyToMono(String.class))
+                .expectNext("ok")
+                .verifyComplete();
+    }
+}
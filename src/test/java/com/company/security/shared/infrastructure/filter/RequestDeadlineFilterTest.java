@@ -0,0 +1,73 @@
+package com.company.security.shared.infrastructure.filter;
+
+import com.company.security.shared.infrastructure.properties.AdaptiveTimeoutProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestDeadlineFilterTest {
+
+    private AdaptiveTimeoutProperties properties;
+    private final AtomicReference<Long> captured = new AtomicReference<>();
+    private final WebFilterChain chain = e -> Mono.deferContextual(ctx -> {
+        captured.set(ctx.getOrDefault(RequestDeadlineFilter.DEADLINE_CONTEXT_KEY, null));
+        return Mono.empty();
+    });
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdaptiveTimeoutProperties();
+        properties.getRequestDeadline().setDefaultMillis(10_000);
+        properties.getRequestDeadline().setMaxMillis(30_000);
+    }
+
+    @Test
+    void filter_withoutHeader_appliesDefaultBudget() {
+        assertBudget(MockServerHttpRequest.get("/test").build(), Duration.ofSeconds(10));
+    }
+
+    @Test
+    void filter_withHeader_usesCallerBudgetCappedAtMaximum() {
+        assertBudget(MockServerHttpRequest.get("/test").header("X-Request-Timeout-Ms", "500").build(),
+                Duration.ofMillis(500));
+        assertBudget(MockServerHttpRequest.get("/test").header("X-Request-Timeout-Ms", "600000").build(),
+                Duration.ofSeconds(30));
+    }
+
+    @Test
+    void filter_withInvalidHeader_fallsBackToDefault() {
+        assertBudget(MockServerHttpRequest.get("/test").header("X-Request-Timeout-Ms", "soon").build(),
+                Duration.ofSeconds(10));
+    }
+
+    @Test
+    void filter_withDefaultDisabled_setsNoDeadline() {
+        properties.getRequestDeadline().setDefaultMillis(0);
+
+        run(MockServerHttpRequest.get("/test").build());
+
+        assertThat(captured.get()).isNull();
+    }
+
+    private void assertBudget(MockServerHttpRequest request, Duration budget) {
+        long before = System.nanoTime();
+        run(request);
+        long after = System.nanoTime();
+
+        assertThat(captured.get()).isBetween(before + budget.toNanos(), after + budget.toNanos());
+    }
+
+    private void run(MockServerHttpRequest request) {
+        RequestDeadlineFilter filter = new RequestDeadlineFilter(properties);
+        StepVerifier.create(filter.filter(MockServerWebExchange.from(request), chain)).verifyComplete();
+    }
+}